@@ -0,0 +1,102 @@
+package com.trendfeed.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trendfeed.backend.dto.github.RepoMeta;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * /search/repositories 100건 페이지 디코딩: Map 트리(기존 방식) vs GitHubJsonDecoder 스트리밍.
+ * 페이지당 할당량은 gc 프로파일러의 gc.alloc.rate.norm 으로 비교한다 (./gradlew jmh).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchPageDecodingBenchmark {
+
+    private static final int ITEMS = 100;
+    private static final int CHUNK = 8 * 1024; // 네트워크에서 나눠 도착하는 크기 흉내
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final DefaultDataBufferFactory buffers = DefaultDataBufferFactory.sharedInstance;
+
+    private byte[] page;
+
+    @Setup
+    public void setUp() {
+        StringBuilder sb = new StringBuilder("{\"total_count\":123456,\"incomplete_results\":false,\"items\":[");
+        for (int i = 0; i < ITEMS; i++) {
+            if (i > 0) sb.append(',');
+            sb.append(item(i));
+        }
+        page = sb.append("]}").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public List<Map<String, Object>> mapTree() throws Exception {
+        Map<String, Object> result = mapper.readValue(page, Map.class);
+        return (List<Map<String, Object>>) result.get("items");
+    }
+
+    @Benchmark
+    public List<RepoMeta> streaming() {
+        return GitHubJsonDecoder.searchItems(chunks(), total -> { }).collectList().block();
+    }
+
+    private Flux<DataBuffer> chunks() {
+        List<DataBuffer> out = new ArrayList<>();
+        for (int off = 0; off < page.length; off += CHUNK) {
+            int len = Math.min(CHUNK, page.length - off);
+            out.add(buffers.wrap(ByteBuffer.wrap(page, off, len).slice()));
+        }
+        return Flux.fromIterable(out);
+    }
+
+    /*
+     * 실제 검색 응답 item 과 비슷한 모양 (owner/license/permissions/topics 등 쓰지 않는 필드 포함)
+     */
+    private static String item(int i) {
+        String owner = "owner" + i;
+        String name = "repo-" + i;
+        String full = owner + "/" + name;
+        return "{\"id\":" + (100000 + i) + ",\"node_id\":\"R_kgDO" + i + "\",\"name\":\"" + name + "\""
+                + ",\"full_name\":\"" + full + "\",\"private\":false"
+                + ",\"owner\":{\"login\":\"" + owner + "\",\"id\":" + (900000 + i)
+                + ",\"node_id\":\"U_kgDO" + i + "\",\"avatar_url\":\"https://avatars.githubusercontent.com/u/" + i + "?v=4\""
+                + ",\"url\":\"https://api.github.com/users/" + owner + "\",\"html_url\":\"https://github.com/" + owner + "\""
+                + ",\"type\":\"User\",\"site_admin\":false}"
+                + ",\"html_url\":\"https://github.com/" + full + "\""
+                + ",\"description\":\"A fairly typical repository description number " + i + " with some words\""
+                + ",\"fork\":false,\"url\":\"https://api.github.com/repos/" + full + "\""
+                + ",\"created_at\":\"2024-03-01T12:00:00Z\",\"updated_at\":\"2025-01-02T03:04:05Z\""
+                + ",\"pushed_at\":\"2025-01-01T00:00:00Z\",\"homepage\":null,\"size\":" + (1000 + i)
+                + ",\"stargazers_count\":" + (50000 - i) + ",\"watchers_count\":" + (50000 - i)
+                + ",\"language\":\"Java\",\"forks_count\":" + i + ",\"open_issues_count\":3"
+                + ",\"license\":{\"key\":\"mit\",\"name\":\"MIT License\",\"spdx_id\":\"MIT\",\"url\":null,\"node_id\":\"MDc6TGljZW5zZTEz\"}"
+                + ",\"topics\":[\"java\",\"spring\",\"crawler\"],\"visibility\":\"public\",\"default_branch\":\"main\""
+                + ",\"permissions\":{\"admin\":false,\"maintain\":false,\"push\":false,\"triage\":false,\"pull\":true}"
+                + ",\"score\":1.0}";
+    }
+}
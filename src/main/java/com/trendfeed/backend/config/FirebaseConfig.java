@@ -7,11 +7,13 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
 
 import java.io.FileInputStream;
 import java.io.IOException;
 
 @Configuration
+@Profile("!batch")   // 토큰 검증은 웹 요청에서만 (batch 는 자격 증명 파일 없이 뜬다)
 @Slf4j
 public class FirebaseConfig {
     
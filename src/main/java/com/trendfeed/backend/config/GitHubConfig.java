@@ -1,37 +1,52 @@
 package com.trendfeed.backend.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.client.reactive.ReactorClientHttpConnector;
-import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.netty.http.client.HttpClient;
 
 import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
 
 @Configuration
 public class GitHubConfig {
 
+    @Bean
+    public GitHubRateLimitFilter githubRateLimitFilter(
+            @Value("${github.tokens:}") String tokens,          // 콤마로 구분된 토큰 풀
+            @Value("${github.token:}") String token,            // 단일 토큰 (tokens 가 비어 있을 때)
+            @Value("${github.ratelimit.reserve:50}") int reserve,
+            @Value("${github.ratelimit.low-priority-reserve:500}") int lowPriorityReserve,  // README 큐 등 LOW 우선순위
+            @Value("${github.ratelimit.max-retries:3}") int maxRetries,
+            MeterRegistry meterRegistry
+    ) {
+        List<String> pool = Arrays.stream((tokens.isBlank() ? token : tokens).split(","))
+                .map(String::trim)
+                .filter(t -> !t.isEmpty())
+                .distinct()
+                .toList();
+        return new GitHubRateLimitFilter(pool, reserve, lowPriorityReserve, maxRetries, meterRegistry);
+    }
+
     @Bean
     public WebClient githubWebClient(
-            @Value("${github.base.url}") String baseUrl,
-            @Value("${github.token}") String token
+            @Value("${github.api.url:https://api.github.com}") String baseUrl,
+            GitHubRateLimitFilter rateLimitFilter
     ) {
         HttpClient httpClient = HttpClient.create()
                 .responseTimeout(Duration.ofSeconds(30));
 
         return WebClient.builder()
-                .baseUrl(baseUrl)
+                .baseUrl(baseUrl.trim())
                 .clientConnector(new ReactorClientHttpConnector(httpClient))
-                .defaultHeader("Authorization", "Bearer " + token)
                 .defaultHeader("Accept", "application/vnd.github+json")
                 .defaultHeader("User-Agent", "trendfeed-crawler")
-                // 간단 로깅 필터
-                .filter(ExchangeFilterFunction.ofResponseProcessor(clientResponse -> {
-                    // 필요 시 상태 코드 로깅 등 추가
-                    return reactor.core.publisher.Mono.just(clientResponse);
-                }))
+                // 토큰 풀 + 레이트리밋 스케줄링 (Authorization 헤더는 필터가 붙인다)
+                .filter(rateLimitFilter)
                 .build();
     }
 }
@@ -0,0 +1,370 @@
+package com.trendfeed.backend.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GitHub 요청 스케줄러 (githubWebClient 필터).
+ *
+ *  - 여러 토큰을 라운드로빈으로 돌려가며 Authorization 헤더를 붙인다
+ *  - 응답의 X-RateLimit-Limit/Remaining/Reset/Resource 로 토큰×리소스(core/search/graphql)별 잔여량 추적
+ *  - 잔여량이 reserve 이하가 되면 그 토큰은 reset 시각까지 쉬고, 모든 토큰이 쉬면 가장 빠른 reset 까지 대기
+ *  - 요청 attribute PRIORITY_ATTRIBUTE=LOW (README 큐 등) 는 더 큰 lowPriorityReserve 에서 멈춘다
+ *    → 같은 쿼터를 쓰되 크롤 본 작업 몫을 남겨 둔다
+ *  - 403/429 레이트리밋(Retry-After, remaining=0, secondary limit)은 다른 토큰으로 재시도.
+ *    Retry-After 없이 remaining > 0 인 403 은 본문의 "secondary rate limit" 문구로 가려서 60초 쉰다
+ *  - reset 시각이 지나면 한도를 한 번만 복구하고 그 뒤 요청은 거기서부터 차감 (다음 응답 헤더가 실제 값으로 덮음)
+ *  - 304(조건부 요청 hit)는 쿼터를 쓰지 않은 것으로 취급
+ *  - 잔여량/한도/리셋까지 남은 초를 github.ratelimit.* 게이지로 노출
+ *  - 호출(재시도 포함) 하나마다 github.api.latency{endpoint} 히스토그램과
+ *    github.api.responses{endpoint, status} 카운터를 기록 (endpoint = search|repo|readme|graphql|other,
+ *    연결 실패 등 응답이 없으면 status=IO_ERROR)
+ */
+public class GitHubRateLimitFilter implements ExchangeFilterFunction {
+
+    private static final Logger log = LoggerFactory.getLogger(GitHubRateLimitFilter.class);
+
+    // 헤더 없이 온 429 / secondary limit 403 에 대한 기본 대기 시간
+    private static final long DEFAULT_BLOCK_MILLIS = 60_000L;
+
+    // Retry-After 없이 remaining > 0 으로 오는 secondary rate limit 403 의 본문 문구
+    private static final String SECONDARY_LIMIT_MESSAGE = "secondary rate limit";
+
+    private final List<String> tokens;
+    private final int reserve;
+    private final int lowPriorityReserve;
+    private final int maxRetries;
+    private final MeterRegistry registry;
+
+    private final Map<String, QuotaState> states = new ConcurrentHashMap<>();
+    private final Map<String, Counter> throttled = new ConcurrentHashMap<>();
+    private final Map<String, Timer> latency = new ConcurrentHashMap<>();
+    private final Map<String, Counter> responses = new ConcurrentHashMap<>();
+    private int cursor = 0;
+
+    /**
+     * 요청 우선순위 (ClientRequest attribute PRIORITY_ATTRIBUTE, 없으면 NORMAL)
+     */
+    public enum Priority { NORMAL, LOW }
+
+    public static final String PRIORITY_ATTRIBUTE = GitHubRateLimitFilter.class.getName() + ".priority";
+
+    public GitHubRateLimitFilter(List<String> tokens, int reserve, int lowPriorityReserve, int maxRetries,
+                                 MeterRegistry registry) {
+        // 토큰이 없으면 익명 호출 1개로 취급
+        this.tokens = tokens.isEmpty() ? java.util.Collections.singletonList(null) : List.copyOf(tokens);
+        this.reserve = reserve;
+        this.lowPriorityReserve = Math.max(reserve, lowPriorityReserve);
+        this.maxRetries = maxRetries;
+        this.registry = registry;
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        boolean low = request.attribute(PRIORITY_ATTRIBUTE).map(Priority.LOW::equals).orElse(false);
+        return exchange(request, next, resourceOf(request.url()), endpointOf(request.url()),
+                low ? lowPriorityReserve : reserve, 0);
+    }
+
+    /**
+     * 현재 토큰별 잔여량 (리소스별)
+     */
+    public List<QuotaState> snapshot() {
+        return new ArrayList<>(states.values());
+    }
+
+    private Mono<ClientResponse> exchange(ClientRequest request, ExchangeFunction next,
+                                          String resource, String endpoint, int reserve, int attempt) {
+        return acquire(resource, reserve).flatMap(state -> timed(endpoint, next.exchange(authorize(request, state.token)))
+                .flatMap(resp -> {
+                    HttpHeaders headers = resp.headers().asHttpHeaders();
+                    int status = resp.statusCode().value();
+                    if (!QuotaState.maybeSecondaryLimit(headers, status)) {
+                        return handle(request, next, resource, endpoint, reserve, attempt, state, resp,
+                                state.update(headers, status, false));
+                    }
+                    // 헤더만으로는 권한 오류와 구분이 안 된다 → 본문 문구를 보고, 응답은 본문을 되살려 넘긴다
+                    return resp.bodyToMono(String.class).defaultIfEmpty("").flatMap(body -> {
+                        boolean secondary = body.toLowerCase(Locale.ROOT).contains(SECONDARY_LIMIT_MESSAGE);
+                        return handle(request, next, resource, endpoint, reserve, attempt, state,
+                                resp.mutate().body(body).build(), state.update(headers, status, secondary));
+                    });
+                }));
+    }
+
+    /*
+     * 레이트리밋으로 거절됐으면(waitMillis >= 0) 다른 토큰으로 재시도, 아니면 응답을 그대로
+     */
+    private Mono<ClientResponse> handle(ClientRequest request, ExchangeFunction next, String resource, String endpoint,
+                                        int reserve, int attempt, QuotaState state, ClientResponse resp, long waitMillis) {
+        if (waitMillis < 0 || attempt >= maxRetries) {
+            return Mono.just(resp);
+        }
+        log.info("GitHub rate limited: token={}, resource={}, blocked {}s, retry {}/{}",
+                state.label, resource, waitMillis / 1000, attempt + 1, maxRetries);
+        return resp.releaseBody().then(exchange(request, next, resource, endpoint, reserve, attempt + 1));
+    }
+
+    /*
+     * 응답 헤더가 도착할 때까지의 시간 + 상태 코드 (쿼터 대기 시간은 제외)
+     */
+    private Mono<ClientResponse> timed(String endpoint, Mono<ClientResponse> call) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return call
+                    .doOnNext(resp -> recordCall(endpoint, Integer.toString(resp.statusCode().value()), start))
+                    .doOnError(ex -> recordCall(endpoint, "IO_ERROR", start));
+        });
+    }
+
+    private void recordCall(String endpoint, String status, long startNanos) {
+        latency.computeIfAbsent(endpoint, e -> Timer.builder("github.api.latency")
+                        .description("GitHub API 호출 지연 (응답 헤더까지)")
+                        .tag("endpoint", e)
+                        .publishPercentileHistogram()
+                        .register(registry))
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        responses.computeIfAbsent(endpoint + "|" + status, key -> Counter.builder("github.api.responses")
+                        .description("GitHub API 응답 수 (상태 코드별)")
+                        .tag("endpoint", endpoint).tag("status", status)
+                        .register(registry))
+                .increment();
+    }
+
+    /*
+     * 라운드로빈으로 지금 쓸 수 있는 토큰을 고른다. 없으면 가장 빨리 풀리는 시각까지 기다린다.
+     */
+    private Mono<QuotaState> acquire(String resource, int reserve) {
+        return Mono.defer(() -> {
+            long now = System.currentTimeMillis();
+            long earliest = Long.MAX_VALUE;
+
+            synchronized (this) {
+                int n = tokens.size();
+                int start = cursor;
+                cursor = (cursor + 1) % n;
+                for (int i = 0; i < n; i++) {
+                    int idx = (start + i) % n;
+                    QuotaState s = state(idx, resource);
+                    long readyAt = s.readyAt(now, reserve);
+                    if (readyAt <= now) {
+                        s.take();
+                        return Mono.just(s);
+                    }
+                    earliest = Math.min(earliest, readyAt);
+                }
+            }
+
+            throttledCounter(resource).increment();
+            long waitMillis = Math.max(1, earliest - now);
+            log.debug("GitHub quota exhausted for all tokens ({}), holding {}ms", resource, waitMillis);
+            return Mono.delay(Duration.ofMillis(waitMillis)).then(acquire(resource, reserve));
+        });
+    }
+
+    private QuotaState state(int tokenIdx, String resource) {
+        String label = "token-" + tokenIdx;
+        return states.computeIfAbsent(label + "|" + resource, key -> {
+            QuotaState s = new QuotaState(tokens.get(tokenIdx), label, resource);
+            Gauge.builder("github.ratelimit.remaining", s, q -> q.remaining)
+                    .description("남은 GitHub API 호출 수 (-1: 아직 모름)")
+                    .tag("token", label).tag("resource", resource)
+                    .register(registry);
+            Gauge.builder("github.ratelimit.limit", s, q -> q.limit)
+                    .tag("token", label).tag("resource", resource)
+                    .register(registry);
+            Gauge.builder("github.ratelimit.reset.seconds", s,
+                            q -> Math.max(0, q.resetAtMillis - System.currentTimeMillis()) / 1000.0)
+                    .tag("token", label).tag("resource", resource)
+                    .register(registry);
+            return s;
+        });
+    }
+
+    private Counter throttledCounter(String resource) {
+        return throttled.computeIfAbsent(resource, r -> Counter.builder("github.ratelimit.throttled")
+                .description("모든 토큰이 소진되어 요청을 보류한 횟수")
+                .tag("resource", r)
+                .register(registry));
+    }
+
+    private static ClientRequest authorize(ClientRequest request, String token) {
+        if (token == null) return request;
+        return ClientRequest.from(request)
+                .headers(h -> h.setBearerAuth(token))
+                .build();
+    }
+
+    /*
+     * 지표용 호출 종류
+     */
+    static String endpointOf(URI url) {
+        String path = url.getPath();
+        if (path == null) return "other";
+        if (path.startsWith("/search")) return "search";
+        if (isGraphql(path)) return "graphql";
+        if (path.startsWith("/repos/")) {
+            return path.endsWith("/readme") ? "readme" : "repo";
+        }
+        return "other";
+    }
+
+    static String resourceOf(URI url) {
+        String path = url.getPath();
+        if (path == null) return "core";
+        if (path.startsWith("/search")) return "search";
+        if (isGraphql(path)) return "graphql";
+        return "core";
+    }
+
+    // api.github.com/graphql 과 GHES /api/graphql
+    private static boolean isGraphql(String path) {
+        return path.startsWith("/graphql") || path.endsWith("/graphql");
+    }
+
+    /**
+     * 토큰 하나 × 리소스 하나의 쿼터 상태
+     */
+    public static final class QuotaState {
+        private final String token;
+        private final String label;
+        private final String resource;
+
+        private volatile int limit = -1;
+        private volatile int remaining = -1;       // -1: 아직 응답을 못 받아서 모름
+        private volatile long resetAtMillis = 0;
+        private volatile long blockedUntilMillis = 0;
+
+        QuotaState(String token, String label, String resource) {
+            this.token = token;
+            this.label = label;
+            this.resource = resource;
+        }
+
+        public String getLabel() { return label; }
+        public String getResource() { return resource; }
+        public int getLimit() { return limit; }
+        public int getRemaining() { return remaining; }
+        public long getResetAtMillis() { return resetAtMillis; }
+
+        /*
+         * 이 토큰으로 요청을 보낼 수 있는 시각 (now 이하면 바로 가능)
+         */
+        synchronized long readyAt(long now, int reserve) {
+            if (blockedUntilMillis > now) {
+                return blockedUntilMillis;
+            }
+            if (remaining >= 0 && resetAtMillis <= now) {
+                // reset 시각이 지났으면 한도를 한 번만 복구하고 다음 창의 reset 을 어림잡아 둔다
+                // (이후 take() 는 여기서부터 차감, 실제 값은 다음 응답 헤더가 덮어씀)
+                remaining = limit;
+                resetAtMillis = now + windowMillis(resource);
+            }
+            // 한도가 작은 리소스(search 30/분)는 reserve 를 한도의 10% 로 제한
+            int effectiveReserve = limit > 0 ? Math.min(reserve, limit / 10) : reserve;
+            if (remaining >= 0 && remaining <= effectiveReserve && resetAtMillis > now) {
+                return resetAtMillis;
+            }
+            return now;
+        }
+
+        /*
+         * 응답 전까지 동시 요청이 한도를 넘지 않도록 미리 1 차감
+         */
+        synchronized void take() {
+            if (remaining > 0) remaining--;
+        }
+
+        /*
+         * 쿼터 창 길이 (reset 이 지난 뒤 다음 reset 을 헤더로 받기 전까지의 어림값)
+         */
+        private static long windowMillis(String resource) {
+            return "search".equals(resource) ? 60_000L : 3_600_000L;
+        }
+
+        /*
+         * remaining > 0 인 403 (Retry-After 없음): 권한 오류이거나 secondary rate limit → 본문으로 가린다
+         */
+        static boolean maybeSecondaryLimit(HttpHeaders h, int status) {
+            if (status != 403 || h.getFirst("Retry-After") != null) return false;
+            Integer hRemaining = parseInt(h.getFirst("X-RateLimit-Remaining"));
+            return hRemaining == null || hRemaining > 0;
+        }
+
+        /*
+         * 응답 헤더 반영. 레이트리밋으로 거절됐으면 기다릴 시간(ms), 아니면 -1.
+         * secondary 는 본문에 secondary rate limit 문구가 있던 403
+         */
+        synchronized long update(HttpHeaders h, int status, boolean secondary) {
+            long now = System.currentTimeMillis();
+
+            Integer hLimit = parseInt(h.getFirst("X-RateLimit-Limit"));
+            Integer hRemaining = parseInt(h.getFirst("X-RateLimit-Remaining"));
+            Long hReset = parseLong(h.getFirst("X-RateLimit-Reset"));
+            // reset 이 이미 지난 헤더는 지난 창의 값 (reset 전에 보낸 요청의 늦은 응답) → 무시
+            boolean stale = hReset != null && hReset * 1000L <= now;
+            if (!stale) {
+                if (hLimit != null) limit = hLimit;
+                if (hRemaining != null) remaining = hRemaining;
+                if (hReset != null) resetAtMillis = hReset * 1000L;
+            }
+
+            // 304 는 primary rate limit 을 차감하지 않으므로 take() 로 미리 뺀 1 을 되돌린다
+            if (status == 304 && hRemaining == null && remaining >= 0 && remaining < limit) {
+                remaining++;
+            }
+
+            if (status != 403 && status != 429) {
+                return -1;
+            }
+
+            Long retryAfter = parseLong(h.getFirst("Retry-After"));
+            if (retryAfter != null) {
+                // secondary rate limit
+                blockedUntilMillis = now + retryAfter * 1000L;
+            } else if (hRemaining != null && hRemaining == 0 && resetAtMillis > now) {
+                blockedUntilMillis = resetAtMillis;
+            } else if (status == 429 || secondary) {
+                // 헤더 없는 429 / remaining 이 남은 secondary limit 403 은 최소 60초
+                blockedUntilMillis = now + DEFAULT_BLOCK_MILLIS;
+            } else {
+                // 권한 없음 등 레이트리밋이 아닌 403
+                return -1;
+            }
+            return blockedUntilMillis - now;
+        }
+
+        private static Integer parseInt(String v) {
+            Long l = parseLong(v);
+            return l == null ? null : l.intValue();
+        }
+
+        private static Long parseLong(String v) {
+            if (v == null) return null;
+            try {
+                return Long.valueOf(v.trim());
+            } catch (NumberFormatException ignore) {
+                return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.trendfeed.backend.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * @Scheduled 활성화 (크롤 cron, README 점검, 웹훅 재시도 등).
+ * batch 프로필은 크롤 한 번 하고 내려가므로 스케줄을 켜지 않는다 (CrawlBatchRunner).
+ */
+@Configuration
+@Profile("!batch")
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -2,8 +2,11 @@ package com.trendfeed.backend.config;
 
 import com.trendfeed.backend.security.FirebaseAuthenticationFilter;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
@@ -17,11 +20,15 @@ import java.util.Arrays;
 import java.util.List;
 
 @Configuration
+@Profile("!batch")   // batch 는 웹 서버 없이 뜬다
 @EnableWebSecurity
 @RequiredArgsConstructor
 public class SecurityConfig {
     
     private final FirebaseAuthenticationFilter firebaseAuthenticationFilter;
+
+    @Value("${management.server.port:}")   // 따로 띄운 내부 관리 포트 (비우면 앱 포트와 같음)
+    private Integer managementPort;
     
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
@@ -38,11 +45,22 @@ public class SecurityConfig {
                 // Swagger/OpenAPI
                 .requestMatchers("/swagger-ui/**", "/v3/api-docs/**", "/swagger-ui.html").permitAll()
                 
-                // Actuator
-                .requestMatchers("/actuator/**").permitAll()
+                // Actuator: health/info 만 공개. 지표는 내부 관리 포트로 들어온 요청(스크레이퍼)이나 관리자만
+                .requestMatchers("/actuator/health", "/actuator/health/**", "/actuator/info").permitAll()
+                .requestMatchers(request -> managementPort != null && managementPort > 0 && request.getLocalPort() == managementPort).permitAll()
+                .requestMatchers("/actuator/**").hasRole("ADMIN")
                 
                 // User endpoints (authenticated)
                 .requestMatchers("/api/user/**").authenticated()
+
+                // 운영용 쓰기/무거운 작업: 관리자만 (FirebaseAuthenticationFilter 가 ROLE_ADMIN 부여)
+                .requestMatchers(HttpMethod.POST, "/api/github/rescore").hasRole("ADMIN")
+                .requestMatchers(HttpMethod.POST, "/api/github/gharchive/import").hasRole("ADMIN")
+                .requestMatchers(HttpMethod.POST, "/api/github/backtest").hasRole("ADMIN")
+                .requestMatchers(HttpMethod.POST, "/api/github/readme/migrate-column").hasRole("ADMIN")
+                // 전체 크롤 시작 + 작업 상태/SSE (상태에 예외 문자열이 그대로 나감)
+                .requestMatchers(HttpMethod.POST, "/api/github/crawl").hasRole("ADMIN")
+                .requestMatchers(HttpMethod.GET, "/api/github/crawl/jobs/**").hasRole("ADMIN")
                 
                 // Default: permit all for now (can change to authenticated later)
                 .anyRequest().permitAll()
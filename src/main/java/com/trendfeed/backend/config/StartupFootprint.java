@@ -0,0 +1,69 @@
+package com.trendfeed.backend.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+
+/**
+ * 기동 비용 기록: 컨텍스트가 뜬 직후(러너 실행 전) JVM 가동 시간, 만들어진 빈 수, 힙/비힙 사용량을 한 줄 로그로.
+ * 웹 앱과 batch 프로필이 같은 줄을 남기므로 둘을 그대로 비교할 수 있다 (CrawlBatchRunner 요약에도 들어감).
+ */
+@Component
+public class StartupFootprint {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupFootprint.class);
+
+    private final ConfigurableListableBeanFactory beanFactory;
+    private volatile Snapshot startup;
+
+    /**
+     * startupMillis = JVM 시작부터 컨텍스트 준비까지. 빈 수는 만들어진 싱글턴 / 정의된 빈.
+     * peakHeapBytes 는 힙 풀별 최대치의 합 (풀마다 최대 시점이 달라 실제 최대보다 조금 클 수 있음)
+     */
+    public record Snapshot(long startupMillis, int beansCreated, int beansDefined,
+                           long heapUsedBytes, long heapCommittedBytes, long nonHeapUsedBytes,
+                           long peakHeapBytes, int threads) {}
+
+    public StartupFootprint(ConfigurableListableBeanFactory beanFactory) {
+        this.beanFactory = beanFactory;
+    }
+
+    @EventListener(ApplicationStartedEvent.class)
+    public void started() {
+        Snapshot s = capture();
+        startup = s;
+        log.info("started in {} ms: {}/{} beans created, heap {} MB used / {} MB committed, non-heap {} MB, {} threads",
+                s.startupMillis(), s.beansCreated(), s.beansDefined(),
+                s.heapUsedBytes() >> 20, s.heapCommittedBytes() >> 20, s.nonHeapUsedBytes() >> 20, s.threads());
+    }
+
+    /**
+     * 기동 직후 값 (아직 기동 전이면 null)
+     */
+    public Snapshot startup() {
+        return startup;
+    }
+
+    public Snapshot capture() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        long peakHeap = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.getPeakUsage() != null) {
+                peakHeap += pool.getPeakUsage().getUsed();
+            }
+        }
+        return new Snapshot(ManagementFactory.getRuntimeMXBean().getUptime(),
+                beanFactory.getSingletonCount(), beanFactory.getBeanDefinitionCount(),
+                memory.getHeapMemoryUsage().getUsed(), memory.getHeapMemoryUsage().getCommitted(),
+                memory.getNonHeapMemoryUsage().getUsed(), peakHeap,
+                ManagementFactory.getThreadMXBean().getThreadCount());
+    }
+}
@@ -1,25 +1,73 @@
 package com.trendfeed.backend.controller;
 
 import com.trendfeed.backend.entity.GitHubEntity;
+import com.trendfeed.backend.exception.CustomException;
+import com.trendfeed.backend.exception.ErrorCode;
+import com.trendfeed.backend.service.CrawlJobService;
+import com.trendfeed.backend.service.GhArchiveImporter;
 import com.trendfeed.backend.service.GitHubService;
+import com.trendfeed.backend.service.PromotionThresholds;
+import com.trendfeed.backend.service.ReadmeColumnMigrator;
+import com.trendfeed.backend.service.ReadmeStore;
+import com.trendfeed.backend.service.StarHistoryService;
+import com.trendfeed.backend.service.TrendBacktestEngine;
+import com.trendfeed.backend.service.TrendRescoreEngine;
+import com.trendfeed.backend.service.TrendScoring;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /*
  * - GET  /api/github/ingest?fullName=owner/repo  : 단일 수집 (테스트용)
- * - POST /api/github/crawl                       : 스케줄러 즉시 실행
- * - GET  /api/ai/candidates?limit=3              : 후보 반환
+ * - POST /api/github/crawl                       : 전체 수집 작업 시작 (202 + 작업 id, 실행 중이면 그 작업, 관리자)
+ * - GET  /api/github/crawl/jobs/{id}             : 작업 상태 (페이지/저장 수, 오류, ETA, 관리자)
+ * - GET  /api/github/crawl/jobs/{id}/events      : 작업 진행 상황 SSE (관리자)
+ * - GET  /api/ai/candidates?limit=3              : 후보 반환 (includeReadme=false 면 README 본문 제외)
+ * - GET  /api/github/readme?repoId=123            : README 본문 (압축 해제하며 스트리밍)
+ * - GET  /api/github/stars?repoId=123             : 1d/7d/30d 스타 증가
+ * - POST /api/github/rescore?threshold=25         : 수집 없이 전체 재채점 (생략한 파라미터는 설정값, 관리자)
+ * - POST /api/github/gharchive/import             : gharchive.dir 의 GH Archive 덤프 가져오기 + 스타 이력 백필 (관리자)
+ * - GET  /api/github/trend/thresholds?runs=10     : 최근 완료 크롤 실행별 언어별 점수 분포 + 지금 쓰는 승급 컷오프
+ * - POST /api/github/backtest?threshold=15,20,25  : 저장된 스타 이력으로 파라미터 조합별 승급 재생 (DB 쓰기 없음, 관리자)
+ * - POST /api/github/readme/migrate-column?drop=false : 예전 readme_text 컬럼 본문을 README 저장소로 (drop 은 허용 설정 필요, 관리자)
  */
 @RestController
 @RequestMapping("/api")
 public class GitHubController {
 
     private final GitHubService service;
+    private final StarHistoryService starHistory;
+    private final TrendRescoreEngine rescoreEngine;
+    private final ReadmeStore readmeStore;
+    private final CrawlJobService crawlJobs;
+    private final GhArchiveImporter ghArchive;
+    private final PromotionThresholds thresholds;
+    private final TrendBacktestEngine backtestEngine;
+    private final ReadmeColumnMigrator readmeColumnMigrator;
 
-    public GitHubController(GitHubService service) {
+    public GitHubController(GitHubService service, StarHistoryService starHistory,
+                            TrendRescoreEngine rescoreEngine, ReadmeStore readmeStore,
+                            CrawlJobService crawlJobs, GhArchiveImporter ghArchive,
+                            PromotionThresholds thresholds, TrendBacktestEngine backtestEngine,
+                            ReadmeColumnMigrator readmeColumnMigrator) {
         this.service = service;
+        this.starHistory = starHistory;
+        this.rescoreEngine = rescoreEngine;
+        this.readmeStore = readmeStore;
+        this.crawlJobs = crawlJobs;
+        this.ghArchive = ghArchive;
+        this.thresholds = thresholds;
+        this.backtestEngine = backtestEngine;
+        this.readmeColumnMigrator = readmeColumnMigrator;
     }
 
     // 단일(테스트용)
@@ -34,18 +82,107 @@ public class GitHubController {
                         (saved.getGrowthRate() == null ? 0.0 : saved.getGrowthRate())));
     }
 
-    // 전체 즉시 수집
+    // 전체 수집 작업 시작 (바로 반환, 실행 중인 작업이 있으면 그 작업)
     @PostMapping("/github/crawl")
-    public ResponseEntity<String> crawlNow() {
-        service.crawlAllAndEvaluate();
-        return ResponseEntity.ok("crawl started and finished (see logs)");
+    public ResponseEntity<CrawlJobService.Started> crawlNow() {
+        CrawlJobService.Started started = crawlJobs.start("manual");
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/github/crawl/jobs/" + started.job().jobId()))
+                .body(started);
+    }
+
+    // 작업 상태 (페이지/저장 수, 오류, ETA)
+    @GetMapping("/github/crawl/jobs/{jobId}")
+    public ResponseEntity<CrawlJobService.CrawlJobStatus> crawlJob(@PathVariable String jobId) {
+        return crawlJobs.status(jobId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    // 작업 진행 상황 SSE (progress 이벤트 반복, 끝나면 done)
+    @GetMapping(value = "/github/crawl/jobs/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> crawlJobEvents(@PathVariable String jobId) {
+        return crawlJobs.subscribe(jobId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
     }
 
     // 후보 반환
     @GetMapping("/ai/candidates")
-    public ResponseEntity<List<GitHubEntity>> getCandidates(@RequestParam(defaultValue = "3") int limit) {
+    public ResponseEntity<List<GitHubEntity>> getCandidates(@RequestParam(defaultValue = "3") int limit,
+                                                            @RequestParam(defaultValue = "true") boolean includeReadme) {
         if (limit <= 0) limit = 1;
-        List<GitHubEntity> repos = service.getOldestUngivenCandidatesAndMark(limit);
+        List<GitHubEntity> repos = service.getOldestUngivenCandidatesAndMark(limit, includeReadme);
         return ResponseEntity.ok(repos);
     }
+
+    // README 본문
+    @GetMapping("/github/readme")
+    public void readme(@RequestParam Long repoId, HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        if (!readmeStore.copyTo(repoId, response.getWriter())) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+        }
+    }
+
+    // 스타 증가 (키: 1d/7d/30d)
+    @GetMapping("/github/stars")
+    public ResponseEntity<Map<String, StarHistoryService.StarGrowth>> starGrowth(@RequestParam Long repoId) {
+        Map<String, StarHistoryService.StarGrowth> body = new LinkedHashMap<>();
+        for (Map.Entry<Duration, StarHistoryService.StarGrowth> e : starHistory.growthWindows(repoId).entrySet()) {
+            body.put(e.getKey().toDays() + "d", e.getValue());
+        }
+        return ResponseEntity.ok(body);
+    }
+
+    // 전체 재채점 (GitHub 호출 없음)
+    @PostMapping("/github/rescore")
+    public ResponseEntity<TrendRescoreEngine.RescoreResult> rescore(
+            @RequestParam(required = false) Double threshold,
+            @RequestParam(required = false) Double growthK,
+            @RequestParam(required = false) Double halfLifeDays) {
+        if (threshold != null && thresholds.percentileMode()) {
+            // percentile 모드의 임계치는 언어별 점수 분포에서 온다 (크롤 평가와 같은 컷오프로 재채점)
+            throw new CustomException(ErrorCode.INVALID_REQUEST, "threshold cannot be overridden in trend.threshold-mode=percentile");
+        }
+        TrendScoring.Params base = rescoreEngine.configuredParams();
+        TrendScoring.Params params = new TrendScoring.Params(
+                growthK != null ? growthK : base.growthK(),
+                halfLifeDays != null ? halfLifeDays : base.ageHalfLifeDays(),
+                base.growthWeight(), base.penaltyWeight(),
+                threshold != null ? threshold : base.threshold());
+        return ResponseEntity.ok(rescoreEngine.rescoreAll(params));
+    }
+
+    // GH Archive 덤프 가져오기 (GitHub 호출 없음, 끝날 때까지 블록)
+    @PostMapping("/github/gharchive/import")
+    public ResponseEntity<GhArchiveImporter.ImportResult> importGhArchive() {
+        return ResponseEntity.ok(ghArchive.importAll());
+    }
+
+    // 점수 분포 / 승급 컷오프 (실행별 스케치를 노드끼리 합쳐서)
+    @GetMapping("/github/trend/thresholds")
+    public ResponseEntity<PromotionThresholds.Report> thresholds(@RequestParam(defaultValue = "10") int runs) {
+        return ResponseEntity.ok(thresholds.report(Math.min(Math.max(runs, 1), 100)));
+    }
+
+    // 파라미터 백테스트 (쉼표로 여러 값, 생략한 축은 설정값 하나, 조합 = 세 축의 곱)
+    @PostMapping("/github/backtest")
+    public ResponseEntity<TrendBacktestEngine.BacktestResult> backtest(
+            @RequestParam(defaultValue = "365") int days,
+            @RequestParam(required = false) Double evalIntervalHours,
+            @RequestParam(required = false) List<Double> growthK,
+            @RequestParam(required = false) List<Double> halfLifeDays,
+            @RequestParam(required = false) List<Double> threshold) {
+        return ResponseEntity.ok(backtestEngine.run(new TrendBacktestEngine.Request(
+                days, evalIntervalHours, growthK, halfLifeDays, threshold)));
+    }
+
+    // 예전 readme_text 컬럼 이전 (운영자가 한 번, 끝날 때까지 블록)
+    @PostMapping("/github/readme/migrate-column")
+    public ResponseEntity<ReadmeColumnMigrator.MigrationResult> migrateReadmeColumn(
+            @RequestParam(defaultValue = "false") boolean drop) {
+        return ResponseEntity.ok(readmeColumnMigrator.migrate(drop));
+    }
 }
@@ -0,0 +1,6 @@
+package com.trendfeed.backend.dto.github;
+
+/**
+ * REST /repos/{owner}/{repo}/readme 응답. content 는 base64 를 푼 원문 바이트 (base64 가 아니면 null)
+ */
+public record ReadmeContent(String sha, String encoding, byte[] content) {}
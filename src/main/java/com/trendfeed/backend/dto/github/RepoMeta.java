@@ -0,0 +1,21 @@
+package com.trendfeed.backend.dto.github;
+
+/**
+ * 크롤러가 쓰는 리포 메타 필드만 담은 GitHub 응답 (REST /repos, /search/repositories item, GraphQL Repository).
+ * 날짜는 ISO-8601 문자열 그대로, readmeOid 는 GraphQL 로 조회했을 때만 있다.
+ */
+public record RepoMeta(
+        Long id,
+        String nodeId,
+        String name,
+        String fullName,
+        String ownerLogin,
+        String htmlUrl,
+        String description,
+        String language,
+        Integer stargazersCount,
+        String createdAt,
+        String pushedAt,
+        String updatedAt,
+        String readmeOid
+) {}
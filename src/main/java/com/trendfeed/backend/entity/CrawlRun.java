@@ -0,0 +1,65 @@
+package com.trendfeed.backend.entity;
+
+import jakarta.persistence.*;
+import java.time.OffsetDateTime;
+
+/**
+ * 크롤 실행 1회. 여러 노드가 같은 실행에 참여해서 샤드를 나눠 처리한다.
+ * RUNNING 으로 남은 실행은 다음 크롤(어느 노드든)이 이어서 진행한다.
+ * 이 실행에서 처리된 리포 = 마지막 크롤 시각(repo_crawl_touch / git_repositories.last_crawled_at 중 늦은 쪽) >= startedAt
+ * (배치 커밋과 원자적으로 기록됨)
+ */
+@Entity
+@Table(name = "crawl_runs")
+public class CrawlRun {
+
+    // ABANDONED: 너무 오래되어 재개하지 않고 버린 실행
+    public enum Status { RUNNING, COMPLETED, FAILED, ABANDONED }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private Status status;
+
+    private String fetchMode;
+    private Long savedCount;        // 저장된 리포 수 (모든 노드 합계, 배치 경계마다 갱신)
+
+    private OffsetDateTime startedAt;
+    private OffsetDateTime updatedAt;
+    private OffsetDateTime finishedAt;
+
+    public CrawlRun() {}
+
+    public CrawlRun(String fetchMode) {
+        this.status = Status.RUNNING;
+        this.fetchMode = fetchMode;
+        this.savedCount = 0L;
+        this.startedAt = OffsetDateTime.now();
+        this.updatedAt = this.startedAt;
+    }
+
+    // Getter/Setter
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Status getStatus() { return status; }
+    public void setStatus(Status status) { this.status = status; }
+
+    public String getFetchMode() { return fetchMode; }
+    public void setFetchMode(String fetchMode) { this.fetchMode = fetchMode; }
+
+    public Long getSavedCount() { return savedCount; }
+    public void setSavedCount(Long savedCount) { this.savedCount = savedCount; }
+
+    public OffsetDateTime getStartedAt() { return startedAt; }
+    public void setStartedAt(OffsetDateTime startedAt) { this.startedAt = startedAt; }
+
+    public OffsetDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(OffsetDateTime updatedAt) { this.updatedAt = updatedAt; }
+
+    public OffsetDateTime getFinishedAt() { return finishedAt; }
+    public void setFinishedAt(OffsetDateTime finishedAt) { this.finishedAt = finishedAt; }
+}
@@ -0,0 +1,81 @@
+package com.trendfeed.backend.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+
+/**
+ * 크롤 실행의 검색 샤드 하나(= 작업 단위)와 페이지 커서.
+ * nextPage 이전 페이지의 리포는 모두 처리(저장 또는 실패로 정리)됨.
+ * 노드는 leaseOwner/leaseExpiresAt 으로 샤드를 잡고, 리스가 만료되면 다른 노드가 가져간다.
+ */
+@Entity
+@Table(name = "crawl_run_shards", indexes = @Index(name = "idx_crawl_run_shards_run_id", columnList = "runId"))
+public class CrawlRunShard {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private Long runId;
+
+    private LocalDate createdFrom;
+    private LocalDate createdTo;
+    private Integer minStars;
+    private Integer maxStars;       // null: 상한 없음
+    private Integer totalCount;     // 계획 시점 결과 수 (-1: 모름)
+
+    private Integer nextPage;       // 페이지 커서 (1부터)
+    private Boolean done;
+
+    private String leaseOwner;      // 샤드를 잡은 노드 (crawler.node-id)
+    private OffsetDateTime leaseExpiresAt;
+
+    public CrawlRunShard() {}
+
+    public CrawlRunShard(Long runId, LocalDate createdFrom, LocalDate createdTo,
+                         Integer minStars, Integer maxStars, Integer totalCount) {
+        this.runId = runId;
+        this.createdFrom = createdFrom;
+        this.createdTo = createdTo;
+        this.minStars = minStars;
+        this.maxStars = maxStars;
+        this.totalCount = totalCount;
+        this.nextPage = 1;
+        this.done = false;
+    }
+
+    // Getter/Setter
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getRunId() { return runId; }
+    public void setRunId(Long runId) { this.runId = runId; }
+
+    public LocalDate getCreatedFrom() { return createdFrom; }
+    public void setCreatedFrom(LocalDate createdFrom) { this.createdFrom = createdFrom; }
+
+    public LocalDate getCreatedTo() { return createdTo; }
+    public void setCreatedTo(LocalDate createdTo) { this.createdTo = createdTo; }
+
+    public Integer getMinStars() { return minStars; }
+    public void setMinStars(Integer minStars) { this.minStars = minStars; }
+
+    public Integer getMaxStars() { return maxStars; }
+    public void setMaxStars(Integer maxStars) { this.maxStars = maxStars; }
+
+    public Integer getTotalCount() { return totalCount; }
+    public void setTotalCount(Integer totalCount) { this.totalCount = totalCount; }
+
+    public Integer getNextPage() { return nextPage; }
+    public void setNextPage(Integer nextPage) { this.nextPage = nextPage; }
+
+    public Boolean getDone() { return done; }
+    public void setDone(Boolean done) { this.done = done; }
+
+    public String getLeaseOwner() { return leaseOwner; }
+    public void setLeaseOwner(String leaseOwner) { this.leaseOwner = leaseOwner; }
+
+    public OffsetDateTime getLeaseExpiresAt() { return leaseExpiresAt; }
+    public void setLeaseExpiresAt(OffsetDateTime leaseExpiresAt) { this.leaseExpiresAt = leaseExpiresAt; }
+}
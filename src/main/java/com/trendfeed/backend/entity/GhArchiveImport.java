@@ -0,0 +1,34 @@
+package com.trendfeed.backend.entity;
+
+import jakarta.persistence.*;
+import java.time.OffsetDateTime;
+
+/**
+ * 가져온 GH Archive 파일 하나 (파일명 기준, 이미 있으면 다시 가져오지 않음).
+ * 행 추가와 star_events_hourly 반영이 같은 트랜잭션이라 여러 노드/스레드가 같은 파일을 집어도 한 번만 더해진다.
+ */
+@Entity
+@Table(name = "gharchive_imports")
+public class GhArchiveImport {
+
+    @Id
+    private String fileName;        // 예: 2024-01-15-13.json.gz
+
+    private Long events;            // 파일 전체 이벤트 수
+    private Long starEvents;        // 센 WatchEvent 수
+    private Integer repoHours;      // (리포, 시간) 조합 수 = 반영한 행 수
+    private Long firstHourTs;       // 이벤트가 나온 시간 범위 (epoch seconds)
+    private Long lastHourTs;
+    private OffsetDateTime importedAt;
+
+    public GhArchiveImport() {}
+
+    // Getter
+    public String getFileName() { return fileName; }
+    public Long getEvents() { return events; }
+    public Long getStarEvents() { return starEvents; }
+    public Integer getRepoHours() { return repoHours; }
+    public Long getFirstHourTs() { return firstHourTs; }
+    public Long getLastHourTs() { return lastHourTs; }
+    public OffsetDateTime getImportedAt() { return importedAt; }
+}
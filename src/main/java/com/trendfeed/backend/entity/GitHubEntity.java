@@ -1,12 +1,26 @@
 package com.trendfeed.backend.entity;
 
 import jakarta.persistence.*;
-import java.time.OffsetDateTime;
+import org.hibernate.annotations.DynamicUpdate;
 
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * 크롤 대상 리포 한 줄.
+ *
+ * contentHash 는 크롤이 쓰는 가변 컬럼(메타/검증자/트렌드)의 64비트 해시다. 크롤 upsert(GitHubBatchWriter)는
+ * 해시가 같으면 행을 다시 쓰지 않고, 실제 크롤 시각은 좁은 repo_crawl_touch 에만 남긴다 (WAL/bloat 감소).
+ * JPA 로 저장할 때도 @PreUpdate 에서 해시를 맞추고, @DynamicUpdate 로 바뀐 컬럼만 UPDATE 한다.
+ */
 @Entity
 @Table(name = "git_repositories")
+@DynamicUpdate
 public class GitHubEntity {
 
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
     @Id
     private Long id;
 
@@ -25,23 +39,91 @@ public class GitHubEntity {
     private OffsetDateTime createdAt;
     private OffsetDateTime pushedAt;
     private OffsetDateTime updatedAt;
+    // 행이 마지막으로 쓰인 크롤 시각 (내용이 바뀐 때). 매 크롤 시각은 repo_crawl_touch (RepoCrawlTouch)
     private OffsetDateTime lastCrawledAt;
 
+    // ===== 조건부 요청 (/repos/{owner}/{repo}) =====
+    private String metaEtag;
+    private String metaLastModified;
+
     // ===== README =====
-    @Column(columnDefinition = "TEXT")
+    // 본문은 repo_readmes 에 압축 저장 (ReadmeStore). 여기에는 새로 받았거나 명시적으로 읽었을 때만 채워진다
+    @Transient
     private String readmeText;
     private String readmeSha;
     private String readmeEtag;
+    private String readmeLastModified;
 
     // ===== 트렌드 분석용 =====
     private Integer previousStars;
     private Double growthRate;      // 증가율 (%)
     private Double trendScore;      // 최종 점수
     private Integer trendStage;     // 0: 기본 / 1: 1차관심 / 2: 후보로 승격
+    private Integer baseStage;      // 마지막 크롤 평가 직전 stage (재채점 기준)
+    // 행이 마지막으로 쓰인 평가 시각. 매 평가 시각은 repo_crawl_touch (읽을 때 GitHubBatchWriter.mergeTouched)
     private OffsetDateTime lastCheckedAt;
 
+    // ===== 쓰기 생략 =====
+    private Long contentHash;       // computeContentHash() (다른 경로가 컬럼을 직접 바꾸면 NULL → 다음 크롤에서 다시 씀)
+
     public GitHubEntity() {}
 
+    /**
+     * 크롤이 쓰는 가변 컬럼의 FNV-1a 64비트 해시.
+     * 제외: id, lastCrawledAt(매번 바뀜), lastCheckedAt(평가 구간이 찰 때마다 바뀜), readme_*(ReadmeFetchService 가 따로 씀).
+     * 그래서 스타/stage 가 그대로인 평가는 (점수/prevStars 가 같으므로) 행을 다시 쓰지 않는다.
+     * 시각은 Instant 마이크로초로 맞춘다 (DB 에서 읽은 값과 메모리 값이 같은 해시가 되게)
+     */
+    public long computeContentHash() {
+        long h = FNV_OFFSET;
+        h = mix(h, nodeId);
+        h = mix(h, name);
+        h = mix(h, fullName);
+        h = mix(h, ownerLogin);
+        h = mix(h, htmlUrl);
+        h = mix(h, description);
+        h = mix(h, language);
+        h = mix(h, stargazersCount);
+        h = mix(h, micros(createdAt));
+        h = mix(h, micros(pushedAt));
+        h = mix(h, micros(updatedAt));
+        h = mix(h, metaEtag);
+        h = mix(h, metaLastModified);
+        h = mix(h, previousStars);
+        h = mix(h, growthRate);
+        h = mix(h, trendScore);
+        h = mix(h, trendStage);
+        h = mix(h, baseStage);
+        return h;
+    }
+
+    @PrePersist
+    @PreUpdate
+    void refreshContentHash() {
+        contentHash = computeContentHash();
+    }
+
+    private static Object micros(OffsetDateTime t) {
+        return t == null ? null : t.toInstant().truncatedTo(ChronoUnit.MICROS);
+    }
+
+    // null 과 필드 경계 구분자는 char 범위 밖 값 (빈 문자열과 구분, "ab"+"c" ≠ "a"+"bc")
+    private static long mix(long h, Object value) {
+        if (value == null) {
+            h ^= 0x1_0000;
+            h *= FNV_PRIME;
+        } else {
+            String s = value.toString();
+            for (int i = 0; i < s.length(); i++) {
+                h ^= s.charAt(i);
+                h *= FNV_PRIME;
+            }
+        }
+        h ^= 0x1_0001;
+        h *= FNV_PRIME;
+        return h;
+    }
+
     // Getter/Setter
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -82,6 +164,12 @@ public class GitHubEntity {
     public OffsetDateTime getLastCrawledAt() { return lastCrawledAt; }
     public void setLastCrawledAt(OffsetDateTime lastCrawledAt) { this.lastCrawledAt = lastCrawledAt; }
 
+    public String getMetaEtag() { return metaEtag; }
+    public void setMetaEtag(String metaEtag) { this.metaEtag = metaEtag; }
+
+    public String getMetaLastModified() { return metaLastModified; }
+    public void setMetaLastModified(String metaLastModified) { this.metaLastModified = metaLastModified; }
+
     public String getReadmeText() { return readmeText; }
     public void setReadmeText(String readmeText) { this.readmeText = readmeText; }
 
@@ -91,6 +179,9 @@ public class GitHubEntity {
     public String getReadmeEtag() { return readmeEtag; }
     public void setReadmeEtag(String readmeEtag) { this.readmeEtag = readmeEtag; }
 
+    public String getReadmeLastModified() { return readmeLastModified; }
+    public void setReadmeLastModified(String readmeLastModified) { this.readmeLastModified = readmeLastModified; }
+
     public Integer getPreviousStars() { return previousStars; }
     public void setPreviousStars(Integer previousStars) { this.previousStars = previousStars; }
 
@@ -103,6 +194,11 @@ public class GitHubEntity {
     public Integer getTrendStage() { return trendStage; }
     public void setTrendStage(Integer trendStage) { this.trendStage = trendStage; }
 
+    public Integer getBaseStage() { return baseStage; }
+    public void setBaseStage(Integer baseStage) { this.baseStage = baseStage; }
+
     public OffsetDateTime getLastCheckedAt() { return lastCheckedAt; }
     public void setLastCheckedAt(OffsetDateTime lastCheckedAt) { this.lastCheckedAt = lastCheckedAt; }
+
+    public Long getContentHash() { return contentHash; }
 }
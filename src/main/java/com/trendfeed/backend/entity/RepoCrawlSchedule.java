@@ -0,0 +1,35 @@
+package com.trendfeed.backend.entity;
+
+import jakarta.persistence.*;
+import java.time.OffsetDateTime;
+
+/**
+ * 리포별 다음 재수집 시각 (영속 우선순위 큐, nextDueAt 오름차순으로 꺼낸다).
+ *
+ * 리포가 저장될 때마다 RecrawlPolicy 가 스타 속도 / stage / pushedAt 으로 간격을 다시 정하고,
+ * RecrawlScheduler 가 기한이 된 행을 FOR UPDATE SKIP LOCKED 로 잡아 갱신한다.
+ * 잡을 때 nextDueAt 을 재시도 시각으로 미뤄 두므로 따로 리스 컬럼이 없다 (실패/삭제된 리포는 그때 다시 나옴).
+ * 쓰기는 RecrawlScheduleWriter (JDBC).
+ */
+@Entity
+@Table(name = "repo_crawl_schedule",
+        indexes = @Index(name = "idx_repo_crawl_schedule_due", columnList = "nextDueAt"))
+public class RepoCrawlSchedule {
+
+    @Id
+    private Long repoId;
+
+    private OffsetDateTime nextDueAt;
+    private Long intervalSeconds;   // 마지막으로 정한 간격
+    private Double starsPerDay;     // 평활한 스타 속도 (다음 간격 계산에 이어서 씀)
+    private OffsetDateTime scheduledAt;
+
+    public RepoCrawlSchedule() {}
+
+    // Getter
+    public Long getRepoId() { return repoId; }
+    public OffsetDateTime getNextDueAt() { return nextDueAt; }
+    public Long getIntervalSeconds() { return intervalSeconds; }
+    public Double getStarsPerDay() { return starsPerDay; }
+    public OffsetDateTime getScheduledAt() { return scheduledAt; }
+}
@@ -0,0 +1,31 @@
+package com.trendfeed.backend.entity;
+
+import jakarta.persistence.*;
+import java.time.OffsetDateTime;
+
+/**
+ * 리포별 마지막 크롤/평가 시각 (내용과 상관없이 매번 바뀌는 값).
+ *
+ * git_repositories 는 내용이 바뀔 때만 다시 쓰고 (GitHubEntity.contentHash), 크롤 시각과 평가 구간 시작
+ * (last_checked_at, 스타가 그대로인 평가도 구간을 새로 시작한다)은 여기 좁은 행에만 남긴다.
+ * 갱신 컬럼에 인덱스가 없고 fillfactor 를 낮춰 두므로(CrawlTouchTableInitializer) 대부분 HOT 업데이트가 된다.
+ * 쓰기는 GitHubBatchWriter.touchAll (JDBC).
+ */
+@Entity
+@Table(name = "repo_crawl_touch")
+public class RepoCrawlTouch {
+
+    @Id
+    private Long repoId;
+
+    private OffsetDateTime lastCrawledAt;
+
+    private OffsetDateTime lastCheckedAt;
+
+    public RepoCrawlTouch() {}
+
+    // Getter
+    public Long getRepoId() { return repoId; }
+    public OffsetDateTime getLastCrawledAt() { return lastCrawledAt; }
+    public OffsetDateTime getLastCheckedAt() { return lastCheckedAt; }
+}
@@ -0,0 +1,37 @@
+package com.trendfeed.backend.entity;
+
+import jakarta.persistence.*;
+import java.time.OffsetDateTime;
+
+/**
+ * 리포 README 본문 (압축). git_repositories 에서 분리해 리포 조회/크롤/채점 때 읽히지 않게 한다.
+ * 쓰기/읽기는 ReadmeStore 구현체가 JDBC 로 한다 (이 엔티티는 테이블 정의용).
+ */
+@Entity
+@Table(name = "repo_readmes")
+public class RepoReadme {
+
+    @Id
+    private Long repoId;
+
+    private String sha;             // README blob SHA (git_repositories.readme_sha 와 같은 값)
+    private String encoding;        // 압축 방식 (deflate)
+    private Integer rawSize;        // 원문 UTF-8 바이트 수
+    private Integer storedSize;     // 압축 후 바이트 수
+
+    @Column(columnDefinition = "bytea")
+    private byte[] content;
+
+    private OffsetDateTime updatedAt;
+
+    public RepoReadme() {}
+
+    // Getter
+    public Long getRepoId() { return repoId; }
+    public String getSha() { return sha; }
+    public String getEncoding() { return encoding; }
+    public Integer getRawSize() { return rawSize; }
+    public Integer getStoredSize() { return storedSize; }
+    public byte[] getContent() { return content; }
+    public OffsetDateTime getUpdatedAt() { return updatedAt; }
+}
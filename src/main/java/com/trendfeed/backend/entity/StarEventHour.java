@@ -0,0 +1,31 @@
+package com.trendfeed.backend.entity;
+
+import jakarta.persistence.*;
+
+/**
+ * GH Archive 에서 센 리포별 시간당 스타(WatchEvent) 수.
+ * 쓰기는 GhArchiveWriter (COPY → ON CONFLICT 로 더하기), 같은 파일을 두 번 더하지 않도록
+ * 가져온 파일은 gharchive_imports 에 기록한다.
+ * 언스타는 이벤트가 없어서 빠진다 (증가만 센다).
+ */
+@Entity
+@Table(name = "star_events_hourly",
+        uniqueConstraints = @UniqueConstraint(name = "uk_star_events_repo_hour", columnNames = {"repoId", "hourTs"}))
+public class StarEventHour {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private Long repoId;
+    private Long hourTs;        // 시간 시작 시각 (epoch seconds, UTC 정시)
+    private Integer stars;
+
+    public StarEventHour() {}
+
+    // Getter
+    public Long getId() { return id; }
+    public Long getRepoId() { return repoId; }
+    public Long getHourTs() { return hourTs; }
+    public Integer getStars() { return stars; }
+}
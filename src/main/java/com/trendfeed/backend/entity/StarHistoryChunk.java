@@ -0,0 +1,48 @@
+package com.trendfeed.backend.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+
+/**
+ * 리포 하나의 한 달치 스타 수 샘플 (크롤마다 1개씩 추가).
+ *
+ * samples = (시각, 스타) 를 직전 샘플과의 차이로 varint 인코딩해 이어 붙인 bytea (StarHistoryCodec).
+ * 첫 샘플의 기준은 (monthStart 00:00 UTC, 0).
+ * 샘플 하나가 보통 4~5바이트라 리포당 1년치가 2KB 남짓이다.
+ * lastTs/lastStars 는 다음 샘플의 차이 계산과 최신 값 조회용으로 따로 둔다.
+ * 추가는 StarHistoryWriter 가 JDBC 로 한다 (samples = samples || 새 샘플).
+ * backfilled 청크는 GH Archive 가져오기가 첫 크롤 이전 달에 하루 단위 샘플로 채운 것이다.
+ */
+@Entity
+@Table(name = "star_history_chunks",
+        uniqueConstraints = @UniqueConstraint(name = "uk_star_history_repo_month", columnNames = {"repoId", "monthStart"}))
+public class StarHistoryChunk {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private Long repoId;
+    private LocalDate monthStart;   // 해당 월 1일 (UTC)
+
+    private Integer sampleCount;
+    private Long lastTs;            // 마지막 샘플 시각 (epoch seconds)
+    private Integer lastStars;
+
+    @Column(columnDefinition = "bytea")
+    private byte[] samples;
+
+    private Boolean backfilled;     // GH Archive 에서 역산한 청크 (크롤 샘플이 없는 달만, 다시 가져오면 통째로 교체)
+
+    public StarHistoryChunk() {}
+
+    // Getter
+    public Long getId() { return id; }
+    public Long getRepoId() { return repoId; }
+    public LocalDate getMonthStart() { return monthStart; }
+    public Integer getSampleCount() { return sampleCount; }
+    public Long getLastTs() { return lastTs; }
+    public Integer getLastStars() { return lastStars; }
+    public byte[] getSamples() { return samples; }
+    public Boolean getBackfilled() { return backfilled; }
+}
@@ -0,0 +1,83 @@
+package com.trendfeed.backend.entity;
+
+import jakarta.persistence.*;
+import java.time.OffsetDateTime;
+
+/**
+ * 크롤 실행 하나에서 기본 채점기가 낸 점수 분포 (노드 × 언어별 KLL 스케치, language "*" = 전체).
+ *
+ * 분위수 승급(trend.threshold-mode=percentile)은 가장 최근 완료된 실행의 스케치를 노드끼리 합쳐 컷오프를 정한다.
+ * 요약 컬럼(p50/p90/p99/cutoff)은 조회용, 합치기/재계산은 sketch 로 한다 (PromotionThresholds).
+ */
+@Entity
+@Table(name = "trend_score_sketches",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"runId", "nodeId", "language"}),
+        indexes = @Index(name = "idx_trend_score_sketch_run", columnList = "runId"))
+public class TrendScoreSketch {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private Long runId;
+    private String nodeId;
+    private String language;
+    private String scorer;
+
+    private Long sampleCount;
+    private Double minScore;
+    private Double maxScore;
+    private Double p50;
+    private Double p90;
+    private Double p99;
+    private Double cutoff;          // 이 노드 몫만으로 본 trend.percentile.top 컷오프
+
+    @Column(columnDefinition = "bytea")
+    private byte[] sketch;          // KllSketch.toBytes()
+
+    private OffsetDateTime createdAt;
+    private OffsetDateTime updatedAt;
+
+    public TrendScoreSketch() {}
+
+    public TrendScoreSketch(Long runId, String nodeId, String language, String scorer) {
+        this.runId = runId;
+        this.nodeId = nodeId;
+        this.language = language;
+        this.scorer = scorer;
+        this.createdAt = OffsetDateTime.now();
+    }
+
+    /**
+     * 스케치와 요약 컬럼 갱신
+     */
+    public void update(byte[] sketch, long sampleCount, double min, double max,
+                       double p50, double p90, double p99, double cutoff) {
+        this.sketch = sketch;
+        this.sampleCount = sampleCount;
+        this.minScore = min;
+        this.maxScore = max;
+        this.p50 = p50;
+        this.p90 = p90;
+        this.p99 = p99;
+        this.cutoff = cutoff;
+        this.updatedAt = OffsetDateTime.now();
+    }
+
+    // Getter
+    public Long getId() { return id; }
+    public Long getRunId() { return runId; }
+    public String getNodeId() { return nodeId; }
+    public String getLanguage() { return language; }
+    public String getScorer() { return scorer; }
+    public Long getSampleCount() { return sampleCount; }
+    public Double getMinScore() { return minScore; }
+    public Double getMaxScore() { return maxScore; }
+    public Double getP50() { return p50; }
+    public Double getP90() { return p90; }
+    public Double getP99() { return p99; }
+    public Double getCutoff() { return cutoff; }
+    public byte[] getSketch() { return sketch; }
+    public OffsetDateTime getCreatedAt() { return createdAt; }
+    public OffsetDateTime getUpdatedAt() { return updatedAt; }
+}
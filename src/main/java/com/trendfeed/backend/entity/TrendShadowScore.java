@@ -0,0 +1,42 @@
+package com.trendfeed.backend.entity;
+
+import jakarta.persistence.*;
+import java.time.OffsetDateTime;
+
+/**
+ * 섀도 채점 결과 (승급에는 쓰지 않음). 같은 배치의 기본 채점 결과와 나란히 기록해서
+ * 채점기별 승급률 / 리포당 채점 비용을 비교한다. 쓰기는 TrendShadowWriter (JDBC batch).
+ */
+@Entity
+@Table(name = "trend_shadow_scores",
+        indexes = @Index(name = "idx_trend_shadow_scorer_time", columnList = "scorer, scoredAt"))
+public class TrendShadowScore {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private Long repoId;
+    private String scorer;
+
+    private Double score;
+    private Integer stage;          // 이 채점기였다면 될 stage
+    private Double primaryScore;
+    private Integer primaryStage;
+
+    private Long costNanos;         // 배치 채점 시간 / 리포 수
+    private OffsetDateTime scoredAt;
+
+    public TrendShadowScore() {}
+
+    // Getter
+    public Long getId() { return id; }
+    public Long getRepoId() { return repoId; }
+    public String getScorer() { return scorer; }
+    public Double getScore() { return score; }
+    public Integer getStage() { return stage; }
+    public Double getPrimaryScore() { return primaryScore; }
+    public Integer getPrimaryStage() { return primaryStage; }
+    public Long getCostNanos() { return costNanos; }
+    public OffsetDateTime getScoredAt() { return scoredAt; }
+}
@@ -0,0 +1,47 @@
+package com.trendfeed.backend.repository;
+
+import com.trendfeed.backend.entity.CrawlRun;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.Optional;
+
+public interface CrawlRunRepository extends JpaRepository<CrawlRun, Long> {
+
+    // 이어서 진행할 가장 최근 미완료 실행
+    Optional<CrawlRun> findFirstByStatusInOrderByStartedAtDesc(Collection<CrawlRun.Status> statuses);
+
+    // 여러 노드가 동시에 더해도 안전하게
+    @Modifying
+    @Query("UPDATE CrawlRun r SET r.savedCount = r.savedCount + :n, r.updatedAt = :now WHERE r.id = :id")
+    int addSaved(@Param("id") Long id, @Param("n") long n, @Param("now") OffsetDateTime now);
+
+    // 미완료(RUNNING/FAILED) → 종료 상태 전환은 한 노드만 성공
+    @Modifying
+    @Query("""
+            UPDATE CrawlRun r SET r.status = :status, r.updatedAt = :now, r.finishedAt = :now
+            WHERE r.id = :id AND r.status IN (com.trendfeed.backend.entity.CrawlRun.Status.RUNNING,
+                                              com.trendfeed.backend.entity.CrawlRun.Status.FAILED)
+            """)
+    int finishIfOpen(@Param("id") Long id, @Param("status") CrawlRun.Status status, @Param("now") OffsetDateTime now);
+
+    // 진행하던 노드가 모두 실패로 멈춤 (다음 joinOrStart 가 이어서 RUNNING 으로)
+    @Modifying
+    @Query("""
+            UPDATE CrawlRun r SET r.status = com.trendfeed.backend.entity.CrawlRun.Status.FAILED, r.updatedAt = :now
+            WHERE r.id = :id AND r.status = com.trendfeed.backend.entity.CrawlRun.Status.RUNNING
+            """)
+    int failIfRunning(@Param("id") Long id, @Param("now") OffsetDateTime now);
+
+    // FAILED 실행의 샤드를 다른 노드가 다시 가져가면 RUNNING 으로
+    @Modifying
+    @Query("""
+            UPDATE CrawlRun r SET r.status = com.trendfeed.backend.entity.CrawlRun.Status.RUNNING, r.updatedAt = :now
+            WHERE r.id = :id AND r.status = com.trendfeed.backend.entity.CrawlRun.Status.FAILED
+            """)
+    int reopenIfFailed(@Param("id") Long id, @Param("now") OffsetDateTime now);
+}
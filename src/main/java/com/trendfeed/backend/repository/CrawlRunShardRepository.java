@@ -0,0 +1,56 @@
+package com.trendfeed.backend.repository;
+
+import com.trendfeed.backend.entity.CrawlRunShard;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.OffsetDateTime;
+import java.util.Optional;
+
+public interface CrawlRunShardRepository extends JpaRepository<CrawlRunShard, Long> {
+
+    // 아무도 안 잡았거나 리스가 만료된 샤드 하나를 잠금 (다른 노드가 잠근 행은 건너뜀)
+    @Query(value = """
+            SELECT * FROM crawl_run_shards
+            WHERE run_id = :runId
+              AND done = false
+              AND (lease_owner IS NULL OR lease_expires_at < :now)
+            ORDER BY id
+            LIMIT 1
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    Optional<CrawlRunShard> lockNextClaimable(@Param("runId") Long runId, @Param("now") OffsetDateTime now);
+
+    long countByRunIdAndDoneFalse(Long runId);
+
+    // 아직 살아 있는 리스 (다른 노드가 진행 중인 샤드)
+    long countByRunIdAndDoneFalseAndLeaseExpiresAtAfter(Long runId, OffsetDateTime now);
+
+    long countByRunId(Long runId);
+
+    // 배치 경계 체크포인트 + 리스 연장/반납 (커서는 앞으로만 이동, 리스를 가진 노드만 기록)
+    @Modifying
+    @Query("""
+            UPDATE CrawlRunShard s
+            SET s.nextPage = CASE WHEN s.nextPage > :nextPage THEN s.nextPage ELSE :nextPage END,
+                s.done = :done,
+                s.leaseOwner = :nextOwner,
+                s.leaseExpiresAt = :leaseUntil
+            WHERE s.id = :id AND s.leaseOwner = :owner
+            """)
+    int checkpoint(@Param("id") Long id, @Param("owner") String owner, @Param("nextPage") int nextPage,
+                   @Param("done") boolean done, @Param("nextOwner") String nextOwner,
+                   @Param("leaseUntil") OffsetDateTime leaseUntil);
+
+    // 하트비트: 이 노드가 아직 잡고 있는 샤드의 리스만 연장 (0 이면 다른 노드가 가져감)
+    @Modifying
+    @Query("UPDATE CrawlRunShard s SET s.leaseExpiresAt = :leaseUntil WHERE s.id = :id AND s.leaseOwner = :owner AND s.done = false")
+    int renewLease(@Param("id") Long id, @Param("owner") String owner, @Param("leaseUntil") OffsetDateTime leaseUntil);
+
+    // 이 노드의 리스 반납 (중단 시 다른 노드가 바로 가져갈 수 있게)
+    @Modifying
+    @Query("UPDATE CrawlRunShard s SET s.leaseOwner = NULL, s.leaseExpiresAt = NULL WHERE s.runId = :runId AND s.leaseOwner = :owner")
+    int releaseLeases(@Param("runId") Long runId, @Param("owner") String owner);
+}
@@ -0,0 +1,140 @@
+package com.trendfeed.backend.repository;
+
+import com.trendfeed.backend.service.ReadmeStore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * repo_readmes 테이블에 deflate 로 압축해 두는 README 저장소.
+ * 마크다운은 보통 1/3~1/4 로 줄어든다. 읽을 때는 InflaterInputStream 으로 풀면서 흘려보낸다.
+ */
+@Repository
+@ConditionalOnProperty(name = "readme.store", havingValue = "db", matchIfMissing = true)
+public class DeflateReadmeStore implements ReadmeStore {
+
+    static final String ENCODING = "deflate";
+
+    private static final String INSERT_SQL = """
+            INSERT INTO repo_readmes (repo_id, sha, encoding, raw_size, stored_size, content, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final String UPSERT_SQL = INSERT_SQL + """
+            ON CONFLICT (repo_id) DO UPDATE SET
+                sha = EXCLUDED.sha, encoding = EXCLUDED.encoding,
+                raw_size = EXCLUDED.raw_size, stored_size = EXCLUDED.stored_size,
+                content = EXCLUDED.content, updated_at = EXCLUDED.updated_at
+            """;
+
+    private final JdbcTemplate jdbc;
+
+    public DeflateReadmeStore(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    @Override
+    public void putAll(List<Readme> readmes) {
+        write(UPSERT_SQL, readmes);
+    }
+
+    @Override
+    public void putAllIfAbsent(List<Readme> readmes) {
+        write(INSERT_SQL + "ON CONFLICT (repo_id) DO NOTHING", readmes);
+    }
+
+    private void write(String sql, List<Readme> readmes) {
+        if (readmes.isEmpty()) return;
+
+        Timestamp now = Timestamp.from(Instant.now());
+        List<Object[]> args = new ArrayList<>(readmes.size());
+        for (Readme r : readmes) {
+            byte[] raw = r.text().getBytes(StandardCharsets.UTF_8);
+            byte[] packed = deflate(raw);
+            args.add(new Object[]{r.repoId(), r.sha(), ENCODING, raw.length, packed.length, packed, now});
+        }
+        jdbc.batchUpdate(sql, args);
+    }
+
+    @Override
+    public Optional<String> get(Long repoId) {
+        StringWriter out = new StringWriter();
+        try {
+            return copyTo(repoId, out) ? Optional.of(out.toString()) : Optional.empty();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public Map<Long, String> getAll(Collection<Long> repoIds) {
+        if (repoIds.isEmpty()) return Map.of();
+
+        String placeholders = String.join(", ", Collections.nCopies(repoIds.size(), "?"));
+        Map<Long, String> result = new HashMap<>();
+        jdbc.query("SELECT repo_id, content FROM repo_readmes WHERE repo_id IN (" + placeholders + ")",
+                rs -> {
+                    StringWriter out = new StringWriter();
+                    inflateTo(rs.getBinaryStream(2), out);
+                    result.put(rs.getLong(1), out.toString());
+                },
+                repoIds.toArray());
+        return result;
+    }
+
+    @Override
+    public boolean copyTo(Long repoId, Writer out) throws IOException {
+        Boolean found = jdbc.query("SELECT content FROM repo_readmes WHERE repo_id = ?",
+                rs -> {
+                    if (!rs.next()) return false;
+                    inflateTo(rs.getBinaryStream(1), out);
+                    return true;
+                },
+                repoId);
+        return Boolean.TRUE.equals(found);
+    }
+
+    static byte[] deflate(byte[] raw) {
+        ByteArrayOutputStream buf = new ByteArrayOutputStream(Math.max(64, raw.length / 3));
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+        try (DeflaterOutputStream out = new DeflaterOutputStream(buf, deflater)) {
+            out.write(raw);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            deflater.end();
+        }
+        return buf.toByteArray();
+    }
+
+    private static void inflateTo(InputStream compressed, Writer out) {
+        if (compressed == null) return;
+        try (Reader reader = new InputStreamReader(new InflaterInputStream(compressed), StandardCharsets.UTF_8)) {
+            reader.transferTo(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
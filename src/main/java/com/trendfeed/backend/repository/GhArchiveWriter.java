@@ -0,0 +1,102 @@
+package com.trendfeed.backend.repository;
+
+import com.trendfeed.backend.service.GhArchiveParser;
+import com.trendfeed.backend.service.LongIntCountMap;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.OffsetDateTime;
+
+/**
+ * GH Archive 파일 하나의 (리포, 시간) 별 스타 수를 star_events_hourly 에 더한다 (호출 측 트랜잭션 안에서).
+ *
+ *  1. gharchive_imports 에 파일 행 추가 (이미 있으면 아무것도 안 하고 false → 중복 가져오기 방지)
+ *  2. 임시 테이블에 COPY FROM STDIN (text 형식, 64KB 씩 스트리밍)
+ *  3. INSERT ... SELECT ... ON CONFLICT DO UPDATE 로 기존 값에 더하기 (한 시간이 두 파일에 걸쳐도 맞게)
+ *
+ * COPY 는 PgJDBC 전용 API 라 커넥션을 PGConnection 으로 unwrap 한다 (Hikari 프록시 통과).
+ */
+@Repository
+public class GhArchiveWriter {
+
+    private static final int COPY_CHUNK = 1 << 16;
+
+    private static final String CLAIM_SQL = """
+            INSERT INTO gharchive_imports (file_name, events, star_events, repo_hours, first_hour_ts, last_hour_ts, imported_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            ON CONFLICT (file_name) DO NOTHING
+            """;
+
+    private static final String STAGE_SQL = """
+            CREATE TEMP TABLE IF NOT EXISTS star_events_stage (repo_id bigint, hour_ts bigint, stars int) ON COMMIT DELETE ROWS
+            """;
+
+    private static final String MERGE_SQL = """
+            INSERT INTO star_events_hourly (repo_id, hour_ts, stars)
+            SELECT repo_id, hour_ts, stars FROM star_events_stage
+            ON CONFLICT (repo_id, hour_ts) DO UPDATE SET stars = star_events_hourly.stars + EXCLUDED.stars
+            """;
+
+    private final JdbcTemplate jdbc;
+
+    public GhArchiveWriter(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    public boolean isImported(String fileName) {
+        Integer n = jdbc.queryForObject("SELECT count(*) FROM gharchive_imports WHERE file_name = ?", Integer.class, fileName);
+        return n != null && n > 0;
+    }
+
+    /**
+     * 파일 하나 반영. 다른 스레드/노드가 먼저 가져갔으면 false
+     */
+    public boolean write(String fileName, GhArchiveParser.FileStats stats, LongIntCountMap counts) {
+        int claimed = jdbc.update(CLAIM_SQL, fileName, stats.events(), stats.starEvents(), counts.size(),
+                stats.firstHour() < 0 ? null : stats.firstHour() * 3600,
+                stats.lastHour() < 0 ? null : stats.lastHour() * 3600,
+                Timestamp.from(OffsetDateTime.now().toInstant()));
+        if (claimed == 0) return false;
+        if (counts.size() == 0) return true;
+
+        jdbc.execute(STAGE_SQL);
+        jdbc.execute((ConnectionCallback<Long>) con -> copy(con.unwrap(PGConnection.class), counts));
+        jdbc.update(MERGE_SQL);
+        return true;
+    }
+
+    private static long copy(PGConnection con, LongIntCountMap counts) throws SQLException {
+        CopyIn in = con.getCopyAPI().copyIn("COPY star_events_stage (repo_id, hour_ts, stars) FROM STDIN");
+        try {
+            byte[] buf = new byte[COPY_CHUNK];
+            int[] len = {0};
+            SQLException[] failed = {null};
+            counts.forEach((key, value) -> {
+                if (failed[0] != null) return;
+                byte[] line = (GhArchiveParser.repoOf(key) + "\t" + GhArchiveParser.hourOf(key) * 3600 + "\t" + value + "\n")
+                        .getBytes(StandardCharsets.US_ASCII);
+                try {
+                    if (len[0] + line.length > buf.length) {
+                        in.writeToCopy(buf, 0, len[0]);
+                        len[0] = 0;
+                    }
+                    System.arraycopy(line, 0, buf, len[0], line.length);
+                    len[0] += line.length;
+                } catch (SQLException e) {
+                    failed[0] = e;
+                }
+            });
+            if (failed[0] != null) throw failed[0];
+            if (len[0] > 0) in.writeToCopy(buf, 0, len[0]);
+            return in.endCopy();
+        } finally {
+            if (in.isActive()) in.cancelCopy();
+        }
+    }
+}
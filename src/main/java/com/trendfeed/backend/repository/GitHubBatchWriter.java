@@ -0,0 +1,170 @@
+package com.trendfeed.backend.repository;
+
+import com.trendfeed.backend.entity.GitHubEntity;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 크롤 저장 단계용 git_repositories 배치 upsert.
+ *
+ * JPA save() 는 리포마다 SELECT + INSERT/UPDATE 를 날리고 영속성 컨텍스트에 엔티티를 쌓는다.
+ * 여기서는 배치 하나를 INSERT ... ON CONFLICT (id) DO UPDATE 로 JDBC batch 한 번에 쓴다.
+ * 컬럼명은 Spring 기본 네이밍(camelCase → snake_case)을 따른다.
+ * README 본문은 ReadmeStore 가 따로 쓴다.
+ * readme_* 컬럼은 INSERT 때만 쓰고 갱신하지 않는다 (README 큐 ReadmeFetchService 가 관리 → 덮어쓰기 경합 방지).
+ *
+ * 쓰기 생략 (crawler.write-avoidance=true):
+ *  - ON CONFLICT 갱신에 WHERE content_hash IS DISTINCT FROM EXCLUDED.content_hash 를 붙여
+ *    내용이 같은 행은 새 튜플을 만들지 않는다 (WAL, dead tuple, 인덱스 갱신 없음)
+ *  - 크롤 시각/평가 시각은 touchAll 로 repo_crawl_touch 에만 (좁은 행, HOT)
+ *  - 그래서 git_repositories.last_crawled_at / last_checked_at 은 "내용이 마지막으로 바뀐 크롤/평가" 가 된다.
+ *    실제 값은 GREATEST(touch, git_repositories) 로 읽는다 (JPA 단건 저장은 touch 를 안 씀).
+ *    엔티티로 읽은 뒤 평가하기 전에 mergeTouched 로 평가 시각을 맞춘다
+ * 끄면 예전처럼 모든 행을 다시 쓰고 touch 도 쓰지 않는다 (전후 WAL 비교용).
+ */
+@Repository
+public class GitHubBatchWriter {
+
+    private static final String[] COLUMNS = {
+            "id", "node_id", "name", "full_name", "owner_login", "html_url",
+            "description", "language", "stargazers_count",
+            "created_at", "pushed_at", "updated_at", "last_crawled_at",
+            "meta_etag", "meta_last_modified",
+            "readme_sha", "readme_etag", "readme_last_modified",
+            "previous_stars", "growth_rate", "trend_score", "trend_stage", "base_stage", "last_checked_at",
+            "content_hash"
+    };
+
+    // ON CONFLICT 때 갱신하지 않는 컬럼
+    private static final Set<String> INSERT_ONLY = Set.of("readme_sha", "readme_etag", "readme_last_modified");
+
+    private static final String TOUCH_SQL = """
+            INSERT INTO repo_crawl_touch (repo_id, last_crawled_at, last_checked_at) VALUES (?, ?, ?)
+            ON CONFLICT (repo_id) DO UPDATE SET last_crawled_at = EXCLUDED.last_crawled_at,
+                                                last_checked_at = EXCLUDED.last_checked_at
+            """;
+
+    private final JdbcTemplate jdbc;
+    private final boolean writeAvoidance;
+    private final String upsertSql;
+
+    public GitHubBatchWriter(JdbcTemplate jdbc,
+                             @Value("${crawler.write-avoidance:true}") boolean writeAvoidance) {
+        this.jdbc = jdbc;
+        this.writeAvoidance = writeAvoidance;
+        this.upsertSql = buildUpsertSql(writeAvoidance);
+    }
+
+    /**
+     * 엔티티 목록을 한 번의 JDBC batch 로 upsert. 실제로 쓴 행 수 반환 (내용이 같아 건너뛴 행은 빠짐).
+     * 드라이버가 행 수를 안 주면(SUCCESS_NO_INFO) 쓴 것으로 센다
+     */
+    public int upsertAll(List<GitHubEntity> entities) {
+        if (entities.isEmpty()) return 0;
+
+        List<Object[]> args = new ArrayList<>(entities.size());
+        for (GitHubEntity e : entities) {
+            args.add(new Object[]{
+                    e.getId(), e.getNodeId(), e.getName(), e.getFullName(), e.getOwnerLogin(), e.getHtmlUrl(),
+                    e.getDescription(), e.getLanguage(), e.getStargazersCount(),
+                    e.getCreatedAt(), e.getPushedAt(), e.getUpdatedAt(), e.getLastCrawledAt(),
+                    e.getMetaEtag(), e.getMetaLastModified(),
+                    e.getReadmeSha(), e.getReadmeEtag(), e.getReadmeLastModified(),
+                    e.getPreviousStars(), e.getGrowthRate(), e.getTrendScore(), e.getTrendStage(), e.getBaseStage(), e.getLastCheckedAt(),
+                    e.computeContentHash()
+            });
+        }
+
+        int total = 0;
+        for (int n : jdbc.batchUpdate(upsertSql, args)) {
+            // 드라이버가 SUCCESS_NO_INFO(-2)를 돌려줄 수 있음
+            total += (n < 0) ? 1 : n;
+        }
+        return total;
+    }
+
+    /**
+     * 크롤 시각 + 평가 시각 기록 (내용이 바뀌었든 아니든 매번). 쓰기 생략을 끄면 아무것도 안 함
+     */
+    public void touchAll(List<GitHubEntity> entities) {
+        if (!writeAvoidance) return;
+        List<Object[]> args = new ArrayList<>(entities.size());
+        for (GitHubEntity e : entities) {
+            if (e.getLastCrawledAt() == null) continue;
+            args.add(new Object[]{e.getId(), e.getLastCrawledAt(), e.getLastCheckedAt()});
+        }
+        if (args.isEmpty()) return;
+        jdbc.batchUpdate(TOUCH_SQL, args);
+    }
+
+    /**
+     * 읽어 온 엔티티의 lastCheckedAt 을 repo_crawl_touch 값과 맞춘다 (늦은 쪽).
+     * 내용이 같아 행을 건너뛴 평가의 시각은 touch 에만 있으므로, 평가 구간(TrendBatch)을 계산하기 전에 부른다
+     */
+    public void mergeTouched(Collection<GitHubEntity> entities) {
+        if (entities.isEmpty()) return;
+        Map<Long, GitHubEntity> byId = new HashMap<>();
+        for (GitHubEntity e : entities) {
+            if (e.getId() != null) byId.put(e.getId(), e);
+        }
+        if (byId.isEmpty()) return;
+        jdbc.query("SELECT repo_id, last_checked_at FROM repo_crawl_touch WHERE last_checked_at IS NOT NULL AND repo_id IN ("
+                        + placeholders(byId.keySet()) + ")",
+                rs -> {
+                    GitHubEntity e = byId.get(rs.getLong(1));
+                    OffsetDateTime touched = rs.getObject(2, OffsetDateTime.class);
+                    if (e != null && (e.getLastCheckedAt() == null || touched.isAfter(e.getLastCheckedAt()))) {
+                        e.setLastCheckedAt(touched);
+                    }
+                },
+                byId.keySet().toArray());
+    }
+
+    // ──────────────────────────────────────────────────────────────
+    //  WAL 측정 (PostgreSQL). 같은 DB 의 다른 쓰기도 섞이므로 상한으로 본다
+    // ──────────────────────────────────────────────────────────────
+
+    public String walPosition() {
+        return jdbc.queryForObject("SELECT pg_current_wal_lsn()::text", String.class);
+    }
+
+    public long walBytesSince(String position) {
+        Long n = jdbc.queryForObject("SELECT pg_wal_lsn_diff(pg_current_wal_lsn(), ?::pg_lsn)::bigint",
+                Long.class, position);
+        return n == null ? 0 : n;
+    }
+
+    private static String buildUpsertSql(boolean writeAvoidance) {
+        StringBuilder sql = new StringBuilder("INSERT INTO git_repositories (");
+        sql.append(String.join(", ", COLUMNS)).append(") VALUES (");
+        for (int i = 0; i < COLUMNS.length; i++) {
+            sql.append(i == 0 ? "?" : ", ?");
+        }
+        sql.append(") ON CONFLICT (id) DO UPDATE SET ");
+        boolean first = true;
+        for (int i = 1; i < COLUMNS.length; i++) {
+            if (INSERT_ONLY.contains(COLUMNS[i])) continue;
+            if (!first) sql.append(", ");
+            sql.append(COLUMNS[i]).append(" = EXCLUDED.").append(COLUMNS[i]);
+            first = false;
+        }
+        if (writeAvoidance) {
+            sql.append(" WHERE git_repositories.content_hash IS DISTINCT FROM EXCLUDED.content_hash");
+        }
+        return sql.toString();
+    }
+
+    private static String placeholders(Collection<?> values) {
+        return String.join(", ", Collections.nCopies(values.size(), "?"));
+    }
+}
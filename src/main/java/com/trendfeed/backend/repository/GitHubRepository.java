@@ -2,7 +2,47 @@ package com.trendfeed.backend.repository;
 
 import com.trendfeed.backend.entity.GitHubEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
 
 public interface GitHubRepository extends JpaRepository<GitHubEntity, Long> {
     GitHubEntity findByFullName(String fullName);
+
+    // 크롤 수집 단계용: README 본문 없이 조건부 요청 검증자(ETag/Last-Modified)와 README SHA 만 조회
+    // 마지막 크롤 시각은 repo_crawl_touch 와 행 자체 값 중 늦은 쪽 (내용이 같으면 행은 다시 쓰지 않음)
+    @Query("""
+            SELECT g.id AS id, g.fullName AS fullName,
+                   g.metaEtag AS metaEtag, g.metaLastModified AS metaLastModified,
+                   g.readmeEtag AS readmeEtag, g.readmeLastModified AS readmeLastModified, g.readmeSha AS readmeSha,
+                   greatest(g.lastCrawledAt, t.lastCrawledAt) AS lastCrawledAt
+            FROM GitHubEntity g LEFT JOIN RepoCrawlTouch t ON t.repoId = g.id
+            WHERE g.id IN :ids
+            """)
+    List<CrawlStateView> findCrawlStatesByIdIn(@Param("ids") Collection<Long> ids);
+
+    // search 모드에서 검색 결과에서 빠진 리포 갱신용
+    @Query("""
+            SELECT g.id AS id, g.fullName AS fullName,
+                   g.metaEtag AS metaEtag, g.metaLastModified AS metaLastModified,
+                   g.readmeEtag AS readmeEtag, g.readmeLastModified AS readmeLastModified, g.readmeSha AS readmeSha,
+                   greatest(g.lastCrawledAt, t.lastCrawledAt) AS lastCrawledAt
+            FROM GitHubEntity g LEFT JOIN RepoCrawlTouch t ON t.repoId = g.id
+            WHERE g.trendStage >= :minStage
+            """)
+    List<CrawlStateView> findCrawlStatesByTrendStageAtLeast(@Param("minStage") int minStage);
+
+    interface CrawlStateView {
+        Long getId();
+        String getFullName();
+        String getMetaEtag();
+        String getMetaLastModified();
+        String getReadmeEtag();
+        String getReadmeLastModified();
+        String getReadmeSha();
+        OffsetDateTime getLastCrawledAt();
+    }
 }
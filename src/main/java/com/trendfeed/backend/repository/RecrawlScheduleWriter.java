@@ -0,0 +1,125 @@
+package com.trendfeed.backend.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * repo_crawl_schedule 읽기/쓰기 (JDBC).
+ *
+ *  - upsertAll : 저장 배치마다 다음 기한 기록 (호출 측 트랜잭션 안에서)
+ *  - claimDue  : 기한이 된 행을 nextDueAt 순으로 잡고 재시도 시각으로 미룬다 (SKIP LOCKED → 여러 노드 동시 안전)
+ *  - notDue    : 전체 크롤에서 아직 기한이 안 된 리포 거르기
+ */
+@Repository
+public class RecrawlScheduleWriter {
+
+    private static final String UPSERT_SQL = """
+            INSERT INTO repo_crawl_schedule (repo_id, next_due_at, interval_seconds, stars_per_day, scheduled_at)
+            VALUES (?, ?, ?, ?, ?)
+            ON CONFLICT (repo_id) DO UPDATE SET
+                next_due_at = EXCLUDED.next_due_at,
+                interval_seconds = EXCLUDED.interval_seconds,
+                stars_per_day = EXCLUDED.stars_per_day,
+                scheduled_at = EXCLUDED.scheduled_at
+            """;
+
+    private static final String CLAIM_SQL = """
+            UPDATE repo_crawl_schedule s SET next_due_at = ?
+            WHERE s.repo_id IN (
+                SELECT repo_id FROM repo_crawl_schedule
+                WHERE next_due_at <= ?
+                ORDER BY next_due_at
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED)
+            RETURNING s.repo_id
+            """;
+
+    // 일정이 없는 리포: 마지막 크롤 + 기본 간격 (한꺼번에 몰리지 않게 마지막 크롤 시각 기준)
+    private static final String SEED_SQL = """
+            INSERT INTO repo_crawl_schedule (repo_id, next_due_at, interval_seconds, stars_per_day, scheduled_at)
+            SELECT g.id, COALESCE(GREATEST(g.last_crawled_at, t.last_crawled_at), now()) + make_interval(secs => ?), ?, 0, now()
+            FROM git_repositories g
+            LEFT JOIN repo_crawl_touch t ON t.repo_id = g.id
+            WHERE NOT EXISTS (SELECT 1 FROM repo_crawl_schedule s WHERE s.repo_id = g.id)
+            ON CONFLICT (repo_id) DO NOTHING
+            """;
+
+    private final JdbcTemplate jdbc;
+
+    public RecrawlScheduleWriter(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    public record Entry(Long repoId, OffsetDateTime nextDueAt, long intervalSeconds, double starsPerDay) {}
+
+    public void upsertAll(List<Entry> entries, OffsetDateTime now) {
+        if (entries.isEmpty()) return;
+        Timestamp at = Timestamp.from(now.toInstant());
+        List<Object[]> args = new ArrayList<>(entries.size());
+        for (Entry e : entries) {
+            args.add(new Object[]{e.repoId(), Timestamp.from(e.nextDueAt().toInstant()),
+                    e.intervalSeconds(), e.starsPerDay(), at});
+        }
+        jdbc.batchUpdate(UPSERT_SQL, args);
+    }
+
+    /**
+     * 저장된 평활 스타 속도 (없는 리포는 빠짐)
+     */
+    public Map<Long, Double> starsPerDay(Collection<Long> repoIds) {
+        if (repoIds.isEmpty()) return Map.of();
+        Map<Long, Double> result = new HashMap<>();
+        jdbc.query("SELECT repo_id, stars_per_day FROM repo_crawl_schedule WHERE repo_id IN (" + placeholders(repoIds) + ")",
+                rs -> {
+                    result.put(rs.getLong(1), rs.getDouble(2));
+                },
+                repoIds.toArray());
+        return result;
+    }
+
+    /**
+     * 기한이 지난 리포 최대 limit 개를 잡는다. 잡은 행의 기한은 retryAt 으로 (갱신되면 그때 다시 정해짐)
+     */
+    public List<Long> claimDue(OffsetDateTime now, OffsetDateTime retryAt, int limit) {
+        return jdbc.queryForList(CLAIM_SQL, Long.class,
+                Timestamp.from(retryAt.toInstant()), Timestamp.from(now.toInstant()), limit);
+    }
+
+    /**
+     * ids 중 기한이 아직 안 된 리포
+     */
+    public Set<Long> notDue(Collection<Long> repoIds, OffsetDateTime now) {
+        if (repoIds.isEmpty()) return Set.of();
+        List<Object> params = new ArrayList<>(repoIds.size() + 1);
+        params.addAll(repoIds);
+        params.add(Timestamp.from(now.toInstant()));
+        return new HashSet<>(jdbc.queryForList(
+                "SELECT repo_id FROM repo_crawl_schedule WHERE repo_id IN (" + placeholders(repoIds) + ") AND next_due_at > ?",
+                Long.class, params.toArray()));
+    }
+
+    public long countDue(OffsetDateTime now) {
+        Long n = jdbc.queryForObject("SELECT count(*) FROM repo_crawl_schedule WHERE next_due_at <= ?",
+                Long.class, Timestamp.from(now.toInstant()));
+        return n == null ? 0 : n;
+    }
+
+    public int seedMissing(long intervalSeconds) {
+        return jdbc.update(SEED_SQL, intervalSeconds, intervalSeconds);
+    }
+
+    private static String placeholders(Collection<?> values) {
+        return String.join(", ", Collections.nCopies(values.size(), "?"));
+    }
+}
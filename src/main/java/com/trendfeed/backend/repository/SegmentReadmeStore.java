@@ -0,0 +1,561 @@
+package com.trendfeed.backend.repository;
+
+import com.trendfeed.backend.service.ReadmeStore;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * README 본문을 git blob SHA 로 주소 지정해서 로컬 세그먼트 파일에 두는 저장소 (readme.store=segment).
+ *
+ *  - 세그먼트(seg-NNNNNN.dat): append-only. 레코드 = [magic][sha 20B][length][crc32][UTF-8 본문]
+ *    같은 SHA(같은 README)는 한 번만 쓴다. segment-size-mb 를 넘으면 새 세그먼트로 넘어간다
+ *  - 인덱스(index.dat): [sha][segment][offset][length][crc32] 고정 40바이트 엔트리 append 로그.
+ *    세그먼트를 force 한 뒤에 인덱스를 쓰므로, 중간에 죽으면 인덱스에 없는 레코드만 남는다
+ *  - 기동 시 인덱스를 읽고 각 세그먼트의 인덱스 이후 구간을 스캔해서 보충, 찢긴 꼬리 레코드는 잘라낸다.
+ *    인덱스 엔트리가 깨져 있으면 세그먼트 전체를 스캔해 인덱스를 새로 만든다 (임시 파일 → rename)
+ *  - 읽기: 세그먼트를 FileChannel.map 으로 매핑해 본문 구간 slice 를 그대로 돌려준다 (복사 없음)
+ *  - 압축(compaction): git_repositories.readme_sha 에서 더 이상 참조하지 않는 blob 이 많은 세그먼트의
+ *    살아있는 레코드를 활성 세그먼트로 옮기고 세그먼트를 지운다.
+ *    readme_sha 갱신은 본문을 쓴 뒤에 커밋되므로, 직전 압축 이후 쓰였거나 hasContent 로 다시 참조된
+ *    blob 은 참조 스캔에 없어도 지우지 않는다
+ *
+ * 리포 → SHA 는 git_repositories.readme_sha 로 찾는다. 파일이 노드 로컬이라
+ * 여러 노드로 크롤할 때(crawler.node-id)는 공유 볼륨에 두거나 readme.store=db 를 쓴다.
+ */
+@Repository
+@ConditionalOnProperty(name = "readme.store", havingValue = "segment")
+public class SegmentReadmeStore implements ReadmeStore {
+
+    private static final Logger log = LoggerFactory.getLogger(SegmentReadmeStore.class);
+
+    private static final int RECORD_MAGIC = 0x52444d31;            // "RDM1"
+    private static final int SHA_BYTES = 20;
+    private static final int RECORD_HEADER = 4 + SHA_BYTES + 4 + 4;
+    private static final int INDEX_ENTRY = SHA_BYTES + 4 + 8 + 4 + 4;
+    private static final String INDEX_FILE = "index.dat";
+    private static final HexFormat HEX = HexFormat.of();
+
+    /*
+     * 본문 위치 (offset 은 레코드 헤더 다음)
+     */
+    private record Location(int segment, long offset, int length) {
+        long end() { return offset + length; }
+    }
+
+    private final JdbcTemplate jdbc;
+    private final Path dir;
+    private final long segmentMaxBytes;
+    private final double compactLiveRatio;
+
+    private final Map<String, Location> index = new ConcurrentHashMap<>();
+    private final Map<Integer, Segment> segments = new ConcurrentHashMap<>();
+    private Segment active;
+    private FileChannel indexChannel;
+
+    // 이번/직전 압축 주기에 쓰였거나 다시 참조된 SHA (아직 커밋 안 된 readme_sha 가 가리킬 수 있음)
+    private volatile Set<String> recent = ConcurrentHashMap.newKeySet();
+    private volatile Set<String> recentBefore = Set.of();
+
+    public SegmentReadmeStore(JdbcTemplate jdbc,
+                              @Value("${readme.store.dir:./data/readmes}") String dir,
+                              @Value("${readme.store.segment-size-mb:256}") long segmentSizeMb,
+                              @Value("${readme.store.compact-live-ratio:0.5}") double compactLiveRatio) {
+        this.jdbc = jdbc;
+        this.dir = Paths.get(dir);
+        this.segmentMaxBytes = Math.min(Integer.MAX_VALUE, segmentSizeMb * 1024 * 1024);
+        this.compactLiveRatio = compactLiveRatio;
+    }
+
+    // ──────────────────────────────────────────────────────────────
+    //  기동 / 종료
+    // ──────────────────────────────────────────────────────────────
+    @PostConstruct
+    synchronized void open() throws IOException {
+        Files.createDirectories(dir);
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path p : files.filter(f -> f.getFileName().toString().matches("seg-\\d+\\.dat")).sorted().toList()) {
+                Segment s = new Segment(segmentId(p), p);
+                segments.put(s.id, s);
+            }
+        }
+
+        Path indexPath = dir.resolve(INDEX_FILE);
+        boolean intact = loadIndex(indexPath);
+        if (!intact) {
+            log.warn("README index {} is damaged, rebuilding from segments", indexPath);
+            index.clear();
+        }
+
+        // 인덱스가 덮는 구간 이후(= 인덱스 쓰기 전에 죽은 레코드)를 스캔해서 보충
+        Map<Integer, Long> covered = new HashMap<>();
+        for (Location loc : index.values()) {
+            covered.merge(loc.segment(), loc.end(), Math::max);
+        }
+        List<Map.Entry<String, Location>> recovered = new ArrayList<>();
+        for (Segment s : new TreeMap<>(segments).values()) {
+            recovered.addAll(scan(s, covered.getOrDefault(s.id, 0L)));
+        }
+
+        if (!intact) {
+            rewriteIndex(indexPath);
+        } else {
+            indexChannel = FileChannel.open(indexPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            if (!recovered.isEmpty()) {
+                writeIndexEntries(recovered);
+            }
+        }
+
+        active = segments.isEmpty() ? newSegment(1) : segments.get(Collections.max(segments.keySet()));
+        log.info("README segment store opened: {} blobs in {} segments ({} recovered)",
+                index.size(), segments.size(), recovered.size());
+    }
+
+    @PreDestroy
+    synchronized void close() throws IOException {
+        for (Segment s : segments.values()) {
+            s.channel.close();
+        }
+        if (indexChannel != null) indexChannel.close();
+    }
+
+    // ──────────────────────────────────────────────────────────────
+    //  ReadmeStore
+    // ──────────────────────────────────────────────────────────────
+    @Override
+    public void putAll(List<Readme> readmes) {
+        if (readmes.isEmpty()) return;
+        try {
+            append(readmes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void putAllIfAbsent(List<Readme> readmes) {
+        // 같은 SHA 는 내용이 같으므로 덮어쓸 일이 없다
+        putAll(readmes);
+    }
+
+    @Override
+    public boolean hasContent(String sha) {
+        if (sha == null) return false;
+        String key = sha.toLowerCase();
+        // 표시를 먼저 남긴다: 압축이 지우는 중이면 여기서 없다고 보거나, 압축이 이 표시를 보고 되살린다
+        recent.add(key);
+        return index.containsKey(key);
+    }
+
+    @Override
+    public Optional<String> get(Long repoId) {
+        return shaOf(repoId).flatMap(this::blob).map(b -> StandardCharsets.UTF_8.decode(b).toString());
+    }
+
+    @Override
+    public Map<Long, String> getAll(Collection<Long> repoIds) {
+        if (repoIds.isEmpty()) return Map.of();
+
+        String placeholders = String.join(", ", Collections.nCopies(repoIds.size(), "?"));
+        Map<Long, String> result = new HashMap<>();
+        jdbc.query("SELECT id, readme_sha FROM git_repositories WHERE readme_sha IS NOT NULL AND id IN (" + placeholders + ")",
+                rs -> {
+                    long id = rs.getLong(1);
+                    blob(rs.getString(2)).ifPresent(b -> result.put(id, StandardCharsets.UTF_8.decode(b).toString()));
+                },
+                repoIds.toArray());
+        return result;
+    }
+
+    @Override
+    public boolean copyTo(Long repoId, Writer out) throws IOException {
+        Optional<ByteBuffer> blob = shaOf(repoId).flatMap(this::blob);
+        if (blob.isEmpty()) return false;
+
+        // 매핑된 구간에서 바로 디코딩 (본문 byte[] 복사 없음)
+        CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        ByteBuffer in = blob.get();
+        CharBuffer chars = CharBuffer.allocate(8192);
+        while (true) {
+            CoderResult r = decoder.decode(in, chars, true);
+            chars.flip();
+            out.write(chars.array(), 0, chars.limit());
+            chars.clear();
+            if (r.isUnderflow()) break;
+        }
+        decoder.flush(chars);
+        chars.flip();
+        out.write(chars.array(), 0, chars.limit());
+        return true;
+    }
+
+    /**
+     * SHA 의 본문 (세그먼트 매핑 위의 읽기 전용 slice)
+     */
+    public Optional<ByteBuffer> blob(String sha) {
+        if (sha == null) return Optional.empty();
+        Location loc = index.get(sha.toLowerCase());
+        if (loc == null) return Optional.empty();
+        Segment s = segments.get(loc.segment());
+        if (s == null) return Optional.empty();
+        return Optional.of(s.slice(loc.offset(), loc.length()));
+    }
+
+    private Optional<String> shaOf(Long repoId) {
+        List<String> sha = jdbc.queryForList("SELECT readme_sha FROM git_repositories WHERE id = ?", String.class, repoId);
+        return sha.isEmpty() ? Optional.empty() : Optional.ofNullable(sha.get(0));
+    }
+
+    // ──────────────────────────────────────────────────────────────
+    //  쓰기
+    // ──────────────────────────────────────────────────────────────
+    private synchronized void append(List<Readme> readmes) throws IOException {
+        Map<String, Location> fresh = new LinkedHashMap<>();
+        Set<Segment> touched = new HashSet<>();
+        for (Readme r : readmes) {
+            byte[] raw = r.text().getBytes(StandardCharsets.UTF_8);
+            String sha = (r.sha() != null && r.sha().length() == SHA_BYTES * 2) ? r.sha().toLowerCase() : gitBlobSha(raw);
+            recent.add(sha);
+            if (index.containsKey(sha) || fresh.containsKey(sha)) continue;   // 이미 있는 README
+
+            fresh.put(sha, writeRecord(sha, raw));
+            touched.add(active);
+        }
+        if (fresh.isEmpty()) return;
+
+        // 세그먼트가 디스크에 닿은 뒤에 인덱스 기록
+        for (Segment s : touched) {
+            s.channel.force(false);
+        }
+        writeIndexEntries(new ArrayList<>(fresh.entrySet()));
+        index.putAll(fresh);
+    }
+
+    private Location writeRecord(String sha, byte[] raw) throws IOException {
+        if (active.size > 0 && active.size + RECORD_HEADER + raw.length > segmentMaxBytes) {
+            active.channel.force(false);
+            active = newSegment(active.id + 1);
+        }
+
+        ByteBuffer buf = ByteBuffer.allocate(RECORD_HEADER + raw.length);
+        buf.putInt(RECORD_MAGIC).put(HEX.parseHex(sha)).putInt(raw.length).putInt(crc(raw, 0, raw.length)).put(raw);
+        buf.flip();
+
+        long pos = active.size;
+        writeFully(active.channel, buf, pos);
+        active.size = pos + buf.limit();
+        return new Location(active.id, pos + RECORD_HEADER, raw.length);
+    }
+
+    private void writeIndexEntries(List<Map.Entry<String, Location>> entries) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(INDEX_ENTRY * entries.size());
+        for (Map.Entry<String, Location> e : entries) {
+            putIndexEntry(buf, e.getKey(), e.getValue());
+        }
+        buf.flip();
+        while (buf.hasRemaining()) {
+            indexChannel.write(buf);
+        }
+        indexChannel.force(false);
+    }
+
+    private static void putIndexEntry(ByteBuffer buf, String sha, Location loc) {
+        int start = buf.position();
+        buf.put(HEX.parseHex(sha)).putInt(loc.segment()).putLong(loc.offset()).putInt(loc.length());
+        buf.putInt(crc(buf.array(), start, INDEX_ENTRY - 4));
+    }
+
+    // 현재 인덱스 전체를 임시 파일에 쓰고 원자적으로 교체
+    private void rewriteIndex(Path indexPath) throws IOException {
+        if (indexChannel != null) indexChannel.close();
+
+        Path tmp = dir.resolve(INDEX_FILE + ".tmp");
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buf = ByteBuffer.allocate(INDEX_ENTRY * 1024);
+            for (Map.Entry<String, Location> e : index.entrySet()) {
+                if (buf.remaining() < INDEX_ENTRY) {
+                    buf.flip();
+                    while (buf.hasRemaining()) ch.write(buf);
+                    buf.clear();
+                }
+                putIndexEntry(buf, e.getKey(), e.getValue());
+            }
+            buf.flip();
+            while (buf.hasRemaining()) ch.write(buf);
+            ch.force(true);
+        }
+        Files.move(tmp, indexPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        indexChannel = FileChannel.open(indexPath, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    // ──────────────────────────────────────────────────────────────
+    //  복구
+    // ──────────────────────────────────────────────────────────────
+
+    /*
+     * 인덱스 로드. 깨진 엔트리가 있으면 false (잘린 마지막 엔트리는 무시)
+     */
+    private boolean loadIndex(Path indexPath) throws IOException {
+        if (!Files.exists(indexPath)) {
+            return segments.isEmpty();
+        }
+        try (FileChannel ch = FileChannel.open(indexPath, StandardOpenOption.READ)) {
+            long entries = ch.size() / INDEX_ENTRY;
+            ByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, entries * INDEX_ENTRY);
+            byte[] entry = new byte[INDEX_ENTRY];
+            for (long i = 0; i < entries; i++) {
+                buf.get(entry);
+                ByteBuffer e = ByteBuffer.wrap(entry);
+                byte[] sha = new byte[SHA_BYTES];
+                e.get(sha);
+                int segment = e.getInt();
+                long offset = e.getLong();
+                int length = e.getInt();
+                if (e.getInt() != crc(entry, 0, INDEX_ENTRY - 4)) {
+                    return false;
+                }
+                Segment s = segments.get(segment);
+                if (s != null && offset + length <= s.size) {
+                    index.put(HEX.formatHex(sha), new Location(segment, offset, length));
+                }
+            }
+        }
+        return true;
+    }
+
+    /*
+     * 세그먼트의 from 이후 레코드를 읽어 인덱스에 없는 것을 돌려준다. 찢긴 꼬리는 잘라낸다
+     */
+    private List<Map.Entry<String, Location>> scan(Segment s, long from) throws IOException {
+        List<Map.Entry<String, Location>> found = new ArrayList<>();
+        long pos = from;
+        ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER);
+        while (pos + RECORD_HEADER <= s.size) {
+            header.clear();
+            readFully(s.channel, header, pos);
+            header.flip();
+            int magic = header.getInt();
+            byte[] sha = new byte[SHA_BYTES];
+            header.get(sha);
+            int length = header.getInt();
+            int crc = header.getInt();
+            if (magic != RECORD_MAGIC || length < 0 || pos + RECORD_HEADER + length > s.size) break;
+
+            ByteBuffer body = ByteBuffer.allocate(length);
+            readFully(s.channel, body, pos + RECORD_HEADER);
+            if (crc(body.array(), 0, length) != crc) break;
+
+            Location loc = new Location(s.id, pos + RECORD_HEADER, length);
+            String key = HEX.formatHex(sha);
+            if (index.putIfAbsent(key, loc) == null) {
+                found.add(Map.entry(key, loc));
+            }
+            pos += RECORD_HEADER + length;
+        }
+        if (pos < s.size) {
+            log.warn("truncating torn README record at {}:{} ({} bytes)", s.path.getFileName(), pos, s.size - pos);
+            s.channel.truncate(pos);
+            s.size = pos;
+        }
+        return found;
+    }
+
+    // ──────────────────────────────────────────────────────────────
+    //  compaction
+    // ──────────────────────────────────────────────────────────────
+    @Scheduled(cron = "${readme.store.compact-cron:0 0 4 * * SUN}")
+    public void compact() {
+        // 스캔 전에 주기를 넘긴다. 스캔 중/직전에 쓰인 blob 은 recent/recentBefore 에 남아 있다
+        synchronized (this) {
+            recentBefore = recent;
+            recent = ConcurrentHashMap.newKeySet();
+        }
+        Set<String> live = new HashSet<>();
+        jdbc.query("SELECT DISTINCT readme_sha FROM git_repositories WHERE readme_sha IS NOT NULL",
+                rs -> {
+                    live.add(rs.getString(1).toLowerCase());
+                });
+        try {
+            compact(live);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    synchronized void compact(Set<String> live) throws IOException {
+        Map<Integer, Long> liveBytes = new HashMap<>();
+        for (Map.Entry<String, Location> e : index.entrySet()) {
+            if (keeps(live, e.getKey())) {
+                liveBytes.merge(e.getValue().segment(), (long) RECORD_HEADER + e.getValue().length(), Long::sum);
+            }
+        }
+
+        List<Segment> victims = new ArrayList<>();
+        for (Segment s : segments.values()) {
+            if (s == active || s.size == 0) continue;
+            if ((double) liveBytes.getOrDefault(s.id, 0L) / s.size < compactLiveRatio) {
+                victims.add(s);
+            }
+        }
+        if (victims.isEmpty()) return;
+
+        Set<Integer> victimIds = new HashSet<>();
+        victims.forEach(v -> victimIds.add(v.id));
+
+        int moved = 0;
+        int dropped = 0;
+        for (Map.Entry<String, Location> e : new ArrayList<>(index.entrySet())) {
+            Location loc = e.getValue();
+            if (!victimIds.contains(loc.segment())) continue;
+
+            // 지울 것은 인덱스에서 먼저 빼고 한 번 더 본다 (그 사이 hasContent 가 표시했으면 되살린다)
+            if (keeps(live, e.getKey()) || (index.remove(e.getKey()) != null && keeps(live, e.getKey()))) {
+                ByteBuffer body = segments.get(loc.segment()).slice(loc.offset(), loc.length());
+                byte[] raw = new byte[loc.length()];
+                body.get(raw);
+                index.put(e.getKey(), writeRecord(e.getKey(), raw));
+                moved++;
+            } else {
+                dropped++;
+            }
+        }
+
+        // 새 위치가 디스크에 닿은 뒤 인덱스 교체, 그다음 옛 세그먼트 삭제
+        for (Segment s : segments.values()) {
+            if (!victimIds.contains(s.id)) s.channel.force(false);
+        }
+        rewriteIndex(dir.resolve(INDEX_FILE));
+        for (Segment v : victims) {
+            segments.remove(v.id);
+            v.channel.close();
+            Files.deleteIfExists(v.path);
+        }
+        log.info("README store compaction: {} segments removed, {} blobs moved, {} dropped", victims.size(), moved, dropped);
+    }
+
+    private boolean keeps(Set<String> live, String sha) {
+        return live.contains(sha) || recent.contains(sha) || recentBefore.contains(sha);
+    }
+
+    // ──────────────────────────────────────────────────────────────
+    //  유틸
+    // ──────────────────────────────────────────────────────────────
+    private Segment newSegment(int id) throws IOException {
+        Segment s = new Segment(id, dir.resolve("seg-%06d.dat".formatted(id)));
+        segments.put(id, s);
+        return s;
+    }
+
+    private static int segmentId(Path p) {
+        String name = p.getFileName().toString();
+        return Integer.parseInt(name.substring(4, name.length() - 4));
+    }
+
+    // git 이 README 에 매기는 것과 같은 blob SHA-1 ("blob <len>\0" + 본문)
+    private static String gitBlobSha(byte[] raw) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-1");
+            md.update(("blob " + raw.length + "\0").getBytes(StandardCharsets.US_ASCII));
+            return HEX.formatHex(md.digest(raw));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static int crc(byte[] data, int off, int len) {
+        CRC32 crc = new CRC32();
+        crc.update(data, off, len);
+        return (int) crc.getValue();
+    }
+
+    private static void writeFully(FileChannel ch, ByteBuffer buf, long pos) throws IOException {
+        while (buf.hasRemaining()) {
+            pos += ch.write(buf, pos);
+        }
+    }
+
+    private static void readFully(FileChannel ch, ByteBuffer buf, long pos) throws IOException {
+        while (buf.hasRemaining()) {
+            int n = ch.read(buf, pos);
+            if (n < 0) throw new IOException("unexpected end of segment");
+            pos += n;
+        }
+    }
+
+    /*
+     * 세그먼트 파일 하나. 읽기는 매핑 위의 slice, 매핑이 짧으면(뒤에 더 써졌으면) 다시 매핑
+     */
+    private static final class Segment {
+        final int id;
+        final Path path;
+        final FileChannel channel;
+        volatile long size;
+        private volatile MappedByteBuffer map;
+
+        Segment(int id, Path path) throws IOException {
+            this.id = id;
+            this.path = path;
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            this.size = channel.size();
+        }
+
+        ByteBuffer slice(long offset, int length) {
+            MappedByteBuffer m = map;
+            if (m == null || offset + length > m.capacity()) {
+                m = remap();
+            }
+            return m.slice((int) offset, length).asReadOnlyBuffer();
+        }
+
+        private synchronized MappedByteBuffer remap() {
+            try {
+                map = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+                return map;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.trendfeed.backend.repository;
+
+import com.trendfeed.backend.entity.StarHistoryChunk;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+public interface StarHistoryChunkRepository extends JpaRepository<StarHistoryChunk, Long> {
+
+    // 구간 growth 계산용: 리포들의 [from, to] 월 청크 (30일 구간이면 리포당 최대 3행)
+    List<StarHistoryChunk> findByRepoIdInAndMonthStartBetweenOrderByMonthStartAsc(
+            Collection<Long> repoIds, LocalDate from, LocalDate to);
+}
@@ -0,0 +1,148 @@
+package com.trendfeed.backend.repository;
+
+import com.trendfeed.backend.service.StarHistoryCodec;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * star_history_chunks 에 샘플 추가 (배치).
+ *
+ * 월 청크마다 마지막 샘플(lastTs/lastStars)만 읽어서 차이를 인코딩하고,
+ * INSERT ... ON CONFLICT DO UPDATE SET samples = samples || ? 로 이어 붙인다.
+ * 읽은 뒤 다른 쓰기가 끼어든 청크(lastTs 가 달라짐)는 갱신하지 않고 그 샘플을 버린다.
+ * GH Archive 백필 청크(backfilled=true)는 replaceBackfilled 로 통째로 쓴다.
+ */
+@Repository
+public class StarHistoryWriter {
+
+    private static final String UPSERT_SQL = """
+            INSERT INTO star_history_chunks (repo_id, month_start, sample_count, last_ts, last_stars, samples)
+            VALUES (?, ?, 1, ?, ?, ?)
+            ON CONFLICT (repo_id, month_start) DO UPDATE SET
+                samples = star_history_chunks.samples || EXCLUDED.samples,
+                sample_count = star_history_chunks.sample_count + 1,
+                last_ts = EXCLUDED.last_ts,
+                last_stars = EXCLUDED.last_stars
+            WHERE star_history_chunks.last_ts = ?
+            """;
+
+    // GH Archive 백필 청크: 크롤 샘플이 들어간 청크(backfilled 아님)는 건드리지 않는다
+    private static final String BACKFILL_SQL = """
+            INSERT INTO star_history_chunks (repo_id, month_start, sample_count, last_ts, last_stars, samples, backfilled)
+            VALUES (?, ?, ?, ?, ?, ?, true)
+            ON CONFLICT (repo_id, month_start) DO UPDATE SET
+                samples = EXCLUDED.samples,
+                sample_count = EXCLUDED.sample_count,
+                last_ts = EXCLUDED.last_ts,
+                last_stars = EXCLUDED.last_stars
+            WHERE star_history_chunks.backfilled
+            """;
+
+    private final JdbcTemplate jdbc;
+
+    public StarHistoryWriter(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /**
+     * 크롤 시점의 스타 수 하나
+     */
+    public record Sample(Long repoId, OffsetDateTime at, int stars) {}
+
+    private record Last(long ts, int stars) {}
+
+    /**
+     * 백필로 만든 한 달치 청크 (samples 는 StarHistoryCodec.encodeAll 결과)
+     */
+    public record BackfillChunk(Long repoId, LocalDate month, int sampleCount, long lastTs, int lastStars, byte[] samples) {}
+
+    /**
+     * 샘플들을 각 리포의 월 청크에 추가. 추가된 샘플 수 반환
+     */
+    public int appendAll(List<Sample> samples) {
+        if (samples.isEmpty()) return 0;
+
+        Map<LocalDate, List<Sample>> byMonth = new LinkedHashMap<>();
+        for (Sample s : samples) {
+            byMonth.computeIfAbsent(StarHistoryCodec.monthOf(s.at()), m -> new ArrayList<>()).add(s);
+        }
+
+        int total = 0;
+        for (Map.Entry<LocalDate, List<Sample>> entry : byMonth.entrySet()) {
+            total += appendMonth(entry.getKey(), entry.getValue());
+        }
+        return total;
+    }
+
+    /**
+     * 백필 청크 쓰기 (이미 백필된 달은 교체, 크롤 샘플이 있는 달은 건너뜀). 쓴 청크 수 반환
+     */
+    public int replaceBackfilled(List<BackfillChunk> chunks) {
+        if (chunks.isEmpty()) return 0;
+        List<Object[]> args = new ArrayList<>(chunks.size());
+        for (BackfillChunk c : chunks) {
+            args.add(new Object[]{c.repoId(), Date.valueOf(c.month()), c.sampleCount(), c.lastTs(), c.lastStars(), c.samples()});
+        }
+        int total = 0;
+        for (int n : jdbc.batchUpdate(BACKFILL_SQL, args)) {
+            total += (n < 0) ? 1 : n;
+        }
+        return total;
+    }
+
+    private int appendMonth(LocalDate month, List<Sample> samples) {
+        Map<Long, Last> last = loadLast(month, samples.stream().map(Sample::repoId).toList());
+        long monthStart = StarHistoryCodec.monthStartEpoch(month);
+
+        List<Object[]> args = new ArrayList<>(samples.size());
+        for (Sample s : samples) {
+            long ts = s.at().toEpochSecond();
+            Last prev = last.get(s.repoId());
+            if (prev != null && ts <= prev.ts()) {
+                continue;   // 같은 시각을 두 번 기록하지 않음
+            }
+            byte[] bytes = (prev == null)
+                    ? StarHistoryCodec.encode(monthStart, 0, ts, s.stars())
+                    : StarHistoryCodec.encode(prev.ts(), prev.stars(), ts, s.stars());
+            args.add(new Object[]{
+                    s.repoId(), Date.valueOf(month), ts, s.stars(), bytes,
+                    prev == null ? null : prev.ts()
+            });
+        }
+        if (args.isEmpty()) return 0;
+
+        int total = 0;
+        for (int n : jdbc.batchUpdate(UPSERT_SQL, args)) {
+            total += (n < 0) ? 1 : n;
+        }
+        return total;
+    }
+
+    private Map<Long, Last> loadLast(LocalDate month, List<Long> repoIds) {
+        if (repoIds.isEmpty()) return Map.of();
+
+        String placeholders = String.join(", ", Collections.nCopies(repoIds.size(), "?"));
+        List<Object> params = new ArrayList<>(repoIds.size() + 1);
+        params.add(Date.valueOf(month));
+        params.addAll(repoIds);
+
+        Map<Long, Last> last = new HashMap<>();
+        jdbc.query("SELECT repo_id, last_ts, last_stars FROM star_history_chunks WHERE month_start = ? AND repo_id IN ("
+                        + placeholders + ")",
+                rs -> {
+                    last.put(rs.getLong(1), new Last(rs.getLong(2), rs.getInt(3)));
+                },
+                params.toArray());
+        return last;
+    }
+}
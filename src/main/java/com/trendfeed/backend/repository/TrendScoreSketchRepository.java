@@ -0,0 +1,25 @@
+package com.trendfeed.backend.repository;
+
+import com.trendfeed.backend.entity.TrendScoreSketch;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface TrendScoreSketchRepository extends JpaRepository<TrendScoreSketch, Long> {
+
+    List<TrendScoreSketch> findByRunIdAndNodeIdAndScorer(Long runId, String nodeId, String scorer);
+
+    List<TrendScoreSketch> findByRunIdInAndScorer(List<Long> runIds, String scorer);
+
+    // 분위수 컷오프 기준: 이 채점기의 스케치가 있는 완료된 실행 (최근 순)
+    @Query(value = """
+            SELECT DISTINCT s.run_id FROM trend_score_sketches s
+            JOIN crawl_runs r ON r.id = s.run_id
+            WHERE r.status = 'COMPLETED' AND s.scorer = :scorer
+            ORDER BY s.run_id DESC
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<Long> findCompletedRunIds(@Param("scorer") String scorer, @Param("limit") int limit);
+}
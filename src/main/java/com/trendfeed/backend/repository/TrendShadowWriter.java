@@ -0,0 +1,39 @@
+package com.trendfeed.backend.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * trend_shadow_scores 배치 insert
+ */
+@Repository
+public class TrendShadowWriter {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO trend_shadow_scores
+                (repo_id, scorer, score, stage, primary_score, primary_stage, cost_nanos, scored_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbc;
+
+    public TrendShadowWriter(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    public void insertAll(String scorer, long[] repoIds, double[] scores, int[] stages,
+                          double[] primaryScores, int[] primaryStages, long costNanos, OffsetDateTime at) {
+        Timestamp ts = Timestamp.from(at.toInstant());
+        List<Object[]> args = new ArrayList<>(repoIds.length);
+        for (int i = 0; i < repoIds.length; i++) {
+            args.add(new Object[]{repoIds[i], scorer, scores[i], stages[i],
+                    primaryScores[i], primaryStages[i], costNanos, ts});
+        }
+        jdbc.batchUpdate(INSERT_SQL, args);
+    }
+}
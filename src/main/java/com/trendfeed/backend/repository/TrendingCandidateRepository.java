@@ -3,13 +3,19 @@ package com.trendfeed.backend.repository;
 import com.trendfeed.backend.entity.TrendingCandidateEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface TrendingCandidateRepository extends JpaRepository<TrendingCandidateEntity, Long> {
 
     boolean existsByRepoId(Long repoId);
 
+    // 배치 승격용: 이미 후보인 repoId 들
+    @Query("SELECT tc.repoId FROM TrendingCandidateEntity tc WHERE tc.repoId IN :repoIds")
+    List<Long> findRepoIdsByRepoIdIn(@Param("repoIds") Collection<Long> repoIds);
+
     // 오래된 순으로 아직 AI에 주지 않은 후보 n개
     @Query(value = """
             SELECT tc FROM TrendingCandidateEntity tc
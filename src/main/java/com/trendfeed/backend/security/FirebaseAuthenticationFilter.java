@@ -7,7 +7,10 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
@@ -15,10 +18,25 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Component
 @Slf4j
 public class FirebaseAuthenticationFilter extends OncePerRequestFilter {
+
+    // 운영 엔드포인트(재채점, GH Archive 가져오기, 백테스트) 권한: Firebase 커스텀 클레임 admin=true 또는 이 목록의 이메일
+    private final Set<String> adminEmails;
+
+    public FirebaseAuthenticationFilter(@Value("${security.admin-emails:}") String adminEmails) {
+        this.adminEmails = Arrays.stream(adminEmails.split(","))
+                .map(String::trim)
+                .filter(e -> !e.isEmpty())
+                .map(String::toLowerCase)
+                .collect(Collectors.toUnmodifiableSet());
+    }
     
     @Override
     protected void doFilterInternal(
@@ -49,7 +67,7 @@ public class FirebaseAuthenticationFilter extends OncePerRequestFilter {
                         new UsernamePasswordAuthenticationToken(
                                 userDetails, 
                                 null, 
-                                new ArrayList<>()
+                                authorities(decodedToken)
                         );
                 
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -64,6 +82,17 @@ public class FirebaseAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
     
+    private List<GrantedAuthority> authorities(FirebaseToken token) {
+        List<GrantedAuthority> authorities = new ArrayList<>();
+        boolean adminClaim = Boolean.TRUE.equals(token.getClaims().get("admin"));
+        boolean adminEmail = token.getEmail() != null && token.isEmailVerified()
+                && adminEmails.contains(token.getEmail().toLowerCase());
+        if (adminClaim || adminEmail) {
+            authorities.add(new SimpleGrantedAuthority("ROLE_ADMIN"));
+        }
+        return authorities;
+    }
+
     private String extractTokenFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (bearerToken != null && bearerToken.startsWith("Bearer ")) {
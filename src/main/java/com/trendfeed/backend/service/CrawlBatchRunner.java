@@ -0,0 +1,159 @@
+package com.trendfeed.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trendfeed.backend.config.StartupFootprint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.ExitCodeGenerator;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 헤드리스 크롤 배치 (batch 프로필, application-batch.properties).
+ *
+ *   java -jar app.jar --spring.profiles.active=batch
+ *
+ * 웹 서버/보안/Firebase/메일/스케줄 없이 데이터소스, githubWebClient, 크롤/채점 빈만 띄워서
+ * 전체 크롤을 한 번 돌리고 (GitHubService.crawlAllAndEvaluate, 다른 노드의 실행이 있으면 합류)
+ * 요약을 남긴 뒤 종료 코드와 함께 내려간다: 0 = 완료, 1 = 크롤 실패.
+ * 종료는 이 러너가 한다 (SpringApplication.exit → System.exit, batch.exit-on-finish).
+ * 프로세스 안에서 batch 프로필로 컨텍스트를 띄우는 테스트는 false 로 두고 getExitCode 를 본다.
+ * 외부 스케줄러(cron, k8s CronJob 등)가 짧게 도는 작업으로 돌리는 용도.
+ *
+ * 요약은 로그 한 줄 + batch.summary-file 이 있으면 JSON (기동 시간/메모리 포함, StartupFootprint).
+ * README 지연 수집은 크롤과 함께 돌리고, 끝난 뒤 batch.readme-drain-timeout-seconds 까지 큐를 비운다
+ * (ReadmeFetchService.awaitDrained). 시간 안에 못 비운 리포는 요약의 readmesLeft 로 남고,
+ * README 가 없는 stage 리포라 다음 배치/웹 앱 기동 시 점검이 다시 넣는다. 종료 코드에는 영향 없음.
+ */
+@Component
+@Profile("batch")
+public class CrawlBatchRunner implements ApplicationRunner, ExitCodeGenerator {
+
+    private static final Logger log = LoggerFactory.getLogger(CrawlBatchRunner.class);
+
+    public static final int EXIT_OK = 0;
+    public static final int EXIT_FAILED = 1;
+
+    private final GitHubService crawler;
+    private final ReadmeFetchService readmeFetch;
+    private final StartupFootprint footprint;
+    private final ObjectMapper objectMapper;
+    private final ConfigurableApplicationContext context;
+
+    @Value("${batch.summary-file:}")        // 요약 JSON 경로 (비우면 로그만)
+    private String summaryFile;
+
+    @Value("${batch.readme-drain-timeout-seconds:600}")  // 종료 전 README 큐 비우기 상한
+    private long readmeDrainTimeoutSeconds;
+
+    @Value("${batch.exit-on-finish:true}")      // 끝나면 컨텍스트를 닫고 종료 코드로 JVM 종료
+    private boolean exitOnFinish;
+
+    private volatile int exitCode = EXIT_OK;
+
+    /**
+     * 배치 한 번의 결과. runId 는 크롤 실행에 합류하기 전에 실패하면 null
+     */
+    public record Summary(String status, String error, Long runId, String nodeId,
+                          OffsetDateTime startedAt, OffsetDateTime finishedAt, double crawlSeconds,
+                          long saved, long unchanged, long walBytes, double reposPerSecond, String transitions,
+                          int readmesLeft, StartupFootprint.Snapshot startup, StartupFootprint.Snapshot finish) {}
+
+    public CrawlBatchRunner(GitHubService crawler, ReadmeFetchService readmeFetch,
+                            StartupFootprint footprint, ObjectMapper objectMapper,
+                            ConfigurableApplicationContext context) {
+        this.crawler = crawler;
+        this.readmeFetch = readmeFetch;
+        this.footprint = footprint;
+        this.objectMapper = objectMapper;
+        this.context = context;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        OffsetDateTime startedAt = OffsetDateTime.now(ZoneOffset.UTC);
+        long started = System.nanoTime();
+        AtomicReference<CrawlRunTracker> joined = new AtomicReference<>();
+        String error = null;
+        // ApplicationReadyEvent 는 러너 뒤에 오므로 워커를 여기서 띄운다 (크롤 중 커밋된 배치부터 처리)
+        readmeFetch.start();
+        try {
+            crawler.crawlAllAndEvaluate(joined::set);
+        } catch (RuntimeException ex) {
+            // 실행은 GitHubService 가 abort 해 두었다 → 다음 배치/다른 노드가 커서부터 이어서
+            error = ex.toString();
+            exitCode = EXIT_FAILED;
+            log.error("batch crawl failed", ex);
+        }
+
+        double seconds = (System.nanoTime() - started) / 1e9;
+        int readmesLeft = drainReadmes();
+        CrawlRunTracker run = joined.get();
+        long saved = run == null ? 0 : run.getSaved();
+        Summary summary = new Summary(error == null ? "completed" : "failed", error,
+                run == null ? null : run.getRunId(), run == null ? null : run.getNodeId(),
+                startedAt, OffsetDateTime.now(ZoneOffset.UTC), seconds,
+                saved, run == null ? 0 : run.getUnchanged(), run == null ? 0 : run.getWalBytes(),
+                seconds > 0 ? saved / seconds : 0.0, run == null ? "" : run.transitionSummary(),
+                readmesLeft, footprint.startup(), footprint.capture());
+
+        StartupFootprint.Snapshot startup = summary.startup();
+        log.info("batch crawl {} (run {}): {} saved ({} unchanged) in {}s, {} repos/s, {} READMEs left, startup {} ms, peak heap {} MB, exit {}",
+                summary.status(), summary.runId(), summary.saved(), summary.unchanged(),
+                String.format("%.1f", seconds), String.format("%.1f", summary.reposPerSecond()), readmesLeft,
+                startup == null ? "?" : startup.startupMillis(), summary.finish().peakHeapBytes() >> 20, exitCode);
+        writeSummary(summary);
+
+        if (exitOnFinish) {
+            // 종료 코드는 ExitCodeGenerator 빈(이 러너)에서 모인다
+            System.exit(SpringApplication.exit(context));
+        }
+    }
+
+    /**
+     * 크롤이 넣은 README 작업을 시간 안에서 비운다. 남은 수 반환
+     */
+    private int drainReadmes() {
+        try {
+            int left = readmeFetch.awaitDrained(Duration.ofSeconds(readmeDrainTimeoutSeconds));
+            if (left > 0) {
+                log.warn("README queue not drained within {}s: {} repos left for the next sweep",
+                        readmeDrainTimeoutSeconds, left);
+            }
+            return left;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return -1;
+        }
+    }
+
+    @Override
+    public int getExitCode() {
+        return exitCode;
+    }
+
+    private void writeSummary(Summary summary) {
+        if (summaryFile == null || summaryFile.isBlank()) return;
+        try {
+            Path file = Path.of(summaryFile.trim());
+            if (file.getParent() != null) Files.createDirectories(file.getParent());
+            objectMapper.writerWithDefaultPrettyPrinter().writeValue(file.toFile(), summary);
+        } catch (IOException ex) {
+            // 요약 파일 실패로 크롤 결과(종료 코드)를 바꾸지 않는다
+            log.warn("could not write batch summary to {} ({})", summaryFile, ex.toString());
+        }
+    }
+}
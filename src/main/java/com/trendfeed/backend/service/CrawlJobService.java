@@ -0,0 +1,284 @@
+package com.trendfeed.backend.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * 전체 크롤을 비동기 작업으로 실행.
+ *
+ *  - 스케줄(crawler.cron)과 수동 실행(POST /api/github/crawl)이 모두 여기로 들어온다
+ *  - 전용 스레드 하나(crawl-job-)에서 GitHubService.crawlAllAndEvaluate 를 돌리고, 요청 스레드는 작업 id 만 받고 바로 반환
+ *  - single-flight: 실행 중인 작업이 있으면 새로 시작하지 않고 그 작업에 붙는다 (attached=true)
+ *  - 진행 상황(페이지/저장 수/오류)은 이 작업이 합류한 CrawlRunTracker 의 값 (재수집 워커/README 큐 몫은 섞이지 않음)
+ *    + 실행 전체의 샤드 진행률/ETA
+ *  - SSE 구독자에게 crawler.job.progress-interval-ms 마다 progress 이벤트, 끝나면 done 이벤트 후 종료
+ *
+ * 작업 상태는 노드 메모리에만 있다 (최근 RECENT_JOBS 개). 여러 노드가 같은 크롤 실행에 참여하면
+ * 페이지/저장 수는 이 노드 몫, 샤드 진행률/ETA 는 실행 전체 기준.
+ */
+@Service
+public class CrawlJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(CrawlJobService.class);
+
+    private static final int RECENT_JOBS = 16;
+    private static final long SSE_TIMEOUT_MILLIS = Duration.ofHours(6).toMillis();
+
+    public enum State { RUNNING, COMPLETED, FAILED }
+
+    /**
+     * 작업 상태 스냅샷 (status 응답 / SSE 이벤트 본문)
+     *  - etaSeconds: 이 작업이 끝낸 샤드 비율로 추정 (아직 추정 불가면 null)
+     */
+    public record CrawlJobStatus(String jobId, String trigger, State state,
+                                 OffsetDateTime startedAt, OffsetDateTime finishedAt, Long runId,
+                                 long pages, long reposSaved, long reposUnchanged, double reposPerSecond,
+                                 long errors, String lastError,
+                                 long shardsTotal, long shardsDone, Long etaSeconds) {}
+
+    /**
+     * 시작 요청 결과. attached 면 이미 돌고 있던 작업
+     */
+    public record Started(CrawlJobStatus job, boolean attached) {}
+
+    private final GitHubService crawler;
+    private final CrawlRunService runService;
+    private final ThreadPoolTaskExecutor executor;
+
+    private final Map<String, Job> jobs = new LinkedHashMap<>();
+    private Job current;
+
+    public CrawlJobService(GitHubService crawler, CrawlRunService runService) {
+        this.crawler = crawler;
+        this.runService = runService;
+
+        // 크롤 전용 스레드 (@Async 풀이나 Tomcat 요청 스레드를 쓰지 않음). single-flight 라 하나면 충분
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(1);
+        executor.setThreadNamePrefix("crawl-job-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        this.executor = executor;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        // 진행 중인 크롤은 리스가 만료되면 다른 노드/다음 실행이 페이지 커서부터 이어서 한다
+        executor.shutdown();
+    }
+
+    @Scheduled(cron = "${crawler.cron:0 0 0 */3 * *}")
+    public void scheduledCrawl() {
+        Started started = start("schedule");
+        if (started.attached()) {
+            log.info("scheduled crawl skipped: job {} is still running", started.job().jobId());
+        }
+    }
+
+    /**
+     * 크롤 작업 시작 (이미 실행 중이면 그 작업에 붙음)
+     */
+    public Started start(String trigger) {
+        Job job;
+        boolean attached;
+        synchronized (this) {
+            attached = current != null && current.state == State.RUNNING;
+            if (attached) {
+                job = current;
+            } else {
+                job = new Job(UUID.randomUUID().toString(), trigger);
+                current = job;
+                jobs.put(job.id, job);
+                if (jobs.size() > RECENT_JOBS) {
+                    jobs.remove(jobs.keySet().iterator().next());
+                }
+                executor.execute(() -> run(job));
+                log.info("crawl job {} started ({})", job.id, trigger);
+            }
+        }
+        // 샤드 수 조회는 락 밖에서
+        return new Started(job.status(), attached);
+    }
+
+    public Optional<CrawlJobStatus> status(String jobId) {
+        Job job;
+        synchronized (this) {
+            job = jobs.get(jobId);
+        }
+        return job == null ? Optional.empty() : Optional.of(job.status());
+    }
+
+    /**
+     * 진행 상황 SSE 구독. 끝난 작업이면 done 이벤트 하나만 보내고 닫는다
+     */
+    public Optional<SseEmitter> subscribe(String jobId) {
+        Job job;
+        boolean running;
+        SseEmitter emitter = new SseEmitter(SSE_TIMEOUT_MILLIS);
+        synchronized (this) {
+            job = jobs.get(jobId);
+            if (job == null) return Optional.empty();
+            running = job.state == State.RUNNING;
+            if (running) {
+                job.emitters.add(emitter);
+                emitter.onCompletion(() -> job.emitters.remove(emitter));
+                emitter.onTimeout(() -> job.emitters.remove(emitter));
+                emitter.onError(ex -> job.emitters.remove(emitter));
+            }
+        }
+
+        // 등록된 구독자는 끝날 때 done 을 받는다 (그 사이 끝났으면 여기 progress 는 완료된 emitter 라 무시됨)
+        CrawlJobStatus snapshot = job.status();
+        if (running) {
+            send(job, emitter, "progress", snapshot);
+        } else {
+            send(job, emitter, "done", snapshot);
+            emitter.complete();
+        }
+        return Optional.of(emitter);
+    }
+
+    /*
+     * 실행 중인 작업의 구독자에게 진행 상황 전송
+     */
+    @Scheduled(fixedDelayString = "${crawler.job.progress-interval-ms:1000}")
+    void broadcastProgress() {
+        Job job;
+        synchronized (this) {
+            job = current;
+        }
+        if (job == null || job.state != State.RUNNING || job.emitters.isEmpty()) return;
+
+        CrawlJobStatus snapshot = job.status();
+        for (SseEmitter emitter : job.emitters) {
+            send(job, emitter, "progress", snapshot);
+        }
+    }
+
+    private void run(Job job) {
+        State result;
+        String error = null;
+        try {
+            crawler.crawlAllAndEvaluate(job::joined);
+            result = State.COMPLETED;
+            log.info("crawl job {} completed", job.id);
+        } catch (RuntimeException ex) {
+            result = State.FAILED;
+            error = ex.toString();
+            log.warn("crawl job {} failed ({})", job.id, ex.toString());
+        }
+
+        // 마지막 스냅샷(샤드 수 조회)은 락 밖에서 만들고,
+        // 상태는 subscribe 와 같은 락 안에서 바꿔야 끝난 뒤에 등록되는 구독자가 없다
+        CrawlJobStatus snapshot = job.finish(result, error);
+        List<SseEmitter> subscribers;
+        synchronized (this) {
+            job.state = result;
+            subscribers = List.copyOf(job.emitters);
+            job.emitters.clear();
+        }
+        for (SseEmitter emitter : subscribers) {
+            send(job, emitter, "done", snapshot);
+            emitter.complete();
+        }
+    }
+
+    private static void send(Job job, SseEmitter emitter, String event, CrawlJobStatus snapshot) {
+        try {
+            emitter.send(SseEmitter.event().name(event).id(job.id).data(snapshot));
+        } catch (IOException | IllegalStateException ex) {
+            // 구독자가 끊김
+            job.emitters.remove(emitter);
+        }
+    }
+
+    /*
+     * 작업 하나의 상태. 끝나면 진행 값을 고정한다
+     */
+    private final class Job {
+        final String id;
+        final String trigger;
+        final OffsetDateTime startedAt = OffsetDateTime.now(ZoneOffset.UTC);
+        final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+
+        volatile State state = State.RUNNING;
+        volatile CrawlRunTracker run;
+        volatile long baselineShardsDone;   // 합류 시점에 이미 끝나 있던 샤드 (ETA 계산에서 제외)
+        volatile OffsetDateTime finishedAt;
+        volatile String error;
+        volatile CrawlJobStatus finalStatus;
+
+        Job(String id, String trigger) {
+            this.id = id;
+            this.trigger = trigger;
+        }
+
+        void joined(CrawlRunTracker run) {
+            this.baselineShardsDone = runService.shardCounts(run.getRunId()).done();
+            this.run = run;
+        }
+
+        /*
+         * 진행 값을 고정한 마지막 스냅샷 (state 는 호출 측이 락 안에서 바꾼다)
+         */
+        CrawlJobStatus finish(State state, String error) {
+            this.finishedAt = OffsetDateTime.now(ZoneOffset.UTC);
+            this.error = error;
+            this.finalStatus = snapshot(state);
+            return finalStatus;
+        }
+
+        CrawlJobStatus status() {
+            CrawlJobStatus done = finalStatus;
+            return done != null ? done : snapshot(State.RUNNING);
+        }
+
+        private CrawlJobStatus snapshot(State state) {
+            CrawlRunTracker run = this.run;
+            long total = 0;
+            long shardsDone = 0;
+            Long eta = null;
+            if (run != null) {
+                CrawlRunService.ShardCounts counts = runService.shardCounts(run.getRunId());
+                total = counts.total();
+                shardsDone = counts.done();
+                long doneHere = shardsDone - baselineShardsDone;
+                long left = total - shardsDone;
+                if (state == State.RUNNING && doneHere > 0) {
+                    long elapsed = Duration.between(startedAt, OffsetDateTime.now(ZoneOffset.UTC)).toSeconds();
+                    eta = elapsed * left / doneHere;
+                }
+            }
+            // 실행에 합류하기 전(샤드 계획 중)이면 아직 0
+            long pages = run == null ? 0 : run.getPages();
+            long saved = run == null ? 0 : run.getSaved();
+            long unchanged = run == null ? 0 : run.getUnchanged();
+            long failures = run == null ? 0 : run.getFailures();
+            String lastError = error != null ? error : (run == null ? null : run.getLastFailure());
+            OffsetDateTime end = finishedAt != null ? finishedAt : OffsetDateTime.now(ZoneOffset.UTC);
+            double seconds = Duration.between(startedAt, end).toMillis() / 1000.0;
+            double rate = seconds <= 0 ? 0.0 : saved / seconds;
+            return new CrawlJobStatus(id, trigger, state, startedAt, finishedAt, run == null ? null : run.getRunId(),
+                    pages, saved, unchanged, rate, failures, lastError,
+                    total, shardsDone, eta);
+        }
+    }
+}
@@ -0,0 +1,304 @@
+package com.trendfeed.backend.service;
+
+import com.trendfeed.backend.entity.CrawlRun;
+import com.trendfeed.backend.entity.CrawlRunShard;
+import com.trendfeed.backend.repository.CrawlRunRepository;
+import com.trendfeed.backend.repository.CrawlRunShardRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.InetAddress;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * crawl_runs / crawl_run_shards 기록 (재개 가능 + 여러 노드가 나눠서 수행하는 크롤).
+ *
+ *  - 실행 참여: advisory lock 아래에서 RUNNING/FAILED 실행이 있으면 합류, 없으면 새로 만들고 샤드 계획을 기록
+ *    (crawler.resume.max-age-hours 보다 오래된 실행은 버린다). 샤드 계획(검색 API)은 lock/트랜잭션 밖에서 세우고
+ *    기록만 lock 아래에서 한다
+ *  - 샤드 배정: 아무도 안 잡았거나 리스가 만료된 샤드를 FOR UPDATE SKIP LOCKED 로 하나씩 가져감
+ *    → 노드가 죽으면 crawler.lease-seconds 뒤에 다른 노드가 그 페이지 커서부터 이어서 진행
+ *  - 배치 커밋마다 같은 트랜잭션에서 샤드 페이지 커서 기록 + 리스 연장 + 저장 수 누적
+ *  - 커밋과 별개로 crawler.lease-heartbeat-seconds 마다 이 노드가 잡은 샤드의 리스를 연장
+ *    (레이트리밋 필터가 reset 까지 요청을 붙잡아 커밋이 한참 없어도 살아 있는 노드는 리스를 잃지 않는다).
+ *    연장이 안 되면(다른 노드가 가져감) 그 샤드는 더 기록하지 않는다
+ *  - 남은 샤드가 없으면 먼저 확인한 노드 하나가 실행을 COMPLETED 로 닫는다
+ *  - 중단(abort)한 노드가 마지막이면 (살아 있는 리스가 없으면) FAILED 로 표시. 다른 노드가 샤드를 다시
+ *    가져가면 RUNNING 으로 돌아가고, 다음 joinOrStart 가 커서부터 이어서 진행한다
+ *
+ * 노드별 GitHub 토큰은 각 노드의 GITHUB_TOKENS 로 따로 준다 (쿼터는 노드 안의 GitHubRateLimitFilter 가 관리).
+ */
+@Service
+public class CrawlRunService {
+
+    private static final Logger log = LoggerFactory.getLogger(CrawlRunService.class);
+
+    // 실행 생성/합류를 노드 간에 직렬화하는 pg advisory lock 키
+    private static final long RUN_LOCK_KEY = 0x7472656e64L;
+
+    private final CrawlRunRepository runRepo;
+    private final CrawlRunShardRepository shardRepo;
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+    private final String nodeId;
+
+    @Value("${crawler.resume.max-age-hours:72}")   // 이보다 오래된 미완료 실행은 버린다
+    private long resumeMaxAgeHours;
+
+    @Value("${crawler.lease-seconds:300}")         // 샤드 리스 길이 (배치 커밋/하트비트마다 연장)
+    private long leaseSeconds;
+
+    @Value("${crawler.lease-heartbeat-seconds:0}")  // 리스 하트비트 주기 (0 이면 lease-seconds / 3)
+    private long heartbeatSeconds;
+
+    // 이 노드가 참여 중인 실행 (하트비트 대상)
+    private final Set<CrawlRunTracker> active = ConcurrentHashMap.newKeySet();
+    private ScheduledExecutorService heartbeat;
+
+    public CrawlRunService(CrawlRunRepository runRepo,
+                           CrawlRunShardRepository shardRepo,
+                           JdbcTemplate jdbc,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${crawler.node-id:}") String nodeId) {
+        this.runRepo = runRepo;
+        this.shardRepo = shardRepo;
+        this.jdbc = jdbc;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.nodeId = nodeId.isBlank() ? defaultNodeId() : nodeId;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    @PostConstruct
+    void startHeartbeat() {
+        long period = heartbeatSeconds > 0 ? heartbeatSeconds : Math.max(1, leaseSeconds / 3);
+        heartbeat = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "crawl-lease-heartbeat");
+            t.setDaemon(true);
+            return t;
+        });
+        heartbeat.scheduleWithFixedDelay(() -> {
+            try {
+                renewLeases();
+            } catch (RuntimeException ex) {
+                // DB 가 잠깐 안 되면 다음 주기에 다시 (그 사이 리스가 만료되면 checkpoint 가 잃은 샤드를 알아챈다)
+                log.warn("crawl lease heartbeat failed ({})", ex.toString());
+            }
+        }, period, period, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    void stopHeartbeat() {
+        if (heartbeat != null) heartbeat.shutdownNow();
+    }
+
+    /**
+     * 참여 중인 실행들의 이 노드 샤드 리스를 연장. 다른 노드가 가져간 샤드는 잃은 것으로 표시
+     */
+    void renewLeases() {
+        if (active.isEmpty()) return;
+        tx.executeWithoutResult(status -> {
+            OffsetDateTime now = OffsetDateTime.now();
+            for (CrawlRunTracker tracker : active) {
+                for (CrawlRunTracker.ShardProgress p : tracker.activeShards()) {
+                    // 그 사이 끝났다고 기록된 샤드(리스 반납)는 잃은 게 아니다
+                    if (shardRepo.renewLease(p.getId(), nodeId, now.plusSeconds(leaseSeconds)) == 0
+                            && !p.isDoneWritten()) {
+                        log.warn("node {} lost lease on shard {} (heartbeat)", nodeId, p.getId());
+                        p.markLost();
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * 진행 중인 실행에 합류하거나, 없으면 plan 으로 새 실행을 시작한다.
+     * plan 은 합류할 실행이 없을 때만, 트랜잭션/lock 밖에서 호출된다 (검색 API 호출이 길어도
+     * 다른 노드의 합류와 DB 연결을 붙잡지 않음). 계획하는 사이 다른 노드가 실행을 만들었으면
+     * 그 실행에 합류하고 세운 계획은 버린다
+     */
+    public CrawlRunTracker joinOrStart(String fetchMode, Supplier<List<SearchShard>> plan) {
+        CrawlRunTracker joined = tx.execute(status -> joinExisting());
+        if (joined != null) {
+            active.add(joined);
+            return joined;
+        }
+
+        List<SearchShard> shards = plan.get();
+
+        CrawlRunTracker tracker = tx.execute(status -> {
+            CrawlRunTracker other = joinExisting();
+            if (other != null) {
+                log.info("crawl run {} was started by another node while planning, dropping {} planned shards",
+                        other.getRunId(), shards.size());
+                return other;
+            }
+            CrawlRun run = runRepo.save(new CrawlRun(fetchMode));
+            for (SearchShard shard : shards) {
+                shardRepo.save(new CrawlRunShard(run.getId(),
+                        shard.createdFrom(), shard.createdTo(), shard.minStars(), shard.maxStars(), shard.totalCount()));
+            }
+            log.info("node {} started crawl run {} with {} shards", nodeId, run.getId(), shards.size());
+            return new CrawlRunTracker(run.getId(), run.getStartedAt(), nodeId);
+        });
+        active.add(tracker);
+        return tracker;
+    }
+
+    /*
+     * advisory lock 을 잡고 RUNNING/FAILED 실행에 합류. 없거나 너무 오래돼 버렸으면 null.
+     * 트랜잭션 안에서 호출 (lock 은 트랜잭션 끝에 자동 해제)
+     */
+    private CrawlRunTracker joinExisting() {
+        jdbc.execute("SELECT pg_advisory_xact_lock(" + RUN_LOCK_KEY + ")");
+
+        Optional<CrawlRun> found = runRepo.findFirstByStatusInOrderByStartedAtDesc(
+                List.of(CrawlRun.Status.RUNNING, CrawlRun.Status.FAILED));
+        if (found.isEmpty()) {
+            return null;
+        }
+        CrawlRun run = found.get();
+        if (run.getStartedAt().isBefore(OffsetDateTime.now().minusHours(resumeMaxAgeHours))) {
+            log.info("crawl run {} is too old to resume, abandoning", run.getId());
+            run.setStatus(CrawlRun.Status.ABANDONED);
+            run.setFinishedAt(OffsetDateTime.now());
+            return null;
+        }
+        if (run.getStatus() == CrawlRun.Status.FAILED) {
+            log.info("resuming failed crawl run {}", run.getId());
+        }
+        run.setStatus(CrawlRun.Status.RUNNING);
+        run.setUpdatedAt(OffsetDateTime.now());
+        log.info("node {} joining crawl run {}: {} shards left",
+                nodeId, run.getId(), shardRepo.countByRunIdAndDoneFalse(run.getId()));
+        return new CrawlRunTracker(run.getId(), run.getStartedAt(), nodeId);
+    }
+
+    /**
+     * 처리할 샤드 하나를 리스로 가져온다. 남은 샤드가 없거나 모두 다른 노드가 잡고 있으면 empty
+     */
+    @Transactional
+    public Optional<CrawlRunTracker.ShardProgress> claimShard(CrawlRunTracker tracker) {
+        OffsetDateTime now = OffsetDateTime.now();
+        return shardRepo.lockNextClaimable(tracker.getRunId(), now).map(s -> {
+            if (s.getLeaseOwner() != null) {
+                log.info("shard {} lease of node {} expired, taking over", s.getId(), s.getLeaseOwner());
+            }
+            s.setLeaseOwner(nodeId);
+            s.setLeaseExpiresAt(now.plusSeconds(leaseSeconds));
+            // 모든 노드가 중단해 FAILED 가 된 실행을 이 노드가 이어 가는 경우
+            runRepo.reopenIfFailed(tracker.getRunId(), now);
+
+            CrawlRunTracker.ShardProgress p = toProgress(s);
+            tracker.addShard(p);
+            return p;
+        });
+    }
+
+    /**
+     * 배치 경계 체크포인트 + 리스 연장. 저장 배치와 같은 트랜잭션에서 호출된다
+     */
+    @Transactional
+    public void checkpoint(CrawlRunTracker tracker, int savedInBatch) {
+        OffsetDateTime now = OffsetDateTime.now();
+        for (CrawlRunTracker.ShardProgress p : tracker.activeShards()) {
+            p.markWritten();
+            boolean done = p.isDoneWritten();
+            // 끝난 샤드는 리스도 같이 반납
+            int n = shardRepo.checkpoint(p.getId(), nodeId, p.getWrittenCursor(), done,
+                    done ? null : nodeId, done ? null : now.plusSeconds(leaseSeconds));
+            if (n == 0) {
+                // 리스가 만료돼 다른 노드가 가져감 → 그 노드가 커서부터 다시 처리
+                log.warn("node {} lost lease on shard {}", nodeId, p.getId());
+                p.markLost();
+            }
+        }
+        tracker.addSaved(savedInBatch);
+        if (savedInBatch > 0) {
+            runRepo.addSaved(tracker.getRunId(), savedInBatch, now);
+        }
+    }
+
+    /**
+     * 이 노드의 몫이 끝남. 남은 샤드가 없으면 실행을 닫고 true (여러 노드 중 한 곳만 true)
+     */
+    @Transactional
+    public boolean finishNode(CrawlRunTracker tracker) {
+        active.remove(tracker);
+        checkpoint(tracker, 0);
+        // 실패해서 끝나지 않은 샤드는 다른 노드/다음 실행이 바로 가져가도록 반납
+        shardRepo.releaseLeases(tracker.getRunId(), nodeId);
+
+        if (shardRepo.countByRunIdAndDoneFalse(tracker.getRunId()) > 0) {
+            return false;
+        }
+        // 다른 노드가 중단하며 FAILED 로 표시했어도 샤드가 다 끝났으면 닫는다
+        return runRepo.finishIfOpen(tracker.getRunId(), CrawlRun.Status.COMPLETED, OffsetDateTime.now()) > 0;
+    }
+
+    /**
+     * 실행 전체의 샤드 수 / 끝난 샤드 수 (모든 노드 합계, 진행률/ETA 용)
+     */
+    public record ShardCounts(long total, long done) {}
+
+    @Transactional(readOnly = true)
+    public ShardCounts shardCounts(Long runId) {
+        long total = shardRepo.countByRunId(runId);
+        return new ShardCounts(total, total - shardRepo.countByRunIdAndDoneFalse(runId));
+    }
+
+    /**
+     * 이 노드가 중단됨. 커서까지 기록하고 리스를 반납 (실행은 다른 노드가 계속 진행).
+     * 살아 있는 리스가 더 없으면 실행을 FAILED 로 표시 (다음 joinOrStart 가 합류해 이어서 진행)
+     */
+    @Transactional
+    public void abort(CrawlRunTracker tracker) {
+        active.remove(tracker);
+        checkpoint(tracker, 0);
+        shardRepo.releaseLeases(tracker.getRunId(), nodeId);
+
+        OffsetDateTime now = OffsetDateTime.now();
+        if (shardRepo.countByRunIdAndDoneFalseAndLeaseExpiresAtAfter(tracker.getRunId(), now) == 0
+                && runRepo.failIfRunning(tracker.getRunId(), now) > 0) {
+            log.warn("crawl run {} marked FAILED: node {} aborted and no other node holds a lease",
+                    tracker.getRunId(), nodeId);
+        }
+    }
+
+    private static CrawlRunTracker.ShardProgress toProgress(CrawlRunShard s) {
+        SearchShard shard = new SearchShard(s.getCreatedFrom(), s.getCreatedTo(),
+                s.getMinStars(), s.getMaxStars(), s.getTotalCount() == null ? -1 : s.getTotalCount());
+        return new CrawlRunTracker.ShardProgress(s.getId(), shard,
+                s.getNextPage() == null ? 1 : s.getNextPage());
+    }
+
+    private static String defaultNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "node";
+        }
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
@@ -0,0 +1,206 @@
+package com.trendfeed.backend.service;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 이 노드가 참여 중인 크롤 실행의 메모리 상태.
+ *
+ * 샤드는 여러 노드가 리스(lease)로 나눠 가진다 (CrawlRunService.claimShard).
+ * 이 노드가 잡은 샤드마다 "나간 페이지별 미처리 리포"를 들고 있다가, 배치가 커밋될 때
+ * 가장 앞의 미처리 페이지를 페이지 커서로 기록하고 리스를 연장한다 (CrawlRunService.checkpoint).
+ * 실행 시작 이후 이미 저장된 리포(마지막 크롤 시각 >= startedAt)는 어느 노드가 했든 다시 수집하지 않는다.
+ */
+public final class CrawlRunTracker {
+
+    private final Long runId;
+    private final OffsetDateTime startedAt;
+    private final String nodeId;
+    private final List<ShardProgress> shards = new CopyOnWriteArrayList<>();
+    private final AtomicLong saved = new AtomicLong();
+    private final AtomicLong unchanged = new AtomicLong();
+    private final AtomicLong walBytes = new AtomicLong();
+    private final AtomicLong pages = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private volatile String lastFailure;
+    // stage 전이 수 [from * 3 + to] (이 노드 몫)
+    private final AtomicLongArray transitions = new AtomicLongArray(9);
+
+    CrawlRunTracker(Long runId, OffsetDateTime startedAt, String nodeId) {
+        this.runId = runId;
+        this.startedAt = startedAt;
+        this.nodeId = nodeId;
+    }
+
+    public Long getRunId() { return runId; }
+    public OffsetDateTime getStartedAt() { return startedAt; }
+    public String getNodeId() { return nodeId; }
+
+    /**
+     * 이 노드가 저장한 리포 수
+     */
+    public long getSaved() { return saved.get(); }
+
+    void addSaved(long n) { saved.addAndGet(n); }
+
+    /**
+     * 저장했지만 내용이 같아 행을 다시 쓰지 않은 리포 수 (이 노드 몫)
+     */
+    public long getUnchanged() { return unchanged.get(); }
+
+    /**
+     * 이 노드의 저장 배치 동안 늘어난 WAL 바이트 (측정 안 하면 0)
+     */
+    public long getWalBytes() { return walBytes.get(); }
+
+    /**
+     * 이 노드가 이번 실행에서 받은 검색 페이지 수
+     */
+    public long getPages() { return pages.get(); }
+
+    void addPage() { pages.incrementAndGet(); }
+
+    /**
+     * 이 노드가 이번 실행에서 로그만 남기고 건너뛴 실패 (search / fetch / persist) 수와 마지막 실패
+     */
+    public long getFailures() { return failures.get(); }
+    public String getLastFailure() { return lastFailure; }
+
+    void addFailure(String detail) {
+        failures.incrementAndGet();
+        lastFailure = detail;
+    }
+
+    void addWrites(long unchangedRows, long wal) {
+        unchanged.addAndGet(unchangedRows);
+        if (wal > 0) walBytes.addAndGet(wal);
+    }
+
+    void addTransitions(int[] counts) {
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] != 0) transitions.addAndGet(i, counts[i]);
+        }
+    }
+
+    /**
+     * 이 노드가 이번 실행에서 만든 stage 전이 요약 (예: "0→1=12, 1→2=3, 2→1=1")
+     */
+    public String transitionSummary() {
+        StringBuilder sb = new StringBuilder();
+        for (int from = 0; from < 3; from++) {
+            for (int to = 0; to < 3; to++) {
+                long n = transitions.get(from * 3 + to);
+                if (from == to || n == 0) continue;
+                if (sb.length() > 0) sb.append(", ");
+                sb.append(from).append('→').append(to).append('=').append(n);
+            }
+        }
+        return sb.length() == 0 ? "none" : sb.toString();
+    }
+
+    void addShard(ShardProgress shard) { shards.add(shard); }
+
+    /**
+     * 이 노드가 잡고 있는 (아직 끝났다고 기록되지 않은) 샤드
+     */
+    List<ShardProgress> activeShards() {
+        return shards.stream().filter(s -> !s.isDoneWritten()).toList();
+    }
+
+    /**
+     * 샤드 하나의 페이지 커서 상태
+     */
+    public static final class ShardProgress {
+        private final Long id;
+        private final SearchShard shard;
+        private final int startPage;
+
+        // 페이지 → 아직 저장/정리되지 않은 리포 id
+        private final TreeMap<Integer, Set<Long>> inflight = new TreeMap<>();
+        private int lastEmittedPage;
+        private boolean exhausted;
+        private boolean failed;
+
+        // 마지막으로 DB 에 쓴 값
+        private int writtenCursor;
+        private boolean doneWritten;
+
+        ShardProgress(Long id, SearchShard shard, int startPage) {
+            this.id = id;
+            this.shard = shard;
+            this.startPage = startPage;
+            this.lastEmittedPage = startPage - 1;
+            this.writtenCursor = startPage;
+        }
+
+        public Long getId() { return id; }
+        public SearchShard getShard() { return shard; }
+        public int getStartPage() { return startPage; }
+
+        synchronized void pageEmitted(int page, Collection<Long> repoIds) {
+            lastEmittedPage = Math.max(lastEmittedPage, page);
+            if (!repoIds.isEmpty()) {
+                inflight.computeIfAbsent(page, p -> new HashSet<>()).addAll(repoIds);
+            }
+        }
+
+        /*
+         * 리포 하나가 저장됐거나(또는 실패/중복으로) 정리됨. 같은 리포를 두 번 정리해도 무해
+         */
+        synchronized void settle(int page, Long repoId) {
+            Set<Long> left = inflight.get(page);
+            if (left == null) return;
+            left.remove(repoId);
+            if (left.isEmpty()) {
+                inflight.remove(page);
+            }
+        }
+
+        synchronized void markExhausted() {
+            if (!failed) exhausted = true;
+        }
+
+        synchronized void markFailed() {
+            failed = true;
+        }
+
+        /*
+         * 이 페이지 이전은 모두 처리됨
+         */
+        synchronized int cursor() {
+            return inflight.isEmpty() ? lastEmittedPage + 1 : inflight.firstKey();
+        }
+
+        synchronized boolean isDone() {
+            return exhausted && inflight.isEmpty();
+        }
+
+        synchronized boolean isDoneWritten() {
+            return doneWritten;
+        }
+
+        /*
+         * 체크포인트에 쓸 현재 커서/완료 여부로 갱신
+         */
+        synchronized void markWritten() {
+            writtenCursor = cursor();
+            doneWritten = isDone();
+        }
+
+        /*
+         * 리스를 잃었음 (다른 노드가 가져감) → 이 노드는 더 이상 기록하지 않음
+         */
+        synchronized void markLost() {
+            doneWritten = true;
+        }
+
+        synchronized int getWrittenCursor() { return writtenCursor; }
+    }
+}
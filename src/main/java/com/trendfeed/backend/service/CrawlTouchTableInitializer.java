@@ -0,0 +1,54 @@
+package com.trendfeed.backend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * repo_crawl_touch 의 fillfactor 를 낮춘다 (기동 시, 이미 같으면 건너뜀).
+ *
+ * 크롤마다 모든 행의 last_crawled_at (평가 구간이 찼으면 last_checked_at 도) 만 바뀐다. 인덱스가 없는 컬럼이라 같은 페이지에 빈자리만 있으면
+ * HOT 업데이트가 되어 인덱스를 건드리지 않고, 페이지 안에서 옛 튜플이 정리된다 (VACUUM 부담 감소).
+ * ddl-auto 는 storage 옵션을 만들지 않으므로 여기서 ALTER TABLE. 새로 채워지는 페이지부터 적용된다.
+ */
+@Component
+public class CrawlTouchTableInitializer {
+
+    private static final Logger log = LoggerFactory.getLogger(CrawlTouchTableInitializer.class);
+
+    private final JdbcTemplate jdbc;
+
+    @Value("${crawler.touch-fillfactor:70}")    // 10~100, 100 이면 건드리지 않음
+    private int fillfactor;
+
+    public CrawlTouchTableInitializer(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void tune() {
+        if (fillfactor >= 100) return;
+        int ff = Math.max(10, fillfactor);
+        try {
+            List<String> options = jdbc.queryForList(
+                    "SELECT array_to_string(reloptions, ',') FROM pg_class WHERE relname = 'repo_crawl_touch' AND relkind = 'r'",
+                    String.class);
+            if (options.isEmpty()) return;
+            String current = options.get(0);
+            if (current != null && Arrays.asList(current.split(",")).contains("fillfactor=" + ff)) return;
+
+            jdbc.execute("ALTER TABLE repo_crawl_touch SET (fillfactor = " + ff + ")");
+            log.info("repo_crawl_touch fillfactor set to {}", ff);
+        } catch (DataAccessException ex) {
+            log.warn("could not set repo_crawl_touch fillfactor ({})", ex.toString());
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.trendfeed.backend.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 기본 채점기: exp 정규화한 증가율 × 나이 half-life 감쇠 (TrendScoring)
+ */
+@Component
+public class ExpDecayTrendScorer implements TrendScorer {
+
+    public static final String NAME = "exp-decay";
+
+    private final TrendScoring.Params params;
+
+    public ExpDecayTrendScorer(@Value("${trend.growth.k:3.0}") double growthK,
+                               @Value("${trend.age.half-life-days:720}") double ageHalfLifeDays,
+                               @Value("${trend.weight.growth:1.0}") double growthWeight,
+                               @Value("${trend.weight.penalty:1.0}") double penaltyWeight,
+                               @Value("${trend.threshold:20}") double threshold) {
+        this.params = new TrendScoring.Params(growthK, ageHalfLifeDays, growthWeight, penaltyWeight, threshold);
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public void score(TrendBatch batch, double[] out) {
+        for (int i = 0; i < batch.size(); i++) {
+            out[i] = TrendScoring.score(batch.growthRate(i), batch.ageDays(i), params);
+        }
+    }
+}
@@ -0,0 +1,311 @@
+package com.trendfeed.backend.service;
+
+import com.trendfeed.backend.repository.GhArchiveWriter;
+import com.trendfeed.backend.repository.StarHistoryWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+/**
+ * 로컬 GH Archive 덤프로 스타 이력 백필 (GitHub API 호출 없음).
+ *
+ *  1. gharchive.dir 의 *.json.gz 를 gharchive.threads 개씩 병렬로 파싱 (GhArchiveParser, 파일마다 LongIntCountMap 하나)
+ *  2. 파일마다 트랜잭션 하나로 star_events_hourly 에 COPY + 더하기 (GhArchiveWriter, 이미 가져온 파일은 건너뜀)
+ *  3. git_repositories 에 있는 리포의 시간별 스타 수를 첫 크롤 샘플에서 거꾸로 빼서
+ *     첫 크롤 이전 달들의 star_history_chunks 를 하루 단위 샘플로 채운다 (backfilled=true)
+ *     → StarHistoryService.growth 가 크롤 샘플과 같은 방식으로 읽는다
+ *
+ * 역산 기준은 크롤이 관측한 가장 이른 스타 수라서, 아카이브 끝과 첫 크롤 사이 공백의 스타와
+ * 언스타(이벤트 없음)만큼 과거 값이 부정확해진다.
+ */
+@Service
+public class GhArchiveImporter {
+
+    private static final Logger log = LoggerFactory.getLogger(GhArchiveImporter.class);
+
+    private static final String FILE_SUFFIX = ".json.gz";
+    private static final int EXPECTED_KEYS = 1 << 17;   // 시간 파일 하나의 (리포, 시간) 조합 수 정도
+    private static final int FETCH_SIZE = 10_000;
+    private static final int CHUNK_BATCH = 1_000;
+    private static final long DAY = 86_400;
+
+    private final GhArchiveWriter writer;
+    private final StarHistoryWriter historyWriter;
+    private final JdbcTemplate jdbc;
+    private final JdbcTemplate streamingJdbc;   // 백필 로드용 (fetch size 지정)
+    private final TransactionTemplate tx;
+
+    @Value("${gharchive.dir:./data/gharchive}")   // 시간별 덤프 디렉터리 (하위 디렉터리 포함)
+    private String dir;
+
+    @Value("${gharchive.threads:0}")              // 동시에 파싱할 파일 수 (0 이면 코어 수)
+    private int threads;
+
+    public GhArchiveImporter(GhArchiveWriter writer,
+                             StarHistoryWriter historyWriter,
+                             JdbcTemplate jdbc,
+                             PlatformTransactionManager transactionManager) {
+        this.writer = writer;
+        this.historyWriter = historyWriter;
+        this.jdbc = jdbc;
+        this.streamingJdbc = new JdbcTemplate(jdbc.getDataSource());
+        this.streamingJdbc.setFetchSize(FETCH_SIZE);
+        this.tx = new TransactionTemplate(transactionManager);
+    }
+
+    public record ImportResult(int files, int imported, int skipped, int failed,
+                               long events, long starEvents,
+                               int backfilledRepos, int backfilledChunks,
+                               long importMillis, long backfillMillis) {}
+
+    private record FileResult(boolean imported, boolean failed, long events, long starEvents) {}
+
+    /**
+     * 디렉터리 전체 가져오기 + 백필. 한 번에 하나만 (이미 가져온 파일은 파싱하지 않음)
+     */
+    public synchronized ImportResult importAll() {
+        List<Path> files = listFiles(Path.of(dir));
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        long t0 = System.nanoTime();
+
+        List<FileResult> results = new ArrayList<>(files.size());
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, Math.min(poolSize, files.size())));
+        try {
+            List<Future<FileResult>> futures = new ArrayList<>(files.size());
+            for (Path file : files) {
+                futures.add(pool.submit(() -> importFile(file)));
+            }
+            for (Future<FileResult> f : futures) {
+                results.add(f.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("GH Archive import interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("GH Archive import failed", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+        long t1 = System.nanoTime();
+
+        int imported = 0, skipped = 0, failed = 0;
+        long events = 0, stars = 0;
+        for (FileResult r : results) {
+            if (r.failed()) failed++;
+            else if (r.imported()) imported++;
+            else skipped++;
+            events += r.events();
+            stars += r.starEvents();
+        }
+
+        int[] backfill = imported > 0 ? backfill() : new int[]{0, 0};
+        long t2 = System.nanoTime();
+
+        ImportResult result = new ImportResult(files.size(), imported, skipped, failed, events, stars,
+                backfill[0], backfill[1], (t1 - t0) / 1_000_000, (t2 - t1) / 1_000_000);
+        log.info("GH Archive import: {}", result);
+        return result;
+    }
+
+    private static List<Path> listFiles(Path root) {
+        if (!Files.isDirectory(root)) {
+            throw new IllegalStateException("gharchive.dir is not a directory: " + root.toAbsolutePath());
+        }
+        try (Stream<Path> walk = Files.walk(root)) {
+            return walk.filter(p -> Files.isRegularFile(p) && p.getFileName().toString().endsWith(FILE_SUFFIX))
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            throw new IllegalStateException("cannot list " + root, e);
+        }
+    }
+
+    /*
+     * 파일 하나. 깨진 파일은 기록하지 않고 건너뛴다 (다음 가져오기에서 다시 시도)
+     */
+    private FileResult importFile(Path file) {
+        String name = file.getFileName().toString();
+        if (writer.isImported(name)) {
+            return new FileResult(false, false, 0, 0);
+        }
+        try {
+            LongIntCountMap counts = new LongIntCountMap(EXPECTED_KEYS);
+            GhArchiveParser.FileStats stats = GhArchiveParser.parse(file, counts);
+            Boolean written = tx.execute(status -> writer.write(name, stats, counts));
+            boolean imported = Boolean.TRUE.equals(written);
+            log.debug("GH Archive {}: {} events, {} stars, {} repo-hours{}", name, stats.events(), stats.starEvents(),
+                    counts.size(), imported ? "" : " (already imported)");
+            return imported
+                    ? new FileResult(true, false, stats.events(), stats.starEvents())
+                    : new FileResult(false, false, 0, 0);
+        } catch (IOException | RuntimeException e) {
+            log.warn("GH Archive file failed: {} ({})", name, e.toString());
+            return new FileResult(false, true, 0, 0);
+        }
+    }
+
+    // ──────────────────────────────────────────────────────────────
+    //  star_history_chunks 백필
+    // ──────────────────────────────────────────────────────────────
+
+    /*
+     * 역산 기준: 크롤이 관측한 가장 이른 (시각, 스타 수).
+     * 크롤 청크가 있으면 그 첫 샘플, 없으면 git_repositories 의 마지막 크롤 값
+     */
+    private record Anchor(long ts, int stars) {}
+
+    /**
+     * [백필된 리포 수, 쓴 청크 수]
+     */
+    private int[] backfill() {
+        Long coverageStart = jdbc.queryForObject("SELECT min(first_hour_ts) FROM gharchive_imports", Long.class);
+        if (coverageStart == null) return new int[]{0, 0};
+        long startTs = Math.floorDiv(coverageStart, DAY) * DAY;
+
+        int[] totals = new int[2];
+        // PostgreSQL 은 트랜잭션 안에서만 fetch size 로 나눠 읽는다. 백필 전체가 한 트랜잭션
+        tx.executeWithoutResult(status -> {
+            Map<Long, Anchor> anchors = loadAnchors();
+            RepoEvents current = new RepoEvents();
+            List<StarHistoryWriter.BackfillChunk> pending = new ArrayList<>();
+
+            streamingJdbc.query("""
+                            SELECT repo_id, hour_ts, stars FROM star_events_hourly
+                            WHERE repo_id IN (SELECT id FROM git_repositories)
+                            ORDER BY repo_id, hour_ts
+                            """,
+                    rs -> {
+                        long repoId = rs.getLong(1);
+                        if (repoId != current.repoId) {
+                            totals[0] += flush(current, anchors.get(current.repoId), startTs, pending) ? 1 : 0;
+                            current.reset(repoId);
+                        }
+                        current.add(rs.getLong(2), rs.getInt(3));
+                        if (pending.size() >= CHUNK_BATCH) {
+                            totals[1] += historyWriter.replaceBackfilled(pending);
+                            pending.clear();
+                        }
+                    });
+            totals[0] += flush(current, anchors.get(current.repoId), startTs, pending) ? 1 : 0;
+            totals[1] += historyWriter.replaceBackfilled(pending);
+        });
+        return totals;
+    }
+
+    private Map<Long, Anchor> loadAnchors() {
+        Map<Long, Anchor> anchors = new HashMap<>();
+        streamingJdbc.query("""
+                        SELECT r.id, r.stargazers_count, r.last_crawled_at, c.month_start, substring(c.samples from 1 for 20)
+                        FROM git_repositories r
+                        LEFT JOIN LATERAL (
+                            SELECT month_start, samples FROM star_history_chunks c
+                            WHERE c.repo_id = r.id AND c.backfilled IS NOT TRUE
+                            ORDER BY month_start LIMIT 1
+                        ) c ON true
+                        WHERE EXISTS (SELECT 1 FROM star_events_hourly e WHERE e.repo_id = r.id)
+                        """,
+                rs -> {
+                    long id = rs.getLong(1);
+                    Date month = rs.getDate(4);
+                    if (month != null) {
+                        StarHistoryCodec.Samples first = StarHistoryCodec.decodeFirst(month.toLocalDate(), rs.getBytes(5));
+                        if (first.size() > 0) {
+                            anchors.put(id, new Anchor(first.ts()[0], first.stars()[0]));
+                            return;
+                        }
+                    }
+                    OffsetDateTime crawled = rs.getObject(3, OffsetDateTime.class);
+                    if (crawled != null && rs.getObject(2) != null) {
+                        anchors.put(id, new Anchor(crawled.toEpochSecond(), rs.getInt(2)));
+                    }
+                });
+        return anchors;
+    }
+
+    /*
+     * 리포 하나: startTs ~ 기준 시각이 속한 달 직전까지, 하루마다 (그 날 0시의 스타 수) 샘플.
+     * 스타 수 = 기준 스타 - (그 시각 ~ 기준 시각 사이 WatchEvent 수). 기준이 속한 달은 크롤 청크 몫이라 쓰지 않는다
+     */
+    private static boolean flush(RepoEvents ev, Anchor anchor, long startTs,
+                                 List<StarHistoryWriter.BackfillChunk> out) {
+        if (ev.size == 0 || anchor == null) return false;
+        LocalDate anchorMonth = LocalDate.ofEpochDay(Math.floorDiv(anchor.ts(), DAY)).withDayOfMonth(1);
+        long endTs = StarHistoryCodec.monthStartEpoch(anchorMonth);
+        int days = (int) ((endTs - startTs) / DAY);
+        if (days <= 0) return false;
+
+        long[] ts = new long[days];
+        int[] stars = new int[days];
+        int j = ev.size - 1;
+        while (j >= 0 && ev.hourTs[j] >= anchor.ts()) j--;
+        long after = 0;
+        for (int d = days - 1; d >= 0; d--) {
+            long dayTs = startTs + d * DAY;
+            while (j >= 0 && ev.hourTs[j] >= dayTs) {
+                after += ev.stars[j];
+                j--;
+            }
+            ts[d] = dayTs;
+            stars[d] = (int) Math.max(0, anchor.stars() - after);
+        }
+
+        // 달마다 청크 하나
+        int from = 0;
+        while (from < days) {
+            LocalDate month = LocalDate.ofEpochDay(ts[from] / DAY).withDayOfMonth(1);
+            long nextMonth = StarHistoryCodec.monthStartEpoch(month.plusMonths(1));
+            int to = from;
+            while (to < days && ts[to] < nextMonth) to++;
+            out.add(new StarHistoryWriter.BackfillChunk(ev.repoId, month, to - from, ts[to - 1], stars[to - 1],
+                    StarHistoryCodec.encodeAll(StarHistoryCodec.monthStartEpoch(month), ts, stars, from, to)));
+            from = to;
+        }
+        return true;
+    }
+
+    /*
+     * 백필 중인 리포 하나의 시간별 스타 수 (hour_ts 오름차순)
+     */
+    private static final class RepoEvents {
+        long repoId = -1;
+        long[] hourTs = new long[256];
+        int[] stars = new int[256];
+        int size;
+
+        void reset(long repoId) {
+            this.repoId = repoId;
+            this.size = 0;
+        }
+
+        void add(long ts, int n) {
+            if (size == hourTs.length) {
+                hourTs = Arrays.copyOf(hourTs, size * 2);
+                stars = Arrays.copyOf(stars, size * 2);
+            }
+            hourTs[size] = ts;
+            stars[size] = n;
+            size++;
+        }
+    }
+}
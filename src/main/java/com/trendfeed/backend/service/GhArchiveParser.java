@@ -0,0 +1,141 @@
+package com.trendfeed.backend.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * GH Archive 시간별 덤프(*.json.gz, 줄마다 이벤트 JSON 하나) 에서 WatchEvent(= 스타) 만 센다.
+ *
+ * gzip 을 풀면서 Jackson 토큰 API 로 이벤트를 하나씩 읽고, type / repo.id / created_at 외에는
+ * skipChildren 으로 건너뛴다 (payload/actor 를 객체로 만들지 않음) → 파일 크기와 상관없이 메모리 일정.
+ * 결과는 (시간 << 40 | 리포 id) → 이벤트 수 로 LongIntCountMap 에 더한다.
+ *
+ * 2015 년 이후 형식(repo.id) 만 읽는다. 그 이전 덤프(repository 객체)는 이벤트 수에만 들어간다.
+ */
+public final class GhArchiveParser {
+
+    private static final JsonFactory JSON = new JsonFactory();
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    static final int REPO_BITS = 40;
+    static final long REPO_MASK = (1L << REPO_BITS) - 1;
+
+    private GhArchiveParser() {}
+
+    /**
+     * 파일 하나 결과: 전체 이벤트 수, 센 WatchEvent 수, 나온 시간 범위 (epoch 시 단위, 없으면 -1)
+     */
+    public record FileStats(long events, long starEvents, long firstHour, long lastHour) {}
+
+    public static long key(long epochHour, long repoId) {
+        return (epochHour << REPO_BITS) | repoId;
+    }
+
+    public static long hourOf(long key) {
+        return key >>> REPO_BITS;
+    }
+
+    public static long repoOf(long key) {
+        return key & REPO_MASK;
+    }
+
+    public static FileStats parse(Path file, LongIntCountMap counts) throws IOException {
+        try (InputStream in = new GZIPInputStream(new BufferedInputStream(Files.newInputStream(file), BUFFER_SIZE), BUFFER_SIZE)) {
+            return parse(in, counts);
+        }
+    }
+
+    /**
+     * 압축이 풀린 NDJSON 스트림 (루트 값이 여러 개)
+     */
+    public static FileStats parse(InputStream ndjson, LongIntCountMap counts) throws IOException {
+        long events = 0;
+        long stars = 0;
+        long firstHour = Long.MAX_VALUE;
+        long lastHour = -1;
+        HourParser hours = new HourParser();
+
+        try (JsonParser p = JSON.createParser(ndjson)) {
+            JsonToken t;
+            while ((t = p.nextToken()) != null) {
+                if (t != JsonToken.START_OBJECT) {
+                    p.skipChildren();
+                    continue;
+                }
+                events++;
+
+                boolean watch = false;
+                long repoId = -1;
+                long hour = -1;
+                while (p.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = p.currentName();
+                    JsonToken value = p.nextToken();
+                    switch (field) {
+                        case "type" -> watch = "WatchEvent".equals(p.getText());
+                        case "created_at" -> hour = hours.epochHour(p.getText());
+                        case "repo" -> {
+                            if (value == JsonToken.START_OBJECT) {
+                                repoId = readRepoId(p);
+                            }
+                        }
+                        default -> p.skipChildren();
+                    }
+                }
+
+                if (!watch || repoId <= 0 || repoId > REPO_MASK || hour < 0) continue;
+                counts.increment(key(hour, repoId));
+                stars++;
+                firstHour = Math.min(firstHour, hour);
+                lastHour = Math.max(lastHour, hour);
+            }
+        }
+        return new FileStats(events, stars, lastHour < 0 ? -1 : firstHour, lastHour);
+    }
+
+    private static long readRepoId(JsonParser p) throws IOException {
+        long id = -1;
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.currentName();
+            JsonToken value = p.nextToken();
+            if ("id".equals(field) && value == JsonToken.VALUE_NUMBER_INT) {
+                id = p.getLongValue();
+            } else {
+                p.skipChildren();
+            }
+        }
+        return id;
+    }
+
+    /*
+     * "2024-01-15T13:04:05Z" → epoch 시. 한 파일은 보통 같은 날짜라 날짜 계산을 재사용
+     */
+    private static final class HourParser {
+        private String lastDate;
+        private long lastEpochDay;
+
+        long epochHour(String ts) {
+            if (ts == null || ts.length() < 13 || ts.charAt(10) != 'T') return -1;
+            try {
+                if (lastDate == null || !ts.regionMatches(0, lastDate, 0, 10)) {
+                    lastDate = ts.substring(0, 10);
+                    lastEpochDay = LocalDate.parse(lastDate).toEpochDay();
+                }
+                int hour = (ts.charAt(11) - '0') * 10 + (ts.charAt(12) - '0');
+                if (hour < 0 || hour > 23) return -1;
+                return lastEpochDay * 24 + hour;
+            } catch (RuntimeException e) {
+                lastDate = null;
+                return -1;
+            }
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.trendfeed.backend.service;
+
+import com.trendfeed.backend.config.GitHubRateLimitFilter;
+import com.trendfeed.backend.config.GitHubRateLimitFilter.Priority;
+import com.trendfeed.backend.dto.github.ReadmeContent;
+import com.trendfeed.backend.dto.github.RepoMeta;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+
+/**
+ * GitHub REST 호출 모음 (githubWebClient 사용).
+ *
+ * /repos/{owner}/{repo} 와 /readme 는 조건부 요청을 보낸다:
+ *  - 저장해 둔 ETag → If-None-Match, 없으면 Last-Modified → If-Modified-Since
+ *  - 304 는 notModified 결과로 돌려주고 (primary rate limit 차감 없음), hit ratio 지표에 기록
+ *  - 200 이면 새 ETag / Last-Modified 를 Validators 로 함께 돌려준다 → GitHubEntity 에 저장
+ *
+ * 응답 본문은 Map 트리로 만들지 않고 GitHubJsonDecoder 가 필요한 필드만 RepoMeta / ReadmeContent 로 읽는다.
+ */
+@Service
+public class GitHubApiClient {
+
+    private final WebClient github;
+    private final GitHubCrawlMetrics metrics;
+
+    public GitHubApiClient(WebClient githubWebClient, GitHubCrawlMetrics metrics) {
+        this.github = githubWebClient;
+        this.metrics = metrics;
+    }
+
+    /**
+     * 조건부 요청용 검증자 (ETag, Last-Modified)
+     */
+    public record Validators(String etag, String lastModified) {
+
+        public static final Validators NONE = new Validators(null, null);
+
+        static Validators from(HttpHeaders h) {
+            return new Validators(h.getETag(), h.getFirst(HttpHeaders.LAST_MODIFIED));
+        }
+
+        public boolean isEmpty() {
+            return etag == null && lastModified == null;
+        }
+    }
+
+    /**
+     * 조건부 요청 결과. notModified 면 body 는 null
+     */
+    public record Fetched<T>(T body, Validators validators, boolean notModified) {}
+
+    /**
+     * 검색 한 페이지. totalCount 는 쿼리 전체 결과 수 (GitHub 는 그중 1,000개까지만 돌려준다)
+     */
+    public record SearchPage(int totalCount, List<RepoMeta> items) {}
+
+    /**
+     * /search/repositories 한 페이지의 items 를 응답이 도착하는 대로 하나씩 (stars 내림차순)
+     */
+    public Flux<RepoMeta> searchItems(String q, int page, int perPage) {
+        return searchBody(q, page, perPage, total -> { });
+    }
+
+    /**
+     * /search/repositories 한 페이지 (total_count 포함, stars 내림차순)
+     */
+    public Mono<SearchPage> searchPage(String q, int page, int perPage) {
+        return Mono.defer(() -> {
+            AtomicInteger total = new AtomicInteger();
+            return searchBody(q, page, perPage, total::set)
+                    .collectList()
+                    .map(items -> new SearchPage(total.get(), items));
+        });
+    }
+
+    private Flux<RepoMeta> searchBody(String q, int page, int perPage, IntConsumer totalCount) {
+        return github.get()
+                .uri(uriBuilder -> uriBuilder
+                        .path("/search/repositories")
+                        .queryParam("q", q)
+                        .queryParam("sort", "stars")
+                        .queryParam("order", "desc")
+                        .queryParam("per_page", perPage)
+                        .queryParam("page", page)
+                        .build())
+                .retrieve()
+                .bodyToFlux(DataBuffer.class)
+                .transform(body -> GitHubJsonDecoder.searchItems(body, totalCount));
+    }
+
+    /**
+     * /repos/{owner}/{repo} 메타데이터 (304 → notModified, 그 외 비정상 응답은 에러)
+     */
+    public Mono<Fetched<RepoMeta>> fetchRepo(String owner, String repoName, Validators prev) {
+        return github.get()
+                .uri("/repos/{owner}/{repo}", owner, repoName)
+                .headers(h -> addConditionalHeaders(h, prev))
+                .exchangeToMono(resp -> handleConditional("repo", resp, prev, true, GitHubJsonDecoder::repo));
+    }
+
+    /**
+     * /repos/{owner}/{repo}/readme (304 → notModified, 404 → empty)
+     */
+    public Mono<Fetched<ReadmeContent>> fetchReadme(String owner, String repoName, Validators prev) {
+        return fetchReadme(owner, repoName, prev, Priority.NORMAL);
+    }
+
+    /**
+     * 우선순위 지정. LOW 는 레이트리밋 필터에서 더 큰 reserve 에서 멈춘다 (README 큐)
+     */
+    public Mono<Fetched<ReadmeContent>> fetchReadme(String owner, String repoName, Validators prev, Priority priority) {
+        return github.get()
+                .uri("/repos/{owner}/{repo}/readme", owner, repoName)
+                .attribute(GitHubRateLimitFilter.PRIORITY_ATTRIBUTE, priority)
+                .headers(h -> addConditionalHeaders(h, prev))
+                .exchangeToMono(resp -> handleConditional("readme", resp, prev, false, GitHubJsonDecoder::readme));
+    }
+
+    private static void addConditionalHeaders(HttpHeaders h, Validators prev) {
+        if (prev == null) return;
+        if (prev.etag() != null) {
+            h.setIfNoneMatch(prev.etag());
+        } else if (prev.lastModified() != null) {
+            h.set(HttpHeaders.IF_MODIFIED_SINCE, prev.lastModified());
+        }
+    }
+
+    private <T> Mono<Fetched<T>> handleConditional(String endpoint, ClientResponse resp, Validators prev,
+                                                   boolean notFoundIsError,
+                                                   Function<Flux<DataBuffer>, Mono<T>> decoder) {
+        int code = resp.statusCode().value();
+        boolean conditional = prev != null && !prev.isEmpty();
+
+        // 변동 없음
+        if (code == 304) {
+            metrics.conditionalResult(endpoint, true);
+            return resp.releaseBody().thenReturn(new Fetched<T>(null, prev, true));
+        }
+
+        // 정상 응답(2xx)
+        if (code >= 200 && code < 300) {
+            if (conditional) {
+                metrics.conditionalResult(endpoint, false);
+            }
+            Validators validators = Validators.from(resp.headers().asHttpHeaders());
+            return decoder.apply(resp.bodyToFlux(DataBuffer.class))
+                    .map(body -> new Fetched<>(body, validators, false));
+        }
+
+        // README 없음
+        if (code == 404 && !notFoundIsError) {
+            return resp.releaseBody().then(Mono.empty());
+        }
+
+        // 레이트리밋 재시도(githubWebClient 필터)까지 실패했거나 그 외 오류 → 에러로 올림
+        return resp.createError();
+    }
+}
@@ -0,0 +1,230 @@
+package com.trendfeed.backend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 크롤러 Micrometer 지표 모음.
+ *
+ *  - github.conditional.requests{endpoint, result=hit|miss} : 조건부 요청(If-None-Match/If-Modified-Since) 결과
+ *  - github.conditional.hit.ratio{endpoint}                 : 누적 304 비율
+ *  - trend.scorer.duration{scorer, mode=primary|shadow}      : 배치 채점 시간
+ *  - trend.scorer.repos{scorer, mode}                        : 채점한 리포 수 (리포당 비용 = duration / repos)
+ *  - trend.scorer.promotions{scorer, mode}                   : stage 2 로 승급(섀도는 가상 승급)한 수
+ *  - trend.stage.transitions{from, to}                       : stage 전이 (0→1, 1→2 승급 / 2→1, 1→0 강등)
+ *  - github.crawl.repos.saved                                : 저장한 리포 수 (rate() 로 초당 처리량)
+ *  - github.crawl.repos.per.second                           : 진행 중인 실행의 평균 처리량 (없으면 0)
+ *  - github.crawl.batch.write{}                              : 저장 배치 하나(트랜잭션)의 DB 시간
+ *  - github.crawl.rows{result=written|unchanged}             : 저장 배치에서 실제로 다시 쓴 행 / 내용이 같아 건너뛴 행
+ *  - github.crawl.wal.bytes                                  : 저장 배치 동안 늘어난 WAL (DB 전체 기준이라 상한)
+ *  - github.crawl.failures{stage=search|fetch|readme|persist|recrawl} : 건너뛴 실패 수
+ *  - github.readme.fetches{result}                            : README 큐 처리 결과 (fetched|not_modified|unchanged|reused|missing|failed|dropped)
+ *  - github.readme.queue.size                                 : README 큐 대기 수
+ *  - github.graphql.readme.oid{result=found|missing}          : GraphQL 메타 조회에서 루트 README OID 를 찾은/못 찾은 리포 수
+ *                                                              (missing 은 README 큐가 조건부 REST /readme 로 받는다)
+ *  - github.recrawl.repos{result=claimed|saved}               : 기한 기반 재수집 (꺼낸 수 / 저장된 수)
+ *  - github.recrawl.overdue                                   : 기한이 지났는데 아직 못 꺼낸 리포 수
+ *
+ * 호출 단위 지연/상태 코드(github.api.*)와 잔여 쿼터(github.ratelimit.*)는 GitHubRateLimitFilter 가 기록한다.
+ */
+@Component
+public class GitHubCrawlMetrics {
+
+    private final MeterRegistry registry;
+    private final Map<String, ConditionalStats> conditional = new ConcurrentHashMap<>();
+
+    private final Counter reposSaved;
+    private final Timer batchWrite;
+
+    // 진행 중인 실행의 처리량 게이지 / 작업 진행 상황용 (0 이면 실행 중 아님)
+    private final AtomicLong runStartedNanos = new AtomicLong();
+    private final AtomicLong runSaved = new AtomicLong();
+
+    public GitHubCrawlMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.reposSaved = Counter.builder("github.crawl.repos.saved")
+                .description("크롤러가 저장한 리포 수")
+                .register(registry);
+        this.batchWrite = Timer.builder("github.crawl.batch.write")
+                .description("저장 배치 하나(트랜잭션)의 DB 시간")
+                .publishPercentileHistogram()
+                .register(registry);
+        Gauge.builder("github.crawl.repos.per.second", this, GitHubCrawlMetrics::currentThroughput)
+                .description("진행 중인 크롤 실행의 평균 처리량")
+                .register(registry);
+    }
+
+    // ──────────────────────────────────────────────────────────────
+    //  크롤 실행
+    // ──────────────────────────────────────────────────────────────
+
+    public void crawlStarted() {
+        runSaved.set(0);
+        runStartedNanos.set(System.nanoTime());
+    }
+
+    public void crawlFinished() {
+        runStartedNanos.set(0);
+    }
+
+    /**
+     * 저장 배치 하나 (DB 시간, 저장된 행 수)
+     */
+    public void batchWritten(long nanos, int rows) {
+        batchWrite.record(nanos, TimeUnit.NANOSECONDS);
+        reposSaved.increment(rows);
+        runSaved.addAndGet(rows);
+    }
+
+    /**
+     * 저장 배치의 쓰기 생략 결과. walBytes < 0 이면 측정 안 함
+     */
+    public void rowsWritten(int written, int unchanged, long walBytes) {
+        Counter.builder("github.crawl.rows").tag("result", "written").register(registry).increment(written);
+        Counter.builder("github.crawl.rows").tag("result", "unchanged").register(registry).increment(unchanged);
+        if (walBytes >= 0) {
+            Counter.builder("github.crawl.wal.bytes")
+                    .baseUnit("bytes")
+                    .description("저장 배치 동안 늘어난 WAL")
+                    .register(registry)
+                    .increment(walBytes);
+        }
+    }
+
+    /**
+     * 로그만 남기고 건너뛴 실패 (search / fetch / readme / persist / recrawl).
+     * 작업 상태의 오류 수/마지막 오류는 크롤 실행 몫만 따로 센다 (CrawlRunTracker)
+     */
+    public void crawlFailure(String stage, String detail) {
+        Counter.builder("github.crawl.failures")
+                .tag("stage", stage)
+                .register(registry)
+                .increment();
+    }
+
+    /**
+     * stage 전이 수. counts[from * 3 + to]
+     */
+    public void stageTransitions(int[] counts) {
+        for (int from = 0; from < 3; from++) {
+            for (int to = 0; to < 3; to++) {
+                int n = counts[from * 3 + to];
+                if (from == to || n == 0) continue;
+                Counter.builder("trend.stage.transitions")
+                        .tag("from", Integer.toString(from)).tag("to", Integer.toString(to))
+                        .register(registry)
+                        .increment(n);
+            }
+        }
+    }
+
+    public void readmeFetch(String result) {
+        Counter.builder("github.readme.fetches")
+                .tag("result", result)
+                .register(registry)
+                .increment();
+    }
+
+    public void graphqlReadmeOid(int found, int missing) {
+        if (found > 0) {
+            Counter.builder("github.graphql.readme.oid").tag("result", "found").register(registry).increment(found);
+        }
+        if (missing > 0) {
+            Counter.builder("github.graphql.readme.oid").tag("result", "missing").register(registry).increment(missing);
+        }
+    }
+
+    public void readmeQueueSize(Supplier<Number> size) {
+        Gauge.builder("github.readme.queue.size", size)
+                .description("README 큐 대기 수")
+                .register(registry);
+    }
+
+    private double currentThroughput() {
+        long started = runStartedNanos.get();
+        if (started == 0) return 0.0;
+        double seconds = (System.nanoTime() - started) / 1e9;
+        return seconds <= 0 ? 0.0 : runSaved.get() / seconds;
+    }
+
+    // ──────────────────────────────────────────────────────────────
+    //  조건부 요청 / 채점기
+    // ──────────────────────────────────────────────────────────────
+
+    /**
+     * 조건부 요청 결과 기록 (hit = 304 Not Modified)
+     */
+    public void conditionalResult(String endpoint, boolean hit) {
+        ConditionalStats s = conditional.computeIfAbsent(endpoint, ConditionalStats::new);
+        s.total.incrementAndGet();
+        if (hit) {
+            s.hits.incrementAndGet();
+            s.hitCounter.increment();
+        } else {
+            s.missCounter.increment();
+        }
+    }
+
+    /**
+     * 채점기 한 번 실행 (배치 하나)
+     */
+    public void scorerRun(String scorer, String mode, long nanos, int repos) {
+        Timer.builder("trend.scorer.duration")
+                .tag("scorer", scorer).tag("mode", mode)
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+        Counter.builder("trend.scorer.repos")
+                .tag("scorer", scorer).tag("mode", mode)
+                .register(registry)
+                .increment(repos);
+    }
+
+    public void scorerPromotions(String scorer, String mode, int promoted) {
+        if (promoted == 0) return;
+        Counter.builder("trend.scorer.promotions")
+                .tag("scorer", scorer).tag("mode", mode)
+                .register(registry)
+                .increment(promoted);
+    }
+
+    private final class ConditionalStats {
+        final AtomicLong hits = new AtomicLong();
+        final AtomicLong total = new AtomicLong();
+        final Counter hitCounter;
+        final Counter missCounter;
+
+        ConditionalStats(String endpoint) {
+            hitCounter = Counter.builder("github.conditional.requests")
+                    .tag("endpoint", endpoint).tag("result", "hit")
+                    .register(registry);
+            missCounter = Counter.builder("github.conditional.requests")
+                    .tag("endpoint", endpoint).tag("result", "miss")
+                    .register(registry);
+            Gauge.builder("github.conditional.hit.ratio", this,
+                            s -> s.total.get() == 0 ? 0.0 : (double) s.hits.get() / s.total.get())
+                    .description("조건부 요청 중 304 로 끝난 비율")
+                    .tag("endpoint", endpoint)
+                    .register(registry);
+        }
+    }
+
+    public void recrawled(int claimed, long saved) {
+        Counter.builder("github.recrawl.repos").tag("result", "claimed").register(registry).increment(claimed);
+        Counter.builder("github.recrawl.repos").tag("result", "saved").register(registry).increment(saved);
+    }
+
+    public void recrawlOverdue(Supplier<Number> overdue) {
+        Gauge.builder("github.recrawl.overdue", overdue)
+                .description("재수집 기한이 지난 리포 수")
+                .register(registry);
+    }
+}
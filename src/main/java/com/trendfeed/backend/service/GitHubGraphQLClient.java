@@ -0,0 +1,180 @@
+package com.trendfeed.backend.service;
+
+import com.trendfeed.backend.dto.github.RepoMeta;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * GitHub GraphQL 로 여러 리포 메타데이터를 한 번에 조회.
+ *
+ *  - repository(owner:, name:) 를 alias(r0, r1, ...) 로 묶어서 최대 100개/요청
+ *  - 결과는 REST /repos/{owner}/{repo} 와 같은 RepoMeta 로 변환
+ *    → GitHubService.mapMetaToEntity 를 그대로 사용
+ *  - README blob OID 는 RepoMeta.readmeOid 에 담는다 (REST /readme 의 sha 와 같은 값).
+ *    루트의 README_NAMES 를 순서대로 찾아 첫 번째 것. 목록에 없는 이름(Readme.md, README.txt, docs/README.md, README.ko.md 등)은
+ *    OID 가 없어서 README 큐가 조건부 REST /readme 로 받는다 (GitHub 가 위치/이름을 골라 줌).
+ *    찾은/못 찾은 수는 github.graphql.readme.oid{result=found|missing}
+ *  - 못 찾은 리포는 결과 리스트에서 null → 호출 측이 REST 로 폴백
+ *
+ * 엔드포인트는 github.graphql.url 로 바꿀 수 있어서 로컬 스텁으로도 테스트 가능.
+ */
+@Service
+public class GitHubGraphQLClient {
+
+    public static final int MAX_BATCH_SIZE = 100;
+
+    // 루트 README 후보 (앞쪽이 우선, git 경로는 대소문자 구분).
+    // object() 하나하나가 리포마다 GraphQL 노드 비용이라 흔한 이름만 찾는다 (나머지는 REST 폴백)
+    static final List<String> README_NAMES = List.of("README.md", "readme.md", "README.rst", "README");
+
+    private static final String REPO_FIELDS = """
+            fragment RepoFields on Repository {
+              databaseId
+              id
+              name
+              nameWithOwner
+              owner { login }
+              url
+              description
+              primaryLanguage { name }
+              stargazerCount
+              createdAt
+              pushedAt
+              updatedAt
+            %s}
+            """.formatted(readmeFields());
+
+    private final WebClient github;
+    private final GitHubCrawlMetrics metrics;
+    private final String graphqlUrl;
+
+    public GitHubGraphQLClient(
+            WebClient githubWebClient,
+            GitHubCrawlMetrics metrics,
+            @Value("${github.graphql.url:${github.api.url:https://api.github.com}/graphql}") String graphqlUrl
+    ) {
+        this.github = githubWebClient;
+        this.metrics = metrics;
+        this.graphqlUrl = graphqlUrl.trim();
+    }
+
+    /**
+     * fullNames 순서 그대로의 메타 리스트 (못 찾은 리포는 null)
+     */
+    @SuppressWarnings("unchecked")
+    public Mono<List<RepoMeta>> fetchRepositories(List<String> fullNames) {
+        if (fullNames.isEmpty()) {
+            return Mono.just(List.of());
+        }
+        if (fullNames.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("GraphQL batch size must be <= " + MAX_BATCH_SIZE);
+        }
+
+        Map<String, Object> body = new HashMap<>();
+        body.put("query", buildQuery(fullNames.size()));
+        body.put("variables", buildVariables(fullNames));
+
+        return github.post()
+                .uri(graphqlUrl)
+                .bodyValue(body)
+                .retrieve()
+                .bodyToMono(Map.class)
+                .map(resp -> {
+                    Map<String, Object> data = (Map<String, Object>) resp.get("data");
+                    List<RepoMeta> out = new ArrayList<>(fullNames.size());
+                    int found = 0;
+                    int missing = 0;
+                    for (int i = 0; i < fullNames.size(); i++) {
+                        Map<String, Object> node = data == null ? null : (Map<String, Object>) data.get("r" + i);
+                        RepoMeta meta = node == null ? null : toRepoMeta(node);
+                        if (meta != null) {
+                            if (meta.readmeOid() != null) found++;
+                            else missing++;
+                        }
+                        out.add(meta);
+                    }
+                    metrics.graphqlReadmeOid(found, missing);
+                    return out;
+                });
+    }
+
+    static String buildQuery(int n) {
+        StringBuilder params = new StringBuilder();
+        StringBuilder fields = new StringBuilder();
+        for (int i = 0; i < n; i++) {
+            if (i > 0) params.append(", ");
+            params.append("$o").append(i).append(": String!, $n").append(i).append(": String!");
+            fields.append("  r").append(i)
+                    .append(": repository(owner: $o").append(i)
+                    .append(", name: $n").append(i)
+                    .append(") { ...RepoFields }\n");
+        }
+        return "query(" + params + ") {\n" + fields + "}\n" + REPO_FIELDS;
+    }
+
+    /*
+     * README_NAMES 마다 readme0: object(expression: "HEAD:README.md") { ... on Blob { oid } } 한 줄
+     */
+    private static String readmeFields() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < README_NAMES.size(); i++) {
+            sb.append("  readme").append(i)
+                    .append(": object(expression: \"HEAD:").append(README_NAMES.get(i))
+                    .append("\") { ... on Blob { oid } }\n");
+        }
+        return sb.toString();
+    }
+
+    private static Map<String, Object> buildVariables(List<String> fullNames) {
+        Map<String, Object> vars = new LinkedHashMap<>();
+        for (int i = 0; i < fullNames.size(); i++) {
+            String[] parts = fullNames.get(i).split("/", 2);
+            vars.put("o" + i, parts[0].trim());
+            vars.put("n" + i, parts.length > 1 ? parts[1].trim() : "");
+        }
+        return vars;
+    }
+
+    /*
+     * GraphQL Repository → REST /repos 응답과 같은 필드
+     */
+    @SuppressWarnings("unchecked")
+    private static RepoMeta toRepoMeta(Map<String, Object> node) {
+        Map<String, Object> owner = (Map<String, Object>) node.get("owner");
+        Map<String, Object> lang = (Map<String, Object>) node.get("primaryLanguage");
+        Number id = (Number) node.get("databaseId");
+        Number stars = (Number) node.get("stargazerCount");
+
+        String readmeOid = null;
+        for (int i = 0; i < README_NAMES.size(); i++) {
+            Map<String, Object> blob = (Map<String, Object>) node.get("readme" + i);
+            if (blob != null && blob.get("oid") != null) {
+                readmeOid = (String) blob.get("oid");
+                break;
+            }
+        }
+
+        return new RepoMeta(
+                id == null ? null : id.longValue(),
+                (String) node.get("id"),
+                (String) node.get("name"),
+                (String) node.get("nameWithOwner"),
+                owner == null ? null : (String) owner.get("login"),
+                (String) node.get("url"),
+                (String) node.get("description"),
+                lang == null ? null : (String) lang.get("name"),
+                stars == null ? null : stars.intValue(),
+                (String) node.get("createdAt"),
+                (String) node.get("pushedAt"),
+                (String) node.get("updatedAt"),
+                readmeOid);
+    }
+}
@@ -0,0 +1,283 @@
+package com.trendfeed.backend.service;
+
+import com.fasterxml.jackson.core.Base64Variants;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteBufferFeeder;
+import com.trendfeed.backend.dto.github.ReadmeContent;
+import com.trendfeed.backend.dto.github.RepoMeta;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * GitHub REST 응답을 Jackson 토큰 API 로 읽어 필요한 필드만 RepoMeta / ReadmeContent 로 만든다.
+ * 쓰지 않는 owner / license / permissions 등은 Map 트리로 만들지 않고 skipChildren 으로 건너뛴다.
+ *
+ * 검색 페이지는 non-blocking 파서에 DataBuffer 를 도착하는 대로 먹여서 item 하나가 끝날 때마다 내보낸다
+ * (페이지 전체를 모으지 않음).
+ */
+public final class GitHubJsonDecoder {
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private GitHubJsonDecoder() {}
+
+    // ──────────────────────────────────────────────────────────────
+    //  단일 객체 (/repos, /readme)
+    // ──────────────────────────────────────────────────────────────
+
+    public static Mono<RepoMeta> repo(Flux<DataBuffer> body) {
+        return parseJoined(body, p -> {
+            p.nextToken();
+            return readRepo(p);
+        });
+    }
+
+    public static Mono<ReadmeContent> readme(Flux<DataBuffer> body) {
+        return parseJoined(body, p -> {
+            p.nextToken();
+            return readReadme(p);
+        });
+    }
+
+    private interface ParserFunction<T> {
+        T apply(JsonParser p) throws IOException;
+    }
+
+    private static <T> Mono<T> parseJoined(Flux<DataBuffer> body, ParserFunction<T> fn) {
+        return DataBufferUtils.join(body).map(buf -> {
+            try (InputStream in = buf.asInputStream(true); JsonParser p = JSON.createParser(in)) {
+                return fn.apply(p);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * START_OBJECT 에 놓인 파서에서 리포 객체 하나
+     */
+    static RepoMeta readRepo(JsonParser p) throws IOException {
+        RepoBuilder b = new RepoBuilder();
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.currentName();
+            JsonToken value = p.nextToken();
+            if ("owner".equals(field) && value == JsonToken.START_OBJECT) {
+                while (p.nextToken() == JsonToken.FIELD_NAME) {
+                    String ownerField = p.currentName();
+                    p.nextToken();
+                    if ("login".equals(ownerField)) {
+                        b.ownerLogin = p.getValueAsString();
+                    } else {
+                        p.skipChildren();
+                    }
+                }
+            } else if (value.isScalarValue()) {
+                b.set(field, p);
+            } else {
+                p.skipChildren();
+            }
+        }
+        return b.build();
+    }
+
+    static ReadmeContent readReadme(JsonParser p) throws IOException {
+        String sha = null;
+        String encoding = null;
+        byte[] content = null;
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.currentName();
+            JsonToken value = p.nextToken();
+            switch (field) {
+                case "sha" -> sha = p.getValueAsString();
+                case "encoding" -> encoding = p.getValueAsString();
+                // GitHub 는 60자마다 줄바꿈을 넣는다. Jackson 의 base64 디코딩은 공백을 건너뛰므로 String 을 거치지 않고 바로 바이트로
+                case "content" -> content = value == JsonToken.VALUE_STRING ? decodeBase64(p) : null;
+                default -> p.skipChildren();
+            }
+        }
+        if (encoding != null && !"base64".equalsIgnoreCase(encoding)) {
+            content = null;
+        }
+        return new ReadmeContent(sha, encoding, content);
+    }
+
+    private static byte[] decodeBase64(JsonParser p) throws IOException {
+        try {
+            return p.getBinaryValue(Base64Variants.MIME);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    // ──────────────────────────────────────────────────────────────
+    //  검색 페이지 (스트리밍)
+    // ──────────────────────────────────────────────────────────────
+
+    /**
+     * /search/repositories 응답의 items 를 하나씩. total_count 를 만나면 totalCount 로 알려준다
+     */
+    public static Flux<RepoMeta> searchItems(Flux<DataBuffer> body, IntConsumer totalCount) {
+        return Flux.using(
+                () -> new SearchItemsParser(totalCount),
+                parser -> Flux.concat(
+                        body.concatMapIterable(parser::feed),
+                        Mono.fromCallable(parser::finish).flatMapIterable(items -> items)),
+                SearchItemsParser::close);
+    }
+
+    /*
+     * non-blocking 파서 위의 상태 기계. depth 1 = 최상위 객체, 2 = items 배열, 3 = item, 4 = item 의 하위 객체
+     */
+    static final class SearchItemsParser {
+        private final JsonParser parser;
+        private final ByteBufferFeeder feeder;
+        private final IntConsumer totalCount;
+
+        private int depth;
+        private String rootField;
+        private boolean inItems;
+        private RepoBuilder item;
+        private String itemField;
+        private boolean inOwner;
+        private String ownerField;
+
+        SearchItemsParser(IntConsumer totalCount) {
+            try {
+                this.parser = JSON.createNonBlockingByteBufferParser();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            this.feeder = (ByteBufferFeeder) parser.getNonBlockingInputFeeder();
+            this.totalCount = totalCount;
+        }
+
+        List<RepoMeta> feed(DataBuffer buffer) {
+            List<RepoMeta> out = new ArrayList<>();
+            try (DataBuffer.ByteBufferIterator it = buffer.readableByteBuffers()) {
+                while (it.hasNext()) {
+                    feeder.feedInput(it.next());
+                    drain(out);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                DataBufferUtils.release(buffer);
+            }
+            return out;
+        }
+
+        List<RepoMeta> finish() throws IOException {
+            feeder.endOfInput();
+            List<RepoMeta> out = new ArrayList<>();
+            drain(out);
+            return out;
+        }
+
+        void close() {
+            try {
+                parser.close();
+            } catch (IOException ignored) {
+                // 닫기 실패는 무시
+            }
+        }
+
+        private void drain(List<RepoMeta> out) throws IOException {
+            JsonToken t;
+            while ((t = parser.nextToken()) != null && t != JsonToken.NOT_AVAILABLE) {
+                switch (t) {
+                    case START_OBJECT, START_ARRAY -> {
+                        depth++;
+                        if (depth == 2 && t == JsonToken.START_ARRAY && "items".equals(rootField)) {
+                            inItems = true;
+                        } else if (depth == 3 && inItems && t == JsonToken.START_OBJECT) {
+                            item = new RepoBuilder();
+                        } else if (depth == 4 && item != null && "owner".equals(itemField) && t == JsonToken.START_OBJECT) {
+                            inOwner = true;
+                        }
+                    }
+                    case END_OBJECT, END_ARRAY -> {
+                        depth--;
+                        if (depth == 3) {
+                            inOwner = false;
+                        } else if (depth == 2 && item != null) {
+                            out.add(item.build());
+                            item = null;
+                        } else if (depth == 1) {
+                            inItems = false;
+                        }
+                    }
+                    case FIELD_NAME -> {
+                        if (depth == 1) rootField = parser.currentName();
+                        else if (depth == 3) itemField = parser.currentName();
+                        else if (depth == 4 && inOwner) ownerField = parser.currentName();
+                    }
+                    default -> {
+                        // 스칼라 값
+                        if (depth == 1 && "total_count".equals(rootField) && t == JsonToken.VALUE_NUMBER_INT) {
+                            totalCount.accept(parser.getIntValue());
+                        } else if (depth == 3 && item != null) {
+                            item.set(itemField, parser);
+                        } else if (depth == 4 && inOwner && "login".equals(ownerField)) {
+                            item.ownerLogin = parser.getValueAsString();
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /*
+     * 파싱 중 필드를 모으는 가변 빌더 (item 하나당 하나)
+     */
+    static final class RepoBuilder {
+        Long id;
+        String nodeId;
+        String name;
+        String fullName;
+        String ownerLogin;
+        String htmlUrl;
+        String description;
+        String language;
+        Integer stargazersCount;
+        String createdAt;
+        String pushedAt;
+        String updatedAt;
+
+        /*
+         * 현재 스칼라 토큰을 field 에 반영 (모르는 필드는 무시)
+         */
+        void set(String field, JsonParser p) throws IOException {
+            if (field == null || p.currentToken() == JsonToken.VALUE_NULL) return;
+            switch (field) {
+                case "id" -> id = p.getValueAsLong();
+                case "node_id" -> nodeId = p.getValueAsString();
+                case "name" -> name = p.getValueAsString();
+                case "full_name" -> fullName = p.getValueAsString();
+                case "html_url" -> htmlUrl = p.getValueAsString();
+                case "description" -> description = p.getValueAsString();
+                case "language" -> language = p.getValueAsString();
+                case "stargazers_count" -> stargazersCount = p.getValueAsInt();
+                case "created_at" -> createdAt = p.getValueAsString();
+                case "pushed_at" -> pushedAt = p.getValueAsString();
+                case "updated_at" -> updatedAt = p.getValueAsString();
+                default -> { }
+            }
+        }
+
+        RepoMeta build() {
+            return new RepoMeta(id, nodeId, name, fullName, ownerLogin, htmlUrl, description, language,
+                    stargazersCount, createdAt, pushedAt, updatedAt, null);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.trendfeed.backend.service;
+
+import com.trendfeed.backend.dto.github.RepoMeta;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * GitHub 검색 1,000건 상한을 넘기 위한 샤드 계획.
+ *
+ * 전체 구간(created 날짜 × 최소 스타)에서 시작해서 total_count 가 1,000 이상이면
+ *  - 날짜 구간을 반으로 나누고
+ *  - 하루짜리 구간인데도 넘치면 stars 구간을 반으로 나눈다
+ * 각 샤드의 결과 수 확인은 per_page=1 검색 한 번 (search 쿼터는 레이트리밋 필터가 조절).
+ */
+@Service
+public class GitHubSearchPlanner {
+
+    private static final Logger log = LoggerFactory.getLogger(GitHubSearchPlanner.class);
+
+    // GitHub search 가 한 쿼리에 돌려주는 최대 결과 수
+    public static final int SEARCH_RESULT_CAP = 1000;
+
+    private final GitHubApiClient api;
+
+    public GitHubSearchPlanner(GitHubApiClient api) {
+        this.api = api;
+    }
+
+    /**
+     * 결과 수가 1,000 미만인 샤드들 (결과 0건 샤드는 제외)
+     */
+    public Flux<SearchShard> plan(LocalDate createdFrom, LocalDate createdTo, int minStars) {
+        return split(new SearchShard(createdFrom, createdTo, minStars, null, -1));
+    }
+
+    private Flux<SearchShard> split(SearchShard shard) {
+        return api.searchPage(shard.query(), 1, 1)
+                .flatMapMany(page -> {
+                    SearchShard counted = shard.withTotalCount(page.totalCount());
+                    if (counted.totalCount() == 0) {
+                        return Flux.empty();
+                    }
+                    if (counted.totalCount() < SEARCH_RESULT_CAP) {
+                        return Flux.just(counted);
+                    }
+                    if (!counted.isSingleDay()) {
+                        SearchShard[] halves = counted.splitByDate();
+                        return Flux.concat(split(halves[0]), split(halves[1]));
+                    }
+
+                    // 하루짜리인데도 넘침 → stars 구간 분할 (최대 스타 수는 stars desc 첫 결과)
+                    int top = topStars(page.items());
+                    if (top <= counted.minStars()
+                            || (counted.maxStars() != null && counted.maxStars() <= counted.minStars())) {
+                        log.warn("search shard cannot be split further, results past {} are skipped: {}",
+                                SEARCH_RESULT_CAP, counted);
+                        return Flux.just(counted);
+                    }
+                    SearchShard[] halves = counted.splitByStars(top);
+                    return Flux.concat(split(halves[0]), split(halves[1]));
+                })
+                .onErrorResume(ex -> {
+                    log.warn("search shard planning failed, crawling unsplit: {} ({})", shard, ex.toString());
+                    return Flux.just(shard);
+                });
+    }
+
+    private static int topStars(List<RepoMeta> items) {
+        if (items.isEmpty()) return 0;
+        Integer stars = items.get(0).stargazersCount();
+        return stars == null ? 0 : stars;
+    }
+}
@@ -1,25 +1,43 @@
 package com.trendfeed.backend.service;
 
+import com.trendfeed.backend.dto.github.RepoMeta;
 import com.trendfeed.backend.entity.GitHubEntity;
 import com.trendfeed.backend.entity.TrendingCandidateEntity;
+import com.trendfeed.backend.repository.GitHubBatchWriter;
 import com.trendfeed.backend.repository.GitHubRepository;
+import com.trendfeed.backend.repository.RecrawlScheduleWriter;
 import com.trendfeed.backend.repository.TrendingCandidateRepository;
+import com.trendfeed.backend.service.GitHubApiClient.Fetched;
+import com.trendfeed.backend.service.GitHubApiClient.Validators;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
-import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
-import java.time.format.DateTimeFormatter;
-import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 
 /**
  * GitHub에서 리포지토리 정보를 수집하고,
@@ -29,6 +47,22 @@ import java.util.Map;
  *
  * 흐름:
  *  - crawlAllAndEvaluate()  [스케줄러: 3일마다 전체 스캔]
+ *      crawler.search.sharding=true 이면 검색 1,000건 상한을 넘도록 created/stars 구간 샤드로 나눠 병렬 수집,
+ *      리포 id 로 중복 제거
+ *      실행/샤드/페이지 커서는 crawl_runs 에 배치 경계마다 기록 → 재시작 시 미완료 실행을 이어서 진행
+ *      여러 노드가 같은 실행에 합류해서 샤드를 리스로 나눠 가진다 (CrawlRunService)
+ *      검색 페이지 → (메타 수집, crawler.concurrency 제한, 속도는 GitHubRateLimitFilter 가 조절)
+ *        → 제한된 버퍼(crawler.buffer-size, backpressure) → 평가/저장 단계
+ *          (crawler.persist-batch-size 개씩 트랜잭션 하나, JDBC batch upsert)
+ *      내용 해시(content_hash)가 같은 행은 다시 쓰지 않고 크롤 시각만 repo_crawl_touch 에 기록 (WAL/bloat 감소)
+ *      crawler.fetch-mode=graphql 이면 메타는 GraphQL 로 최대 100개씩 묶어서 조회하고,
+ *      (못 찾은 리포는 REST 폴백)
+ *      crawler.fetch-mode=search 이면 검색 결과 item 을 메타로 그대로 쓰고 /repos 호출을 생략,
+ *      검색에서 빠진 stage 1/2 리포만 /repos 로 갱신한다
+ *      저장할 때마다 스타 수 샘플을 star_history_chunks 에 추가 (StarHistoryService, 구간별 증가 조회)
+ *      README 는 크롤에서 받지 않는다. 배치가 커밋된 뒤 stage 에 오른 리포만 ReadmeFetchService 큐로 넘김
+ *      crawler.fetch-mode=rest/graphql 이면 재수집 기한(repo_crawl_schedule)이 안 된 리포는 건너뛴다
+ *  - refresh()              [RecrawlScheduler: 기한이 된 리포만 갱신, 평가할 때 RecrawlPolicy 가 다음 기한 기록]
  *  - upsertAndEvaluate()    [단일 리포 강제 수집용(수동 호출)]
  *  - getOldestUngivenCandidatesAndMark() [AI에게 건네줄 후보 리턴]
  *
@@ -37,6 +71,8 @@ import java.util.Map;
  *   agePenaltyFactor = 0.5^( ageDays / halfLifeDays )
  *   trendScore = growthRate * growthWeight * agePenaltyFactor * penaltyWeight
  *
+ *   임계값: trend.threshold-mode=fixed 면 trend.threshold,
+ *           percentile 이면 최근 완료 실행의 언어별 점수 분포에서 상위 trend.percentile.top (PromotionThresholds)
  *   stage 0/1에 대해 같은 임계값으로 검사:
  *     - score >= threshold → stage+1 (최대 2)
  *     - score < threshold AND stage==1 → stage=0 (강등)
@@ -46,9 +82,25 @@ import java.util.Map;
 @Service
 public class GitHubService {
 
-    private final WebClient github;
+    private static final Logger log = LoggerFactory.getLogger(GitHubService.class);
+
+    private final GitHubApiClient api;
     private final GitHubRepository repoRepo;
     private final TrendingCandidateRepository candRepo;
+    private final TransactionTemplate tx;
+    private final GitHubGraphQLClient graphQL;
+    private final GitHubSearchPlanner planner;
+    private final GitHubBatchWriter batchWriter;
+    private final EntityManager entityManager;
+    private final CrawlRunService runService;
+    private final StarHistoryService starHistory;
+    private final TrendScorers scorers;
+    private final ReadmeStore readmeStore;
+    private final ReadmeFetchService readmeFetch;
+    private final RecrawlPolicy recrawlPolicy;
+    private final RecrawlScheduleWriter recrawlSchedule;
+    private final PromotionThresholds thresholds;
+    private final GitHubCrawlMetrics metrics;
 
     // ====== 수집(검색) 파라미터 ======
     @Value("${crawler.search.years:2}")          // 최근 N년 이내의 repo만 검색
@@ -60,100 +112,165 @@ public class GitHubService {
     @Value("${crawler.per-page:100}")            // GitHub /search/repositories per_page (최대 100)
     private int perPage;
 
-    @Value("${crawler.max-pages:10}")            // 페이지네이션 상한
+    @Value("${crawler.max-pages:10}")            // 페이지네이션 상한 (샤드당)
     private int maxPages;
 
-    @Value("${crawler.sleep-millis:150}")        // 각 rep션 처리 사이 딜레이, 레이트리밋 보호
-    private long sleepMillis;
+    @Value("${crawler.search.sharding:false}")   // created/stars 구간 샤딩으로 1,000건 상한 우회
+    private boolean sharding;
+
+    @Value("${crawler.search.shard-concurrency:4}") // 동시에 수집할 샤드 수
+    private int shardConcurrency;
+
+    @Value("${crawler.concurrency:8}")           // 메타 동시 요청 수 상한
+    private int concurrency;
 
-    // ====== 스케줄링 크론 표현식 ======
-    @Value("${crawler.cron:0 0 0 */3 * *}")
-    private String cron;
+    @Value("${crawler.buffer-size:256}")         // 수집 단계 → 저장 단계 사이 버퍼 크기
+    private int bufferSize;
 
-    // ====== 트렌드 계산 파라미터 ======
-    @Value("${trend.weight.growth:1.0}")         // 증가율 가중치
-    private double growthWeight;
+    @Value("${crawler.persist-batch-size:100}")  // 저장 단계 트랜잭션/JDBC batch 크기
+    private int persistBatchSize;
 
-    @Value("${trend.weight.penalty:1.0}")        // 나이 페널티 가중치
-    private double penaltyWeight;
+    @Value("${crawler.fetch-mode:rest}")         // rest | graphql
+    private String fetchMode;
 
-    @Value("${trend.age.half-life-days:720}")    // 감쇠 계수
-    private double ageHalfLifeDays;
+    @Value("${crawler.graphql.batch-size:50}")   // GraphQL 한 요청당 리포 수 (최대 100)
+    private int graphqlBatchSize;
 
-    @Value("${trend.threshold:20}")            // 임계치
-    private double trendThreshold;
+    @Value("${crawler.wal-metrics:true}")        // 저장 배치마다 WAL 증가량 측정 (pg_current_wal_lsn, 실패하면 꺼짐)
+    private volatile boolean walMetrics;
 
-    @Value("${trend.growth.k:3.0}")
-    private double growthK;                      //민감도
+    @Value("${recrawl.full-crawl-skip-not-due:true}") // 전체 크롤(rest/graphql)에서 재수집 기한 전인 리포는 건너뜀
+    private boolean skipNotDue;
+
+    // ====== 트렌드 계산 파라미터 (점수 공식은 TrendScorer 구현체, 임계치는 PromotionThresholds) ======
+    @Value("${trend.eval-window-hours:48}")    // 평가 구간: 이보다 짧으면 승급만 (강등/prevStars 갱신은 구간이 찬 뒤)
+    private double evalWindowHours;
 
     public GitHubService(
-            WebClient githubWebClient,
+            GitHubApiClient api,
             GitHubRepository repoRepo,
-            TrendingCandidateRepository candRepo
+            TrendingCandidateRepository candRepo,
+            PlatformTransactionManager transactionManager,
+            GitHubGraphQLClient graphQL,
+            GitHubSearchPlanner planner,
+            GitHubBatchWriter batchWriter,
+            EntityManager entityManager,
+            CrawlRunService runService,
+            StarHistoryService starHistory,
+            TrendScorers scorers,
+            ReadmeStore readmeStore,
+            ReadmeFetchService readmeFetch,
+            RecrawlPolicy recrawlPolicy,
+            RecrawlScheduleWriter recrawlSchedule,
+            PromotionThresholds thresholds,
+            GitHubCrawlMetrics metrics
     ) {
-        this.github = githubWebClient;
+        this.api = api;
         this.repoRepo = repoRepo;
         this.candRepo = candRepo;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.graphQL = graphQL;
+        this.planner = planner;
+        this.batchWriter = batchWriter;
+        this.entityManager = entityManager;
+        this.runService = runService;
+        this.starHistory = starHistory;
+        this.scorers = scorers;
+        this.readmeStore = readmeStore;
+        this.readmeFetch = readmeFetch;
+        this.recrawlPolicy = recrawlPolicy;
+        this.recrawlSchedule = recrawlSchedule;
+        this.thresholds = thresholds;
+        this.metrics = metrics;
     }
 
     // ──────────────────────────────────────────────────────────────
-    //    주기적으로 전체 수집 (조건: 최근 N년 + 최소 스타수)
+    //    전체 수집 (조건: 최근 N년 + 최소 스타수)
+    //    스케줄/수동 실행 모두 CrawlJobService 를 거친다 (전용 스레드, 동시에 하나만)
     // ──────────────────────────────────────────────────────────────
-    @Scheduled(cron = "${crawler.cron:0 0 0 */3 * *}")
-    @Transactional
     public void crawlAllAndEvaluate() {
-        String since = OffsetDateTime.now(ZoneOffset.UTC)
-                .minusYears(searchYears)
-                .format(DateTimeFormatter.ISO_LOCAL_DATE);
-
-        // GitHub search q 파라미터
-        // created:>=YYYY-MM-DD → "created:%3E%3DYYYY-MM-DD" (%3E%3D == ">=" 인코딩)
-        String q = "stars:>=" + minStars + "+created:%3E%3D" + since;
-
-        for (int page = 1; page <= maxPages; page++) {
-
-            final int currentPage = page; 
-
-            Map<String, Object> searchResult = github.get()
-                    .uri(uriBuilder -> uriBuilder
-                            .path("/search/repositories")
-                            .queryParam("q", q)
-                            .queryParam("sort", "stars")
-                            .queryParam("order", "desc")
-                            .queryParam("per_page", perPage)
-                            .queryParam("page", currentPage)
-                            .build())
-                    .retrieve()
-                    .bodyToMono(Map.class)
-                    .onErrorResume(ex -> {
-                        return Mono.empty();
-                    })
-                    .block();
-
-            if (searchResult == null) {
-                break; 
-            }
+        crawlAllAndEvaluate(run -> { });
+    }
 
-            @SuppressWarnings("unchecked")
-            List<Map<String, Object>> items = (List<Map<String, Object>>) searchResult.get("items");
-            if (items == null || items.isEmpty()) {
-                break; 
+    /**
+     * onJoin 은 참여할 크롤 실행이 정해진 직후 호출 (작업 진행 상황에서 실행 id 를 쓰기 위해)
+     */
+    public void crawlAllAndEvaluate(Consumer<CrawlRunTracker> onJoin) {
+        // 진행 중인 실행이 있으면 합류 (다른 노드가 시작했거나 이전에 중단된 실행), 없으면 샤드 계획부터
+        CrawlRunTracker run = runService.joinOrStart(fetchMode, this::planShards);
+        metrics.crawlStarted();
+        thresholds.startRun(run);
+        onJoin.accept(run);
+
+        try {
+            // 샤드 경계/페이지 이동으로 같은 리포가 두 번 나올 수 있어 id 로 중복 제거
+            // (다른 노드가 이미 저장한 리포는 toCrawlTargets 에서 last_crawled_at 으로 거른다)
+            Set<Long> seen = ConcurrentHashMap.newKeySet();
+
+            // 샤드를 하나씩 리스로 가져와 처리, 끝나면 다음 샤드 (남은 게 없으면 종료)
+            Flux<CrawlRunTracker.ShardProgress> claimed = Flux.<CrawlRunTracker.ShardProgress>generate(sink ->
+                            runService.claimShard(run).ifPresentOrElse(sink::next, sink::complete))
+                    .subscribeOn(Schedulers.boundedElastic());
+
+            Flux<CrawlTarget> targets = claimed
+                    // 샤드별 병렬 수집 (샤드 안에서는 페이지 순서대로)
+                    .flatMap(sp -> searchPages(sp, run), shardConcurrency)
+                    // 페이지 단위로 저장된 ETag/Last-Modified 를 한 번에 조회
+                    .concatMap(page -> toCrawlTargets(page, run))
+                    .filter(t -> {
+                        if (seen.add(t.id())) return true;
+                        t.settle();
+                        return false;
+                    });
+
+            persistAll(fetchSnapshots(targets, run), run);
+
+            // 이 노드 몫의 점수 분포 기록 (실행이 완료로 바뀌기 전에 → 다음 실행이 모든 노드 몫을 본다)
+            thresholds.finishRun(run);
+
+            // 남은 샤드가 없으면 실행을 닫는다 (여러 노드 중 하나만)
+            boolean completed = runService.finishNode(run);
+
+            // search 모드: 이번 검색에서 빠진 stage 1/2 리포는 /repos 로 개별 갱신 (강등/승급 판단 유지)
+            if (completed && "search".equalsIgnoreCase(fetchMode)) {
+                Flux<CrawlTarget> dropped = Mono.fromCallable(() -> repoRepo.findCrawlStatesByTrendStageAtLeast(1))
+                        .subscribeOn(Schedulers.boundedElastic())
+                        .flatMapIterable(views -> views)
+                        .filter(v -> !crawledInRun(v, run))
+                        .map(v -> CrawlTarget.of(v.getId(), v.getFullName(), null, v, null, 0));
+                persistAll(dropped.flatMap(t -> fetchSnapshotSafely(t, run), concurrency), run);
             }
 
-            for (Map<String, Object> item : items) {
-                String fullName = (String) item.get("full_name"); // "owner/repo"
-                if (fullName == null) continue;
-
-                try {
-                    upsertAndEvaluate(fullName);
-                    Thread.sleep(sleepMillis);
-                } catch (Exception ignore) {
-                    // TODO: 로깅
-                }
-            }
+            log.info("node {} finished its part of crawl run {}{}: {} repositories saved ({} unchanged, {} KB WAL), stage transitions [{}]",
+                    run.getNodeId(), run.getRunId(), completed ? " (run completed)" : "", run.getSaved(),
+                    run.getUnchanged(), run.getWalBytes() / 1024, run.transitionSummary());
+        } catch (RuntimeException ex) {
+            // 커서 기록 + 리스 반납 → 다른 노드/다음 실행이 이어서 진행
+            thresholds.finishRun(run);
+            runService.abort(run);
+            throw ex;
+        } finally {
+            metrics.crawlFinished();
         }
     }
 
+    // ──────────────────────────────────────────────────────────────
+    //  기한이 된 리포 재수집 (RecrawlScheduler 가 repo_crawl_schedule 에서 꺼낸 id)
+    //  전체 크롤과 같은 수집/저장 단계, 크롤 실행/체크포인트 없음
+    // ──────────────────────────────────────────────────────────────
+    public long refresh(Collection<Long> repoIds) {
+        if (repoIds.isEmpty()) return 0;
+        Flux<CrawlTarget> targets = Mono.fromCallable(() -> repoRepo.findCrawlStatesByIdIn(repoIds))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMapIterable(views -> views)
+                .map(v -> CrawlTarget.of(v.getId(), v.getFullName(), null, v, null, 0));
+        // search 모드도 개별 리포는 /repos (검색 item 이 없음)
+        Flux<RepoSnapshot> snapshots = "graphql".equalsIgnoreCase(fetchMode)
+                ? fetchSnapshotsBatched(targets, null)
+                : targets.flatMap(t -> fetchSnapshotSafely(t, null), concurrency);
+        return persistAll(snapshots, null);
+    }
+
     // ──────────────────────────────────────────────────────────────
     //  단일 리포 수집 및 평가
     // ──────────────────────────────────────────────────────────────
@@ -163,28 +280,23 @@ public class GitHubService {
         String owner = parts[0];
         String repoName = parts[1];
 
+        // 저장된 검증자로 조건부 요청
+        GitHubEntity existing = repoRepo.findByFullName(fullName);
+
         // 메타데이터 수집
-        Map<String, Object> meta = github.get()
-                .uri("/repos/{owner}/{repo}", owner, repoName)
-                .retrieve()
-                .bodyToMono(Map.class)
-                .block();
-        if (meta == null) {
+        Fetched<RepoMeta> meta = api.fetchRepo(owner, repoName, metaValidators(existing)).block();
+        if (meta == null || (meta.notModified() && existing == null)) {
             return null;
         }
 
-        GitHubEntity existing = repoRepo.findById(((Number) meta.get("id")).longValue()).orElse(null);
-        GitHubEntity e = mapMetaToEntity(meta, existing);
-
-        // README 수집
-        fetchAndAttachReadme(owner, repoName, e);
-
-        // 트렌드 점수 계산/승급 
-        evaluateTrendAndMaybePromote(e);
+        Long id = meta.notModified() ? existing.getId() : meta.body().id();
+        if (existing == null || !existing.getId().equals(id)) {
+            // 이름이 바뀐 리포 등
+            existing = repoRepo.findById(id).orElse(null);
+        }
 
-        // 크롤링 시간 기록
-        e.setLastCrawledAt(OffsetDateTime.now(ZoneOffset.UTC));
-        return repoRepo.save(e);
+        // README 는 stage 에 오르면 ReadmeFetchService 가 받는다
+        return applySnapshot(new RepoSnapshot(id, fullName, meta, null), existing);
     }
 
     // ──────────────────────────────────────────────────────────────
@@ -192,6 +304,14 @@ public class GitHubService {
     // ──────────────────────────────────────────────────────────────
     @Transactional
     public List<GitHubEntity> getOldestUngivenCandidatesAndMark(int limit) {
+        return getOldestUngivenCandidatesAndMark(limit, true);
+    }
+
+    /*
+     * includeReadme=false 면 README 본문을 읽지 않는다 (목록/메타만 필요할 때)
+     */
+    @Transactional
+    public List<GitHubEntity> getOldestUngivenCandidatesAndMark(int limit, boolean includeReadme) {
         var pageReq = PageRequest.of(
                 0,
                 limit,
@@ -215,7 +335,12 @@ public class GitHubService {
                 .map(TrendingCandidateEntity::getRepoId)
                 .toList();
 
-        return repoRepo.findAllById(repoIds);
+        List<GitHubEntity> repos = repoRepo.findAllById(repoIds);
+        if (includeReadme) {
+            Map<Long, String> readmes = readmeStore.getAll(repoIds);
+            repos.forEach(r -> r.setReadmeText(readmes.get(r.getId())));
+        }
+        return repos;
     }
 
     // ──────────────────────────────────────────────────────────────
@@ -223,68 +348,387 @@ public class GitHubService {
     // ──────────────────────────────────────────────────────────────
 
     /*
-    * README를 GitHub API로 가져오기
-    */
-    private void fetchAndAttachReadme(String owner, String repoName, GitHubEntity e) {
+     * 수집 단계 단위: 검색 결과 한 건(item) + 저장된 메타 조건부 요청 검증자
+     * + 체크포인트용 출처(샤드, 페이지)
+     */
+    private record CrawlTarget(Long id, String fullName, RepoMeta item, Validators meta,
+                               CrawlRunTracker.ShardProgress shard, int page) {
 
-        Map<String, Object> readmeResponse = github.get()
-                .uri("/repos/{owner}/{repo}/readme", owner, repoName)
-                .headers(h -> {
-                    if (e.getReadmeEtag() != null) {
-                        h.add("If-None-Match", e.getReadmeEtag());
-                    }
+        static CrawlTarget of(Long id, String fullName, RepoMeta item, GitHubRepository.CrawlStateView v,
+                              CrawlRunTracker.ShardProgress shard, int page) {
+            if (v == null) {
+                return new CrawlTarget(id, fullName, item, Validators.NONE, shard, page);
+            }
+            return new CrawlTarget(id, fullName, item,
+                    new Validators(v.getMetaEtag(), v.getMetaLastModified()), shard, page);
+        }
+
+        /*
+         * 저장됐거나 실패/중복으로 더 진행하지 않음 → 페이지 커서 전진 가능
+         */
+        void settle() {
+            if (shard != null) shard.settle(page, id);
+        }
+    }
+
+    /*
+     * 수집 단계 결과: 메타(304면 notModified) + 출처
+     */
+    private record RepoSnapshot(Long id, String fullName, Fetched<RepoMeta> meta, CrawlTarget origin) {
+
+        /*
+         * GraphQL 로 받은 README blob OID (REST/304 면 null)
+         */
+        String readmeOid() {
+            return meta.notModified() || meta.body() == null ? null : meta.body().readmeOid();
+        }
+    }
+
+    /*
+     * 검색 샤드 계획. 샤딩이 꺼져 있으면 전체 구간 하나 (검색 조건: 최근 N년 + 최소 스타수)
+     * joinOrStart 가 트랜잭션/advisory lock 밖에서 호출한다
+     */
+    private List<SearchShard> planShards() {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        LocalDate since = today.minusYears(searchYears);
+
+        if (!sharding) {
+            return List.of(new SearchShard(since, today, minStars, null, -1));
+        }
+        // 1,000건 상한을 넘도록 created/stars 구간을 나눈다
+        List<SearchShard> shards = planner.plan(since, today, minStars)
+                .doOnNext(shard -> log.debug("search shard planned: {}", shard))
+                .collectList()
+                .block();
+        return shards == null ? List.of() : shards;
+    }
+
+    /*
+     * 검색 페이지 한 장 + 어느 샤드의 몇 페이지인지
+     */
+    private record SearchPageResult(CrawlRunTracker.ShardProgress shard, int page, List<RepoMeta> items) {}
+
+    /*
+     * 샤드 하나의 검색 페이지들. 페이지 커서부터 순서대로, 빈 페이지가 나오면 종료
+     */
+    private Flux<SearchPageResult> searchPages(CrawlRunTracker.ShardProgress sp, CrawlRunTracker run) {
+        SearchShard shard = sp.getShard();
+        int lastPage = pagesFor(shard);
+        return Flux.range(sp.getStartPage(), Math.max(0, lastPage - sp.getStartPage() + 1))
+                .concatMap(page -> fetchSearchPage(shard.query(), page, sp, run)
+                        .map(items -> new SearchPageResult(sp, page, items)))
+                .takeWhile(p -> !p.items().isEmpty())
+                .doOnComplete(sp::markExhausted);
+    }
+
+    private int pagesFor(SearchShard shard) {
+        if (shard.totalCount() < 0) {
+            return maxPages;
+        }
+        int needed = (shard.totalCount() + perPage - 1) / perPage;
+        return Math.max(1, Math.min(maxPages, needed));
+    }
+
+    /*
+     * 검색 페이지 하나. 실패하면 빈 리스트(= 해당 샤드 중단, 커서는 남겨서 다음 실행이 재시도).
+     * item 은 응답이 도착하는 대로 RepoMeta 로 디코딩되고, 페이지 단위 체크포인트 때문에 여기서 모은다
+     */
+    private Mono<List<RepoMeta>> fetchSearchPage(String q, int page, CrawlRunTracker.ShardProgress sp,
+                                                 CrawlRunTracker run) {
+        return api.searchItems(q, page, perPage)
+                .collectList()
+                .doOnNext(items -> run.addPage())
+                .onErrorResume(ex -> {
+                    log.warn("search page {} failed: {} ({})", page, q, ex.toString());
+                    crawlFailure(run, "search", "page " + page + " of " + q + " (" + ex + ")");
+                    sp.markFailed();
+                    return Mono.just(List.of());
                 })
-                .exchangeToMono(resp -> {
-                    int code = resp.statusCode().value();
+                .defaultIfEmpty(List.of());
+    }
 
-                    // README 변동 x 
-                    if (code == 304) {
-                        return Mono.empty();
-                    }
+    /*
+     * 검색 결과 한 페이지 → 수집 대상. 저장된 검증자는 페이지 단위 한 번의 쿼리로 가져온다
+     */
+    private Flux<CrawlTarget> toCrawlTargets(SearchPageResult page, CrawlRunTracker run) {
+        List<RepoMeta> items = page.items().stream()
+                .filter(item -> item.id() != null && item.fullName() != null)
+                .toList();
+        List<Long> ids = items.stream()
+                .map(RepoMeta::id)
+                .toList();
 
-                    // README 없음
-                    if (code == 404) {
-                        return Mono.empty();
-                    }
+        // 이 페이지의 리포 수만큼 미처리로 등록 (저장/정리될 때 settle)
+        page.shard().pageEmitted(page.page(), ids);
 
-                    // 정상 응답(2xx)
-                    if (code >= 200 && code < 300) {
-                        return resp.bodyToMono(Map.class);
+        return Mono.fromCallable(() -> {
+                    Map<Long, GitHubRepository.CrawlStateView> states = new HashMap<>();
+                    for (GitHubRepository.CrawlStateView v : repoRepo.findCrawlStatesByIdIn(ids)) {
+                        states.put(v.getId(), v);
                     }
-
-                    // 그 외 
-                    return Mono.empty();
+                    // 검색 item 을 그대로 쓰는 search 모드는 추가 호출이 없으니 거르지 않는다
+                    Set<Long> notDue = skipNotDue && !"search".equalsIgnoreCase(fetchMode)
+                            ? recrawlSchedule.notDue(states.keySet(), OffsetDateTime.now(ZoneOffset.UTC))
+                            : Set.of();
+                    return new PageStates(states, notDue);
                 })
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMapMany(ps -> Flux.fromIterable(items)
+                        .map(item -> CrawlTarget.of(item.id(), item.fullName(), item,
+                                ps.states().get(item.id()), page.shard(), page.page()))
+                        // 이 실행에서 이미 저장된 리포 (다른 노드 / 중단 전 처리분),
+                        // 재수집 기한 전인 리포 (RecrawlScheduler 가 기한에 맞춰 갱신)
+                        .filter(t -> {
+                            if (!crawledInRun(ps.states().get(t.id()), run) && !ps.notDue().contains(t.id())) return true;
+                            t.settle();
+                            return false;
+                        }));
+    }
+
+    private record PageStates(Map<Long, GitHubRepository.CrawlStateView> states, Set<Long> notDue) {}
+
+    private static boolean crawledInRun(GitHubRepository.CrawlStateView v, CrawlRunTracker run) {
+        return v != null && v.getLastCrawledAt() != null && !v.getLastCrawledAt().isBefore(run.getStartedAt());
+    }
+
+    /*
+     * 메타 조건부 요청 (블로킹 없음)
+     */
+    private Mono<RepoSnapshot> fetchSnapshot(CrawlTarget t) {
+        String[] parts = splitFullName(t.fullName());
+        return api.fetchRepo(parts[0], parts[1], t.meta())
+                .map(meta -> new RepoSnapshot(t.id(), t.fullName(), meta, t));
+    }
+
+    /*
+     * fetch-mode 별 수집 단계
+     *  - rest    : 리포마다 /repos
+     *  - graphql : 메타는 GraphQL 배치 (README blob OID 도 같이 받아 README 큐에 넘김)
+     *  - search  : 검색 결과 item 을 메타로 그대로 사용, 추가 요청 없음
+     */
+    private Flux<RepoSnapshot> fetchSnapshots(Flux<CrawlTarget> targets, CrawlRunTracker run) {
+        if ("graphql".equalsIgnoreCase(fetchMode)) {
+            return fetchSnapshotsBatched(targets, run);
+        }
+        if ("search".equalsIgnoreCase(fetchMode)) {
+            return targets.map(t -> new RepoSnapshot(t.id(), t.fullName(), fromPayload(t.item()), t));
+        }
+        return targets.flatMap(t -> fetchSnapshotSafely(t, run), concurrency);
+    }
+
+    /*
+     * 저장 단계: 제한된 버퍼 뒤에서 DB 작업 (버퍼가 차면 수집이 멈춤).
+     * persistBatchSize 개씩 한 트랜잭션으로 묶어서 저장. 저장된 리포 수 반환
+     */
+    private long persistAll(Flux<RepoSnapshot> snapshots, CrawlRunTracker run) {
+        Long saved = snapshots
+                .publishOn(Schedulers.boundedElastic(), bufferSize)
+                .buffer(persistBatchSize)
+                .concatMap(batch -> Mono.fromCallable(() -> persistBatch(batch, run))
+                        .onErrorResume(ex -> {
+                            log.warn("crawl persist failed for batch of {} ({})", batch.size(), ex.toString());
+                            crawlFailure(run, "persist", ex.toString());
+                            batch.forEach(snap -> snap.origin().settle());
+                            return Mono.just(0);
+                        }))
+                .reduce(0L, (acc, n) -> acc + n)
                 .block();
+        return saved == null ? 0 : saved;
+    }
 
-        if (readmeResponse == null) {
-            // 304나 404 등 무시 
-            return;
+    /*
+     * 배치 하나 = 트랜잭션 하나
+     *  - 기존 행은 findAllById 한 번으로 읽고 바로 detach (영속성 컨텍스트에 안 쌓이게)
+     *  - 메모리에서 평가 후 GitHubBatchWriter 로 JDBC batch upsert (내용 해시가 같은 행은 DB 가 건너뜀),
+     *    크롤/평가 시각은 repo_crawl_touch 에만
+     *  - 승격 후보도 한 번에 조회/저장
+     *  - 같은 트랜잭션에서 크롤 실행 체크포인트(페이지 커서) 기록
+     */
+    private int persistBatch(List<RepoSnapshot> batch, CrawlRunTracker run) {
+        long startNanos = System.nanoTime();
+        String walStart = walPosition();
+        List<GitHubEntity> written = new ArrayList<>(batch.size());
+        int[] rowsWritten = {0};
+        Integer saved = tx.execute(status -> {
+            List<Long> ids = batch.stream().map(RepoSnapshot::id).toList();
+            Map<Long, GitHubEntity> existing = new HashMap<>();
+            for (GitHubEntity e : repoRepo.findAllById(ids)) {
+                existing.put(e.getId(), e);
+            }
+            entityManager.clear();
+            // 행을 건너뛴 평가의 시각은 repo_crawl_touch 에만 있다 (평가 구간 계산용)
+            batchWriter.mergeTouched(existing.values());
+
+            List<GitHubEntity> toWrite = new ArrayList<>(batch.size());
+            for (RepoSnapshot snap : batch) {
+                GitHubEntity e = applyToEntity(snap, existing.get(snap.id()));
+                if (e != null) toWrite.add(e);
+            }
+            // 배치 전체를 한 번에 채점 (섀도 채점기도 같은 입력 배열 사용)
+            List<GitHubEntity> promoted = evaluateTrends(toWrite, run);
+
+            rowsWritten[0] = batchWriter.upsertAll(toWrite);
+            batchWriter.touchAll(toWrite);
+            int n = toWrite.size();
+            starHistory.record(toWrite);
+            promoteCandidates(promoted);
+
+            batch.forEach(snap -> snap.origin().settle());
+            if (run != null) runService.checkpoint(run, n);
+
+            entityManager.flush();
+            entityManager.clear();
+            written.addAll(toWrite);
+            return n;
+        });
+        int n = saved == null ? 0 : saved;
+        metrics.batchWritten(System.nanoTime() - startNanos, n);
+
+        long walBytes = walBytesSince(walStart);
+        int unchanged = Math.max(0, n - rowsWritten[0]);
+        metrics.rowsWritten(rowsWritten[0], unchanged, walBytes);
+        if (run != null) run.addWrites(unchanged, walBytes);
+
+        // 커밋된 뒤에만 README 큐로 (stage 는 방금 평가한 값)
+        Map<Long, String> readmeOids = new HashMap<>();
+        for (RepoSnapshot snap : batch) {
+            String oid = snap.readmeOid();
+            if (oid != null) readmeOids.put(snap.id(), oid);
         }
+        readmeFetch.enqueueTrending(written, readmeOids);
+        return n;
+    }
 
-        String encoded = (String) readmeResponse.get("content");
-        String encoding = (String) readmeResponse.get("encoding"); // 주로 "base64"
-        String sha = (String) readmeResponse.get("sha");
+    /*
+     * WAL 위치 (측정이 꺼졌거나 실패하면 null → 이후 측정 끔: 복제본/PostgreSQL 아님)
+     */
+    private String walPosition() {
+        if (!walMetrics) return null;
+        try {
+            return batchWriter.walPosition();
+        } catch (RuntimeException ex) {
+            log.warn("WAL position unavailable, disabling crawl WAL metrics ({})", ex.toString());
+            walMetrics = false;
+            return null;
+        }
+    }
 
-        String text = null;
-        if (encoded != null && "base64".equalsIgnoreCase(encoding)) {
-            byte[] bytes = java.util.Base64
-                    .getDecoder()
-                    .decode(encoded.getBytes(StandardCharsets.UTF_8));
-            text = new String(bytes, StandardCharsets.UTF_8);
+    private long walBytesSince(String position) {
+        if (position == null) return -1;
+        try {
+            return batchWriter.walBytesSince(position);
+        } catch (RuntimeException ex) {
+            return -1;
         }
+    }
 
-        e.setReadmeText(text);
-        e.setReadmeSha(sha);
+    private Mono<RepoSnapshot> fetchSnapshotSafely(CrawlTarget t, CrawlRunTracker run) {
+        return fetchSnapshot(t)
+                .onErrorResume(ex -> {
+                    log.warn("crawl fetch failed: {} ({})", t.fullName(), ex.toString());
+                    crawlFailure(run, "fetch", t.fullName() + " (" + ex + ")");
+                    t.settle();
+                    return Mono.empty();
+                });
+    }
 
-        // e.setReadmeEtag(newEtag);
+    /*
+     * 건너뛴 실패: 지표 + 크롤 실행 중이면 이 노드의 실행 몫 (재수집(refresh)은 run == null)
+     */
+    private void crawlFailure(CrawlRunTracker run, String stage, String detail) {
+        metrics.crawlFailure(stage, detail);
+        if (run != null) run.addFailure(stage + ": " + detail);
+    }
+
+    /*
+     * GraphQL 모드: 메타는 graphqlBatchSize 개씩 한 요청으로.
+     * 배치 요청 자체가 실패하거나 결과에 없는 리포는 REST 경로로 폴백
+     */
+    private Flux<RepoSnapshot> fetchSnapshotsBatched(Flux<CrawlTarget> targets, CrawlRunTracker run) {
+        int batchSize = Math.max(1, Math.min(graphqlBatchSize, GitHubGraphQLClient.MAX_BATCH_SIZE));
+        return targets
+                .buffer(batchSize)
+                .flatMap(batch -> graphQL.fetchRepositories(batch.stream().map(CrawlTarget::fullName).toList())
+                        .onErrorResume(ex -> {
+                            log.warn("GraphQL batch failed, falling back to REST ({})", ex.toString());
+                            return Mono.just(Collections.<RepoMeta>nCopies(batch.size(), null));
+                        })
+                        .flatMapMany(metas -> Flux.range(0, batch.size())
+                                .flatMap(i -> {
+                                    CrawlTarget t = batch.get(i);
+                                    RepoMeta meta = metas.get(i);
+                                    if (meta == null || meta.id() == null) {
+                                        return fetchSnapshotSafely(t, run);
+                                    }
+                                    return Mono.just(new RepoSnapshot(t.id(), t.fullName(), fromPayload(meta), t));
+                                })), Math.max(1, concurrency / 2));
+    }
+
+    /*
+     * 검색/GraphQL 결과를 메타로 쓰는 경우 (조건부 요청 아님 → 기존 검증자 유지)
+     */
+    private static Fetched<RepoMeta> fromPayload(RepoMeta meta) {
+        return new Fetched<>(meta, null, false);
+    }
+
+    /*
+     * 단일 리포: 반영 → 트렌드 평가/승격 → JPA 저장 (upsertAndEvaluate 용)
+     */
+    private GitHubEntity applySnapshot(RepoSnapshot snap, GitHubEntity existing) {
+        if (existing != null) batchWriter.mergeTouched(List.of(existing));
+        GitHubEntity e = applyToEntity(snap, existing);
+        if (e == null) return null;
+
+        // 트렌드 점수 계산/승급 
+        promoteCandidates(evaluateTrends(List.of(e), null));
+        GitHubEntity saved = repoRepo.save(e);
+        starHistory.record(List.of(saved));
+        // upsertAndEvaluate 트랜잭션이 커밋된 뒤에 README 큐로 (워커의 readme_sha 갱신이 새 행을 봐야 한다)
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    readmeFetch.enqueueTrending(List.of(saved), Map.of());
+                }
+            });
+        } else {
+            readmeFetch.enqueueTrending(List.of(saved), Map.of());
+        }
+        return saved;
+    }
+
+    /*
+     * 메타를 엔티티에 반영 (저장/평가는 호출 측)
+     *  - 메타 304: 저장된 값 그대로 재평가
+     *  - README 관련 컬럼은 건드리지 않는다 (ReadmeFetchService 담당)
+     */
+    private GitHubEntity applyToEntity(RepoSnapshot snap, GitHubEntity existing) {
+        Fetched<RepoMeta> meta = snap.meta();
+        GitHubEntity e;
+        if (meta.notModified()) {
+            if (existing == null) return null;
+            e = existing;
+        } else {
+            e = mapMetaToEntity(meta.body(), existing);
+            if (meta.validators() != null) {
+                e.setMetaEtag(meta.validators().etag());
+                e.setMetaLastModified(meta.validators().lastModified());
+            }
+        }
+
+        // 크롤링 시간 기록
+        e.setLastCrawledAt(OffsetDateTime.now(ZoneOffset.UTC));
+        return e;
+    }
+
+    private static Validators metaValidators(GitHubEntity e) {
+        return e == null ? Validators.NONE : new Validators(e.getMetaEtag(), e.getMetaLastModified());
     }
 
     /*
      * GitHub meta JSON을 GitHubEntity에 저장. score 관련 초기화 
      */
-    @SuppressWarnings("unchecked")
-    private GitHubEntity mapMetaToEntity(Map<String, Object> meta, GitHubEntity existing) {
+    private GitHubEntity mapMetaToEntity(RepoMeta meta, GitHubEntity existing) {
         GitHubEntity e = (existing != null) ? existing : new GitHubEntity();
 
         Integer prevStarsBefore = e.getStargazersCount() != null
@@ -292,24 +736,20 @@ public class GitHubService {
                 : null;
 
         // 기본 메타 필드 채우기
-        e.setId(((Number) meta.get("id")).longValue());
-        e.setNodeId((String) meta.get("node_id"));
-        e.setName((String) meta.get("name"));
-        e.setFullName((String) meta.get("full_name"));
-
-        Map<String, Object> owner = (Map<String, Object>) meta.get("owner");
-        e.setOwnerLogin(owner != null ? (String) owner.get("login") : null);
+        e.setId(meta.id());
+        e.setNodeId(meta.nodeId());
+        e.setName(meta.name());
+        e.setFullName(meta.fullName());
+        e.setOwnerLogin(meta.ownerLogin());
 
-        e.setHtmlUrl((String) meta.get("html_url"));
-        e.setDescription((String) meta.get("description"));
-        e.setLanguage((String) meta.get("language"));
+        e.setHtmlUrl(meta.htmlUrl());
+        e.setDescription(meta.description());
+        e.setLanguage(meta.language());
+        e.setStargazersCount(meta.stargazersCount());
 
-        Number stars = (Number) meta.get("stargazers_count");
-        e.setStargazersCount(stars == null ? null : stars.intValue());
-
-        e.setCreatedAt(parseTime((String) meta.get("created_at")));
-        e.setPushedAt(parseTime((String) meta.get("pushed_at")));
-        e.setUpdatedAt(parseTime((String) meta.get("updated_at")));
+        e.setCreatedAt(parseTime(meta.createdAt()));
+        e.setPushedAt(parseTime(meta.pushedAt()));
+        e.setUpdatedAt(parseTime(meta.updatedAt()));
 
         // 최초 수집 시 
         if (prevStarsBefore == null && e.getStargazersCount() != null) {
@@ -328,79 +768,90 @@ public class GitHubService {
     }
 
         /*
-    * score 계산 / stage update / candidate 승격
+    * score 계산 / stage update (배치 단위, 채점기는 trend.scorer). 이번에 stage 2 가 된 엔티티 반환
     * - 최종 점수는 항상 0~100점 저장 (e.setTrendScore)
-    * - 임계치는 trend.threshold(점수)와 비교
+    * - 임계치는 PromotionThresholds (고정 trend.threshold 또는 언어별 분위수 컷오프)
+    * - 크롤 실행 중이면 구간이 다 찬 평가의 점수를 분포 스케치에 넣는다
     */
-    private void evaluateTrendAndMaybePromote(GitHubEntity e) {
-        int curr = orZero(e.getStargazersCount());
-        int prev = orZero(e.getPreviousStars());
-
-        //초기 성장률
-        double growthRate = (prev <= 0)
-                ? 0.0
-                : (double) (curr - prev) / (double) prev;
-
-        //성장률 정규화
-        double growthNorm = 0.0;
-        if (growthRate > 0.0) {
-            growthNorm = 1.0 - Math.exp(-growthK * growthRate);
-            if (growthNorm < 0.0) growthNorm = 0.0;
-            if (growthNorm > 1.0) growthNorm = 1.0;
-        }
-
-        //나이 감쇠
-        double agePenaltyFactor = 1.0;
-        if (e.getCreatedAt() != null && ageHalfLifeDays > 0) {
-            long ageDays = Math.max(
-                    0,
-                    ChronoUnit.DAYS.between(e.getCreatedAt(), OffsetDateTime.now(ZoneOffset.UTC))
-            );
-            // half-life 마다 절반
-            agePenaltyFactor = Math.pow(0.5, ageDays / ageHalfLifeDays);
-            if (agePenaltyFactor < 0.0) agePenaltyFactor = 0.0;
-            if (agePenaltyFactor > 1.0) agePenaltyFactor = 1.0;
-        }
-
-        double score01 = growthNorm * agePenaltyFactor * growthWeight * penaltyWeight;
-        if (score01 < 0.0) score01 = 0.0;
-        if (score01 > 1.0) score01 = 1.0;
+    private List<GitHubEntity> evaluateTrends(List<GitHubEntity> entities, CrawlRunTracker run) {
+        if (entities.isEmpty()) return List.of();
+
+        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+        TrendBatch batch = TrendBatch.of(entities, now);
+        double[] scores = scorers.scorePrimary(batch);
+
+        int[] stages = new int[batch.size()];
+        double[] cutoffs = new double[batch.size()];
+        int[] transitions = new int[9];
+        List<GitHubEntity> promoted = new ArrayList<>();
+        for (int i = 0; i < batch.size(); i++) {
+            GitHubEntity e = entities.get(i);
+            int oldStage = batch.stage(i);
+            cutoffs[i] = thresholds.threshold(e.getLanguage());
+            int newStage = TrendScoring.nextStage(oldStage, scores[i], cutoffs[i]);
+
+            // 재수집이 잦으면 구간이 짧아 성장률이 작게 나온다 → 구간이 다 차기 전에는 승급할 때만 평가,
+            // 아니면 prevStars/lastCheckedAt 을 그대로 두고 관측만 (다음 재수집에서 더 긴 구간으로 다시 봄)
+            double elapsed = batch.elapsedDays(i);
+            boolean windowDone = elapsed < 0 || elapsed * 24 >= evalWindowHours;
+            if (elapsed >= 0 && windowDone) {
+                thresholds.observe(run, e.getLanguage(), scores[i]);
+            }
+            if (!windowDone && newStage <= oldStage) {
+                stages[i] = oldStage;
+                continue;
+            }
+            stages[i] = newStage;
+            transitions[clampStage(oldStage) * 3 + clampStage(newStage)]++;
 
-        double score100 = score01 * 100.0;
+            e.setGrowthRate(batch.growthRate(i));
+            e.setTrendScore(scores[i]);
+            e.setBaseStage(oldStage);          // 재채점은 이 stage 에서 다시 전이 (TrendRescoreEngine)
+            e.setTrendStage(newStage);
+            e.setLastCheckedAt(now);
 
-        //stage 갱신
-        int oldStage = (e.getTrendStage() == null) ? 0 : e.getTrendStage();
-        int newStage = oldStage;
+            // prev 갱신
+            e.setPreviousStars(batch.stars(i));
 
-        if (oldStage == 0 || oldStage == 1) {
-            if (score100 >= trendThreshold) {
-                newStage = Math.min(2, oldStage + 1);     // 승급
-            } else if (oldStage == 1) {
-                newStage = 0;                              // 강등
+            if (oldStage < 2 && newStage == 2) {
+                promoted.add(e);
             }
         }
 
-        boolean promotedTo2Now = (oldStage < 2 && newStage == 2);
+        // 스타 속도 / stage / pushedAt 으로 다음 재수집 기한 (같은 트랜잭션)
+        recrawlPolicy.reschedule(entities, batch, now);
 
-        e.setGrowthRate(growthRate);       
-        e.setTrendScore(score100);         
-        e.setTrendStage(newStage);
-        e.setLastCheckedAt(OffsetDateTime.now(ZoneOffset.UTC));
+        scorers.primaryPromoted(promoted.size());
+        metrics.stageTransitions(transitions);
+        if (run != null) run.addTransitions(transitions);
+        // 섀도 채점기: 기록만, 승급에는 영향 없음 (같은 임계치로 가상 승급)
+        scorers.runShadows(batch, cutoffs, scores, stages);
+        return promoted;
+    }
 
-        // prev 갱신
-        e.setPreviousStars(curr);
+    private static int clampStage(int stage) {
+        return Math.max(0, Math.min(2, stage));
+    }
 
-        //후보테이블 승격
-        if (promotedTo2Now) {
-            boolean already = candRepo.existsByRepoId(e.getId());
-            if (!already) {
-                TrendingCandidateEntity c = new TrendingCandidateEntity(
+    /*
+     * 후보테이블 승격 (이미 후보인 리포는 제외, 조회/저장 각 한 번)
+     */
+    private void promoteCandidates(List<GitHubEntity> promoted) {
+        if (promoted.isEmpty()) return;
+
+        Set<Long> already = new HashSet<>(candRepo.findRepoIdsByRepoIdIn(
+                promoted.stream().map(GitHubEntity::getId).toList()));
+
+        List<TrendingCandidateEntity> fresh = new ArrayList<>();
+        for (GitHubEntity e : promoted) {
+            if (already.add(e.getId())) {
+                fresh.add(new TrendingCandidateEntity(
                         e.getId(),
                         e.getFullName()
-                );
-                candRepo.save(c);
+                ));
             }
         }
+        candRepo.saveAll(fresh);
     }
 
 
@@ -416,8 +867,4 @@ public class GitHubService {
         String[] parts = fullName.split("/", 2);
         return new String[]{ parts[0].trim(), parts[1].trim() };
     }
-
-    private int orZero(Integer v) {
-        return (v == null) ? 0 : v;
-    }
 }
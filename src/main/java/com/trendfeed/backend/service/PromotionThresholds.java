@@ -0,0 +1,264 @@
+package com.trendfeed.backend.service;
+
+import com.trendfeed.backend.entity.TrendScoreSketch;
+import com.trendfeed.backend.repository.TrendScoreSketchRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 승급 임계치.
+ *
+ *  - trend.threshold-mode=fixed      : 항상 trend.threshold
+ *  - trend.threshold-mode=percentile : 최근 완료된 크롤 실행(trend.percentile.runs 개)의 점수 분포에서
+ *                                      상위 trend.percentile.top 이 되는 점수. 언어별 표본이 min-samples 미만이면
+ *                                      전체 분포, 그것도 모자라면 trend.threshold. 컷오프는 min-score 아래로 내려가지 않는다
+ *
+ * 모드와 상관없이 크롤 실행마다 기본 채점기 점수를 언어별 KLL 스케치(KllSketch, 메모리 고정)에 모으고
+ * 실행이 끝날 때 노드별로 trend_score_sketches 에 남긴다 (분포를 시간에 따라 조회하고, 다음 실행의 컷오프로 씀).
+ * 구간이 다 찬 평가만 넣는다 (첫 관측/짧은 재수집 구간의 작은 점수가 분포를 끌어내리지 않게).
+ * 실행 중에는 컷오프가 바뀌지 않는다 (샤드 순서에 따라 분포가 치우치므로 진행 중인 실행 값은 안 씀).
+ * 섀도 채점기의 가상 승급(TrendScorers)과 재채점(TrendRescoreEngine)도 같은 컷오프를 쓴다.
+ */
+@Component
+public class PromotionThresholds {
+
+    private static final Logger log = LoggerFactory.getLogger(PromotionThresholds.class);
+
+    public static final String ALL_LANGUAGES = "*";
+
+    private final TrendScoreSketchRepository sketchRepo;
+    private final TrendScorers scorers;
+    private final TransactionTemplate tx;
+
+    @Value("${trend.threshold:20}")
+    private double fixedThreshold;
+
+    @Value("${trend.threshold-mode:fixed}")               // fixed | percentile
+    private String mode;
+
+    @Value("${trend.percentile.top:0.01}")                // 상위 비율 (0.01 = 상위 1%)
+    private double top;
+
+    @Value("${trend.percentile.per-language:true}")
+    private boolean perLanguage;
+
+    @Value("${trend.percentile.min-samples:200}")         // 이보다 표본이 적은 언어는 전체 분포로
+    private long minSamples;
+
+    @Value("${trend.percentile.min-score:5}")             // 컷오프 하한 (조용한 시기에 아무 리포나 승급하지 않게)
+    private double minScore;
+
+    @Value("${trend.percentile.runs:1}")                  // 합쳐서 볼 최근 완료 실행 수
+    private int referenceRuns;
+
+    @Value("${trend.percentile.max-languages:100}")       // 실행당 언어별 스케치 상한 (나머지는 전체에만)
+    private int maxLanguages;
+
+    @Value("${trend.sketch.k:400}")                       // KLL 정확도 (순위 오차 대략 1.7/k)
+    private int sketchK;
+
+    private volatile Cutoffs cutoffs;
+
+    // 이 노드가 참여 중인 실행의 스케치
+    private Long activeRunId;
+    private String activeNodeId;
+    private final Map<String, KllSketch> current = new HashMap<>();
+
+    public PromotionThresholds(TrendScoreSketchRepository sketchRepo, TrendScorers scorers,
+                               PlatformTransactionManager transactionManager) {
+        this.sketchRepo = sketchRepo;
+        this.scorers = scorers;
+        this.tx = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * 지금 쓰는 컷오프. sourceRunIds 가 비어 있으면 기준 분포 없음 (fixed 와 같음)
+     */
+    public record Cutoffs(List<Long> sourceRunIds, Double global, Map<String, Double> byLanguage) {
+        static final Cutoffs NONE = new Cutoffs(List.of(), null, Map.of());
+    }
+
+    public record LanguageSummary(String language, long samples, double p50, double p90, double p99, double cutoff) {}
+
+    public record RunSummary(Long runId, List<LanguageSummary> languages) {}
+
+    public record Report(String mode, double top, Cutoffs active, List<RunSummary> runs) {}
+
+    public boolean percentileMode() {
+        return "percentile".equalsIgnoreCase(mode);
+    }
+
+    /**
+     * 이 언어 리포의 승급 임계치
+     */
+    public double threshold(String language) {
+        if (!percentileMode()) return fixedThreshold;
+        Cutoffs c = active();
+        if (perLanguage && language != null) {
+            Double byLang = c.byLanguage().get(language);
+            if (byLang != null) return byLang;
+        }
+        return c.global() != null ? c.global() : fixedThreshold;
+    }
+
+    // ──────────────────────────────────────────────────────────────
+    //  크롤 실행 (GitHubService.crawlAllAndEvaluate)
+    // ──────────────────────────────────────────────────────────────
+
+    /**
+     * 실행 합류 시: 스케치 초기화 + 최근 완료 실행으로 컷오프 다시 계산
+     */
+    public synchronized void startRun(CrawlRunTracker run) {
+        activeRunId = run.getRunId();
+        activeNodeId = run.getNodeId();
+        current.clear();
+        reload();
+    }
+
+    /**
+     * 평가 한 건의 점수 (실행 밖의 평가 — 재수집/단건 — 는 무시)
+     */
+    public synchronized void observe(CrawlRunTracker run, String language, double score) {
+        if (run == null || activeRunId == null || !activeRunId.equals(run.getRunId())) return;
+        current.computeIfAbsent(ALL_LANGUAGES, l -> new KllSketch(sketchK)).update(score);
+        if (language == null) return;
+        KllSketch s = current.get(language);
+        if (s == null) {
+            if (current.size() > maxLanguages) return;
+            s = new KllSketch(sketchK);
+            current.put(language, s);
+        }
+        s.update(score);
+    }
+
+    /**
+     * 이 노드 몫 끝: 스케치를 trend_score_sketches 에 기록 (같은 노드가 이어서 한 실행이면 기존 행에 합침)
+     */
+    public synchronized void finishRun(CrawlRunTracker run) {
+        if (activeRunId == null || !activeRunId.equals(run.getRunId())) return;
+        Map<String, KllSketch> sketches = new HashMap<>(current);
+        Long runId = activeRunId;
+        String nodeId = activeNodeId;
+        activeRunId = null;
+        current.clear();
+        if (sketches.isEmpty()) return;
+
+        String scorer = scorers.primaryName();
+        try {
+            tx.executeWithoutResult(status -> {
+                Map<String, TrendScoreSketch> existing = new HashMap<>();
+                for (TrendScoreSketch row : sketchRepo.findByRunIdAndNodeIdAndScorer(runId, nodeId, scorer)) {
+                    existing.put(row.getLanguage(), row);
+                }
+                List<TrendScoreSketch> rows = new ArrayList<>(sketches.size());
+                for (Map.Entry<String, KllSketch> e : sketches.entrySet()) {
+                    KllSketch s = e.getValue();
+                    TrendScoreSketch row = existing.get(e.getKey());
+                    if (row == null) {
+                        row = new TrendScoreSketch(runId, nodeId, e.getKey(), scorer);
+                    } else {
+                        mergeInto(s, row);
+                    }
+                    row.update(s.toBytes(), s.count(), s.min(), s.max(),
+                            s.quantile(0.5), s.quantile(0.9), s.quantile(0.99), s.quantile(1 - top));
+                    rows.add(row);
+                }
+                sketchRepo.saveAll(rows);
+            });
+        } catch (RuntimeException ex) {
+            // 분포 기록 실패로 크롤 실행을 멈추지 않는다
+            log.warn("could not save score sketches for crawl run {} ({})", runId, ex.toString());
+            return;
+        }
+        log.info("crawl run {}: score sketches saved for {} languages ({} scores)",
+                runId, sketches.size() - 1, sketches.get(ALL_LANGUAGES).count());
+    }
+
+    // ──────────────────────────────────────────────────────────────
+    //  기준 분포 / 조회
+    // ──────────────────────────────────────────────────────────────
+
+    /**
+     * 최근 완료 실행 스케치로 컷오프 다시 계산
+     */
+    public Cutoffs reload() {
+        List<Long> runIds = sketchRepo.findCompletedRunIds(scorers.primaryName(), Math.max(1, referenceRuns));
+        Map<String, KllSketch> merged = mergeByLanguage(runIds);
+        KllSketch all = merged.get(ALL_LANGUAGES);
+
+        Double global = all != null && all.count() >= minSamples ? cutoff(all) : null;
+        Map<String, Double> byLanguage = new HashMap<>();
+        for (Map.Entry<String, KllSketch> e : merged.entrySet()) {
+            if (e.getKey().equals(ALL_LANGUAGES) || e.getValue().count() < minSamples) continue;
+            byLanguage.put(e.getKey(), cutoff(e.getValue()));
+        }
+
+        Cutoffs c = runIds.isEmpty() ? Cutoffs.NONE : new Cutoffs(List.copyOf(runIds), global, Map.copyOf(byLanguage));
+        cutoffs = c;
+        if (percentileMode()) {
+            log.info("promotion cutoffs (top {}) from runs {}: global {}, {} languages",
+                    top, c.sourceRunIds(), c.global() == null ? "n/a (fixed " + fixedThreshold + ")" : c.global(),
+                    c.byLanguage().size());
+        }
+        return c;
+    }
+
+    /**
+     * 최근 완료 실행별 분포 요약 (노드 합침)
+     */
+    public Report report(int runs) {
+        List<Long> runIds = sketchRepo.findCompletedRunIds(scorers.primaryName(), Math.max(1, runs));
+        List<RunSummary> summaries = new ArrayList<>(runIds.size());
+        for (Long runId : runIds) {
+            Map<String, KllSketch> merged = new TreeMap<>(mergeByLanguage(List.of(runId)));
+            List<LanguageSummary> languages = new ArrayList<>(merged.size());
+            for (Map.Entry<String, KllSketch> e : merged.entrySet()) {
+                KllSketch s = e.getValue();
+                languages.add(new LanguageSummary(e.getKey(), s.count(),
+                        s.quantile(0.5), s.quantile(0.9), s.quantile(0.99), cutoff(s)));
+            }
+            summaries.add(new RunSummary(runId, languages));
+        }
+        return new Report(percentileMode() ? "percentile" : "fixed", top, active(), summaries);
+    }
+
+    private Cutoffs active() {
+        Cutoffs c = cutoffs;
+        return c != null ? c : reload();
+    }
+
+    private double cutoff(KllSketch s) {
+        return Math.max(minScore, s.quantile(1 - top));
+    }
+
+    private Map<String, KllSketch> mergeByLanguage(List<Long> runIds) {
+        if (runIds.isEmpty()) return Map.of();
+        Map<String, KllSketch> merged = new LinkedHashMap<>();
+        for (TrendScoreSketch row : sketchRepo.findByRunIdInAndScorer(runIds, scorers.primaryName())) {
+            mergeInto(merged.computeIfAbsent(row.getLanguage(), l -> new KllSketch(sketchK)), row);
+        }
+        return merged;
+    }
+
+    // trend.sketch.k 를 바꾸기 전에 남은 스케치는 합치지 않는다
+    private static void mergeInto(KllSketch target, TrendScoreSketch row) {
+        if (row.getSketch() == null) return;
+        try {
+            KllSketch stored = KllSketch.fromBytes(row.getSketch());
+            if (stored.k() == target.k()) target.merge(stored);
+        } catch (RuntimeException ex) {
+            log.warn("skipping unreadable score sketch {} ({})", row.getId(), ex.toString());
+        }
+    }
+}
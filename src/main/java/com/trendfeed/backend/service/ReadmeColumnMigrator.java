@@ -0,0 +1,102 @@
+package com.trendfeed.backend.service;
+
+import com.trendfeed.backend.exception.CustomException;
+import com.trendfeed.backend.exception.ErrorCode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 예전 git_repositories.readme_text 컬럼의 본문을 ReadmeStore 로 옮긴다.
+ * 기동 시 자동으로 돌지 않는다: 운영자가 POST /api/github/readme/migrate-column (관리자) 으로 직접 실행.
+ *
+ * BATCH 행씩 FOR UPDATE SKIP LOCKED 로 잡아서 옮기고 컬럼을 비우므로 두 번 돌려도, 겹쳐 돌아도 안전하다.
+ * 컬럼 삭제는 되돌릴 수 없어 drop=true 요청 + readme.migrate-column.allow-drop=true 일 때만,
+ * 남은 본문이 없을 때 한다 (디스크 공간은 이후 VACUUM FULL 로 회수).
+ * 엔티티에서는 이미 @Transient 라 ddl-auto 가 컬럼을 다시 만들지 않는다.
+ */
+@Component
+public class ReadmeColumnMigrator {
+
+    private static final Logger log = LoggerFactory.getLogger(ReadmeColumnMigrator.class);
+
+    private static final int BATCH = 200;
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+    private final ReadmeStore readmeStore;
+
+    @Value("${readme.migrate-column.allow-drop:false}")   // 다 옮긴 뒤 readme_text 컬럼 삭제 허용
+    private boolean allowDrop;
+
+    /**
+     * columnPresent = 실행 전 컬럼이 있었는지, left = 아직 본문이 남은 행 (다른 실행이 잡고 있는 것 포함)
+     */
+    public record MigrationResult(boolean columnPresent, long moved, long left, boolean dropped) {}
+
+    public ReadmeColumnMigrator(JdbcTemplate jdbc, PlatformTransactionManager transactionManager, ReadmeStore readmeStore) {
+        this.jdbc = jdbc;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.readmeStore = readmeStore;
+    }
+
+    /**
+     * 본문을 모두 옮기고, drop 이면 (허용된 경우) 남은 본문이 없을 때 컬럼을 지운다. 끝날 때까지 블록
+     */
+    public MigrationResult migrate(boolean drop) {
+        if (drop && !allowDrop) {
+            throw new CustomException(ErrorCode.INVALID_REQUEST,
+                    "dropping readme_text requires readme.migrate-column.allow-drop=true");
+        }
+        Integer exists = jdbc.queryForObject("""
+                SELECT count(*) FROM information_schema.columns
+                WHERE table_name = 'git_repositories' AND column_name = 'readme_text'
+                """, Integer.class);
+        if (exists == null || exists == 0) return new MigrationResult(false, 0, 0, false);
+
+        long moved = 0;
+        int n;
+        do {
+            Integer batch = tx.execute(status -> moveBatch());
+            n = batch == null ? 0 : batch;
+            moved += n;
+        } while (n > 0);
+        log.info("moved {} READMEs from git_repositories.readme_text to the readme store", moved);
+
+        // 다른 실행이 아직 옮기는 중이면 지우지 않는다 (끝난 뒤 다시 요청)
+        Long left = jdbc.queryForObject(
+                "SELECT count(*) FROM git_repositories WHERE readme_text IS NOT NULL", Long.class);
+        long remaining = left == null ? 0 : left;
+        if (!drop || remaining > 0) return new MigrationResult(true, moved, remaining, false);
+
+        jdbc.execute("ALTER TABLE git_repositories DROP COLUMN IF EXISTS readme_text");
+        log.info("dropped git_repositories.readme_text");
+        return new MigrationResult(true, moved, 0, true);
+    }
+
+    private int moveBatch() {
+        List<ReadmeStore.Readme> readmes = new ArrayList<>(BATCH);
+        jdbc.query("""
+                        SELECT id, readme_sha, readme_text FROM git_repositories
+                        WHERE readme_text IS NOT NULL
+                        LIMIT ? FOR UPDATE SKIP LOCKED
+                        """,
+                rs -> {
+                    readmes.add(new ReadmeStore.Readme(rs.getLong(1), rs.getString(2), rs.getString(3)));
+                },
+                BATCH);
+        if (readmes.isEmpty()) return 0;
+
+        readmeStore.putAllIfAbsent(readmes);
+        List<Object[]> ids = readmes.stream().map(r -> new Object[]{r.repoId()}).toList();
+        jdbc.batchUpdate("UPDATE git_repositories SET readme_text = NULL WHERE id = ?", ids);
+        return readmes.size();
+    }
+}
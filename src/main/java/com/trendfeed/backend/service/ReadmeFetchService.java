@@ -0,0 +1,268 @@
+package com.trendfeed.backend.service;
+
+import com.trendfeed.backend.config.GitHubRateLimitFilter.Priority;
+import com.trendfeed.backend.dto.github.ReadmeContent;
+import com.trendfeed.backend.entity.GitHubEntity;
+import com.trendfeed.backend.repository.GitHubRepository;
+import com.trendfeed.backend.service.GitHubApiClient.Fetched;
+import com.trendfeed.backend.service.GitHubApiClient.Validators;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * README 지연 수집 큐.
+ *
+ * 메타 크롤은 README 를 받지 않는다. README 는 AI 에 넘길 후보에만 필요하므로
+ * 저장 배치가 커밋된 뒤 trendStage >= readme.fetch.min-stage 인 리포만 이 큐에 넣고,
+ * 전용 스레드가 readme.fetch.concurrency 개씩 조건부 요청으로 받는다.
+ *
+ *  - 요청은 LOW 우선순위 → GitHubRateLimitFilter 가 github.ratelimit.low-priority-reserve 에서 멈춰서
+ *    같은 토큰 쿼터를 쓰되 크롤 본 작업 몫을 남긴다
+ *  - GraphQL 로 blob OID 를 알면: 저장된 SHA 와 같으면 생략, 다른 리포와 같은 본문이 이미 있으면 SHA 만 갱신
+ *  - 결과는 ReadmeStore + git_repositories.readme_* (크롤 upsert 는 이 컬럼을 덮어쓰지 않는다)
+ *
+ * 큐는 노드 메모리에만 있다. 기동 직후와 큐가 넘친 뒤의 점검(readme.fetch.sweep-ms 주기)이
+ * README 가 아직 없는 stage 리포를 다시 넣고, 나머지는 다음 크롤에서 다시 들어온다.
+ * 스케줄이 없는 batch 프로필은 종료 전에 awaitDrained 로 점검 + 비우기를 한 번 한다.
+ */
+@Service
+public class ReadmeFetchService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReadmeFetchService.class);
+
+    private final GitHubApiClient api;
+    private final GitHubRepository repoRepo;
+    private final ReadmeStore readmeStore;
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+    private final GitHubCrawlMetrics metrics;
+
+    private final BlockingQueue<ReadmeJob> queue;
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+    private final ThreadPoolTaskExecutor worker;
+    private volatile boolean running = true;
+    private final AtomicBoolean started = new AtomicBoolean();
+    private volatile boolean sweepNeeded = true;   // 기동 직후 + 큐가 넘친 뒤
+
+    @Value("${readme.fetch.min-stage:1}")          // 이 stage 이상인 리포만 README 수집
+    private int minStage;
+
+    @Value("${readme.fetch.concurrency:2}")        // 동시 README 요청 수 (크롤보다 낮게)
+    private int concurrency;
+
+    @Value("${readme.fetch.batch-size:50}")        // 한 트랜잭션으로 저장하는 README 수
+    private int batchSize;
+
+    /**
+     * 큐 항목: 저장된 SHA / 조건부 요청 검증자 + (GraphQL 이면) 현재 blob OID
+     */
+    public record ReadmeJob(Long repoId, String fullName, String storedSha, Validators validators, String knownOid) {}
+
+    private record Result(Long repoId, String sha, Validators validators, String text) {}
+
+    public ReadmeFetchService(GitHubApiClient api,
+                              GitHubRepository repoRepo,
+                              ReadmeStore readmeStore,
+                              JdbcTemplate jdbc,
+                              PlatformTransactionManager transactionManager,
+                              GitHubCrawlMetrics metrics,
+                              @Value("${readme.fetch.queue-capacity:20000}") int capacity) {
+        this.api = api;
+        this.repoRepo = repoRepo;
+        this.readmeStore = readmeStore;
+        this.jdbc = jdbc;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.metrics = metrics;
+        this.queue = new LinkedBlockingQueue<>(capacity);
+        metrics.readmeQueueSize(queue::size);
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setThreadNamePrefix("readme-fetch-");
+        executor.initialize();
+        this.worker = executor;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (started.compareAndSet(false, true)) {
+            worker.execute(this::drainLoop);
+        }
+    }
+
+    /**
+     * 큐(처리 중 포함)가 빌 때까지 최대 timeout 기다린다. 남은 리포 수 반환.
+     * 끝나면 내려가는 프로세스(batch 프로필, CrawlBatchRunner)용: 넘친 적이 있으면 점검부터 하고 기다린다
+     */
+    public int awaitDrained(Duration timeout) throws InterruptedException {
+        start();
+        sweepMissing();
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (!pending.isEmpty() && System.nanoTime() < deadline) {
+            Thread.sleep(200);
+        }
+        return pending.size();
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        worker.shutdown();
+    }
+
+    /**
+     * 저장이 끝난 리포 중 stage 가 min-stage 이상인 것만 큐에 넣는다.
+     * readmeOids 는 GraphQL 로 받은 repoId → blob OID (없으면 조건부 요청)
+     */
+    public void enqueueTrending(Collection<GitHubEntity> saved, Map<Long, String> readmeOids) {
+        for (GitHubEntity e : saved) {
+            if (e.getTrendStage() == null || e.getTrendStage() < minStage) continue;
+            enqueue(new ReadmeJob(e.getId(), e.getFullName(), e.getReadmeSha(),
+                    new Validators(e.getReadmeEtag(), e.getReadmeLastModified()),
+                    readmeOids.get(e.getId())));
+        }
+    }
+
+    private void enqueue(ReadmeJob job) {
+        if (!pending.add(job.repoId())) return;
+        if (!queue.offer(job)) {
+            pending.remove(job.repoId());
+            sweepNeeded = true;
+            metrics.readmeFetch("dropped");
+        }
+    }
+
+    /*
+     * 큐에서 빠졌을 수 있는, README 가 아직 없는 stage 리포를 다시 넣는다.
+     * README 가 아예 없는 리포(404)도 다시 들어가므로 필요할 때만 돈다
+     */
+    @Scheduled(fixedDelayString = "${readme.fetch.sweep-ms:600000}", initialDelay = 60_000)
+    void sweepMissing() {
+        if (!sweepNeeded) return;
+        sweepNeeded = false;
+        int added = 0;
+        for (GitHubRepository.CrawlStateView v : repoRepo.findCrawlStatesByTrendStageAtLeast(minStage)) {
+            if (v.getReadmeSha() != null || pending.contains(v.getId())) continue;
+            enqueue(new ReadmeJob(v.getId(), v.getFullName(), null,
+                    new Validators(v.getReadmeEtag(), v.getReadmeLastModified()), null));
+            added++;
+        }
+        if (added > 0) {
+            log.info("README sweep queued {} repositories without a README", added);
+        }
+    }
+
+    // ──────────────────────────────────────────────────────────────
+    //  처리
+    // ──────────────────────────────────────────────────────────────
+
+    private void drainLoop() {
+        while (running) {
+            List<ReadmeJob> batch = new ArrayList<>(batchSize);
+            try {
+                ReadmeJob first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) continue;
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                process(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException ex) {
+                log.warn("README batch of {} failed ({})", batch.size(), ex.toString());
+                metrics.crawlFailure("readme", ex.toString());
+            } finally {
+                batch.forEach(job -> pending.remove(job.repoId()));
+            }
+        }
+    }
+
+    private void process(List<ReadmeJob> batch) {
+        List<Result> results = Flux.fromIterable(batch)
+                .flatMap(this::fetch, Math.max(1, concurrency))
+                .collectList()
+                .block();
+        if (results == null || results.isEmpty()) return;
+
+        tx.executeWithoutResult(status -> {
+            List<ReadmeStore.Readme> bodies = new ArrayList<>();
+            List<Object[]> args = new ArrayList<>(results.size());
+            for (Result r : results) {
+                if (r.text() != null) {
+                    bodies.add(new ReadmeStore.Readme(r.repoId(), r.sha(), r.text()));
+                }
+                args.add(new Object[]{r.sha(), r.validators().etag(), r.validators().lastModified(), r.repoId()});
+            }
+            readmeStore.putAll(bodies);
+            jdbc.batchUpdate("""
+                    UPDATE git_repositories
+                    SET readme_sha = ?, readme_etag = ?, readme_last_modified = ?
+                    WHERE id = ?
+                    """, args);
+        });
+    }
+
+    /*
+     * README 하나. 바뀐 게 없거나 없거나 실패하면 empty
+     */
+    private Mono<Result> fetch(ReadmeJob job) {
+        String oid = job.knownOid();
+        if (oid != null && oid.equals(job.storedSha())) {
+            metrics.readmeFetch("unchanged");
+            return Mono.empty();
+        }
+        if (oid != null && readmeStore.hasContent(oid)) {
+            // 다른 리포와 같은 README (fork/템플릿 등): 본문은 이미 있으므로 SHA 만 갱신
+            metrics.readmeFetch("reused");
+            return Mono.just(new Result(job.repoId(), oid, Validators.NONE, null));
+        }
+
+        String[] parts = job.fullName().split("/", 2);
+        if (parts.length != 2) return Mono.empty();
+        return api.fetchReadme(parts[0], parts[1], job.validators(), Priority.LOW)
+                .switchIfEmpty(Mono.fromRunnable(() -> metrics.readmeFetch("missing")))
+                .flatMap(fetched -> toResult(job, fetched))
+                .onErrorResume(ex -> {
+                    log.warn("README fetch failed: {} ({})", job.fullName(), ex.toString());
+                    metrics.readmeFetch("failed");
+                    return Mono.empty();
+                });
+    }
+
+    private Mono<Result> toResult(ReadmeJob job, Fetched<ReadmeContent> fetched) {
+        if (fetched.notModified()) {
+            metrics.readmeFetch("not_modified");
+            return Mono.empty();
+        }
+        metrics.readmeFetch("fetched");
+        byte[] bytes = fetched.body().content();
+        String text = bytes == null ? null : new String(bytes, StandardCharsets.UTF_8);
+        return Mono.just(new Result(job.repoId(), fetched.body().sha(), fetched.validators(), text));
+    }
+}
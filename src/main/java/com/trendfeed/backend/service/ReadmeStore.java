@@ -0,0 +1,49 @@
+package com.trendfeed.backend.service;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * README 본문 저장소. git_repositories 에는 SHA/검증자만 두고 본문은 여기에 압축해서 둔다.
+ * 본문이 필요한 곳(AI 후보 응답, README 조회 API)에서만 명시적으로 읽는다.
+ *
+ * readme.store 로 구현을 고른다: db (repo_readmes, DeflateReadmeStore) | segment (로컬 세그먼트 파일, SegmentReadmeStore)
+ */
+public interface ReadmeStore {
+
+    record Readme(Long repoId, String sha, String text) {}
+
+    /**
+     * 새로 받은 README 저장 (같은 리포는 덮어씀). 호출 측 트랜잭션 안에서
+     */
+    void putAll(List<Readme> readmes);
+
+    /**
+     * 아직 본문이 없는 리포만 저장 (이전 데이터 이관용, 새로 받은 README 를 덮어쓰지 않음)
+     */
+    void putAllIfAbsent(List<Readme> readmes);
+
+    /**
+     * 이 SHA 의 본문이 이미 있는지 (내용 주소 저장소만 true 를 돌려줄 수 있음).
+     * 있으면 다른 리포의 같은 README 라도 다시 받지 않는다
+     */
+    default boolean hasContent(String sha) {
+        return false;
+    }
+
+    Optional<String> get(Long repoId);
+
+    /**
+     * 여러 리포 본문. 없는 리포는 빠진다
+     */
+    Map<Long, String> getAll(Collection<Long> repoIds);
+
+    /**
+     * 압축을 풀면서 바로 out 으로 흘려보낸다 (전체 본문을 메모리에 올리지 않음). 없으면 false
+     */
+    boolean copyTo(Long repoId, Writer out) throws IOException;
+}
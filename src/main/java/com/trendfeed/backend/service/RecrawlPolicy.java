@@ -0,0 +1,100 @@
+package com.trendfeed.backend.service;
+
+import com.trendfeed.backend.entity.GitHubEntity;
+import com.trendfeed.backend.repository.RecrawlScheduleWriter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 리포별 재수집 간격.
+ *
+ *   v        = 0.5 * (이번 평가의 하루 스타 증가) + 0.5 * (저장된 v)        ← 한 번 튄 값에 끌려가지 않게 평활
+ *   interval = maxInterval / (1 + max(v, 0) / velocityRef) * stageFactor * pushFactor
+ *   → [minInterval, maxInterval] 로 자르고 ±jitter 를 더한다 (같은 배치가 같은 시각에 몰리지 않게)
+ *
+ *   stageFactor: stage 0 = 1, stage 1 = recrawl.stage1-factor, stage 2 = recrawl.stage2-factor
+ *   pushFactor : 7일 안에 push = 0.5, 30일 안 = 0.75, 그 외 1
+ *
+ * 기본값이면 멈춘 stage 0 리포는 7일, 하루 수백 스타가 붙는 stage 1 리포는 1시간.
+ * GitHubService 가 평가 직후(같은 트랜잭션) 호출한다.
+ */
+@Component
+public class RecrawlPolicy {
+
+    private static final double SMOOTHING = 0.5;
+    private static final double JITTER = 0.1;
+    private static final long DAY = 86_400;
+
+    private final RecrawlScheduleWriter writer;
+
+    @Value("${recrawl.min-interval-minutes:60}")     // 가장 짧은 간격 (뜨는 리포)
+    private long minIntervalMinutes;
+
+    @Value("${recrawl.max-interval-hours:168}")      // 가장 긴 간격 (멈춘 리포)
+    private long maxIntervalHours;
+
+    @Value("${recrawl.velocity-ref:10}")             // 하루 이만큼 스타가 늘면 간격이 절반
+    private double velocityRef;
+
+    @Value("${recrawl.stage1-factor:0.25}")
+    private double stage1Factor;
+
+    @Value("${recrawl.stage2-factor:0.5}")
+    private double stage2Factor;
+
+    public RecrawlPolicy(RecrawlScheduleWriter writer) {
+        this.writer = writer;
+    }
+
+    /**
+     * 평가가 끝난 배치의 다음 기한 기록. batch 는 평가 직전 값(prevStars/lastChecked)으로 만든 것
+     */
+    public void reschedule(List<GitHubEntity> entities, TrendBatch batch, OffsetDateTime now) {
+        if (entities.isEmpty()) return;
+        Map<Long, Double> previous = writer.starsPerDay(entities.stream().map(GitHubEntity::getId).toList());
+
+        List<RecrawlScheduleWriter.Entry> entries = new ArrayList<>(entities.size());
+        for (int i = 0; i < entities.size(); i++) {
+            GitHubEntity e = entities.get(i);
+            double observed = batch.starsPerDay(i);
+            Double prev = previous.get(e.getId());
+            double v = prev == null ? observed : SMOOTHING * observed + (1 - SMOOTHING) * prev;
+
+            int stage = e.getTrendStage() == null ? 0 : e.getTrendStage();
+            long interval = intervalSeconds(v, stage, e.getPushedAt(), now);
+            entries.add(new RecrawlScheduleWriter.Entry(e.getId(), now.plusSeconds(interval), interval, v));
+        }
+        writer.upsertAll(entries, now);
+    }
+
+    public long maxIntervalSeconds() {
+        return maxIntervalHours * 3600;
+    }
+
+    long intervalSeconds(double starsPerDay, int stage, OffsetDateTime pushedAt, OffsetDateTime now) {
+        double max = maxIntervalSeconds();
+        double min = Math.min(max, minIntervalMinutes * 60.0);
+
+        double interval = max / (1 + Math.max(0.0, starsPerDay) / velocityRef);
+        interval *= switch (stage) {
+            case 1 -> stage1Factor;
+            case 2 -> stage2Factor;
+            default -> 1.0;
+        };
+        if (pushedAt != null) {
+            long sincePush = now.toEpochSecond() - pushedAt.toEpochSecond();
+            if (sincePush < 7 * DAY) interval *= 0.5;
+            else if (sincePush < 30 * DAY) interval *= 0.75;
+        }
+
+        interval = Math.max(min, Math.min(max, interval));
+        interval *= 1 + ThreadLocalRandom.current().nextDouble(-JITTER, JITTER);
+        return Math.round(interval);
+    }
+}
@@ -0,0 +1,136 @@
+package com.trendfeed.backend.service;
+
+import com.trendfeed.backend.repository.RecrawlScheduleWriter;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 기한 기반 재수집 워커.
+ *
+ * 전용 스레드 하나(recrawl-)가 repo_crawl_schedule 에서 기한이 지난 리포를 recrawl.batch-size 개씩 꺼내
+ * GitHubService.refresh 로 갱신한다. 저장되면 RecrawlPolicy 가 다음 기한을 다시 정하고,
+ * 실패하거나 사라진 리포는 꺼낼 때 미뤄 둔 recrawl.retry-minutes 뒤에 다시 나온다.
+ *
+ *  - 쿼터: 요청은 GitHubRateLimitFilter 를 거치므로 토큰 잔여량이 reserve 에 닿으면 거기서 기다린다.
+ *    그와 별도로 recrawl.max-repos-per-hour 로 이 워커 몫의 상한을 둔다 (배치가 너무 빨리 끝나면 쉼)
+ *  - 여러 노드: 꺼내기가 FOR UPDATE SKIP LOCKED 라 같은 리포를 두 노드가 갱신하지 않는다
+ *  - 기동 시 일정이 없는 리포는 마지막 크롤 + 최대 간격으로 넣어 둔다
+ */
+@Service
+public class RecrawlScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(RecrawlScheduler.class);
+
+    private final GitHubService crawler;
+    private final RecrawlScheduleWriter schedule;
+    private final RecrawlPolicy policy;
+    private final GitHubCrawlMetrics metrics;
+    private final ThreadPoolTaskExecutor worker;
+    private final AtomicLong overdue = new AtomicLong();
+    private volatile boolean running = true;
+
+    @Value("${recrawl.enabled:true}")
+    private boolean enabled;
+
+    @Value("${recrawl.batch-size:100}")             // 한 번에 꺼내는 리포 수
+    private int batchSize;
+
+    @Value("${recrawl.idle-ms:30000}")              // 기한이 된 리포가 없을 때 다시 볼 때까지
+    private long idleMillis;
+
+    @Value("${recrawl.retry-minutes:360}")          // 꺼낸 뒤 저장되지 않은 리포가 다시 나오기까지
+    private long retryMinutes;
+
+    @Value("${recrawl.max-repos-per-hour:3000}")    // 이 워커의 시간당 갱신 상한 (0 이면 레이트리밋 필터에만 맡김)
+    private int maxReposPerHour;
+
+    public RecrawlScheduler(GitHubService crawler, RecrawlScheduleWriter schedule,
+                            RecrawlPolicy policy, GitHubCrawlMetrics metrics) {
+        this.crawler = crawler;
+        this.schedule = schedule;
+        this.policy = policy;
+        this.metrics = metrics;
+        metrics.recrawlOverdue(overdue::get);
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setThreadNamePrefix("recrawl-");
+        executor.initialize();
+        this.worker = executor;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) return;
+        worker.execute(() -> {
+            int seeded = schedule.seedMissing(policy.maxIntervalSeconds());
+            if (seeded > 0) {
+                log.info("recrawl schedule seeded for {} repositories", seeded);
+            }
+            drainLoop();
+        });
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        worker.shutdown();
+    }
+
+    private void drainLoop() {
+        while (running) {
+            try {
+                long pause = drainOnce();
+                if (pause > 0) Thread.sleep(pause);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException ex) {
+                log.warn("recrawl batch failed ({})", ex.toString());
+                metrics.crawlFailure("recrawl", ex.toString());
+                sleepQuietly(idleMillis);
+            }
+        }
+    }
+
+    /*
+     * 배치 하나. 다음 배치까지 쉴 시간(ms) 반환
+     */
+    private long drainOnce() {
+        long started = System.nanoTime();
+        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+        overdue.set(schedule.countDue(now));
+
+        List<Long> ids = schedule.claimDue(now, now.plusMinutes(retryMinutes), batchSize);
+        if (ids.isEmpty()) return idleMillis;
+
+        long saved = crawler.refresh(ids);
+        metrics.recrawled(ids.size(), saved);
+        log.debug("recrawl: {} due, {} claimed, {} saved", overdue.get(), ids.size(), saved);
+
+        if (maxReposPerHour <= 0) return 0;
+        long minMillis = ids.size() * 3_600_000L / maxReposPerHour;
+        long tookMillis = (System.nanoTime() - started) / 1_000_000;
+        return Math.max(0, minMillis - tookMillis);
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.trendfeed.backend.service;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * 검색 샤드: created 날짜 구간 [createdFrom, createdTo] × stars 구간 [minStars, maxStars].
+ * maxStars == null 이면 상한 없음. totalCount 는 계획 시점의 결과 수 (모르면 -1).
+ */
+public record SearchShard(LocalDate createdFrom, LocalDate createdTo, int minStars, Integer maxStars, int totalCount) {
+
+    public SearchShard withTotalCount(int totalCount) {
+        return new SearchShard(createdFrom, createdTo, minStars, maxStars, totalCount);
+    }
+
+    /**
+     * GitHub search q 파라미터 (공백은 WebClient 가 인코딩)
+     */
+    public String query() {
+        String stars = (maxStars == null)
+                ? "stars:>=" + minStars
+                : "stars:" + minStars + ".." + maxStars;
+        return stars + " created:" + createdFrom + ".." + createdTo;
+    }
+
+    public boolean isSingleDay() {
+        return !createdTo.isAfter(createdFrom);
+    }
+
+    /**
+     * 날짜 구간을 반으로 나눈 두 샤드
+     */
+    public SearchShard[] splitByDate() {
+        long days = ChronoUnit.DAYS.between(createdFrom, createdTo);
+        LocalDate mid = createdFrom.plusDays(days / 2);
+        return new SearchShard[]{
+                new SearchShard(createdFrom, mid, minStars, maxStars, -1),
+                new SearchShard(mid.plusDays(1), createdTo, minStars, maxStars, -1)
+        };
+    }
+
+    /**
+     * stars 구간을 반으로 나눈 두 샤드 (upper: 현재 샤드의 실제 최대 스타 수)
+     */
+    public SearchShard[] splitByStars(int upper) {
+        int hi = (maxStars == null) ? upper : Math.min(maxStars, upper);
+        int mid = minStars + (hi - minStars) / 2;
+        return new SearchShard[]{
+                new SearchShard(createdFrom, createdTo, minStars, mid, -1),
+                new SearchShard(createdFrom, createdTo, mid + 1, maxStars, -1)
+        };
+    }
+
+    @Override
+    public String toString() {
+        return query() + " (" + totalCount + ")";
+    }
+}
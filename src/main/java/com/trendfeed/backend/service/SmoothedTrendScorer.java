@@ -0,0 +1,62 @@
+package com.trendfeed.backend.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 작은 리포 폭주를 막는 채점기 (섀도 비교용).
+ *
+ *   raw   = (curr - prev) / max(prev, trend.prev-min)
+ *   score = (1 - exp(-trend.alpha * raw)) × 나이 half-life 감쇠 × 100
+ *
+ * 전체 스타가 trend.min-total-stars 미만이거나, 직전 평가 이후 하루 평균 증가가
+ * trend.min-delta-stars-per-day 미만이면 0 점.
+ */
+@Component
+public class SmoothedTrendScorer implements TrendScorer {
+
+    public static final String NAME = "smoothed";
+
+    @Value("${trend.alpha:1.0}")
+    private double alpha;
+
+    @Value("${trend.prev-min:300}")
+    private int prevMin;
+
+    @Value("${trend.min-delta-stars-per-day:30}")
+    private double minDeltaPerDay;
+
+    @Value("${trend.min-total-stars:1000}")
+    private int minTotalStars;
+
+    @Value("${trend.age.half-life-days:720}")
+    private double ageHalfLifeDays;
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public void score(TrendBatch batch, double[] out) {
+        for (int i = 0; i < batch.size(); i++) {
+            int curr = batch.stars(i);
+            int delta = curr - batch.prevStars(i);
+
+            // 경과 일수를 모르거나 하루 미만이면 하루로 본다
+            double days = Math.max(1.0, batch.elapsedDays(i));
+            if (curr < minTotalStars || batch.prevStars(i) <= 0 || delta / days < minDeltaPerDay) {
+                out[i] = 0.0;
+                continue;
+            }
+
+            double raw = (double) delta / Math.max(batch.prevStars(i), prevMin);
+            double norm = 1.0 - Math.exp(-alpha * raw);
+
+            long ageDays = batch.ageDays(i);
+            double decay = (ageDays >= 0 && ageHalfLifeDays > 0) ? Math.pow(0.5, ageDays / ageHalfLifeDays) : 1.0;
+
+            out[i] = Math.max(0.0, Math.min(1.0, norm * decay)) * 100.0;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.trendfeed.backend.service;
+
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+/**
+ * star_history_chunks.samples 인코딩.
+ *
+ * 샘플마다 [varint(직전 샘플과의 초 차이)] [zigzag varint(스타 차이)] 를 이어 붙인다.
+ * 청크의 첫 샘플은 (월 시작 시각, 0) 기준이라 청크 하나만으로 디코딩할 수 있다.
+ * 시각은 증가만 한다 (같거나 이전 시각 샘플은 쓰는 쪽에서 버린다).
+ */
+public final class StarHistoryCodec {
+
+    private StarHistoryCodec() {}
+
+    /**
+     * 디코딩 결과. ts[i] (epoch seconds) 에 stars[i]
+     */
+    public record Samples(long[] ts, int[] stars) {
+        public int size() { return ts.length; }
+    }
+
+    public static LocalDate monthOf(OffsetDateTime at) {
+        return at.atZoneSameInstant(ZoneOffset.UTC).toLocalDate().withDayOfMonth(1);
+    }
+
+    public static long monthStartEpoch(LocalDate monthStart) {
+        return monthStart.atStartOfDay(ZoneOffset.UTC).toEpochSecond();
+    }
+
+    /**
+     * 샘플 하나 (prevTs/prevStars 기준). 청크 첫 샘플이면 prevTs = monthStartEpoch, prevStars = 0
+     */
+    public static byte[] encode(long prevTs, int prevStars, long ts, int stars) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(8);
+        writeVarint(out, ts - prevTs);
+        writeVarint(out, zigzag((long) stars - prevStars));
+        return out.toByteArray();
+    }
+
+    /**
+     * 같은 청크에 들어갈 샘플 여러 개 [from, to) 를 한 번에 (청크 첫 샘플부터, 백필용)
+     */
+    public static byte[] encodeAll(long monthStartEpoch, long[] ts, int[] stars, int from, int to) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream((to - from) * 5);
+        long prevTs = monthStartEpoch;
+        long prevStars = 0;
+        for (int i = from; i < to; i++) {
+            writeVarint(out, ts[i] - prevTs);
+            writeVarint(out, zigzag(stars[i] - prevStars));
+            prevTs = ts[i];
+            prevStars = stars[i];
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * 청크의 첫 샘플만. data 는 앞부분만 있어도 된다 (varint 두 개 = 최대 20바이트)
+     */
+    public static Samples decodeFirst(LocalDate monthStart, byte[] data) {
+        if (data == null || data.length == 0) return new Samples(new long[0], new int[0]);
+        int[] pos = {0};
+        long dt = readVarint(data, pos);
+        long ds = readVarint(data, pos);
+        long ts = monthStartEpoch(monthStart) + dt;
+        int stars = (int) ((ds >>> 1) ^ -(ds & 1));
+        return new Samples(new long[]{ts}, new int[]{stars});
+    }
+
+    private static long readVarint(byte[] data, int[] pos) {
+        long v = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = data[pos[0]++];
+            v |= (long) (b & 0x7f) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return v;
+    }
+
+    public static Samples decode(LocalDate monthStart, byte[] data, int expectedCount) {
+        long[] ts = new long[Math.max(expectedCount, 4)];
+        int[] stars = new int[ts.length];
+        int n = 0;
+
+        long t = monthStartEpoch(monthStart);
+        long s = 0;
+        int pos = 0;
+        while (data != null && pos < data.length) {
+            long dt = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = data[pos++];
+                dt |= (long) (b & 0x7f) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+
+            long ds = 0;
+            shift = 0;
+            do {
+                b = data[pos++];
+                ds |= (long) (b & 0x7f) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+
+            t += dt;
+            s += (ds >>> 1) ^ -(ds & 1);
+
+            if (n == ts.length) {
+                ts = Arrays.copyOf(ts, n * 2);
+                stars = Arrays.copyOf(stars, n * 2);
+            }
+            ts[n] = t;
+            stars[n] = (int) s;
+            n++;
+        }
+        return new Samples(Arrays.copyOf(ts, n), Arrays.copyOf(stars, n));
+    }
+
+    private static long zigzag(long v) {
+        return (v << 1) ^ (v >> 63);
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, long v) {
+        while ((v & ~0x7fL) != 0) {
+            out.write((int) ((v & 0x7f) | 0x80));
+            v >>>= 7;
+        }
+        out.write((int) v);
+    }
+}
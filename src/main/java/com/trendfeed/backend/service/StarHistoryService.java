@@ -0,0 +1,161 @@
+package com.trendfeed.backend.service;
+
+import com.trendfeed.backend.entity.GitHubEntity;
+import com.trendfeed.backend.entity.StarHistoryChunk;
+import com.trendfeed.backend.repository.StarHistoryChunkRepository;
+import com.trendfeed.backend.repository.StarHistoryWriter;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 리포별 스타 수 이력 (star_history_chunks) 기록/조회.
+ *
+ *  - record(): 크롤 저장 배치마다 (last_crawled_at, stargazers_count) 샘플을 추가
+ *  - growth(): 구간(1d/7d/30d 등) 동안의 스타 증가. 구간이 걸친 월 청크만 읽는다
+ *    (30일 구간이면 리포당 최대 3행, 행 하나가 한 달치 샘플)
+ */
+@Service
+public class StarHistoryService {
+
+    public static final List<Duration> DEFAULT_WINDOWS = List.of(Duration.ofDays(1), Duration.ofDays(7), Duration.ofDays(30));
+
+    private final StarHistoryChunkRepository chunkRepo;
+    private final StarHistoryWriter writer;
+
+    public StarHistoryService(StarHistoryChunkRepository chunkRepo, StarHistoryWriter writer) {
+        this.chunkRepo = chunkRepo;
+        this.writer = writer;
+    }
+
+    /**
+     * 구간 증가량. from 은 구간 시작 시점 이전의 마지막 샘플
+     * (이력이 구간보다 짧으면 가장 오래된 샘플, partial=true)
+     */
+    public record StarGrowth(Long repoId, Duration window,
+                             OffsetDateTime fromAt, int fromStars,
+                             OffsetDateTime toAt, int toStars,
+                             boolean partial) {
+
+        public int delta() {
+            return toStars - fromStars;
+        }
+
+        /** (to - from) / from, from<=0 이면 0 */
+        public double rate() {
+            return fromStars <= 0 ? 0.0 : (double) delta() / fromStars;
+        }
+
+        /** 실제 샘플 간격 기준 하루 평균 증가 */
+        public double perDay() {
+            double days = Duration.between(fromAt, toAt).toSeconds() / 86400.0;
+            return days <= 0 ? 0.0 : delta() / days;
+        }
+    }
+
+    /**
+     * 저장된 엔티티들의 현재 스타 수를 샘플로 추가 (호출 측 트랜잭션 안에서)
+     */
+    public int record(Collection<GitHubEntity> entities) {
+        List<StarHistoryWriter.Sample> samples = new ArrayList<>(entities.size());
+        for (GitHubEntity e : entities) {
+            if (e.getId() == null || e.getLastCrawledAt() == null || e.getStargazersCount() == null) continue;
+            samples.add(new StarHistoryWriter.Sample(e.getId(), e.getLastCrawledAt(), e.getStargazersCount()));
+        }
+        return writer.appendAll(samples);
+    }
+
+    @Transactional(readOnly = true)
+    public StarGrowth growth(Long repoId, Duration window) {
+        return growth(List.of(repoId), window).get(repoId);
+    }
+
+    /**
+     * 리포 목록의 지금 기준 window 구간 증가. 샘플이 없는 리포는 빠진다
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, StarGrowth> growth(Collection<Long> repoIds, Duration window) {
+        if (repoIds.isEmpty()) return Map.of();
+
+        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+        long fromTs = now.minus(window).toEpochSecond();
+        // 구간 시작 직전 샘플이 이전 달 청크에 있을 수 있어 한 달 더 읽는다
+        LocalDate firstMonth = StarHistoryCodec.monthOf(now.minus(window)).minusMonths(1);
+        LocalDate lastMonth = StarHistoryCodec.monthOf(now);
+
+        Map<Long, List<StarHistoryChunk>> byRepo = new LinkedHashMap<>();
+        for (StarHistoryChunk c : chunkRepo.findByRepoIdInAndMonthStartBetweenOrderByMonthStartAsc(repoIds, firstMonth, lastMonth)) {
+            byRepo.computeIfAbsent(c.getRepoId(), id -> new ArrayList<>()).add(c);
+        }
+
+        Map<Long, StarGrowth> result = new HashMap<>();
+        for (Map.Entry<Long, List<StarHistoryChunk>> entry : byRepo.entrySet()) {
+            StarGrowth g = growthOf(entry.getKey(), entry.getValue(), window, fromTs);
+            if (g != null) result.put(entry.getKey(), g);
+        }
+        return result;
+    }
+
+    /**
+     * 1d/7d/30d 증가 한 번에
+     */
+    @Transactional(readOnly = true)
+    public Map<Duration, StarGrowth> growthWindows(Long repoId) {
+        Map<Duration, StarGrowth> result = new LinkedHashMap<>();
+        for (Duration w : DEFAULT_WINDOWS) {
+            StarGrowth g = growth(repoId, w);
+            if (g != null) result.put(w, g);
+        }
+        return result;
+    }
+
+    // 월 순서로 정렬된 청크들에서 from(구간 시작 이전 마지막 샘플) / to(최신 샘플) 찾기
+    private static StarGrowth growthOf(Long repoId, List<StarHistoryChunk> chunks, Duration window, long fromTs) {
+        StarHistoryChunk latest = chunks.get(chunks.size() - 1);
+        if (latest.getLastTs() == null) return null;
+
+        long baseTs = -1;
+        int baseStars = 0;
+        long oldestTs = -1;
+        int oldestStars = 0;
+        for (StarHistoryChunk c : chunks) {
+            int count = c.getSampleCount() == null ? 0 : c.getSampleCount();
+            StarHistoryCodec.Samples s = StarHistoryCodec.decode(c.getMonthStart(), c.getSamples(), count);
+            for (int i = 0; i < s.size(); i++) {
+                if (oldestTs < 0) {
+                    oldestTs = s.ts()[i];
+                    oldestStars = s.stars()[i];
+                }
+                if (s.ts()[i] > fromTs) break;
+                baseTs = s.ts()[i];
+                baseStars = s.stars()[i];
+            }
+        }
+        if (oldestTs < 0) return null;
+
+        boolean partial = baseTs < 0;
+        if (partial) {
+            baseTs = oldestTs;
+            baseStars = oldestStars;
+        }
+        return new StarGrowth(repoId, window,
+                toTime(baseTs), baseStars,
+                toTime(latest.getLastTs()), latest.getLastStars(),
+                partial);
+    }
+
+    private static OffsetDateTime toTime(long epochSeconds) {
+        return OffsetDateTime.ofInstant(Instant.ofEpochSecond(epochSeconds), ZoneOffset.UTC);
+    }
+}
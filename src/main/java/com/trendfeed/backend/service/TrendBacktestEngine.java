@@ -0,0 +1,495 @@
+package com.trendfeed.backend.service;
+
+import com.trendfeed.backend.exception.CustomException;
+import com.trendfeed.backend.exception.ErrorCode;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * 트렌드 파라미터 백테스트. 저장된 스타 이력(star_history_chunks)으로 크롤 평가를 다시 돌려 본다 (DB 쓰기 없음).
+ *
+ *  1. 최근 days 일치 샘플을 리포별로 이어 붙인 원시 배열로 로드 (History, backtest.cache-minutes 동안 재사용)
+ *  2. evalIntervalHours 간격의 평가 시각마다 리포별 스타 수를 미리 뽑아 둔다 (Series, 파라미터와 무관)
+ *     그 사이에 새 샘플이 없으면 크롤되지 않은 것으로 보고 평가하지 않는다
+ *  3. 파라미터 조합 × 리포 청크를 ForkJoinPool 에서 병렬로 재생: 크롤 평가와 같은 공식/전이
+ *     (TrendScoring.score / nextStage, prevStars 는 평가마다 현재 스타로) — 모두 stage 0 에서 시작
+ *  4. 조합별 승급 수, 스타 증가 정점 대비 승급 시점(리드 타임), 기준 조합/실제 후보와의 겹침
+ *
+ * 리드 타임 = (평가 구간 증가량이 가장 컸던 평가 시각 - 승급 시각), 양수면 정점 전에 잡은 것.
+ * 기준 조합은 지금 설정값 (grid 에 없으면 맨 앞에 추가). exp-decay 공식만 재생한다 (TrendRescoreEngine 과 같음).
+ * 임계치도 TrendRescoreEngine 과 같다: percentile 모드면 기준 조합(threshold 축을 안 주면 모든 조합)은
+ * 크롤이 지금 쓰는 언어별 컷오프로 재생하고, threshold 축으로 준 값은 고정 임계치로 비교한다 (ParamResult.percentileCutoffs).
+ */
+@Service
+public class TrendBacktestEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(TrendBacktestEngine.class);
+
+    private static final int CHUNK = 2_048;
+    private static final int FETCH_SIZE = 10_000;
+    private static final long DAY = 86_400;
+    private static final long NO_CREATED = Long.MIN_VALUE;
+
+    private final JdbcTemplate jdbc;
+    private final JdbcTemplate streamingJdbc;   // 이력 로드용 (fetch size 지정)
+    private final TransactionTemplate tx;
+    private final TrendRescoreEngine rescoreEngine;
+    private final PromotionThresholds thresholds;
+    private final ForkJoinPool pool;
+
+    @Value("${backtest.max-grid:200}")              // 한 요청의 파라미터 조합 상한
+    private int maxGrid;
+
+    @Value("${backtest.max-days:730}")              // 되돌아볼 수 있는 최대 기간 (ts 를 int 초로 담는다)
+    private int maxDays;
+
+    @Value("${backtest.cache-minutes:10}")          // 로드한 이력을 다음 요청에 재사용하는 시간
+    private long cacheMinutes;
+
+    @Value("${trend.eval-window-hours:48}")         // 평가 간격 기본값 (크롤 평가 구간과 같게)
+    private double defaultEvalHours;
+
+    private History cached;
+
+    public TrendBacktestEngine(JdbcTemplate jdbc,
+                               PlatformTransactionManager transactionManager,
+                               TrendRescoreEngine rescoreEngine,
+                               PromotionThresholds thresholds,
+                               @Value("${backtest.parallelism:0}") int parallelism) {
+        this.jdbc = jdbc;
+        this.streamingJdbc = new JdbcTemplate(jdbc.getDataSource());
+        this.streamingJdbc.setFetchSize(FETCH_SIZE);
+        this.tx = new TransactionTemplate(transactionManager);
+        this.rescoreEngine = rescoreEngine;
+        this.thresholds = thresholds;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * 축마다 값 목록 (비우면 설정값 하나). 조합 = 세 축의 곱
+     */
+    public record Request(int days, Double evalIntervalHours,
+                         List<Double> growthK, List<Double> halfLifeDays, List<Double> threshold) {}
+
+    public record ParamResult(double growthK, double halfLifeDays, double threshold, boolean percentileCutoffs,
+                              boolean configured, int promotions,
+                              Double medianLeadDays, Double meanLeadDays, Double promotedBeforePeakRatio,
+                              double baselineJaccard, int actualCandidateOverlap) {}
+
+    public record BacktestResult(int repos, int samples, int evaluations, OffsetDateTime from, OffsetDateTime to,
+                                 double evalIntervalHours, boolean cachedHistory,
+                                 long loadMillis, long replayMillis, List<ParamResult> results) {}
+
+    public synchronized BacktestResult run(Request request) {
+        int days = Math.max(1, Math.min(request.days(), maxDays));
+        double evalHours = request.evalIntervalHours() != null ? request.evalIntervalHours() : defaultEvalHours;
+        if (evalHours < 1) {
+            throw new CustomException(ErrorCode.INVALID_REQUEST, "evalIntervalHours must be >= 1");
+        }
+        List<TrendScoring.Params> grid = grid(request);
+
+        long t0 = System.nanoTime();
+        boolean reused = cached != null && cached.days == days
+                && cached.loadedAtMillis + cacheMinutes * 60_000 > System.currentTimeMillis();
+        History h = reused ? cached : load(days);
+        cached = cacheMinutes > 0 ? h : null;
+        long t1 = System.nanoTime();
+
+        Series s = series(h, (long) (evalHours * 3600));
+        double[][] cutoffs = cutoffs(h, grid, request.threshold() == null || request.threshold().isEmpty());
+        int[][] promotedAt = replay(h, s, grid, cutoffs);
+        List<ParamResult> results = summarize(h, s, grid, cutoffs, promotedAt, loadCandidates(h.fromSec));
+        long t2 = System.nanoTime();
+
+        BacktestResult result = new BacktestResult(h.repos, h.sampleCount(), s.evals,
+                OffsetDateTime.ofInstant(Instant.ofEpochSecond(h.fromSec), ZoneOffset.UTC),
+                OffsetDateTime.ofInstant(Instant.ofEpochSecond(h.toSec), ZoneOffset.UTC),
+                evalHours, reused, (t1 - t0) / 1_000_000, (t2 - t1) / 1_000_000, results);
+        log.info("trend backtest: {} repos, {} evaluations, {} parameter sets, load {}ms, replay {}ms",
+                h.repos, s.evals, grid.size(), result.loadMillis(), result.replayMillis());
+        return result;
+    }
+
+    // ──────────────────────────────────────────────────────────────
+    //  파라미터 조합
+    // ──────────────────────────────────────────────────────────────
+
+    /*
+     * 맨 앞은 항상 지금 설정값 (겹침 비교 기준)
+     */
+    private List<TrendScoring.Params> grid(Request r) {
+        TrendScoring.Params base = rescoreEngine.configuredParams();
+        List<Double> ks = axis(r.growthK(), base.growthK());
+        List<Double> halfLives = axis(r.halfLifeDays(), base.ageHalfLifeDays());
+        List<Double> thresholds = axis(r.threshold(), base.threshold());
+        long size = (long) ks.size() * halfLives.size() * thresholds.size();
+        if (size > maxGrid) {
+            throw new CustomException(ErrorCode.INVALID_REQUEST,
+                    "grid has " + size + " parameter sets (backtest.max-grid=" + maxGrid + ")");
+        }
+
+        List<TrendScoring.Params> grid = new ArrayList<>((int) size + 1);
+        grid.add(base);
+        for (double k : ks) {
+            for (double halfLife : halfLives) {
+                for (double threshold : thresholds) {
+                    TrendScoring.Params p = new TrendScoring.Params(k, halfLife,
+                            base.growthWeight(), base.penaltyWeight(), threshold);
+                    if (!p.equals(base)) grid.add(p);
+                }
+            }
+        }
+        return grid;
+    }
+
+    private static List<Double> axis(List<Double> values, double configured) {
+        if (values == null || values.isEmpty()) return List.of(configured);
+        Set<Double> distinct = new LinkedHashSet<>(values);
+        return List.copyOf(distinct);
+    }
+
+    // ──────────────────────────────────────────────────────────────
+    //  이력 로드
+    // ──────────────────────────────────────────────────────────────
+
+    /**
+     * 리포 r 의 샘플은 [offsets[r], offsets[r+1]). ts 는 fromSec 기준 초 (int 로 충분: 최대 2년)
+     */
+    static final class History {
+        final int days;
+        final long fromSec;
+        final long toSec;
+        final long loadedAtMillis = System.currentTimeMillis();
+        long[] ids = new long[1024];
+        long[] createdSec = new long[1024];
+        int[] language = new int[1024];                 // languages 의 인덱스, -1: 언어 없음
+        final List<String> languages = new ArrayList<>();
+        private final Map<String, Integer> languageIndex = new HashMap<>();
+        int[] offsets = new int[1025];
+        int[] ts = new int[1 << 16];
+        int[] stars = new int[1 << 16];
+        int repos;
+
+        History(int days, long fromSec, long toSec) {
+            this.days = days;
+            this.fromSec = fromSec;
+            this.toSec = toSec;
+        }
+
+        int sampleCount() { return offsets[repos]; }
+
+        void startRepo(long id, long created, String lang) {
+            if (repos + 1 == ids.length) {
+                ids = Arrays.copyOf(ids, ids.length * 2);
+                createdSec = Arrays.copyOf(createdSec, createdSec.length * 2);
+                language = Arrays.copyOf(language, language.length * 2);
+                offsets = Arrays.copyOf(offsets, ids.length + 1);
+            }
+            ids[repos] = id;
+            createdSec[repos] = created;
+            language[repos] = lang == null ? -1 : languageIndex.computeIfAbsent(lang, l -> {
+                languages.add(l);
+                return languages.size() - 1;
+            });
+            offsets[repos + 1] = offsets[repos];
+            repos++;
+        }
+
+        void addSample(long epochSec, int starCount) {
+            int n = offsets[repos];
+            // 월 경계에서 같은/이전 시각이 다시 나오면 버린다
+            if (n > offsets[repos - 1] && epochSec - fromSec <= ts[n - 1]) return;
+            if (n == ts.length) {
+                ts = Arrays.copyOf(ts, n * 2);
+                stars = Arrays.copyOf(stars, n * 2);
+            }
+            ts[n] = (int) (epochSec - fromSec);
+            stars[n] = starCount;
+            offsets[repos] = n + 1;
+        }
+
+        // 샘플이 하나도 없는 리포는 되돌린다
+        void endRepo() {
+            if (repos > 0 && offsets[repos] == offsets[repos - 1]) repos--;
+        }
+    }
+
+    private History load(int days) {
+        long toSec = OffsetDateTime.now(ZoneOffset.UTC).toEpochSecond();
+        long fromSec = toSec - days * DAY;
+        History h = new History(days, fromSec, toSec);
+        Date fromMonth = Date.valueOf(StarHistoryCodec.monthOf(
+                OffsetDateTime.ofInstant(Instant.ofEpochSecond(fromSec), ZoneOffset.UTC)));
+
+        long[] currentRepo = {Long.MIN_VALUE};
+        // PostgreSQL 은 트랜잭션 안에서만 fetch size 로 나눠 읽는다
+        tx.executeWithoutResult(status ->
+                streamingJdbc.query("""
+                                SELECT c.repo_id, c.month_start, c.sample_count, c.samples, g.created_at, g.language
+                                FROM star_history_chunks c
+                                JOIN git_repositories g ON g.id = c.repo_id
+                                WHERE c.month_start >= ?
+                                ORDER BY c.repo_id, c.month_start
+                                """,
+                        rs -> {
+                            long repoId = rs.getLong(1);
+                            if (repoId != currentRepo[0]) {
+                                h.endRepo();
+                                OffsetDateTime created = rs.getObject(5, OffsetDateTime.class);
+                                h.startRepo(repoId, created == null ? NO_CREATED : created.toEpochSecond(), rs.getString(6));
+                                currentRepo[0] = repoId;
+                            }
+                            StarHistoryCodec.Samples samples = StarHistoryCodec.decode(
+                                    rs.getDate(2).toLocalDate(), rs.getBytes(4), rs.getInt(3));
+                            for (int i = 0; i < samples.size(); i++) {
+                                long t = samples.ts()[i];
+                                if (t >= fromSec && t <= toSec) h.addSample(t, samples.stars()[i]);
+                            }
+                        },
+                        fromMonth));
+        h.endRepo();
+        return h;
+    }
+
+    // 같은 기간에 실제로 승급된 리포
+    private long[] loadCandidates(long fromSec) {
+        long[] ids = jdbc.queryForList("SELECT DISTINCT repo_id FROM trending_candidates WHERE promoted_at >= ?",
+                        Long.class, OffsetDateTime.ofInstant(Instant.ofEpochSecond(fromSec), ZoneOffset.UTC)).stream()
+                .mapToLong(Long::longValue)
+                .toArray();
+        Arrays.sort(ids);
+        return ids;
+    }
+
+    // ──────────────────────────────────────────────────────────────
+    //  평가 시각별 스타 수 (파라미터와 무관, 한 번만)
+    // ──────────────────────────────────────────────────────────────
+
+    /**
+     * 리포 r 은 평가 firstEval[r] 부터 관측. 그 뒤 평가 j 의 값은 cells[base[r] + j - firstEval[r]]
+     * (-1 = 직전 평가 이후 새 샘플 없음 → 평가 안 함). peakEval[r] = 평가 구간 증가량이 가장 컸던 평가 (-1 = 없음)
+     */
+    static final class Series {
+        int evals;
+        long step;
+        int[] firstEval;
+        int[] base;
+        int[] cells;
+        int[] peakEval;
+
+        long evalTs(long fromSec, int j) {
+            return fromSec + (j + 1) * step;
+        }
+    }
+
+    private Series series(History h, long step) {
+        Series s = new Series();
+        s.step = step;
+        s.evals = (int) ((h.toSec - h.fromSec) / step);
+        s.firstEval = new int[h.repos];
+        s.base = new int[h.repos + 1];
+        s.peakEval = new int[h.repos];
+
+        long total = 0;
+        for (int r = 0; r < h.repos; r++) {
+            // 첫 샘플 이후 첫 평가: fromSec + (j+1)*step >= 첫 샘플 시각
+            int first = (int) Math.max(0, (h.ts[h.offsets[r]] + step - 1) / step - 1);
+            s.firstEval[r] = first;
+            total += Math.max(0, s.evals - first);
+            if (total > Integer.MAX_VALUE - 8) {
+                throw new CustomException(ErrorCode.INVALID_REQUEST,
+                        "too many evaluations for " + h.repos + " repositories; use a larger evalIntervalHours or fewer days");
+            }
+            s.base[r + 1] = (int) total;
+        }
+        s.cells = new int[s.base[h.repos]];
+
+        int chunks = (h.repos + CHUNK - 1) / CHUNK;
+        inPool(() -> IntStream.range(0, chunks).parallel().forEach(c -> {
+            int to = Math.min(h.repos, (c + 1) * CHUNK);
+            for (int r = c * CHUNK; r < to; r++) fillSeries(h, s, r);
+        }));
+        return s;
+    }
+
+    private static void fillSeries(History h, Series s, int r) {
+        int p = h.offsets[r];
+        int end = h.offsets[r + 1];
+        int cell = s.base[r];
+        int prev = -1;
+        int bestGain = Integer.MIN_VALUE;
+        int peak = -1;
+        for (int j = s.firstEval[r]; j < s.evals; j++, cell++) {
+            long evalRel = (j + 1) * s.step;
+            boolean fresh = false;
+            while (p < end && h.ts[p] <= evalRel) {
+                p++;
+                fresh = true;
+            }
+            if (!fresh || p == h.offsets[r]) {
+                s.cells[cell] = -1;
+                continue;
+            }
+            int v = h.stars[p - 1];
+            s.cells[cell] = v;
+            if (prev >= 0 && v - prev > bestGain) {
+                bestGain = v - prev;
+                peak = j;
+            }
+            prev = v;
+        }
+        s.peakEval[r] = bestGain > 0 ? peak : -1;
+    }
+
+    // ──────────────────────────────────────────────────────────────
+    //  재생 (파라미터 조합 × 리포 청크)
+    // ──────────────────────────────────────────────────────────────
+
+    /*
+     * [조합] → 언어별 임계치 [언어 인덱스 + 1] (0 = 언어 없음 → 전체 컷오프), 고정 임계치로 재생하는 조합은 null.
+     * percentile 모드에서 기준 조합과, threshold 축을 안 줬으면 나머지 조합도 크롤이 지금 쓰는 컷오프로
+     */
+    private double[][] cutoffs(History h, List<TrendScoring.Params> grid, boolean noThresholdAxis) {
+        double[][] byGrid = new double[grid.size()][];
+        if (!thresholds.percentileMode()) return byGrid;
+
+        double[] live = new double[h.languages.size() + 1];
+        live[0] = thresholds.threshold(null);
+        for (int l = 0; l < h.languages.size(); l++) {
+            live[l + 1] = thresholds.threshold(h.languages.get(l));
+        }
+        for (int g = 0; g < grid.size(); g++) {
+            if (g == 0 || noThresholdAxis) byGrid[g] = live;
+        }
+        return byGrid;
+    }
+
+    /**
+     * [조합][리포] = stage 2 가 된 평가 번호, 안 되면 -1
+     */
+    private int[][] replay(History h, Series s, List<TrendScoring.Params> grid, double[][] cutoffs) {
+        int[][] promotedAt = new int[grid.size()][h.repos];
+        int chunks = Math.max(1, (h.repos + CHUNK - 1) / CHUNK);
+        inPool(() -> IntStream.range(0, grid.size() * chunks).parallel().forEach(task -> {
+            int g = task / chunks;
+            int from = (task % chunks) * CHUNK;
+            int to = Math.min(h.repos, from + CHUNK);
+            TrendScoring.Params p = grid.get(g);
+            double[] byLanguage = cutoffs[g];
+            for (int r = from; r < to; r++) {
+                double threshold = byLanguage == null ? p.threshold() : byLanguage[h.language[r] + 1];
+                promotedAt[g][r] = replayRepo(h, s, r, p, threshold);
+            }
+        }));
+        return promotedAt;
+    }
+
+    private static int replayRepo(History h, Series s, int r, TrendScoring.Params p, double threshold) {
+        long created = h.createdSec[r];
+        int stage = 0;
+        int prev = -1;
+        int cell = s.base[r];
+        for (int j = s.firstEval[r]; j < s.evals; j++, cell++) {
+            int v = s.cells[cell];
+            if (v < 0) continue;
+            if (prev < 0) {
+                // 최초 수집: prevStars = 현재, stage 0
+                prev = v;
+                continue;
+            }
+            double growth = prev <= 0 ? 0.0 : (double) (v - prev) / prev;
+            long ageDays = created == NO_CREATED ? -1 : Math.max(0, (s.evalTs(h.fromSec, j) - created) / DAY);
+            double score = TrendScoring.score(growth, ageDays, p);
+            int next = TrendScoring.nextStage(stage, score, threshold);
+            if (next == 2) return j;
+            stage = next;
+            prev = v;
+        }
+        return -1;
+    }
+
+    private List<ParamResult> summarize(History h, Series s, List<TrendScoring.Params> grid, double[][] cutoffs,
+                                        int[][] promotedAt, long[] candidates) {
+        int[] baseline = promotedAt[0];
+        int baselineCount = count(baseline);
+        List<ParamResult> results = new ArrayList<>(grid.size());
+        for (int g = 0; g < grid.size(); g++) {
+            int[] promoted = promotedAt[g];
+            int promotions = 0;
+            int both = 0;
+            int overlapCandidates = 0;
+            double[] leads = new double[h.repos];
+            int withPeak = 0;
+            int beforePeak = 0;
+            for (int r = 0; r < h.repos; r++) {
+                if (promoted[r] < 0) continue;
+                promotions++;
+                if (baseline[r] >= 0) both++;
+                if (Arrays.binarySearch(candidates, h.ids[r]) >= 0) overlapCandidates++;
+                if (s.peakEval[r] >= 0) {
+                    double lead = (s.peakEval[r] - promoted[r]) * s.step / (double) DAY;
+                    leads[withPeak++] = lead;
+                    if (lead >= 0) beforePeak++;
+                }
+            }
+            int union = promotions + baselineCount - both;
+            Double median = null;
+            Double mean = null;
+            if (withPeak > 0) {
+                double[] sorted = Arrays.copyOf(leads, withPeak);
+                Arrays.sort(sorted);
+                median = sorted[withPeak / 2];
+                mean = Arrays.stream(sorted).average().orElse(0);
+            }
+            TrendScoring.Params p = grid.get(g);
+            results.add(new ParamResult(p.growthK(), p.ageHalfLifeDays(), p.threshold(), cutoffs[g] != null, g == 0,
+                    promotions, median, mean, withPeak == 0 ? null : (double) beforePeak / withPeak,
+                    union == 0 ? 1.0 : (double) both / union, overlapCandidates));
+        }
+        return results;
+    }
+
+    private static int count(int[] promoted) {
+        int n = 0;
+        for (int v : promoted) if (v >= 0) n++;
+        return n;
+    }
+
+    // 병렬 스트림을 전용 풀에서 돌린다 (공용 풀을 크롤/재채점과 나눠 쓰지 않게)
+    private void inPool(Runnable work) {
+        try {
+            pool.submit(work).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("backtest interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("backtest failed", e.getCause());
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.trendfeed.backend.service;
+
+import com.trendfeed.backend.entity.GitHubEntity;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+/**
+ * 채점 배치 하나의 입력 (행 i 의 값이 각 배열 i 번째, 평가 직전 상태).
+ * 한 번 만들어서 기본 채점기와 섀도 채점기가 같이 읽는다.
+ */
+public final class TrendBatch {
+
+    public static final long UNKNOWN = Long.MIN_VALUE;
+
+    private final int size;
+    private final long nowSec;
+    final long[] ids;
+    final int[] stars;
+    final int[] prevStars;
+    final long[] createdEpochSec;       // UNKNOWN: 생성일 모름
+    final long[] lastCheckedEpochSec;   // UNKNOWN: 평가된 적 없음
+    final byte[] stage;
+
+    private TrendBatch(int size, long nowSec) {
+        this.size = size;
+        this.nowSec = nowSec;
+        this.ids = new long[size];
+        this.stars = new int[size];
+        this.prevStars = new int[size];
+        this.createdEpochSec = new long[size];
+        this.lastCheckedEpochSec = new long[size];
+        this.stage = new byte[size];
+    }
+
+    public static TrendBatch of(List<GitHubEntity> entities, OffsetDateTime now) {
+        TrendBatch b = new TrendBatch(entities.size(), now.toEpochSecond());
+        for (int i = 0; i < b.size; i++) {
+            GitHubEntity e = entities.get(i);
+            b.ids[i] = e.getId();
+            b.stars[i] = e.getStargazersCount() == null ? 0 : e.getStargazersCount();
+            b.prevStars[i] = e.getPreviousStars() == null ? 0 : e.getPreviousStars();
+            b.createdEpochSec[i] = e.getCreatedAt() == null ? UNKNOWN : e.getCreatedAt().toEpochSecond();
+            b.lastCheckedEpochSec[i] = e.getLastCheckedAt() == null ? UNKNOWN : e.getLastCheckedAt().toEpochSecond();
+            b.stage[i] = (byte) (e.getTrendStage() == null ? 0 : e.getTrendStage());
+        }
+        return b;
+    }
+
+    public int size() { return size; }
+    public long id(int i) { return ids[i]; }
+    public int stars(int i) { return stars[i]; }
+    public int prevStars(int i) { return prevStars[i]; }
+    public int stage(int i) { return stage[i]; }
+
+    /**
+     * (curr - prev) / prev, prev<=0 이면 0
+     */
+    public double growthRate(int i) {
+        int prev = prevStars[i];
+        return prev <= 0 ? 0.0 : (double) (stars[i] - prev) / (double) prev;
+    }
+
+    /**
+     * 생성 후 경과 일수, 모르면 -1
+     */
+    public long ageDays(int i) {
+        long created = createdEpochSec[i];
+        return created == UNKNOWN ? -1 : Math.max(0, (nowSec - created) / 86_400);
+    }
+
+    /**
+     * 직전 평가 이후 경과 일수 (prevStars 가 관측된 뒤), 모르면 -1
+     */
+    public double elapsedDays(int i) {
+        long last = lastCheckedEpochSec[i];
+        return last == UNKNOWN ? -1 : Math.max(0, nowSec - last) / 86_400.0;
+    }
+
+    /**
+     * 직전 평가 이후 하루 평균 스타 증가 (간격은 최소 1시간으로 본다), 처음 평가면 0
+     */
+    public double starsPerDay(int i) {
+        double days = elapsedDays(i);
+        return days < 0 ? 0.0 : (stars[i] - prevStars[i]) / Math.max(days, 1.0 / 24);
+    }
+}
@@ -0,0 +1,297 @@
+package com.trendfeed.backend.service;
+
+import com.trendfeed.backend.entity.TrendingCandidateEntity;
+import com.trendfeed.backend.repository.TrendingCandidateRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+/**
+ * GitHub 호출 없이 git_repositories 전체 점수/stage 를 다시 계산.
+ * trend.* 파라미터를 바꾼 뒤 재수집 대신 쓴다.
+ *
+ *  1. 점수 입력(id, growth_rate, created_at, base_stage, trend_stage, trend_score, language)을 원시 배열로 스트리밍 로드
+ *  2. CHUNK 개씩 나눠 병렬로 점수/stage 계산 (TrendScoring, 크롤 평가와 같은 공식)
+ *  3. 점수나 stage 가 바뀐 행만 WRITE_BATCH 개씩 JDBC batch UPDATE, 새로 stage 2 가 된 리포는 후보로 승격
+ *     (content_hash 는 NULL 로 → 다음 크롤 upsert 가 내용 비교로 건너뛰지 않고 다시 씀)
+ *
+ * previous_stars 는 크롤 평가 때 현재 스타 수로 넘어가므로, 성장률은 마지막 크롤이 관측한 growth_rate 를 쓴다.
+ * stage 는 새 관측을 하나 더하는 게 아니라 마지막 평가를 다시 하는 것이라 base_stage(평가 직전 stage)에서 전이한다.
+ * 임계치는 크롤 평가와 같게 PromotionThresholds 에서 (percentile 모드면 언어별 컷오프, 언어가 없으면 전체 컷오프).
+ * percentile 모드에서는 threshold 를 따로 줄 수 없다 (rescoreAll(params) 의 threshold 는 fixed 모드에서만 씀).
+ */
+@Service
+public class TrendRescoreEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(TrendRescoreEngine.class);
+
+    private static final int CHUNK = 16_384;
+    private static final int WRITE_BATCH = 1_000;
+    private static final int FETCH_SIZE = 10_000;
+    private static final long NO_CREATED = Long.MIN_VALUE;
+    private static final double SCORE_EPSILON = 1e-9;
+
+    private final JdbcTemplate jdbc;
+    private final JdbcTemplate streamingJdbc;   // 전체 로드용 (fetch size 지정)
+    private final TransactionTemplate tx;
+    private final TrendingCandidateRepository candRepo;
+    private final TrendScorers scorers;
+    private final PromotionThresholds thresholds;
+
+    @Value("${trend.weight.growth:1.0}")
+    private double growthWeight;
+
+    @Value("${trend.weight.penalty:1.0}")
+    private double penaltyWeight;
+
+    @Value("${trend.age.half-life-days:720}")
+    private double ageHalfLifeDays;
+
+    @Value("${trend.threshold:20}")
+    private double trendThreshold;
+
+    @Value("${trend.growth.k:3.0}")
+    private double growthK;
+
+    public TrendRescoreEngine(JdbcTemplate jdbc,
+                              PlatformTransactionManager transactionManager,
+                              TrendingCandidateRepository candRepo,
+                              TrendScorers scorers,
+                              PromotionThresholds thresholds) {
+        this.jdbc = jdbc;
+        this.streamingJdbc = new JdbcTemplate(jdbc.getDataSource());
+        this.streamingJdbc.setFetchSize(FETCH_SIZE);
+        this.tx = new TransactionTemplate(transactionManager);
+        this.candRepo = candRepo;
+        this.scorers = scorers;
+        this.thresholds = thresholds;
+    }
+
+    public record RescoreResult(int total, int changed, int promoted, long loadMillis, long scoreMillis, long writeMillis) {}
+
+    /**
+     * 점수 입력 (행 i 의 값이 각 배열 i 번째). 크롤 재채점 외에 다른 채점기도 같은 배열을 쓴다
+     */
+    public static final class ScoringInputs {
+        long[] ids;
+        double[] growth;
+        long[] createdEpochSec;     // NO_CREATED: 생성일 모름
+        byte[] baseStage;
+        byte[] stage;
+        double[] score;
+        int[] language;             // languages 의 인덱스, -1: 언어 없음
+        final List<String> languages = new ArrayList<>();
+        private final Map<String, Integer> languageIndex = new HashMap<>();
+        int size;
+
+        ScoringInputs(int capacity) {
+            ids = new long[capacity];
+            growth = new double[capacity];
+            createdEpochSec = new long[capacity];
+            baseStage = new byte[capacity];
+            stage = new byte[capacity];
+            score = new double[capacity];
+            language = new int[capacity];
+        }
+
+        void add(long id, double g, long created, int base, int st, double sc, String lang) {
+            if (size == ids.length) {
+                int cap = size * 2;
+                ids = Arrays.copyOf(ids, cap);
+                growth = Arrays.copyOf(growth, cap);
+                createdEpochSec = Arrays.copyOf(createdEpochSec, cap);
+                baseStage = Arrays.copyOf(baseStage, cap);
+                stage = Arrays.copyOf(stage, cap);
+                score = Arrays.copyOf(score, cap);
+                language = Arrays.copyOf(language, cap);
+            }
+            ids[size] = id;
+            growth[size] = g;
+            createdEpochSec[size] = created;
+            baseStage[size] = (byte) base;
+            stage[size] = (byte) st;
+            score[size] = sc;
+            language[size] = lang == null ? -1 : languageIndex.computeIfAbsent(lang, l -> {
+                languages.add(l);
+                return languages.size() - 1;
+            });
+            size++;
+        }
+
+        public int size() { return size; }
+    }
+
+    public TrendScoring.Params configuredParams() {
+        return new TrendScoring.Params(growthK, ageHalfLifeDays, growthWeight, penaltyWeight, trendThreshold);
+    }
+
+    public RescoreResult rescoreAll() {
+        return rescoreAll(configuredParams());
+    }
+
+    public RescoreResult rescoreAll(TrendScoring.Params params) {
+        // 저장된 growth_rate 만으로 다시 계산할 수 있는 건 exp-decay 공식뿐
+        if (!ExpDecayTrendScorer.NAME.equals(scorers.primaryName())) {
+            throw new IllegalStateException("rescore supports only the " + ExpDecayTrendScorer.NAME
+                    + " scorer (trend.scorer=" + scorers.primaryName() + ")");
+        }
+        long t0 = System.nanoTime();
+        ScoringInputs in = load();
+        long t1 = System.nanoTime();
+
+        long nowSec = OffsetDateTime.now(ZoneOffset.UTC).toEpochSecond();
+        double[] newScore = new double[in.size];
+        byte[] newStage = new byte[in.size];
+        int changed = score(in, params, cutoffs(in, params), nowSec, newScore, newStage);
+        long t2 = System.nanoTime();
+
+        int promoted = writeBack(in, newScore, newStage);
+        long t3 = System.nanoTime();
+
+        RescoreResult result = new RescoreResult(in.size, changed, promoted,
+                (t1 - t0) / 1_000_000, (t2 - t1) / 1_000_000, (t3 - t2) / 1_000_000);
+        log.info("trend rescore: {}", result);
+        return result;
+    }
+
+    /**
+     * 점수 입력 전체 로드 (커서로 FETCH_SIZE 행씩 스트리밍)
+     */
+    public ScoringInputs load() {
+        Integer count = jdbc.queryForObject("SELECT count(*) FROM git_repositories", Integer.class);
+        ScoringInputs in = new ScoringInputs(Math.max(16, count == null ? 0 : count));
+
+        // PostgreSQL 은 트랜잭션 안에서만 fetch size 로 나눠 읽는다
+        tx.executeWithoutResult(status ->
+                streamingJdbc.query("SELECT id, growth_rate, created_at, base_stage, trend_stage, trend_score, language FROM git_repositories",
+                        rs -> {
+                            Timestamp created = rs.getTimestamp(3);
+                            int stage = rs.getInt(5);
+                            int base = rs.getObject(4) == null ? inferBaseStage(stage) : rs.getInt(4);
+                            in.add(rs.getLong(1), rs.getDouble(2),
+                                    created == null ? NO_CREATED : created.toInstant().getEpochSecond(),
+                                    base, stage, rs.getDouble(6), rs.getString(7));
+                        }));
+        return in;
+    }
+
+    // base_stage 가 없는 예전 행: stage 1 이면 0 에서 올라온 것, 0 은 0 으로 간주, 2 는 유지
+    private static int inferBaseStage(int stage) {
+        return stage == 1 ? 0 : stage;
+    }
+
+    /*
+     * 언어별 임계치 [언어 인덱스 + 1] (0 = 언어 없음 → 전체 컷오프). fixed 모드면 모두 params.threshold
+     */
+    private double[] cutoffs(ScoringInputs in, TrendScoring.Params p) {
+        double[] cutoffs = new double[in.languages.size() + 1];
+        if (!thresholds.percentileMode()) {
+            Arrays.fill(cutoffs, p.threshold());
+            return cutoffs;
+        }
+        // 크롤이 지금 쓰는 컷오프 그대로 (여기서 다시 계산하면 진행 중인 실행의 컷오프가 바뀐다)
+        cutoffs[0] = thresholds.threshold(null);
+        for (int l = 0; l < in.languages.size(); l++) {
+            cutoffs[l + 1] = thresholds.threshold(in.languages.get(l));
+        }
+        return cutoffs;
+    }
+
+    /*
+     * 청크 단위 병렬 계산. 바뀐 행 수 반환
+     */
+    private static int score(ScoringInputs in, TrendScoring.Params p, double[] cutoffs, long nowSec,
+                             double[] newScore, byte[] newStage) {
+        int chunks = (in.size + CHUNK - 1) / CHUNK;
+        AtomicInteger changed = new AtomicInteger();
+        IntStream.range(0, chunks).parallel().forEach(c -> {
+            int from = c * CHUNK;
+            int to = Math.min(in.size, from + CHUNK);
+            int n = 0;
+            for (int i = from; i < to; i++) {
+                long created = in.createdEpochSec[i];
+                long ageDays = created == NO_CREATED ? -1 : Math.max(0, (nowSec - created) / 86_400);
+                double s = TrendScoring.score(in.growth[i], ageDays, p);
+
+                int stage = in.stage[i] == 2 ? 2 : TrendScoring.nextStage(in.baseStage[i], s, cutoffs[in.language[i] + 1]);
+                newScore[i] = s;
+                newStage[i] = (byte) stage;
+                if (stage != in.stage[i] || Math.abs(s - in.score[i]) > SCORE_EPSILON) n++;
+            }
+            changed.addAndGet(n);
+        });
+        return changed.get();
+    }
+
+    /*
+     * 바뀐 행만 WRITE_BATCH 개씩 UPDATE (배치마다 트랜잭션 하나). 새로 승격된 수 반환
+     */
+    private int writeBack(ScoringInputs in, double[] newScore, byte[] newStage) {
+        List<Object[]> batch = new ArrayList<>(WRITE_BATCH);
+        List<Long> promoted = new ArrayList<>();
+        int promotedTotal = 0;
+
+        for (int i = 0; i < in.size; i++) {
+            if (newStage[i] == in.stage[i] && Math.abs(newScore[i] - in.score[i]) <= SCORE_EPSILON) continue;
+
+            batch.add(new Object[]{newScore[i], (int) newStage[i], in.ids[i]});
+            if (in.stage[i] < 2 && newStage[i] == 2) promoted.add(in.ids[i]);
+
+            if (batch.size() == WRITE_BATCH) {
+                promotedTotal += flush(batch, promoted);
+                batch.clear();
+                promoted.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            promotedTotal += flush(batch, promoted);
+        }
+        return promotedTotal;
+    }
+
+    private int flush(List<Object[]> batch, List<Long> promoted) {
+        Integer n = tx.execute(status -> {
+            // 평가 구간(last_checked_at / previous_stars)은 크롤 관측이라 건드리지 않는다
+            jdbc.batchUpdate("UPDATE git_repositories SET trend_score = ?, trend_stage = ?, content_hash = NULL WHERE id = ?",
+                    batch);
+            return promote(promoted);
+        });
+        return n == null ? 0 : n;
+    }
+
+    private int promote(List<Long> repoIds) {
+        if (repoIds.isEmpty()) return 0;
+
+        Set<Long> already = new HashSet<>(candRepo.findRepoIdsByRepoIdIn(repoIds));
+        String placeholders = String.join(", ", Collections.nCopies(repoIds.size(), "?"));
+        List<TrendingCandidateEntity> fresh = new ArrayList<>();
+        jdbc.query("SELECT id, full_name FROM git_repositories WHERE id IN (" + placeholders + ")",
+                rs -> {
+                    long id = rs.getLong(1);
+                    if (already.add(id)) {
+                        fresh.add(new TrendingCandidateEntity(id, rs.getString(2)));
+                    }
+                },
+                repoIds.toArray());
+        candRepo.saveAll(fresh);
+        return fresh.size();
+    }
+}
@@ -0,0 +1,20 @@
+package com.trendfeed.backend.service;
+
+/**
+ * 트렌드 채점기. 배치 전체를 한 번에 채점한다 (0~100, stage 전이는 TrendScoring.nextStage).
+ *
+ * trend.scorer 로 고른 채점기 하나가 점수/승급을 결정하고,
+ * trend.shadow-scorers 에 있는 채점기는 같은 배치를 채점해 trend_shadow_scores 에만 기록한다 (TrendScorers).
+ */
+public interface TrendScorer {
+
+    /**
+     * 설정에서 고를 때 쓰는 이름
+     */
+    String name();
+
+    /**
+     * out[i] = batch 의 i 번째 리포 점수
+     */
+    void score(TrendBatch batch, double[] out);
+}
@@ -0,0 +1,146 @@
+package com.trendfeed.backend.service;
+
+import com.trendfeed.backend.repository.TrendShadowWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 기본 채점기 / 섀도 채점기 선택과 실행.
+ *
+ *  - trend.scorer         : 점수/승급을 결정하는 채점기 (기본 exp-decay)
+ *  - trend.shadow-scorers : 같은 배치를 추가로 채점해 trend_shadow_scores 에만 남길 채점기 (콤마 구분)
+ *
+ * 섀도 채점은 실패해도 경고만 남기고 기본 채점/승급에 영향을 주지 않는다.
+ * 채점은 저장 트랜잭션 안에서 하지만 trend_shadow_scores 기록은 커밋 뒤 별도 트랜잭션에서 한다
+ * (SQL 오류가 PostgreSQL 트랜잭션을 중단시켜 배치 저장까지 잃지 않게, 롤백된 배치는 기록하지 않음).
+ * 채점 시간과 (가상) 승급 수는 trend.scorer.* 지표로도 남긴다 (GitHubCrawlMetrics).
+ */
+@Component
+public class TrendScorers {
+
+    private static final Logger log = LoggerFactory.getLogger(TrendScorers.class);
+
+    private final TrendScorer primary;
+    private final List<TrendScorer> shadows;
+    private final TrendShadowWriter shadowWriter;
+    private final GitHubCrawlMetrics metrics;
+    private final TransactionTemplate shadowTx;
+
+    public TrendScorers(List<TrendScorer> scorers,
+                        @Value("${trend.scorer:" + ExpDecayTrendScorer.NAME + "}") String primaryName,
+                        @Value("${trend.shadow-scorers:}") List<String> shadowNames,
+                        TrendShadowWriter shadowWriter,
+                        GitHubCrawlMetrics metrics,
+                        PlatformTransactionManager transactionManager) {
+        Map<String, TrendScorer> byName = scorers.stream()
+                .collect(Collectors.toMap(TrendScorer::name, Function.identity()));
+
+        this.primary = byName.get(primaryName.trim());
+        if (this.primary == null) {
+            throw new IllegalStateException("unknown trend.scorer: " + primaryName + " (available: " + byName.keySet() + ")");
+        }
+
+        this.shadows = new ArrayList<>();
+        for (String name : shadowNames) {
+            if (name.isBlank() || name.trim().equals(primary.name())) continue;
+            TrendScorer s = byName.get(name.trim());
+            if (s == null) {
+                throw new IllegalStateException("unknown trend.shadow-scorers entry: " + name + " (available: " + byName.keySet() + ")");
+            }
+            shadows.add(s);
+        }
+        this.shadowWriter = shadowWriter;
+        this.metrics = metrics;
+        this.shadowTx = new TransactionTemplate(transactionManager);
+        this.shadowTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * 기본 채점기 점수
+     */
+    public double[] scorePrimary(TrendBatch batch) {
+        double[] out = new double[batch.size()];
+        long t0 = System.nanoTime();
+        primary.score(batch, out);
+        metrics.scorerRun(primary.name(), "primary", System.nanoTime() - t0, batch.size());
+        return out;
+    }
+
+    public void primaryPromoted(int promoted) {
+        metrics.scorerPromotions(primary.name(), "primary", promoted);
+    }
+
+    /**
+     * 섀도 채점기들로 같은 배치를 채점해 기본 결과와 함께 기록.
+     * cutoffs 는 기본 채점기가 행마다 쓴 승급 임계치 (PromotionThresholds, percentile 모드면 언어별) → 승급률을 같은 기준으로 비교.
+     * 호출 측 트랜잭션이 있으면 커밋된 뒤에 기록한다
+     */
+    public void runShadows(TrendBatch batch, double[] cutoffs, double[] primaryScores, int[] primaryStages) {
+        if (shadows.isEmpty() || batch.size() == 0) return;
+
+        OffsetDateTime now = OffsetDateTime.now();
+        List<Runnable> writes = new ArrayList<>(shadows.size());
+        for (TrendScorer scorer : shadows) {
+            try {
+                double[] scores = new double[batch.size()];
+                long t0 = System.nanoTime();
+                scorer.score(batch, scores);
+                long elapsed = System.nanoTime() - t0;
+
+                int[] stages = new int[batch.size()];
+                int promoted = 0;
+                for (int i = 0; i < batch.size(); i++) {
+                    stages[i] = TrendScoring.nextStage(batch.stage(i), scores[i], cutoffs[i]);
+                    if (batch.stage(i) < 2 && stages[i] == 2) promoted++;
+                }
+
+                metrics.scorerRun(scorer.name(), "shadow", elapsed, batch.size());
+                metrics.scorerPromotions(scorer.name(), "shadow", promoted);
+                long[] ids = batch.ids;
+                writes.add(() -> shadowWriter.insertAll(scorer.name(), ids, scores, stages, primaryScores, primaryStages,
+                        elapsed / batch.size(), now));
+            } catch (RuntimeException ex) {
+                log.warn("shadow scorer {} failed: {}", scorer.name(), ex.toString());
+            }
+        }
+        if (writes.isEmpty()) return;
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    writeShadows(writes);
+                }
+            });
+        } else {
+            writeShadows(writes);
+        }
+    }
+
+    // afterCommit 시점의 연결은 이미 커밋된 트랜잭션에 묶여 있어 REQUIRES_NEW 로 따로 커밋
+    private void writeShadows(List<Runnable> writes) {
+        try {
+            shadowTx.executeWithoutResult(status -> writes.forEach(Runnable::run));
+        } catch (RuntimeException ex) {
+            log.warn("could not save shadow scores ({})", ex.toString());
+        }
+    }
+
+    public String primaryName() {
+        return primary.name();
+    }
+}
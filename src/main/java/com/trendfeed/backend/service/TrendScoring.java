@@ -0,0 +1,61 @@
+package com.trendfeed.backend.service;
+
+/**
+ * 트렌드 점수 / stage 전이 공식. 크롤 시 평가(GitHubService)와 전체 재채점(TrendRescoreEngine)이 같이 쓴다.
+ *
+ *   growthNorm = 1 - exp(-k * growthRate)          (growthRate <= 0 이면 0)
+ *   agePenalty = 0.5^(ageDays / halfLifeDays)
+ *   score      = clamp01(growthNorm * agePenalty * growthWeight * penaltyWeight) * 100
+ *
+ * stage 0/1 은 score >= threshold 면 +1 (최대 2), 1 에서 미달이면 0. stage 2 는 그대로.
+ */
+public final class TrendScoring {
+
+    private TrendScoring() {}
+
+    /**
+     * 점수 파라미터 (trend.* 설정값)
+     */
+    public record Params(double growthK, double ageHalfLifeDays,
+                         double growthWeight, double penaltyWeight,
+                         double threshold) {}
+
+    /**
+     * 0~100 점수. ageDays < 0 이면 나이 감쇠 없음 (생성일 모름)
+     */
+    public static double score(double growthRate, long ageDays, Params p) {
+        double growthNorm = 0.0;
+        if (growthRate > 0.0) {
+            growthNorm = clamp01(1.0 - Math.exp(-p.growthK() * growthRate));
+        }
+
+        double agePenaltyFactor = 1.0;
+        if (ageDays >= 0 && p.ageHalfLifeDays() > 0) {
+            // half-life 마다 절반
+            agePenaltyFactor = clamp01(Math.pow(0.5, ageDays / p.ageHalfLifeDays()));
+        }
+
+        double score01 = clamp01(growthNorm * agePenaltyFactor * p.growthWeight() * p.penaltyWeight());
+        return score01 * 100.0;
+    }
+
+    /**
+     * 평가 직전 stage 와 점수로 새 stage
+     */
+    public static int nextStage(int oldStage, double score100, double threshold) {
+        if (oldStage == 0 || oldStage == 1) {
+            if (score100 >= threshold) {
+                return Math.min(2, oldStage + 1);     // 승급
+            }
+            if (oldStage == 1) {
+                return 0;                             // 강등
+            }
+        }
+        return oldStage;
+    }
+
+    private static double clamp01(double v) {
+        if (v < 0.0) return 0.0;
+        return Math.min(v, 1.0);
+    }
+}
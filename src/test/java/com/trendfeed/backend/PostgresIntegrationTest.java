@@ -0,0 +1,45 @@
+package com.trendfeed.backend;
+
+import com.google.firebase.FirebaseApp;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * Postgres 가 필요한 테스트의 공통 설정 (Testcontainers, Docker 없으면 건너뜀).
+ *
+ * 컨테이너는 JVM 하나에 하나만 띄워서 하위 클래스들이 같은 스프링 컨텍스트(캐시)를 쓴다.
+ * 스케줄/재수집 워커는 끄고 GitHub 는 닿지 않는 주소로 둔다 → 테스트가 직접 부른 것만 DB 에 쓴다.
+ * 테이블은 ddl-auto=update 로 만들어지고 테스트끼리 공유되므로, 각 테스트는 자기가 만든 행만 본다.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+public abstract class PostgresIntegrationTest {
+
+    @ServiceConnection
+    protected static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16");
+
+    static {
+        POSTGRES.start();
+    }
+
+    @MockitoBean
+    protected FirebaseApp firebaseApp;
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("github.api.url", () -> "http://127.0.0.1:9");
+        registry.add("github.token", () -> "");
+        registry.add("github.tokens", () -> "");
+        registry.add("crawler.cron", () -> "-");               // 스케줄 실행 끔
+        registry.add("recrawl.enabled", () -> "false");       // 기한 기반 재수집 워커 끔
+        registry.add("readme.fetch.sweep-ms", () -> "86400000");
+        registry.add("firebase.config-path", () -> "unused");
+        registry.add("spring.mail.host", () -> "localhost");
+        registry.add("logging.level.org.springframework.web", () -> "INFO");
+    }
+}
@@ -0,0 +1,283 @@
+package com.trendfeed.backend.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 네트워크 없이 ExchangeFunction 대역으로 필터의 토큰 선택과 쿼터 추적을 본다
+ */
+class GitHubRateLimitFilterTest {
+
+    private static final URI REPO = URI.create("https://api.github.com/repos/octo/alpha");
+    private static final URI SEARCH = URI.create("https://api.github.com/search/repositories?q=stars:%3E%3D1000");
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final List<String> usedTokens = new ArrayList<>();
+
+    @Test
+    void rotatesTokensRoundRobin() {
+        GitHubRateLimitFilter filter = filter(List.of("a", "b", "c"), 3);
+        ExchangeFunction next = respond(token -> ok(5000, 4000));
+
+        for (int i = 0; i < 6; i++) call(filter, next, REPO);
+
+        assertEquals(List.of("a", "b", "c", "a", "b", "c"), usedTokens);
+    }
+
+    @Test
+    void skipsATokenAtItsReserveUntilReset() {
+        GitHubRateLimitFilter filter = filter(List.of("a", "b"), 3);
+        // a 는 남은 10 ≤ reserve 50 → reset 까지 쉰다
+        ExchangeFunction next = respond(token -> "a".equals(token) ? ok(5000, 10) : ok(5000, 4000));
+
+        for (int i = 0; i < 4; i++) call(filter, next, REPO);
+
+        assertEquals(List.of("a", "b", "b", "b"), usedTokens);
+    }
+
+    @Test
+    void tracksQuotaPerResource() {
+        GitHubRateLimitFilter filter = filter(List.of("a"), 3);
+
+        call(filter, respond(token -> ok(5000, 4321)), REPO);
+        call(filter, respond(token -> ok(30, 29)), SEARCH);
+
+        assertEquals(4321, quota(filter, "core").getRemaining());
+        assertEquals(29, quota(filter, "search").getRemaining());
+        assertEquals(5000, quota(filter, "core").getLimit());
+    }
+
+    @Test
+    void rateLimitedResponseIsRetriedWithAnotherToken() {
+        GitHubRateLimitFilter filter = filter(List.of("a", "b"), 3);
+        ExchangeFunction next = respond(token -> "a".equals(token)
+                ? ClientResponse.create(HttpStatus.FORBIDDEN)
+                        .header("X-RateLimit-Limit", "5000")
+                        .header("X-RateLimit-Remaining", "0")
+                        .header("X-RateLimit-Reset", Long.toString(resetIn(Duration.ofMinutes(30))))
+                        .build()
+                : ok(5000, 4000));
+
+        ClientResponse response = call(filter, next, REPO);
+
+        assertEquals(200, response.statusCode().value());
+        assertEquals(List.of("a", "b"), usedTokens);
+        assertEquals(1.0, registry.get("github.api.responses").tag("endpoint", "repo").tag("status", "403").counter().count());
+        assertEquals(1.0, registry.get("github.api.responses").tag("endpoint", "repo").tag("status", "200").counter().count());
+    }
+
+    @Test
+    void secondaryLimitStopsRetryingAfterMaxRetries() {
+        GitHubRateLimitFilter filter = filter(List.of("a", "b", "c"), 1);
+        ExchangeFunction next = respond(token -> ClientResponse.create(HttpStatus.TOO_MANY_REQUESTS)
+                .header("Retry-After", "60")
+                .build());
+
+        ClientResponse response = call(filter, next, REPO);
+
+        // 첫 호출 + 재시도 1번, 마지막 429 를 그대로 돌려준다
+        assertEquals(429, response.statusCode().value());
+        assertEquals(List.of("a", "b"), usedTokens);
+    }
+
+    @Test
+    void secondaryLimitForbiddenWithRemainingQuotaIsRetried() {
+        GitHubRateLimitFilter filter = filter(List.of("a", "b"), 3);
+        // Retry-After 없이 remaining 이 남은 403 → 본문 문구로 secondary limit 판단
+        ExchangeFunction next = respond(token -> "a".equals(token)
+                ? forbidden(4990, "{\"message\":\"You have exceeded a secondary rate limit. Please wait a few minutes before you try again.\"}")
+                : ok(5000, 4000));
+
+        ClientResponse response = call(filter, next, REPO);
+        call(filter, next, REPO);
+
+        // a 는 최소 60초 쉰다 → 다음 요청도 b
+        assertEquals(200, response.statusCode().value());
+        assertEquals(List.of("a", "b", "b"), usedTokens);
+    }
+
+    @Test
+    void ordinaryForbiddenIsReturnedWithItsBody() {
+        GitHubRateLimitFilter filter = filter(List.of("a", "b"), 3);
+        String body = "{\"message\":\"Resource not accessible by integration\"}";
+
+        ClientResponse response = call(filter, respond(token -> forbidden(4990, body)), REPO);
+
+        assertEquals(403, response.statusCode().value());
+        assertEquals(body, response.bodyToMono(String.class).block(Duration.ofSeconds(5)));
+        assertEquals(List.of("a"), usedTokens);
+    }
+
+    @Test
+    void limitIsRestoredOnlyOnceAfterReset() throws Exception {
+        GitHubRateLimitFilter filter = filter(List.of("a"), 3);
+        long resetSeconds = System.currentTimeMillis() / 1000 + 2;
+        call(filter, respond(token -> ClientResponse.create(HttpStatus.OK)
+                .header("X-RateLimit-Limit", "10")
+                .header("X-RateLimit-Remaining", "0")
+                .header("X-RateLimit-Reset", Long.toString(resetSeconds))
+                .build()), REPO);
+        while (System.currentTimeMillis() <= resetSeconds * 1000) Thread.sleep(20);
+
+        // reset 직후 응답(헤더 갱신)이 오기 전에 동시에 50개
+        AtomicInteger sent = new AtomicInteger();
+        ExchangeFunction hanging = request -> {
+            sent.incrementAndGet();
+            return Mono.never();
+        };
+        List<Disposable> calls = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch go = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 50; i++) {
+            pool.execute(() -> {
+                try {
+                    go.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                calls.add(filter.filter(ClientRequest.create(HttpMethod.GET, REPO).build(), hanging).subscribe());
+            });
+        }
+        go.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(5, TimeUnit.SECONDS));
+        Thread.sleep(200);
+
+        try {
+            assertTrue(sent.get() > 0, "nothing sent after reset");
+            assertTrue(sent.get() <= 10, sent.get() + " requests sent with a limit of 10");
+        } finally {
+            calls.forEach(Disposable::dispose);
+        }
+    }
+
+    @Test
+    void enterpriseGraphqlPathUsesTheGraphqlBucket() {
+        URI ghes = URI.create("https://ghe.example.com/api/graphql");
+
+        assertEquals("graphql", GitHubRateLimitFilter.resourceOf(ghes));
+        assertEquals("graphql", GitHubRateLimitFilter.endpointOf(ghes));
+        assertEquals("graphql", GitHubRateLimitFilter.resourceOf(URI.create("https://api.github.com/graphql")));
+    }
+
+    @Test
+    void notModifiedWithoutRateHeadersDoesNotSpendQuota() {
+        GitHubRateLimitFilter filter = filter(List.of("a"), 3);
+        call(filter, respond(token -> ok(60, 59)), REPO);
+
+        call(filter, respond(token -> ClientResponse.create(HttpStatus.NOT_MODIFIED).build()), REPO);
+        call(filter, respond(token -> ClientResponse.create(HttpStatus.NOT_MODIFIED).build()), REPO);
+
+        // 요청 전에 미리 뺀 1 을 304 가 돌려놓는다
+        assertEquals(59, quota(filter, "core").getRemaining());
+        assertEquals(2.0, registry.get("github.api.responses").tag("endpoint", "repo").tag("status", "304").counter().count());
+    }
+
+    @Test
+    void notModifiedWithRateHeadersTrustsTheHeaders() {
+        GitHubRateLimitFilter filter = filter(List.of("a"), 3);
+        call(filter, respond(token -> ok(60, 59)), REPO);
+
+        call(filter, respond(token -> ClientResponse.create(HttpStatus.NOT_MODIFIED)
+                .header("X-RateLimit-Limit", "60")
+                .header("X-RateLimit-Remaining", "57")
+                .header("X-RateLimit-Reset", Long.toString(resetIn(Duration.ofMinutes(30))))
+                .build()), REPO);
+
+        // 헤더가 있으면 그 값이 맞다 (다른 클라이언트가 같은 토큰을 쓴 몫까지 반영)
+        assertEquals(57, quota(filter, "core").getRemaining());
+    }
+
+    @Test
+    void lowPriorityRequestsStopAtTheLargerReserve() {
+        GitHubRateLimitFilter filter = filter(List.of("a"), 3);
+        // 남은 400: NORMAL(reserve 50) 은 통과, LOW(reserve 500) 는 reset 까지 보류
+        call(filter, respond(token -> ok(5000, 400)), REPO);
+
+        call(filter, respond(token -> ok(5000, 399)), REPO);
+        ClientRequest low = ClientRequest.create(HttpMethod.GET, REPO)
+                .attribute(GitHubRateLimitFilter.PRIORITY_ATTRIBUTE, GitHubRateLimitFilter.Priority.LOW)
+                .build();
+        Mono<ClientResponse> held = filter.filter(low, respond(token -> ok(5000, 398)));
+
+        assertThrows(IllegalStateException.class, () -> held.block(Duration.ofMillis(300)));
+        assertEquals(List.of("a", "a"), usedTokens);
+        assertEquals(1.0, registry.get("github.ratelimit.throttled").tag("resource", "core").counter().count());
+    }
+
+    // ──────────────────────────────────────────────────────────────
+
+    private GitHubRateLimitFilter filter(List<String> tokens, int maxRetries) {
+        return new GitHubRateLimitFilter(tokens, 50, 500, maxRetries, registry);
+    }
+
+    private static ClientResponse call(GitHubRateLimitFilter filter, ExchangeFunction next, URI url) {
+        return filter.filter(ClientRequest.create(HttpMethod.GET, url).build(), next).block(Duration.ofSeconds(5));
+    }
+
+    /*
+     * Authorization 헤더의 토큰을 기록하고 토큰별 응답을 돌려주는 대역
+     */
+    private ExchangeFunction respond(Function<String, ClientResponse> byToken) {
+        return request -> {
+            String auth = request.headers().getFirst(HttpHeaders.AUTHORIZATION);
+            String token = auth == null ? null : auth.substring("Bearer ".length());
+            usedTokens.add(token);
+            return Mono.just(byToken.apply(token));
+        };
+    }
+
+    private static ClientResponse ok(int limit, int remaining) {
+        return ClientResponse.create(HttpStatus.OK)
+                .header("X-RateLimit-Limit", Integer.toString(limit))
+                .header("X-RateLimit-Remaining", Integer.toString(remaining))
+                .header("X-RateLimit-Reset", Long.toString(resetIn(Duration.ofMinutes(30))))
+                .build();
+    }
+
+    private static ClientResponse forbidden(int remaining, String body) {
+        return ClientResponse.create(HttpStatus.FORBIDDEN)
+                .header("X-RateLimit-Limit", "5000")
+                .header("X-RateLimit-Remaining", Integer.toString(remaining))
+                .header("X-RateLimit-Reset", Long.toString(resetIn(Duration.ofMinutes(30))))
+                .header(HttpHeaders.CONTENT_TYPE, "application/json")
+                .body(body)
+                .build();
+    }
+
+    private static long resetIn(Duration d) {
+        return (System.currentTimeMillis() + d.toMillis()) / 1000;
+    }
+
+    private static GitHubRateLimitFilter.QuotaState quota(GitHubRateLimitFilter filter, String resource) {
+        return filter.snapshot().stream()
+                .filter(q -> q.getResource().equals(resource))
+                .findFirst()
+                .orElseThrow();
+    }
+}
@@ -0,0 +1,274 @@
+package com.trendfeed.backend.github;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.firebase.FirebaseApp;
+import com.trendfeed.backend.service.GitHubService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * crawlAllAndEvaluate 처리량 벤치마크 (FakeGitHubServer + Testcontainers Postgres).
+ *
+ *   ./gradlew crawlBenchmark -DcrawlBenchmark.repos=5000 -DcrawlBenchmark.latencyMs=20
+ *
+ * 시나리오 네 개를 차례로 잰다:
+ *  - cold   : 빈 DB 에서 전체 수집
+ *  - warm   : 리포 10% 의 스타를 올린 뒤 재수집 (나머지는 조건부 요청 304)
+ *  - idle   : 아무것도 바뀌지 않은 상태에서 재수집 (평가 구간 안 → 평가도 건너뜀)
+ *  - window : 아무것도 바뀌지 않았지만 평가 구간(trend.eval-window-hours)이 다 찬 상태에서 재수집
+ *             (모든 리포가 다시 평가된다. 스타/stage 가 그대로면 행은 다시 쓰지 않아야 한다)
+ * 각각 repos/sec, 리포당 API 호출 수, 최대 힙 사용량(10ms 샘플링), WAL 바이트를 출력하고
+ * build/reports/crawl-benchmark/ 에 JSON 으로 남긴다. -DcrawlBenchmark.baseline=<json> 을 주면 차이를 함께 출력.
+ * 쓰기 생략 전후 WAL 비교: -DcrawlBenchmark.writeAvoidance=false 로 한 번 돌린 JSON 을 baseline 으로.
+ */
+@Tag("benchmark")
+@Testcontainers
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+class CrawlThroughputBenchmark {
+
+    private static final int REPOS = Integer.getInteger("crawlBenchmark.repos", 5000);
+    private static final long LATENCY_MS = Long.getLong("crawlBenchmark.latencyMs", 20);
+    private static final long JITTER_MS = Long.getLong("crawlBenchmark.jitterMs", 10);
+    private static final double ERROR_RATE = Double.parseDouble(System.getProperty("crawlBenchmark.errorRate", "0"));
+    private static final int CORE_LIMIT = Integer.getInteger("crawlBenchmark.coreLimit", 0);
+    private static final String WRITE_AVOIDANCE = System.getProperty("crawlBenchmark.writeAvoidance", "true");
+
+    @Container
+    @ServiceConnection
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16");
+
+    static final FakeGitHubServer GITHUB = start();
+
+    @MockitoBean
+    FirebaseApp firebaseApp;
+
+    @Autowired
+    GitHubService crawler;
+
+    @Autowired
+    JdbcTemplate jdbc;
+
+    private static FakeGitHubServer start() {
+        try {
+            return new FakeGitHubServer(FakeGitHubServer.options()
+                    .repos(REPOS)
+                    .latency(LATENCY_MS, JITTER_MS)
+                    .errorRate(ERROR_RATE)
+                    .rateLimit(CORE_LIMIT, 0, 60_000)
+                    .readmeEvery(1));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("github.api.url", GITHUB::baseUrl);
+        registry.add("github.graphql.url", () -> GITHUB.baseUrl() + "/graphql");
+        registry.add("github.token", () -> "");
+        registry.add("github.tokens", () -> "");
+        registry.add("crawler.cron", () -> "-");               // 스케줄 실행 끔
+        registry.add("crawler.search.years", () -> "2");
+        registry.add("crawler.search.min-stars", () -> "1000");
+        registry.add("crawler.search.sharding", () -> "true");
+        registry.add("crawler.fetch-mode", () -> System.getProperty("crawlBenchmark.fetchMode", "rest"));
+        registry.add("recrawl.enabled", () -> "false");                  // 기한 기반 재수집 워커 끔
+        registry.add("recrawl.full-crawl-skip-not-due", () -> "false");  // warm 시나리오도 전체 재수집
+        registry.add("crawler.write-avoidance", () -> WRITE_AVOIDANCE);
+        registry.add("firebase.config-path", () -> "unused");
+        registry.add("spring.mail.host", () -> "localhost");
+        registry.add("logging.level.org.springframework.web", () -> "INFO");
+    }
+
+    @AfterAll
+    static void stopServer() {
+        GITHUB.close();
+    }
+
+    @Test
+    void crawlThroughput() throws Exception {
+        List<Map<String, Object>> results = new ArrayList<>();
+
+        results.add(measure("cold"));
+
+        GITHUB.bumpStars(0.10, 500);
+        results.add(measure("warm"));
+
+        results.add(measure("idle"));
+
+        expireEvaluationWindows();
+        results.add(measure("window"));
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("repos", REPOS);
+        report.put("latencyMs", LATENCY_MS);
+        report.put("jitterMs", JITTER_MS);
+        report.put("errorRate", ERROR_RATE);
+        report.put("fetchMode", System.getProperty("crawlBenchmark.fetchMode", "rest"));
+        report.put("writeAvoidance", Boolean.parseBoolean(WRITE_AVOIDANCE));
+        report.put("scenarios", results);
+        Path file = write(report);
+
+        System.out.println();
+        System.out.printf("crawl benchmark: %d repos, latency %d±%dms -> %s%n", REPOS, LATENCY_MS, JITTER_MS, file);
+        for (Map<String, Object> r : results) {
+            System.out.printf("  %-6s %8.1f repos/s  %5.2f calls/repo  peak heap %6.1f MB  WAL %8.1f KB (%6.0f B/repo)  (%d saved in %.1fs, calls %s)%n",
+                    r.get("scenario"), r.get("reposPerSecond"), r.get("callsPerRepo"),
+                    ((Number) r.get("peakHeapBytes")).longValue() / 1048576.0,
+                    ((Number) r.get("walBytes")).longValue() / 1024.0, r.get("walBytesPerRepo"),
+                    r.get("saved"), r.get("seconds"), r.get("calls"));
+        }
+        printBaselineDiff(results);
+
+        assertTrue(((Number) results.get(0).get("saved")).longValue() > 0, "cold crawl saved nothing");
+    }
+
+    private Map<String, Object> measure(String scenario) throws InterruptedException {
+        GITHUB.resetCalls();
+        HeapSampler heap = new HeapSampler();
+        heap.start();
+        String walStart = jdbc.queryForObject("SELECT pg_current_wal_lsn()::text", String.class);
+
+        long start = System.nanoTime();
+        crawler.crawlAllAndEvaluate();
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        heap.stop();
+        Long wal = jdbc.queryForObject("SELECT pg_wal_lsn_diff(pg_current_wal_lsn(), ?::pg_lsn)::bigint",
+                Long.class, walStart);
+        long walBytes = wal == null ? 0 : wal;
+
+        // 내용이 같은 리포는 git_repositories 를 다시 쓰지 않으므로 크롤 시각은 repo_crawl_touch 와 함께 본다
+        Long crawled = jdbc.queryForObject("""
+                        SELECT count(*) FROM git_repositories g
+                        LEFT JOIN repo_crawl_touch t ON t.repo_id = g.id
+                        WHERE GREATEST(g.last_crawled_at, t.last_crawled_at) >= now() - make_interval(secs => ?)
+                        """,
+                Long.class, seconds + 1);
+        long saved = crawled == null ? 0 : crawled;
+
+        Map<String, Object> r = new LinkedHashMap<>();
+        r.put("scenario", scenario);
+        r.put("saved", saved);
+        r.put("seconds", seconds);
+        r.put("reposPerSecond", seconds <= 0 ? 0.0 : saved / seconds);
+        r.put("callsPerRepo", saved == 0 ? 0.0 : (double) GITHUB.totalCalls() / saved);
+        r.put("calls", GITHUB.calls());
+        r.put("peakHeapBytes", heap.peak());
+        r.put("walBytes", walBytes);
+        r.put("walBytesPerRepo", saved == 0 ? 0.0 : (double) walBytes / saved);
+        return r;
+    }
+
+    /*
+     * 마지막 평가 시각을 일주일 앞으로 당겨 다음 크롤에서 모든 리포의 평가 구간이 다 찬 것으로 만든다 (측정 전이라 WAL 에 안 잡힘)
+     */
+    private void expireEvaluationWindows() {
+        jdbc.update("UPDATE git_repositories SET last_checked_at = last_checked_at - interval '7 days' WHERE last_checked_at IS NOT NULL");
+        jdbc.update("UPDATE repo_crawl_touch SET last_checked_at = last_checked_at - interval '7 days' WHERE last_checked_at IS NOT NULL");
+    }
+
+    private static Path write(Map<String, Object> report) throws IOException {
+        Path dir = Path.of("build", "reports", "crawl-benchmark");
+        Files.createDirectories(dir);
+        String stamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+        Path file = dir.resolve("crawl-benchmark-" + stamp + ".json");
+        new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(file.toFile(), report);
+        return file;
+    }
+
+    /*
+     * 이전 결과 JSON 과 시나리오별 비교 (+ 가 좋아진 쪽이 아닐 수 있음: calls/repo, heap, WAL 은 작을수록 좋다)
+     */
+    @SuppressWarnings("unchecked")
+    private static void printBaselineDiff(List<Map<String, Object>> results) throws IOException {
+        String baseline = System.getProperty("crawlBenchmark.baseline");
+        if (baseline == null || baseline.isBlank()) return;
+
+        Map<String, Object> base = new ObjectMapper().readValue(Path.of(baseline).toFile(), Map.class);
+        Map<String, Map<String, Object>> byScenario = new LinkedHashMap<>();
+        for (Map<String, Object> s : (List<Map<String, Object>>) base.get("scenarios")) {
+            byScenario.put((String) s.get("scenario"), s);
+        }
+        System.out.println("vs baseline " + baseline + ":");
+        for (Map<String, Object> r : results) {
+            Map<String, Object> b = byScenario.get(r.get("scenario"));
+            if (b == null) continue;
+            System.out.printf("  %-6s repos/s %+6.1f%%  calls/repo %+6.1f%%  peak heap %+6.1f%%  WAL %s%n",
+                    r.get("scenario"),
+                    change(b.get("reposPerSecond"), r.get("reposPerSecond")),
+                    change(b.get("callsPerRepo"), r.get("callsPerRepo")),
+                    change(b.get("peakHeapBytes"), r.get("peakHeapBytes")),
+                    // 예전 결과 JSON 에는 WAL 이 없다
+                    b.containsKey("walBytes") ? String.format("%+6.1f%%", change(b.get("walBytes"), r.get("walBytes"))) : "n/a");
+        }
+    }
+
+    private static double change(Object before, Object after) {
+        double b = ((Number) before).doubleValue();
+        double a = ((Number) after).doubleValue();
+        return b == 0 ? 0.0 : (a - b) * 100.0 / b;
+    }
+
+    /*
+     * 10ms 마다 힙 사용량을 읽어 최댓값 기록 (GC 직후가 아닌 실제 점유 최대치에 가깝게)
+     */
+    private static final class HeapSampler {
+        private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        private final AtomicLong peak = new AtomicLong();
+        private volatile boolean running = true;
+        private Thread thread;
+
+        void start() {
+            System.gc();
+            peak.set(memory.getHeapMemoryUsage().getUsed());
+            thread = new Thread(() -> {
+                while (running) {
+                    peak.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max);
+                    try {
+                        Thread.sleep(10);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+            }, "heap-sampler");
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        void stop() throws InterruptedException {
+            running = false;
+            thread.join();
+        }
+
+        long peak() {
+            return peak.get();
+        }
+    }
+}
@@ -0,0 +1,457 @@
+package com.trendfeed.backend.github;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 로컬 GitHub REST 대역 (JDK HttpServer). 실제 쿼터를 쓰지 않고 크롤러를 돌리기 위한 것.
+ *
+ *  - GET /search/repositories              : q 의 stars:/created: 조건 + stars 내림차순 + per_page/page, 1,000건 상한
+ *  - GET /repos/{owner}/{repo}             : 메타 (ETag, If-None-Match → 304)
+ *  - GET /repos/{owner}/{repo}/readme      : base64 README (ETag, 304, readmeEvery 로 README 없는 리포 → 404)
+ *
+ * 리포 N개는 seed 로 결정적으로 만든다. bumpStars 로 스타를 올리면 해당 리포의 ETag 가 바뀐다.
+ * 옵션: 고정 지연 + 지터, 리소스(core/search)별 X-RateLimit-* 헤더와 소진 시 403, 5xx 오류 주입.
+ * recordings 를 주면 그 디렉터리의 녹화 응답을 우선 재생한다 (GitHubRecorder 로 실제 API 에서 녹화).
+ */
+public class FakeGitHubServer implements AutoCloseable {
+
+    private static final Pattern REPO_PATH = Pattern.compile("^/repos/([^/]+)/([^/]+)(/readme)?$");
+    private static final Pattern STARS_RANGE = Pattern.compile("stars:(\\d+)\\.\\.(\\d+)");
+    private static final Pattern STARS_MIN = Pattern.compile("stars:>=(\\d+)");
+    private static final Pattern CREATED_RANGE = Pattern.compile("created:(\\d{4}-\\d{2}-\\d{2})\\.\\.(\\d{4}-\\d{2}-\\d{2})");
+    private static final int SEARCH_CAP = 1000;
+
+    private final Options options;
+    private final ObjectMapper json = new ObjectMapper();
+    private final List<FakeRepo> repos;
+    private final Map<String, FakeRepo> byFullName = new HashMap<>();
+    private final Map<String, RateWindow> windows = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> calls = new ConcurrentHashMap<>();
+    private final RecordedResponses recordings;
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    /**
+     * 대역 설정. 기본값은 지연/오류/레이트리밋 없음
+     */
+    public static final class Options {
+        int repoCount = 1000;
+        long seed = 42;
+        long latencyMillis = 0;
+        long jitterMillis = 0;
+        int coreLimit = 0;              // 0 이면 헤더/제한 없음
+        int searchLimit = 0;
+        long rateWindowMillis = 60_000;
+        double errorRate = 0.0;         // 이 비율만큼 502
+        int readmeEvery = 1;            // i % readmeEvery == 0 인 리포만 README 있음
+        int threads = 64;
+        Path recordings;
+
+        public Options repos(int n) { this.repoCount = n; return this; }
+        public Options seed(long seed) { this.seed = seed; return this; }
+        public Options latency(long millis, long jitterMillis) { this.latencyMillis = millis; this.jitterMillis = jitterMillis; return this; }
+        public Options rateLimit(int core, int search, long windowMillis) { this.coreLimit = core; this.searchLimit = search; this.rateWindowMillis = windowMillis; return this; }
+        public Options errorRate(double rate) { this.errorRate = rate; return this; }
+        public Options readmeEvery(int every) { this.readmeEvery = Math.max(1, every); return this; }
+        public Options threads(int threads) { this.threads = threads; return this; }
+        public Options replayFrom(Path dir) { this.recordings = dir; return this; }
+    }
+
+    public static Options options() {
+        return new Options();
+    }
+
+    public FakeGitHubServer(Options options) throws IOException {
+        this.options = options;
+        this.repos = generate(options);
+        for (FakeRepo r : repos) {
+            byFullName.put(r.fullName(), r);
+        }
+        this.recordings = options.recordings == null ? null : new RecordedResponses(options.recordings);
+
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        this.executor = Executors.newFixedThreadPool(options.threads);
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public int repoCount() {
+        return repos.size();
+    }
+
+    /**
+     * 엔드포인트별 호출 수 (search / repo / readme / other)
+     */
+    public Map<String, Long> calls() {
+        Map<String, Long> out = new LinkedHashMap<>();
+        calls.forEach((k, v) -> out.put(k, v.get()));
+        return out;
+    }
+
+    public long totalCalls() {
+        return calls.values().stream().mapToLong(AtomicLong::get).sum();
+    }
+
+    public void resetCalls() {
+        calls.clear();
+    }
+
+    /**
+     * fraction 비율의 리포 스타를 [1, maxDelta] 만큼 올린다 (다음 크롤에서 200 + 새 ETag)
+     */
+    public synchronized void bumpStars(double fraction, int maxDelta) {
+        Random rnd = new Random(options.seed ^ System.nanoTime());
+        for (FakeRepo r : repos) {
+            if (rnd.nextDouble() < fraction) {
+                r.stars += 1 + rnd.nextInt(Math.max(1, maxDelta));
+                r.version++;
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    // ──────────────────────────────────────────────────────────────
+    //  요청 처리
+    // ──────────────────────────────────────────────────────────────
+
+    private void handle(HttpExchange ex) throws IOException {
+        try {
+            URI uri = ex.getRequestURI();
+            String path = uri.getPath();
+            String endpoint = endpointOf(path);
+            calls.computeIfAbsent(endpoint, k -> new AtomicLong()).incrementAndGet();
+
+            sleepLatency();
+
+            if (recordings != null) {
+                RecordedResponses.Recorded rec = recordings.find(ex.getRequestMethod(), uri.getRawPath(), uri.getRawQuery());
+                if (rec != null) {
+                    rec.headers().forEach((k, v) -> ex.getResponseHeaders().add(k, v));
+                    send(ex, rec.status(), rec.body());
+                    return;
+                }
+            }
+
+            String resource = "search".equals(endpoint) ? "search" : "core";
+            if (!takeQuota(ex, resource)) {
+                sendJson(ex, 403, Map.of("message", "API rate limit exceeded"));
+                return;
+            }
+            if (options.errorRate > 0 && ThreadLocalRandom.current().nextDouble() < options.errorRate) {
+                sendJson(ex, 502, Map.of("message", "injected error"));
+                return;
+            }
+
+            switch (endpoint) {
+                case "search" -> search(ex, query(uri.getRawQuery()));
+                case "repo", "readme" -> repoOrReadme(ex, path);
+                default -> sendJson(ex, 404, Map.of("message", "Not Found"));
+            }
+        } catch (RuntimeException e) {
+            sendJson(ex, 500, Map.of("message", e.toString()));
+        } finally {
+            ex.close();
+        }
+    }
+
+    private void search(HttpExchange ex, Map<String, String> params) throws IOException {
+        String q = params.getOrDefault("q", "");
+        int perPage = Math.min(100, Integer.parseInt(params.getOrDefault("per_page", "30")));
+        int page = Math.max(1, Integer.parseInt(params.getOrDefault("page", "1")));
+
+        int minStars = 0;
+        int maxStars = Integer.MAX_VALUE;
+        Matcher m;
+        if ((m = STARS_RANGE.matcher(q)).find()) {
+            minStars = Integer.parseInt(m.group(1));
+            maxStars = Integer.parseInt(m.group(2));
+        } else if ((m = STARS_MIN.matcher(q)).find()) {
+            minStars = Integer.parseInt(m.group(1));
+        }
+        LocalDate from = LocalDate.MIN;
+        LocalDate to = LocalDate.MAX;
+        if ((m = CREATED_RANGE.matcher(q)).find()) {
+            from = LocalDate.parse(m.group(1));
+            to = LocalDate.parse(m.group(2));
+        }
+
+        List<FakeRepo> matched = new ArrayList<>();
+        synchronized (this) {
+            for (FakeRepo r : repos) {
+                if (r.stars >= minStars && r.stars <= maxStars
+                        && !r.created.isBefore(from) && !r.created.isAfter(to)) {
+                    matched.add(r);
+                }
+            }
+        }
+        matched.sort(Comparator.comparingInt((FakeRepo r) -> r.stars).reversed().thenComparingLong(FakeRepo::id));
+
+        List<Map<String, Object>> items = new ArrayList<>();
+        int start = (page - 1) * perPage;
+        int end = Math.min(Math.min(matched.size(), SEARCH_CAP), start + perPage);
+        for (int i = start; i < end; i++) {
+            items.add(matched.get(i).meta());
+        }
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("total_count", matched.size());
+        body.put("incomplete_results", false);
+        body.put("items", items);
+        sendJson(ex, 200, body);
+    }
+
+    private void repoOrReadme(HttpExchange ex, String path) throws IOException {
+        Matcher m = REPO_PATH.matcher(path);
+        if (!m.matches()) {
+            sendJson(ex, 404, Map.of("message", "Not Found"));
+            return;
+        }
+        FakeRepo repo = byFullName.get(m.group(1) + "/" + m.group(2));
+        boolean readme = m.group(3) != null;
+        if (repo == null || (readme && !repo.hasReadme)) {
+            sendJson(ex, 404, Map.of("message", "Not Found"));
+            return;
+        }
+
+        String etag;
+        Map<String, Object> body;
+        synchronized (this) {
+            etag = readme ? "\"" + repo.readmeSha + "\"" : "\"m" + repo.id + "-" + repo.version + "\"";
+            body = readme ? repo.readme() : repo.meta();
+        }
+        String ifNoneMatch = ex.getRequestHeaders().getFirst("If-None-Match");
+        ex.getResponseHeaders().set("ETag", etag);
+        if (etag.equals(ifNoneMatch)) {
+            send(ex, 304, null);
+            return;
+        }
+        sendJson(ex, 200, body);
+    }
+
+    private void sleepLatency() {
+        long delay = options.latencyMillis;
+        if (options.jitterMillis > 0) {
+            delay += ThreadLocalRandom.current().nextLong(options.jitterMillis + 1);
+        }
+        if (delay <= 0) return;
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /*
+     * 리소스별 고정 윈도. 한도가 0 이면 헤더도 안 붙인다
+     */
+    private boolean takeQuota(HttpExchange ex, String resource) {
+        int limit = "search".equals(resource) ? options.searchLimit : options.coreLimit;
+        if (limit <= 0) return true;
+
+        RateWindow w = windows.computeIfAbsent(resource, r -> new RateWindow());
+        long now = System.currentTimeMillis();
+        int remaining;
+        long resetAt;
+        boolean allowed;
+        synchronized (w) {
+            if (now >= w.resetAtMillis) {
+                w.used = 0;
+                w.resetAtMillis = now + options.rateWindowMillis;
+            }
+            allowed = w.used < limit;
+            if (allowed) w.used++;
+            remaining = limit - w.used;
+            resetAt = w.resetAtMillis;
+        }
+        ex.getResponseHeaders().set("X-RateLimit-Limit", Integer.toString(limit));
+        ex.getResponseHeaders().set("X-RateLimit-Remaining", Integer.toString(remaining));
+        ex.getResponseHeaders().set("X-RateLimit-Reset", Long.toString((resetAt + 999) / 1000));
+        ex.getResponseHeaders().set("X-RateLimit-Resource", resource);
+        return allowed;
+    }
+
+    private void sendJson(HttpExchange ex, int status, Object body) throws IOException {
+        ex.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        send(ex, status, json.writeValueAsBytes(body));
+    }
+
+    private static void send(HttpExchange ex, int status, byte[] body) throws IOException {
+        if (body == null || status == 304) {
+            ex.sendResponseHeaders(status, -1);
+            return;
+        }
+        ex.sendResponseHeaders(status, body.length);
+        try (OutputStream out = ex.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    static String endpointOf(String path) {
+        if (path.startsWith("/search/repositories")) return "search";
+        if (path.startsWith("/repos/")) return path.endsWith("/readme") ? "readme" : "repo";
+        return "other";
+    }
+
+    private static Map<String, String> query(String rawQuery) {
+        Map<String, String> out = new HashMap<>();
+        if (rawQuery == null) return out;
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq < 0) continue;
+            out.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                    URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+        }
+        return out;
+    }
+
+    private static final class RateWindow {
+        int used;
+        long resetAtMillis;
+    }
+
+    // ──────────────────────────────────────────────────────────────
+    //  합성 데이터
+    // ──────────────────────────────────────────────────────────────
+
+    private static List<FakeRepo> generate(Options o) {
+        Random rnd = new Random(o.seed);
+        LocalDate today = LocalDate.now();
+        List<FakeRepo> out = new ArrayList<>(o.repoCount);
+        for (int i = 0; i < o.repoCount; i++) {
+            long id = 10_000_000L + i;
+            String owner = "owner" + (i % 997);
+            String name = "repo-" + i;
+            // 스타는 긴 꼬리 분포 (1,000 ~ 수십만)
+            int stars = 1000 + (int) Math.min(400_000, Math.round(1000 / Math.pow(1 - rnd.nextDouble() * 0.999, 1.3)));
+            LocalDate created = today.minusDays(rnd.nextInt(730));
+            boolean hasReadme = i % o.readmeEvery == 0;
+            String readme = hasReadme ? readmeText(name, rnd) : null;
+            out.add(new FakeRepo(id, owner, name, created, stars, hasReadme, readme));
+        }
+        return out;
+    }
+
+    private static String readmeText(String name, Random rnd) {
+        StringBuilder sb = new StringBuilder("# ").append(name).append("\n\n");
+        int paragraphs = 2 + rnd.nextInt(8);
+        for (int p = 0; p < paragraphs; p++) {
+            for (int w = 0; w < 60; w++) {
+                sb.append("lorem").append(rnd.nextInt(500)).append(' ');
+            }
+            sb.append("\n\n");
+        }
+        return sb.toString();
+    }
+
+    private static final class FakeRepo {
+        final long id;
+        final String owner;
+        final String name;
+        final LocalDate created;
+        final boolean hasReadme;
+        final String readmeText;
+        final String readmeSha;
+        int stars;
+        int version;
+
+        FakeRepo(long id, String owner, String name, LocalDate created, int stars, boolean hasReadme, String readmeText) {
+            this.id = id;
+            this.owner = owner;
+            this.name = name;
+            this.created = created;
+            this.stars = stars;
+            this.hasReadme = hasReadme;
+            this.readmeText = readmeText;
+            this.readmeSha = readmeText == null ? null : sha1(readmeText);
+        }
+
+        long id() { return id; }
+
+        String fullName() { return owner + "/" + name; }
+
+        Map<String, Object> meta() {
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("id", id);
+            m.put("node_id", "R_" + Long.toHexString(id));
+            m.put("name", name);
+            m.put("full_name", fullName());
+            m.put("private", false);
+            m.put("owner", Map.of("login", owner, "id", 500_000 + owner.hashCode() % 1000, "type", "User"));
+            m.put("html_url", "https://github.com/" + fullName());
+            m.put("description", "synthetic repository " + name);
+            m.put("fork", false);
+            m.put("created_at", created + "T00:00:00Z");
+            m.put("updated_at", LocalDate.now() + "T00:00:00Z");
+            m.put("pushed_at", LocalDate.now() + "T00:00:00Z");
+            m.put("stargazers_count", stars);
+            m.put("watchers_count", stars);
+            m.put("language", id % 3 == 0 ? "Java" : (id % 3 == 1 ? "Python" : "TypeScript"));
+            m.put("topics", List.of("synthetic", "benchmark"));
+            m.put("license", Map.of("key", "mit", "name", "MIT License", "spdx_id", "MIT"));
+            m.put("default_branch", "main");
+            return m;
+        }
+
+        Map<String, Object> readme() {
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("type", "file");
+            m.put("encoding", "base64");
+            m.put("name", "README.md");
+            m.put("path", "README.md");
+            m.put("sha", readmeSha);
+            // GitHub 처럼 60자마다 줄바꿈
+            m.put("content", Base64.getMimeEncoder(60, "\n".getBytes(StandardCharsets.US_ASCII))
+                    .encodeToString(readmeText.getBytes(StandardCharsets.UTF_8)));
+            return m;
+        }
+    }
+
+    static String sha1(String s) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-1");
+            return HexFormat.of().formatHex(md.digest(s.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
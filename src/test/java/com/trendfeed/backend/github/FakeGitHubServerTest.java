@@ -0,0 +1,99 @@
+package com.trendfeed.backend.github;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FakeGitHubServerTest {
+
+    private final HttpClient http = HttpClient.newHttpClient();
+    private final ObjectMapper json = new ObjectMapper();
+
+    @Test
+    void searchIsSortedByStarsAndPaged() throws Exception {
+        try (FakeGitHubServer server = new FakeGitHubServer(FakeGitHubServer.options().repos(250))) {
+            Map<String, Object> page1 = search(server, "stars:>=1000", 1);
+            Map<String, Object> page3 = search(server, "stars:>=1000", 3);
+
+            assertEquals(250, page1.get("total_count"));
+            List<Map<String, Object>> items = items(page1);
+            assertEquals(100, items.size());
+            assertEquals(50, items(page3).size());
+            for (int i = 1; i < items.size(); i++) {
+                assertTrue((int) items.get(i - 1).get("stargazers_count") >= (int) items.get(i).get("stargazers_count"));
+            }
+        }
+    }
+
+    @Test
+    void conditionalRequestReturns304UntilStarsChange() throws Exception {
+        try (FakeGitHubServer server = new FakeGitHubServer(FakeGitHubServer.options().repos(10))) {
+            String fullName = (String) items(search(server, "stars:>=1000", 1)).get(0).get("full_name");
+
+            HttpResponse<String> first = get(server, "/repos/" + fullName, null);
+            String etag = first.headers().firstValue("ETag").orElseThrow();
+            assertEquals(200, first.statusCode());
+            assertEquals(304, get(server, "/repos/" + fullName, etag).statusCode());
+
+            server.bumpStars(1.0, 10);
+            assertEquals(200, get(server, "/repos/" + fullName, etag).statusCode());
+        }
+    }
+
+    @Test
+    void rateLimitHeadersAndExhaustion() throws Exception {
+        try (FakeGitHubServer server = new FakeGitHubServer(FakeGitHubServer.options().repos(10).rateLimit(2, 0, 60_000))) {
+            HttpResponse<String> first = get(server, "/repos/owner0/repo-0", null);
+            assertEquals("1", first.headers().firstValue("X-RateLimit-Remaining").orElseThrow());
+            get(server, "/repos/owner0/repo-0", null);
+            HttpResponse<String> third = get(server, "/repos/owner0/repo-0", null);
+            assertEquals(403, third.statusCode());
+            assertEquals("0", third.headers().firstValue("X-RateLimit-Remaining").orElseThrow());
+        }
+    }
+
+    @Test
+    void replaysRecordedResponses(@TempDir Path dir) throws Exception {
+        new RecordedResponses(dir).save(new RecordedResponses.Recorded("GET", "/repos/real/project", null, 200,
+                Map.of("ETag", "\"abc\""), "{\"id\":1}".getBytes(StandardCharsets.UTF_8)));
+
+        try (FakeGitHubServer server = new FakeGitHubServer(FakeGitHubServer.options().repos(1).replayFrom(dir))) {
+            HttpResponse<String> resp = get(server, "/repos/real/project", null);
+            assertEquals(200, resp.statusCode());
+            assertEquals("{\"id\":1}", resp.body());
+            assertEquals("\"abc\"", resp.headers().firstValue("ETag").orElseThrow());
+        }
+    }
+
+    private Map<String, Object> search(FakeGitHubServer server, String q, int page) throws Exception {
+        String path = "/search/repositories?q=" + URLEncoder.encode(q, StandardCharsets.UTF_8)
+                + "&sort=stars&order=desc&per_page=100&page=" + page;
+        @SuppressWarnings("unchecked")
+        Map<String, Object> body = json.readValue(get(server, path, null).body(), Map.class);
+        return body;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> items(Map<String, Object> page) {
+        return (List<Map<String, Object>>) page.get("items");
+    }
+
+    private HttpResponse<String> get(FakeGitHubServer server, String path, String ifNoneMatch) throws Exception {
+        HttpRequest.Builder req = HttpRequest.newBuilder(URI.create(server.baseUrl() + path)).GET();
+        if (ifNoneMatch != null) req.header("If-None-Match", ifNoneMatch);
+        return http.send(req.build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,76 @@
+package com.trendfeed.backend.github;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 실제 GitHub API 응답을 RecordedResponses 형식으로 녹화 (FakeGitHubServer.Options.replayFrom 으로 재생).
+ *
+ *   GITHUB_TOKEN=... java ... GitHubRecorder <outDir> "/search/repositories?q=stars:>=1000&per_page=100&page=1" "/repos/o/r" ...
+ *
+ * 요청 경로/쿼리는 크롤러가 보내는 것과 글자까지 같아야 재생 시 맞는다 (쿼리 인코딩 포함).
+ */
+public final class GitHubRecorder {
+
+    // 재생에 의미 있는 응답 헤더만 남긴다
+    private static final List<String> KEPT_HEADERS = List.of(
+            "content-type", "etag", "last-modified",
+            "x-ratelimit-limit", "x-ratelimit-remaining", "x-ratelimit-reset", "x-ratelimit-resource");
+
+    private final HttpClient http = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+    private final String upstream;
+    private final String token;
+    private final RecordedResponses out;
+
+    public GitHubRecorder(String upstream, String token, Path dir) {
+        this.upstream = upstream;
+        this.token = token;
+        this.out = new RecordedResponses(dir);
+    }
+
+    public RecordedResponses.Recorded record(String pathAndQuery) throws IOException, InterruptedException {
+        HttpRequest.Builder req = HttpRequest.newBuilder(URI.create(upstream + pathAndQuery))
+                .header("Accept", "application/vnd.github+json")
+                .header("User-Agent", "trendfeed-crawler")
+                .timeout(Duration.ofSeconds(30))
+                .GET();
+        if (token != null && !token.isBlank()) {
+            req.header("Authorization", "Bearer " + token);
+        }
+        HttpResponse<byte[]> resp = http.send(req.build(), HttpResponse.BodyHandlers.ofByteArray());
+
+        Map<String, String> headers = new LinkedHashMap<>();
+        resp.headers().map().forEach((k, v) -> {
+            if (KEPT_HEADERS.contains(k.toLowerCase()) && !v.isEmpty()) headers.put(k, v.get(0));
+        });
+
+        URI uri = URI.create(pathAndQuery);
+        RecordedResponses.Recorded rec = new RecordedResponses.Recorded("GET", uri.getRawPath(), uri.getRawQuery(),
+                resp.statusCode(), headers, resp.body().length == 0 ? null : resp.body());
+        out.save(rec);
+        return rec;
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("usage: GitHubRecorder <outDir> <path?query>...");
+            System.exit(2);
+        }
+        String upstream = System.getenv().getOrDefault("GITHUB_API_URL", "https://api.github.com");
+        GitHubRecorder recorder = new GitHubRecorder(upstream, System.getenv("GITHUB_TOKEN"), Path.of(args[0]));
+        for (int i = 1; i < args.length; i++) {
+            RecordedResponses.Recorded rec = recorder.record(args[i]);
+            System.out.println(rec.status() + " " + args[i]);
+        }
+    }
+}
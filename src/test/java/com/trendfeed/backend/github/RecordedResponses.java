@@ -0,0 +1,65 @@
+package com.trendfeed.backend.github;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 녹화된 GitHub 응답 (디렉터리에 요청 하나당 JSON 파일 하나).
+ * 파일 이름은 "METHOD path?query" 의 SHA-1 이라 같은 요청이면 같은 파일을 재생한다.
+ */
+public class RecordedResponses {
+
+    /**
+     * 녹화 한 건. body 는 원문 바이트 (304 등 본문 없으면 null)
+     */
+    public record Recorded(String method, String path, String query, int status,
+                           Map<String, String> headers, byte[] body) {}
+
+    private final Path dir;
+    private final ObjectMapper json = new ObjectMapper();
+
+    public RecordedResponses(Path dir) {
+        this.dir = dir;
+    }
+
+    public Recorded find(String method, String rawPath, String rawQuery) {
+        Path file = dir.resolve(key(method, rawPath, rawQuery) + ".json");
+        if (!Files.exists(file)) return null;
+        try {
+            @SuppressWarnings("unchecked")
+            Map<String, Object> m = json.readValue(file.toFile(), Map.class);
+            @SuppressWarnings("unchecked")
+            Map<String, String> headers = (Map<String, String>) m.getOrDefault("headers", Map.of());
+            String body = (String) m.get("body");
+            return new Recorded(method, rawPath, rawQuery, ((Number) m.get("status")).intValue(),
+                    headers, body == null ? null : Base64.getDecoder().decode(body));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void save(Recorded rec) throws IOException {
+        Files.createDirectories(dir);
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("method", rec.method());
+        m.put("path", rec.path());
+        m.put("query", rec.query());
+        m.put("status", rec.status());
+        m.put("headers", rec.headers());
+        m.put("body", rec.body() == null ? null : Base64.getEncoder().encodeToString(rec.body()));
+        json.writerWithDefaultPrettyPrinter()
+                .writeValue(dir.resolve(key(rec.method(), rec.path(), rec.query()) + ".json").toFile(), m);
+    }
+
+    static String key(String method, String rawPath, String rawQuery) {
+        String target = rawQuery == null || rawQuery.isEmpty() ? rawPath : rawPath + "?" + rawQuery;
+        return FakeGitHubServer.sha1(method.toUpperCase() + " " + target);
+    }
+}
@@ -0,0 +1,99 @@
+package com.trendfeed.backend.repository;
+
+import com.trendfeed.backend.PostgresIntegrationTest;
+import com.trendfeed.backend.entity.GitHubEntity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+/**
+ * 쓰기 생략 (crawler.write-avoidance=true): 내용이 같은 행은 git_repositories 를 다시 쓰지 않고 touch 만,
+ * 크롤이 쓰는 컬럼이 바뀌면 행과 content_hash 를 갱신한다. 행을 다시 썼는지는 xmin 으로 본다.
+ */
+class GitHubBatchWriterTest extends PostgresIntegrationTest {
+
+    private static final long REPO = 9_200_000_001L;
+    private static final OffsetDateTime FIRST_CRAWL = OffsetDateTime.of(2026, 3, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+    private static final OffsetDateTime NEXT_CRAWL = FIRST_CRAWL.plusHours(6);
+
+    @Autowired GitHubBatchWriter writer;
+    @Autowired JdbcTemplate jdbc;
+
+    @BeforeEach
+    void setUp() {
+        jdbc.update("DELETE FROM repo_crawl_touch WHERE repo_id = ?", REPO);
+        jdbc.update("DELETE FROM git_repositories WHERE id = ?", REPO);
+        GitHubEntity first = repo(1200, FIRST_CRAWL);
+        assertEquals(1, writer.upsertAll(List.of(first)));
+        writer.touchAll(List.of(first));
+    }
+
+    @Test
+    void unchangedRepoOnlyTouches() {
+        String xmin = xmin();
+        GitHubEntity again = repo(1200, NEXT_CRAWL);
+
+        assertEquals(0, writer.upsertAll(List.of(again)));
+        writer.touchAll(List.of(again));
+
+        assertEquals(xmin, xmin());
+        assertEquals(FIRST_CRAWL.toInstant(), crawledAt("git_repositories", "id").toInstant());
+        assertEquals(NEXT_CRAWL.toInstant(), crawledAt("repo_crawl_touch", "repo_id").toInstant());
+    }
+
+    @Test
+    void changedFieldRewritesRowAndHash() {
+        String xmin = xmin();
+        GitHubEntity starred = repo(1250, NEXT_CRAWL);
+
+        assertEquals(1, writer.upsertAll(List.of(starred)));
+        writer.touchAll(List.of(starred));
+
+        Map<String, Object> row = row();
+        assertNotEquals(xmin, xmin());
+        assertEquals(1250, ((Number) row.get("stargazers_count")).intValue());
+        assertEquals(starred.computeContentHash(), ((Number) row.get("content_hash")).longValue());
+        assertEquals(NEXT_CRAWL.toInstant(), crawledAt("git_repositories", "id").toInstant());
+        assertEquals(NEXT_CRAWL.toInstant(), crawledAt("repo_crawl_touch", "repo_id").toInstant());
+    }
+
+    // ──────────────────────────────────────────────────────────────
+
+    private static GitHubEntity repo(int stars, OffsetDateTime crawledAt) {
+        GitHubEntity e = new GitHubEntity();
+        e.setId(REPO);
+        e.setNodeId("R_writer");
+        e.setName("writer");
+        e.setFullName("batch/writer");
+        e.setOwnerLogin("batch");
+        e.setHtmlUrl("https://github.com/batch/writer");
+        e.setLanguage("Java");
+        e.setStargazersCount(stars);
+        e.setCreatedAt(FIRST_CRAWL.minusYears(1));
+        e.setLastCrawledAt(crawledAt);
+        e.setLastCheckedAt(crawledAt);
+        return e;
+    }
+
+    private String xmin() {
+        return jdbc.queryForObject("SELECT xmin::text FROM git_repositories WHERE id = ?", String.class, REPO);
+    }
+
+    private Map<String, Object> row() {
+        return jdbc.queryForMap("SELECT stargazers_count, content_hash FROM git_repositories WHERE id = ?", REPO);
+    }
+
+    private OffsetDateTime crawledAt(String table, String idColumn) {
+        return jdbc.queryForObject("SELECT last_crawled_at FROM " + table + " WHERE " + idColumn + " = ?",
+                OffsetDateTime.class, REPO);
+    }
+}
@@ -0,0 +1,194 @@
+package com.trendfeed.backend.repository;
+
+import com.trendfeed.backend.service.ReadmeStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 세그먼트 저장소: 찢긴 꼬리 복구, 인덱스 재구성, 같은 본문 한 번만 쓰기, 압축이 살아있는 blob 을 지키는지.
+ * 리포 → SHA 조회(JdbcTemplate)는 쓰지 않고 SHA 로 직접 읽는다.
+ */
+class SegmentReadmeStoreTest {
+
+    private static final int RECORD_HEADER = 4 + 20 + 4 + 4;
+    private static final int INDEX_ENTRY = 20 + 4 + 8 + 4 + 4;
+
+    @TempDir Path dir;
+
+    private SegmentReadmeStore store;
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (store != null) store.close();
+    }
+
+    @Test
+    void identicalContentIsWrittenOnce() throws IOException {
+        store = open(256);
+        String text = "# same readme\n";
+        store.putAll(List.of(new ReadmeStore.Readme(1L, null, text), new ReadmeStore.Readme(2L, null, text)));
+        store.putAll(List.of(new ReadmeStore.Readme(3L, null, text)));
+
+        assertTrue(store.hasContent(sha(text)));
+        assertEquals(text, read(sha(text)).orElseThrow());
+        assertEquals(RECORD_HEADER + bytes(text), Files.size(segment(1)));
+        assertEquals(INDEX_ENTRY, Files.size(dir.resolve("index.dat")));
+    }
+
+    @Test
+    void tornTailIsCutOnReopen() throws IOException {
+        store = open(256);
+        store.putAll(List.of(new ReadmeStore.Readme(1L, null, "first")));
+        store.putAll(List.of(new ReadmeStore.Readme(2L, null, "second readme")));
+        store.close();
+
+        // 두 번째 레코드를 쓰다가 죽은 것처럼 중간에서 자른다 (인덱스 엔트리는 남아 있음)
+        long firstEnd = RECORD_HEADER + bytes("first");
+        try (FileChannel ch = FileChannel.open(segment(1), StandardOpenOption.WRITE)) {
+            ch.truncate(firstEnd + RECORD_HEADER + 3);
+        }
+
+        store = open(256);
+        assertEquals("first", read(sha("first")).orElseThrow());
+        assertFalse(store.hasContent(sha("second readme")));
+        assertEquals(firstEnd, Files.size(segment(1)));
+
+        // 잘린 자리에 다시 쓸 수 있다
+        store.putAll(List.of(new ReadmeStore.Readme(2L, null, "second readme")));
+        assertEquals("second readme", read(sha("second readme")).orElseThrow());
+    }
+
+    @Test
+    void recordsWrittenBeforeTheIndexAreRecovered() throws IOException {
+        store = open(256);
+        store.putAll(List.of(new ReadmeStore.Readme(1L, null, "a"), new ReadmeStore.Readme(2L, null, "b")));
+        store.close();
+
+        // 세그먼트는 썼지만 인덱스 엔트리를 쓰기 전에 죽은 상황
+        try (FileChannel ch = FileChannel.open(dir.resolve("index.dat"), StandardOpenOption.WRITE)) {
+            ch.truncate(INDEX_ENTRY);
+        }
+
+        store = open(256);
+        assertEquals("a", read(sha("a")).orElseThrow());
+        assertEquals("b", read(sha("b")).orElseThrow());
+        assertEquals(2L * INDEX_ENTRY, Files.size(dir.resolve("index.dat")));
+    }
+
+    @Test
+    void damagedIndexIsRebuiltFromSegments() throws IOException {
+        store = open(256);
+        store.putAll(List.of(new ReadmeStore.Readme(1L, null, "a"), new ReadmeStore.Readme(2L, null, "b")));
+        store.close();
+
+        Path index = dir.resolve("index.dat");
+        byte[] raw = Files.readAllBytes(index);
+        raw[25] ^= 0x7f;                                       // 첫 엔트리의 offset → crc 불일치
+        Files.write(index, raw);
+
+        store = open(256);
+        assertEquals("a", read(sha("a")).orElseThrow());
+        assertEquals("b", read(sha("b")).orElseThrow());
+        store.close();
+
+        // 새로 쓴 인덱스로 다시 열린다
+        store = open(256);
+        assertEquals(2L * INDEX_ENTRY, Files.size(index));
+        assertEquals("b", read(sha("b")).orElseThrow());
+    }
+
+    @Test
+    void compactionMovesLiveBlobsAndDropsDeadOnes() throws IOException {
+        String live = "live readme";
+        String dead = "x".repeat(600 * 1024);
+        String next = "y".repeat(600 * 1024);
+        store = open(1);
+        store.putAll(List.of(new ReadmeStore.Readme(1L, null, live), new ReadmeStore.Readme(2L, null, dead)));
+        store.putAll(List.of(new ReadmeStore.Readme(3L, null, next)));   // 1MB 를 넘겨 seg 2 로
+        store.close();
+
+        // 다시 열어서 "이번 주기에 쓴 blob" 표시가 없는 상태로
+        store = open(1);
+        store.compact(Set.of(sha(live), sha(next)));
+
+        assertFalse(Files.exists(segment(1)));
+        assertEquals(live, read(sha(live)).orElseThrow());
+        assertEquals(next, read(sha(next)).orElseThrow());
+        assertFalse(store.hasContent(sha(dead)));
+        store.close();
+
+        store = open(1);
+        assertEquals(live, read(sha(live)).orElseThrow());
+        assertFalse(store.hasContent(sha(dead)));
+    }
+
+    @Test
+    void compactionKeepsBlobsWrittenOrReusedSinceTheScan() throws IOException {
+        String written = "w".repeat(600 * 1024);
+        String reused = "r".repeat(600 * 1024);
+        String filler = "f".repeat(600 * 1024);
+        store = open(1);
+        store.putAll(List.of(new ReadmeStore.Readme(1L, null, reused)));
+        store.putAll(List.of(new ReadmeStore.Readme(2L, null, filler)));   // reused → seg 1, filler → seg 2
+        store.close();
+
+        store = open(1);
+        // 참조 스캔 뒤에 쓰이거나 다른 리포가 같은 SHA 로 다시 가리킨 blob (readme_sha 는 아직 커밋 전)
+        store.putAll(List.of(new ReadmeStore.Readme(3L, null, written)));   // seg 3
+        store.putAll(List.of(new ReadmeStore.Readme(4L, null, filler)));
+        assertTrue(store.hasContent(sha(reused)));
+        store.compact(Set.of());
+
+        assertEquals(reused, read(sha(reused)).orElseThrow());
+        assertEquals(written, read(sha(written)).orElseThrow());
+        assertEquals(filler, read(sha(filler)).orElseThrow());
+    }
+
+    // ──────────────────────────────────────────────────────────────
+
+    private SegmentReadmeStore open(long segmentSizeMb) throws IOException {
+        SegmentReadmeStore s = new SegmentReadmeStore(null, dir.toString(), segmentSizeMb, 0.5);
+        s.open();
+        return s;
+    }
+
+    private Optional<String> read(String sha) {
+        return store.blob(sha).map(b -> StandardCharsets.UTF_8.decode(b).toString());
+    }
+
+    private Path segment(int id) {
+        return dir.resolve("seg-%06d.dat".formatted(id));
+    }
+
+    private static int bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    private static String sha(String text) {
+        try {
+            byte[] raw = text.getBytes(StandardCharsets.UTF_8);
+            MessageDigest md = MessageDigest.getInstance("SHA-1");
+            md.update(("blob " + raw.length + "\0").getBytes(StandardCharsets.US_ASCII));
+            return HexFormat.of().formatHex(md.digest(raw));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
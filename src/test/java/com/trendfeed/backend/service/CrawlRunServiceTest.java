@@ -0,0 +1,152 @@
+package com.trendfeed.backend.service;
+
+import com.trendfeed.backend.PostgresIntegrationTest;
+import com.trendfeed.backend.repository.CrawlRunRepository;
+import com.trendfeed.backend.repository.CrawlRunShardRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 샤드 리스: 배정, 만료된 리스 인계, 하트비트 연장/잃은 리스.
+ * 노드 두 개를 같은 DB 에 붙여서 본다 (프록시가 아니므로 @Transactional 메서드는 tx 로 감싸 부른다).
+ */
+class CrawlRunServiceTest extends PostgresIntegrationTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 1, 1);
+
+    @Autowired CrawlRunRepository runRepo;
+    @Autowired CrawlRunShardRepository shardRepo;
+    @Autowired JdbcTemplate jdbc;
+    @Autowired PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate tx;
+    private CrawlRunService nodeA;
+    private CrawlRunService nodeB;
+
+    @BeforeEach
+    void setUp() {
+        tx = new TransactionTemplate(transactionManager);
+        // 다른 테스트가 남긴 실행에 합류하지 않도록
+        jdbc.update("UPDATE crawl_runs SET status = 'ABANDONED' WHERE status IN ('RUNNING', 'FAILED')");
+        nodeA = node("node-a");
+        nodeB = node("node-b");
+    }
+
+    @Test
+    void nodesClaimDifferentShards() {
+        CrawlRunTracker a = nodeA.joinOrStart("rest", plan(2));
+        CrawlRunTracker b = nodeB.joinOrStart("rest", () -> { throw new AssertionError("should join"); });
+
+        CrawlRunTracker.ShardProgress first = claim(nodeA, a).orElseThrow();
+        CrawlRunTracker.ShardProgress second = claim(nodeB, b).orElseThrow();
+
+        assertEquals(a.getRunId(), b.getRunId());
+        assertNotEquals(first.getId(), second.getId());
+        assertEquals("node-a", lease(first.getId()).get("lease_owner"));
+        assertEquals("node-b", lease(second.getId()).get("lease_owner"));
+        // 둘 다 리스가 살아 있음 → 더 가져갈 샤드 없음
+        assertTrue(claim(nodeB, b).isEmpty());
+    }
+
+    @Test
+    void expiredLeaseIsTakenOverFromTheCursor() {
+        CrawlRunTracker a = nodeA.joinOrStart("rest", plan(1));
+        CrawlRunTracker b = nodeB.joinOrStart("rest", plan(1));
+        CrawlRunTracker.ShardProgress mine = claim(nodeA, a).orElseThrow();
+        mine.pageEmitted(1, List.of());
+        mine.pageEmitted(2, List.of());
+        tx.executeWithoutResult(s -> nodeA.checkpoint(a, 0));
+
+        expire(mine.getId());
+        CrawlRunTracker.ShardProgress taken = claim(nodeB, b).orElseThrow();
+
+        assertEquals(mine.getId(), taken.getId());
+        assertEquals(3, taken.getStartPage());
+        assertEquals("node-b", lease(taken.getId()).get("lease_owner"));
+
+        // 원래 노드는 다음 체크포인트에서 잃은 것을 알고 더 기록하지 않는다
+        mine.pageEmitted(3, List.of());
+        mine.pageEmitted(4, List.of());
+        tx.executeWithoutResult(s -> nodeA.checkpoint(a, 0));
+        assertTrue(a.activeShards().isEmpty());
+        assertEquals(3, ((Number) lease(mine.getId()).get("next_page")).intValue());
+        assertEquals("node-b", lease(mine.getId()).get("lease_owner"));
+    }
+
+    @Test
+    void heartbeatRenewsTheLeaseWithoutCommits() {
+        CrawlRunTracker a = nodeA.joinOrStart("rest", plan(1));
+        CrawlRunTracker.ShardProgress mine = claim(nodeA, a).orElseThrow();
+        // 레이트리밋 대기로 커밋이 한참 없어서 리스가 곧 끝나는 상황
+        jdbc.update("UPDATE crawl_run_shards SET lease_expires_at = ? WHERE id = ?",
+                Timestamp.from(Instant.now().plusSeconds(5)), mine.getId());
+
+        nodeA.renewLeases();
+
+        Timestamp until = (Timestamp) lease(mine.getId()).get("lease_expires_at");
+        assertTrue(until.toInstant().isAfter(Instant.now().plusSeconds(200)), "lease not renewed: " + until);
+        assertEquals(1, a.activeShards().size());
+        assertTrue(claim(nodeB, nodeB.joinOrStart("rest", plan(1))).isEmpty());
+    }
+
+    @Test
+    void heartbeatNoticesALostLease() {
+        CrawlRunTracker a = nodeA.joinOrStart("rest", plan(1));
+        CrawlRunTracker b = nodeB.joinOrStart("rest", plan(1));
+        CrawlRunTracker.ShardProgress mine = claim(nodeA, a).orElseThrow();
+        expire(mine.getId());
+        claim(nodeB, b).orElseThrow();
+
+        nodeA.renewLeases();
+
+        assertTrue(a.activeShards().isEmpty());
+        assertEquals("node-b", lease(mine.getId()).get("lease_owner"));
+    }
+
+    // ──────────────────────────────────────────────────────────────
+
+    private CrawlRunService node(String id) {
+        CrawlRunService node = new CrawlRunService(runRepo, shardRepo, jdbc, transactionManager, id);
+        ReflectionTestUtils.setField(node, "leaseSeconds", 300L);
+        ReflectionTestUtils.setField(node, "resumeMaxAgeHours", 72L);
+        return node;
+    }
+
+    private Optional<CrawlRunTracker.ShardProgress> claim(CrawlRunService node, CrawlRunTracker tracker) {
+        return tx.execute(s -> node.claimShard(tracker));
+    }
+
+    private void expire(Long shardId) {
+        jdbc.update("UPDATE crawl_run_shards SET lease_expires_at = ? WHERE id = ?",
+                Timestamp.from(Instant.now().minusSeconds(60)), shardId);
+    }
+
+    private Map<String, Object> lease(Long shardId) {
+        return jdbc.queryForMap("SELECT lease_owner, lease_expires_at, next_page FROM crawl_run_shards WHERE id = ?",
+                shardId);
+    }
+
+    private static Supplier<List<SearchShard>> plan(int shards) {
+        return () -> IntStream.range(0, shards)
+                .mapToObj(i -> new SearchShard(DAY.plusDays(i * 10L), DAY.plusDays(i * 10L + 9), 1000, null, 100))
+                .toList();
+    }
+}
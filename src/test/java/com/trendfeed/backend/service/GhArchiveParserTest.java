@@ -0,0 +1,75 @@
+package com.trendfeed.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class GhArchiveParserTest {
+
+    private static final long HOUR_15 = LocalDate.of(2015, 1, 1).toEpochDay() * 24 + 15;
+
+    /*
+     * gharchive/2015-01-01-15.json.gz: 이벤트 8개
+     *  - WatchEvent 5개 (1001 ×2, 2002, 필드 순서가 다른 3003, 다음 시간의 2002)
+     *  - PushEvent 1개 (payload 는 건너뜀)
+     *  - 2015 이전 형식(repository 객체) WatchEvent 1개, created_at 이 깨진 WatchEvent 1개 → 세지 않음
+     */
+    @Test
+    void countsWatchEventsPerHourAndRepo() throws Exception {
+        LongIntCountMap counts = new LongIntCountMap(16);
+
+        GhArchiveParser.FileStats stats = GhArchiveParser.parse(fixture("gharchive/2015-01-01-15.json.gz"), counts);
+
+        assertEquals(8, stats.events());
+        assertEquals(5, stats.starEvents());
+        assertEquals(HOUR_15, stats.firstHour());
+        assertEquals(HOUR_15 + 1, stats.lastHour());
+
+        Map<Long, Integer> byKey = new HashMap<>();
+        counts.forEach(byKey::put);
+        assertEquals(Map.of(
+                GhArchiveParser.key(HOUR_15, 1001), 2,
+                GhArchiveParser.key(HOUR_15, 2002), 1,
+                GhArchiveParser.key(HOUR_15, 3003), 1,
+                GhArchiveParser.key(HOUR_15 + 1, 2002), 1), byKey);
+    }
+
+    @Test
+    void fileWithoutStarsHasNoHourRange() throws Exception {
+        String ndjson = """
+                {"type":"ForkEvent","repo":{"id":1},"created_at":"2024-01-15T13:04:05Z"}
+                42
+                {"type":"WatchEvent","repo":{"id":-5},"created_at":"2024-01-15T13:04:05Z"}
+                """;
+        LongIntCountMap counts = new LongIntCountMap(16);
+
+        GhArchiveParser.FileStats stats = GhArchiveParser.parse(
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)), counts);
+
+        assertEquals(2, stats.events());
+        assertEquals(0, stats.starEvents());
+        assertEquals(-1, stats.firstHour());
+        assertEquals(-1, stats.lastHour());
+        assertEquals(0, counts.size());
+    }
+
+    @Test
+    void keyPacksHourAndRepo() {
+        long key = GhArchiveParser.key(HOUR_15, 123_456_789L);
+
+        assertEquals(HOUR_15, GhArchiveParser.hourOf(key));
+        assertEquals(123_456_789L, GhArchiveParser.repoOf(key));
+    }
+
+    private static Path fixture(String name) throws URISyntaxException {
+        return Path.of(GhArchiveParserTest.class.getClassLoader().getResource(name).toURI());
+    }
+}
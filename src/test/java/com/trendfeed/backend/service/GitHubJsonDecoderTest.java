@@ -0,0 +1,132 @@
+package com.trendfeed.backend.service;
+
+import com.trendfeed.backend.dto.github.ReadmeContent;
+import com.trendfeed.backend.dto.github.RepoMeta;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class GitHubJsonDecoderTest {
+
+    private static final String REPO_JSON = """
+            {"id":10000001,"node_id":"R_abc","name":"alpha","full_name":"octo/alpha","private":false,
+             "owner":{"login":"octo","id":5,"type":"Organization","site_admin":false},
+             "html_url":"https://github.com/octo/alpha","description":null,"fork":false,
+             "topics":["a","b"],"license":{"key":"mit","name":"MIT License"},
+             "permissions":{"admin":false,"push":false,"pull":true},
+             "language":"Rust","stargazers_count":4321,
+             "created_at":"2024-02-03T04:05:06Z","pushed_at":"2026-10-01T00:00:00Z","updated_at":"2026-10-02T00:00:00Z"}
+            """;
+
+    private static final RepoMeta ALPHA = new RepoMeta(10000001L, "R_abc", "alpha", "octo/alpha", "octo",
+            "https://github.com/octo/alpha", null, "Rust", 4321,
+            "2024-02-03T04:05:06Z", "2026-10-01T00:00:00Z", "2026-10-02T00:00:00Z", null);
+
+    private static final String SEARCH_JSON = """
+            {"total_count":1234,"incomplete_results":false,"items":[
+            %s,
+            {"id":10000002,"name":"beta","full_name":"someone/beta","owner":{"id":7,"login":"someone"},
+             "license":null,"language":null,"stargazers_count":1500,"extra":{"nested":{"deeper":[1,{"login":"not-the-owner"}]}}}
+            ]}
+            """.formatted(REPO_JSON);
+
+    @Test
+    void repoKeepsOnlyTheFieldsTheCrawlerUses() {
+        RepoMeta repo = GitHubJsonDecoder.repo(body(REPO_JSON, 4096)).block(Duration.ofSeconds(5));
+
+        assertEquals(ALPHA, repo);
+    }
+
+    @Test
+    void searchItemsAreTheSameWhateverTheChunkSize() {
+        List<RepoMeta> whole = search(SEARCH_JSON.length(), new AtomicInteger());
+
+        assertEquals(2, whole.size());
+        assertEquals(ALPHA, whole.get(0));
+        RepoMeta beta = whole.get(1);
+        assertEquals(10000002L, beta.id());
+        assertEquals("someone", beta.ownerLogin());
+        assertNull(beta.language());
+        assertEquals(1500, beta.stargazersCount());
+
+        // 네트워크처럼 토큰 중간에서 잘린 버퍼 (1바이트까지)
+        for (int chunk : new int[]{1, 2, 7, 64, 333}) {
+            AtomicInteger total = new AtomicInteger();
+            assertEquals(whole, search(chunk, total), "chunk " + chunk);
+            assertEquals(1234, total.get());
+        }
+    }
+
+    @Test
+    void emptySearchPageReportsTotalCount() {
+        AtomicInteger total = new AtomicInteger(-1);
+
+        List<RepoMeta> items = GitHubJsonDecoder.searchItems(
+                        body("{\"total_count\":0,\"incomplete_results\":false,\"items\":[]}", 5), total::set)
+                .collectList().block(Duration.ofSeconds(5));
+
+        assertEquals(List.of(), items);
+        assertEquals(0, total.get());
+    }
+
+    @Test
+    void readmeDecodesMimeBase64() {
+        String text = "# alpha\n\n" + "lorem ipsum ".repeat(40);
+        String encoded = Base64.getMimeEncoder(60, "\n".getBytes(StandardCharsets.US_ASCII))
+                .encodeToString(text.getBytes(StandardCharsets.UTF_8));
+        String json = """
+                {"type":"file","encoding":"base64","size":%d,"name":"README.md","sha":"3d21ec53a331a6f037a91c368710b99387d012c1",
+                 "content":"%s","_links":{"self":"x"}}
+                """.formatted(text.length(), encoded.replace("\n", "\\n"));
+
+        ReadmeContent readme = GitHubJsonDecoder.readme(body(json, 16)).block(Duration.ofSeconds(5));
+
+        assertEquals("3d21ec53a331a6f037a91c368710b99387d012c1", readme.sha());
+        assertArrayEquals(text.getBytes(StandardCharsets.UTF_8), readme.content());
+    }
+
+    @Test
+    void readmeWithOtherEncodingHasNoContent() {
+        String json = "{\"sha\":\"abc\",\"encoding\":\"none\",\"content\":\"\"}";
+
+        ReadmeContent readme = GitHubJsonDecoder.readme(body(json, 4096)).block(Duration.ofSeconds(5));
+
+        assertEquals("abc", readme.sha());
+        assertEquals("none", readme.encoding());
+        assertNull(readme.content());
+    }
+
+    private static List<RepoMeta> search(int chunk, AtomicInteger total) {
+        return GitHubJsonDecoder.searchItems(body(SEARCH_JSON, chunk), total::set)
+                .collectList()
+                .block(Duration.ofSeconds(5));
+    }
+
+    /*
+     * 응답 본문을 chunk 바이트씩 나눈 DataBuffer 들
+     */
+    private static Flux<DataBuffer> body(String json, int chunk) {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        return Flux.defer(() -> {
+            List<DataBuffer> buffers = new ArrayList<>();
+            for (int i = 0; i < bytes.length; i += chunk) {
+                buffers.add(DefaultDataBufferFactory.sharedInstance.wrap(
+                        Arrays.copyOfRange(bytes, i, Math.min(bytes.length, i + chunk))));
+            }
+            return Flux.fromIterable(buffers);
+        });
+    }
+}
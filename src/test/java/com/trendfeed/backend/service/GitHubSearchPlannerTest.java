@@ -0,0 +1,179 @@
+package com.trendfeed.backend.service;
+
+import com.trendfeed.backend.dto.github.RepoMeta;
+import com.trendfeed.backend.github.FakeGitHubServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GitHubSearchPlannerTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 5, 20);
+
+    @Test
+    void splitsByDateAgainstTheStandIn() throws Exception {
+        try (FakeGitHubServer server = new FakeGitHubServer(FakeGitHubServer.options().repos(5000))) {
+            GitHubApiClient api = new GitHubApiClient(WebClient.create(server.baseUrl()),
+                    new GitHubCrawlMetrics(new SimpleMeterRegistry()));
+            LocalDate today = LocalDate.now();
+
+            List<SearchShard> shards = plan(new GitHubSearchPlanner(api), today.minusDays(730), today, 1000);
+
+            // 730일에 5,000개 → 1,000개 미만이 되도록 날짜로만 나뉜다
+            assertTrue(shards.size() >= 6, "expected at least 6 shards, got " + shards.size());
+            assertEquals(5000, shards.stream().mapToInt(SearchShard::totalCount).sum());
+            assertDisjointAndBelowCap(shards);
+            for (SearchShard s : shards) assertNull(s.maxStars(), "unexpected stars split " + s);
+        }
+    }
+
+    @Test
+    void singleDayOverTheCapSplitsByStars() {
+        // 하루에 2,500개, 스타 1,000 ~ 3,499
+        List<int[]> repos = new ArrayList<>();
+        for (int i = 0; i < 2500; i++) repos.add(new int[]{0, 1000 + i});
+        StubSearch api = new StubSearch(repos);
+
+        List<SearchShard> shards = plan(new GitHubSearchPlanner(api), DAY, DAY, 1000);
+
+        assertEquals(2500, shards.stream().mapToInt(SearchShard::totalCount).sum());
+        assertDisjointAndBelowCap(shards);
+        assertTrue(shards.stream().anyMatch(s -> s.maxStars() != null), "expected a stars split");
+    }
+
+    @Test
+    void emptyShardsAreDropped() {
+        // 앞쪽 절반 기간에만 리포가 있다
+        List<int[]> repos = new ArrayList<>();
+        for (int i = 0; i < 1500; i++) repos.add(new int[]{i % 10, 2000 + i});
+        StubSearch api = new StubSearch(repos);
+
+        List<SearchShard> shards = plan(new GitHubSearchPlanner(api), DAY, DAY.plusDays(19), 1000);
+
+        assertEquals(1500, shards.stream().mapToInt(SearchShard::totalCount).sum());
+        assertDisjointAndBelowCap(shards);
+        for (SearchShard s : shards) assertFalse(s.createdFrom().isAfter(DAY.plusDays(9)), "empty shard kept " + s);
+    }
+
+    @Test
+    void shardThatCannotBeSplitIsKeptWhole() {
+        // 하루에 같은 스타 수 1,200개 → 더 나눌 수 없다
+        List<int[]> repos = new ArrayList<>();
+        for (int i = 0; i < 1200; i++) repos.add(new int[]{0, 1000});
+        StubSearch api = new StubSearch(repos);
+
+        List<SearchShard> shards = plan(new GitHubSearchPlanner(api), DAY, DAY, 1000);
+
+        assertEquals(1, shards.size());
+        assertEquals(1200, shards.get(0).totalCount());
+    }
+
+    @Test
+    void planningErrorFallsBackToTheUnsplitShard() {
+        GitHubApiClient failing = new GitHubApiClient(null, null) {
+            @Override
+            public Mono<SearchPage> searchPage(String q, int page, int perPage) {
+                return Mono.error(new IllegalStateException("search unavailable"));
+            }
+        };
+
+        List<SearchShard> shards = plan(new GitHubSearchPlanner(failing), DAY, DAY.plusDays(30), 1000);
+
+        assertEquals(List.of(new SearchShard(DAY, DAY.plusDays(30), 1000, null, -1)), shards);
+    }
+
+    // ──────────────────────────────────────────────────────────────
+
+    private static List<SearchShard> plan(GitHubSearchPlanner planner, LocalDate from, LocalDate to, int minStars) {
+        return planner.plan(from, to, minStars).collectList().block(Duration.ofSeconds(30));
+    }
+
+    /*
+     * 결과 0 < n < 1,000 이고 (날짜 × 스타) 구간이 서로 겹치지 않는다
+     */
+    private static void assertDisjointAndBelowCap(List<SearchShard> shards) {
+        for (SearchShard s : shards) {
+            assertTrue(s.totalCount() > 0 && s.totalCount() < GitHubSearchPlanner.SEARCH_RESULT_CAP, "shard " + s);
+        }
+        for (int i = 0; i < shards.size(); i++) {
+            for (int j = i + 1; j < shards.size(); j++) {
+                SearchShard a = shards.get(i);
+                SearchShard b = shards.get(j);
+                boolean datesOverlap = !a.createdTo().isBefore(b.createdFrom()) && !b.createdTo().isBefore(a.createdFrom());
+                boolean starsOverlap = a.minStars() <= maxOf(b) && b.minStars() <= maxOf(a);
+                assertFalse(datesOverlap && starsOverlap, "overlapping shards " + a + " / " + b);
+            }
+        }
+    }
+
+    private static int maxOf(SearchShard s) {
+        return s.maxStars() == null ? Integer.MAX_VALUE : s.maxStars();
+    }
+
+    /*
+     * 메모리의 리포 목록으로 search 의 total_count / stars 내림차순 첫 결과를 흉내 낸다.
+     * 리포 = {DAY 로부터 며칠 뒤 생성, 스타 수}
+     */
+    private static final class StubSearch extends GitHubApiClient {
+        private static final Pattern STARS_RANGE = Pattern.compile("stars:(\\d+)\\.\\.(\\d+)");
+        private static final Pattern STARS_MIN = Pattern.compile("stars:>=(\\d+)");
+        private static final Pattern CREATED = Pattern.compile("created:(\\S+)\\.\\.(\\S+)");
+
+        private final List<int[]> repos;
+        private final AtomicInteger ids = new AtomicInteger();
+
+        StubSearch(List<int[]> repos) {
+            super(null, null);
+            this.repos = repos;
+        }
+
+        @Override
+        public Mono<SearchPage> searchPage(String q, int page, int perPage) {
+            int min;
+            int max = Integer.MAX_VALUE;
+            Matcher m = STARS_RANGE.matcher(q);
+            if (m.find()) {
+                min = Integer.parseInt(m.group(1));
+                max = Integer.parseInt(m.group(2));
+            } else {
+                m = STARS_MIN.matcher(q);
+                assertTrue(m.find(), q);
+                min = Integer.parseInt(m.group(1));
+            }
+            Matcher c = CREATED.matcher(q);
+            assertTrue(c.find(), q);
+            LocalDate from = LocalDate.parse(c.group(1));
+            LocalDate to = LocalDate.parse(c.group(2));
+
+            List<int[]> matched = new ArrayList<>();
+            for (int[] r : repos) {
+                LocalDate created = DAY.plusDays(r[0]);
+                if (r[1] >= min && r[1] <= max && !created.isBefore(from) && !created.isAfter(to)) matched.add(r);
+            }
+            matched.sort(Comparator.comparingInt((int[] r) -> r[1]).reversed());
+            List<RepoMeta> items = matched.stream().limit(perPage).map(this::meta).toList();
+            return Mono.just(new SearchPage(matched.size(), items));
+        }
+
+        private RepoMeta meta(int[] r) {
+            int id = ids.incrementAndGet();
+            return new RepoMeta((long) id, null, "repo-" + id, "owner/repo-" + id, "owner", null, null, null,
+                    r[1], DAY.plusDays(r[0]) + "T00:00:00Z", null, null, null);
+        }
+    }
+}
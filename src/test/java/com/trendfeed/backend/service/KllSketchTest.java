@@ -0,0 +1,151 @@
+package com.trendfeed.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class KllSketchTest {
+
+    private static final int K = 200;
+    private static final int N = 100_000;
+    // 분위수 하나의 순위 오차는 대략 1.7/k. 99개 중 최대치를 보고 압축이 무작위라 여유를 둔다
+    private static final double RANK_TOLERANCE = 5.0 / K;
+
+    @Test
+    void emptySketchHasNoQuantiles() {
+        KllSketch sketch = new KllSketch(K);
+
+        assertTrue(sketch.isEmpty());
+        assertTrue(Double.isNaN(sketch.quantile(0.5)));
+        assertTrue(Double.isNaN(sketch.min()));
+    }
+
+    @Test
+    void smallInputIsExact() {
+        KllSketch sketch = new KllSketch(K);
+        for (double v : shuffled(100)) sketch.update(v);
+
+        assertEquals(100, sketch.count());
+        assertEquals(0.0, sketch.quantile(0.0));
+        assertEquals(49.0, sketch.quantile(0.5));
+        assertEquals(89.0, sketch.quantile(0.9));
+        assertEquals(99.0, sketch.quantile(1.0));
+    }
+
+    @Test
+    void nanIsIgnored() {
+        KllSketch sketch = new KllSketch(K);
+        sketch.update(Double.NaN);
+        sketch.update(3.0);
+
+        assertEquals(1, sketch.count());
+        assertEquals(3.0, sketch.min());
+    }
+
+    @Test
+    void rankErrorStaysWithinBound() {
+        KllSketch sketch = new KllSketch(K);
+        for (double v : shuffled(N)) sketch.update(v);
+
+        assertEquals(N, sketch.count());
+        assertEquals(0.0, sketch.min());
+        assertEquals(N - 1.0, sketch.max());
+        assertRankError(sketch);
+        // 보관 항목 수는 n 과 무관 (대략 3k)
+        assertTrue(sketch.toBytes().length < 4 * K * Double.BYTES + 256, "sketch kept too many items");
+    }
+
+    @Test
+    void mergedSketchMatchesTheWholeInput() {
+        List<Double> values = shuffled(N);
+        KllSketch merged = new KllSketch(K);
+        for (int part = 0; part < 4; part++) {
+            KllSketch node = new KllSketch(K);
+            for (double v : values.subList(part * N / 4, (part + 1) * N / 4)) node.update(v);
+            merged.merge(node);
+        }
+
+        assertEquals(N, merged.count());
+        assertEquals(0.0, merged.min());
+        assertEquals(N - 1.0, merged.max());
+        assertRankError(merged);
+    }
+
+    @Test
+    void mergingAnEmptySketchChangesNothing() {
+        KllSketch sketch = new KllSketch(K);
+        for (double v : shuffled(1000)) sketch.update(v);
+        byte[] before = sketch.toBytes();
+
+        sketch.merge(new KllSketch(K));
+
+        assertArrayEquals(before, sketch.toBytes());
+    }
+
+    @Test
+    void mergeRejectsDifferentK() {
+        KllSketch sketch = new KllSketch(K);
+
+        assertThrows(IllegalArgumentException.class, () -> sketch.merge(new KllSketch(K * 2)));
+    }
+
+    @Test
+    void serializationRoundTrip() {
+        KllSketch sketch = new KllSketch(K);
+        for (double v : shuffled(N)) sketch.update(v);
+
+        KllSketch copy = KllSketch.fromBytes(sketch.toBytes());
+
+        assertEquals(sketch.k(), copy.k());
+        assertEquals(sketch.count(), copy.count());
+        assertEquals(sketch.min(), copy.min());
+        assertEquals(sketch.max(), copy.max());
+        for (int i = 1; i < 100; i++) {
+            assertEquals(sketch.quantile(i / 100.0), copy.quantile(i / 100.0));
+        }
+        assertArrayEquals(sketch.toBytes(), copy.toBytes());
+    }
+
+    @Test
+    void emptySketchRoundTrip() {
+        KllSketch copy = KllSketch.fromBytes(new KllSketch(K).toBytes());
+
+        assertTrue(copy.isEmpty());
+        assertTrue(Double.isNaN(copy.quantile(0.5)));
+    }
+
+    @Test
+    void unknownFormatIsRejected() {
+        byte[] bytes = new KllSketch(K).toBytes();
+        bytes[0] = 99;
+
+        assertThrows(IllegalArgumentException.class, () -> KllSketch.fromBytes(bytes));
+    }
+
+    /*
+     * 값이 0..N-1 이므로 분위수 값 / N 이 곧 실제 순위
+     */
+    private static void assertRankError(KllSketch sketch) {
+        for (int i = 1; i < 100; i++) {
+            double q = i / 100.0;
+            double rank = sketch.quantile(q) / N;
+            assertTrue(Math.abs(rank - q) <= RANK_TOLERANCE,
+                    "q=" + q + " rank=" + rank + " (tolerance " + RANK_TOLERANCE + ")");
+        }
+    }
+
+    private static List<Double> shuffled(int n) {
+        List<Double> values = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) values.add((double) i);
+        Collections.shuffle(values, new Random(42));
+        return values;
+    }
+}
@@ -0,0 +1,109 @@
+package com.trendfeed.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LongIntCountMapTest {
+
+    @Test
+    void countsPerKey() {
+        LongIntCountMap map = new LongIntCountMap(16);
+        map.increment(7);
+        map.increment(7);
+        map.add(9, 5);
+        map.add(7, -1);
+
+        assertEquals(2, map.size());
+        assertEquals(1, map.get(7));
+        assertEquals(5, map.get(9));
+        assertEquals(0, map.get(8));
+    }
+
+    @Test
+    void keyZeroIsRejected() {
+        LongIntCountMap map = new LongIntCountMap(16);
+
+        assertThrows(IllegalArgumentException.class, () -> map.increment(0));
+    }
+
+    @Test
+    void growsPastItsInitialCapacity() {
+        LongIntCountMap map = new LongIntCountMap(1);
+        Map<Long, Integer> expected = new HashMap<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 200_000; i++) {
+            // 리포 id 가 몰려 있는 (시간 << 40 | 리포) 키처럼 하위 비트만 조금씩 다르게
+            long key = GhArchiveParser.key(400_000 + random.nextInt(24), 1 + random.nextInt(5_000));
+            map.increment(key);
+            expected.merge(key, 1, Integer::sum);
+        }
+
+        assertEquals(expected.size(), map.size());
+        expected.forEach((key, count) -> assertEquals((int) count, map.get(key), "key " + key));
+        Map<Long, Integer> seen = new HashMap<>();
+        map.forEach((key, count) -> assertNull(seen.put(key, count), "key visited twice"));
+        assertEquals(expected, seen);
+    }
+
+    @Test
+    void collidingKeysKeepSeparateCounts() {
+        // 초기 용량 16 에서 같은 칸에 떨어지는 키들 (마지막 칸이면 탐사가 0번 칸으로 넘어간다)
+        long[] keys = sameSlot(15, 16, 5);
+        LongIntCountMap map = new LongIntCountMap(1);
+        for (int i = 0; i < keys.length; i++) map.add(keys[i], i + 1);
+        for (int i = 0; i < keys.length; i++) map.increment(keys[i]);
+
+        assertEquals(keys.length, map.size());
+        for (int i = 0; i < keys.length; i++) {
+            assertEquals(i + 2, map.get(keys[i]));
+        }
+        // 같은 칸이지만 넣지 않은 키는 빈 칸까지 탐사하고 0
+        assertEquals(0, map.get(sameSlot(15, 16, 6)[5]));
+    }
+
+    @Test
+    void collisionsSurviveResize() {
+        long[] keys = sameSlot(3, 16, 12);
+        LongIntCountMap map = new LongIntCountMap(1);
+        for (long key : keys) map.add(key, (int) (key % 1000) + 1);   // 8개째에서 늘어난다
+
+        assertEquals(keys.length, map.size());
+        for (long key : keys) {
+            assertEquals((int) (key % 1000) + 1, map.get(key));
+        }
+    }
+
+    @Test
+    void clearEmptiesTheMap() {
+        LongIntCountMap map = new LongIntCountMap(16);
+        map.add(3, 10);
+        map.add(4, 20);
+
+        map.clear();
+        map.increment(3);
+
+        assertEquals(1, map.size());
+        assertEquals(1, map.get(3));
+        assertEquals(0, map.get(4));
+    }
+
+    /*
+     * LongIntCountMap.slot 과 같은 섞기로, 용량 capacity 에서 slot 칸에 떨어지는 키 count 개
+     */
+    private static long[] sameSlot(int slot, int capacity, int count) {
+        long[] keys = new long[count];
+        int n = 0;
+        for (long key = 1; n < count; key++) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            if (((int) (h ^ (h >>> 32)) & (capacity - 1)) == slot) keys[n++] = key;
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,87 @@
+package com.trendfeed.backend.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 재수집 간격: 최소/최대로 자르기, 스타 증가 속도/stage/최근 push 에 따른 배율. 결과에는 ±10% jitter 가 붙는다.
+ */
+class RecrawlPolicyTest {
+
+    private static final OffsetDateTime NOW = OffsetDateTime.of(2026, 3, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+    private static final double MAX = 168 * 3600;
+    private static final double MIN = 60 * 60;
+
+    private RecrawlPolicy policy;
+
+    @BeforeEach
+    void setUp() {
+        policy = policy(60, 168);
+    }
+
+    @Test
+    void stalledRepoWaitsTheMaxInterval() {
+        assertAround(MAX, 0, 0, null);
+        // 스타가 줄어도 더 길어지지 않는다
+        assertAround(MAX, -50, 0, null);
+    }
+
+    @Test
+    void fastRepoIsClampedToTheMinInterval() {
+        assertAround(MIN, 1_000_000, 0, null);
+        assertAround(MIN, 1_000, 1, NOW.minusDays(1));
+    }
+
+    @Test
+    void growthShortensTheIntervalByVelocityRef() {
+        assertAround(MAX / 2, 10, 0, null);
+        assertAround(MAX / 4, 30, 0, null);
+    }
+
+    @Test
+    void stageFactorsScaleTheInterval() {
+        assertAround(MAX * 0.25, 0, 1, null);
+        assertAround(MAX * 0.5, 0, 2, null);
+    }
+
+    @Test
+    void recentPushScalesTheInterval() {
+        assertAround(MAX * 0.5, 0, 0, NOW.minusDays(1));
+        assertAround(MAX * 0.75, 0, 0, NOW.minusDays(10));
+        assertAround(MAX, 0, 0, NOW.minusDays(60));
+    }
+
+    @Test
+    void minAboveMaxFallsBackToMax() {
+        policy = policy(600, 1);
+        assertAround(3600, 0, 0, null);
+        assertAround(3600, 1_000_000, 2, NOW);
+    }
+
+    // ──────────────────────────────────────────────────────────────
+
+    private static RecrawlPolicy policy(long minMinutes, long maxHours) {
+        RecrawlPolicy p = new RecrawlPolicy(null);
+        ReflectionTestUtils.setField(p, "minIntervalMinutes", minMinutes);
+        ReflectionTestUtils.setField(p, "maxIntervalHours", maxHours);
+        ReflectionTestUtils.setField(p, "velocityRef", 10.0);
+        ReflectionTestUtils.setField(p, "stage1Factor", 0.25);
+        ReflectionTestUtils.setField(p, "stage2Factor", 0.5);
+        return p;
+    }
+
+    // jitter 때문에 여러 번 뽑아서 모두 ±10% 안인지 본다
+    private void assertAround(double expected, double starsPerDay, int stage, OffsetDateTime pushedAt) {
+        for (int i = 0; i < 200; i++) {
+            long s = policy.intervalSeconds(starsPerDay, stage, pushedAt, NOW);
+            assertTrue(s >= Math.floor(expected * 0.9) && s <= Math.ceil(expected * 1.1),
+                    "interval " + s + " not within 10% of " + expected);
+        }
+    }
+}
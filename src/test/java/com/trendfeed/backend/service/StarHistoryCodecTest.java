@@ -0,0 +1,160 @@
+package com.trendfeed.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class StarHistoryCodecTest {
+
+    private static final LocalDate MONTH = LocalDate.of(2026, 3, 1);
+    private static final long MONTH_START = StarHistoryCodec.monthStartEpoch(MONTH);
+
+    @Test
+    void emptyChunkDecodesToNoSamples() {
+        assertEquals(0, StarHistoryCodec.decode(MONTH, new byte[0], 0).size());
+        assertEquals(0, StarHistoryCodec.decode(MONTH, null, 10).size());
+        assertEquals(0, StarHistoryCodec.decodeFirst(MONTH, new byte[0]).size());
+        assertEquals(0, StarHistoryCodec.decodeFirst(MONTH, null).size());
+        assertEquals(0, StarHistoryCodec.encodeAll(MONTH_START, new long[0], new int[0], 0, 0).length);
+    }
+
+    @Test
+    void smallDeltasTakeTwoBytes() {
+        // 1분 뒤 +3: varint(60) 한 바이트, zigzag(3)=6 한 바이트
+        assertArrayEquals(new byte[]{60, 6}, StarHistoryCodec.encode(MONTH_START, 100, MONTH_START + 60, 103));
+        // -1 은 zigzag 로 1
+        assertArrayEquals(new byte[]{1, 1}, StarHistoryCodec.encode(MONTH_START, 100, MONTH_START + 1, 99));
+    }
+
+    @Test
+    void appendedSamplesRoundTrip() {
+        long[] ts = {MONTH_START + 5, MONTH_START + 3_600, MONTH_START + 86_400, MONTH_START + 2_000_000};
+        int[] stars = {1_200, 1_350, 1_349, 250_000};
+
+        byte[] chunk = append(ts, stars, 0, ts.length);
+        StarHistoryCodec.Samples samples = StarHistoryCodec.decode(MONTH, chunk, ts.length);
+
+        assertArrayEquals(ts, samples.ts());
+        assertArrayEquals(stars, samples.stars());
+    }
+
+    @Test
+    void negativeDeltasRoundTrip() {
+        long[] ts = {MONTH_START + 10, MONTH_START + 20, MONTH_START + 30, MONTH_START + 40, MONTH_START + 50};
+        // 스타가 줄어드는 경우 (unstar, 스팸 정리) 와 큰 폭의 감소
+        int[] stars = {50_000, 49_999, 10, 0, Integer.MAX_VALUE};
+
+        StarHistoryCodec.Samples samples = StarHistoryCodec.decode(MONTH, append(ts, stars, 0, ts.length), 0);
+
+        assertArrayEquals(ts, samples.ts());
+        assertArrayEquals(stars, samples.stars());
+    }
+
+    @Test
+    void encodeAllMatchesAppendingOneByOne() {
+        long[] ts = new long[500];
+        int[] stars = new int[500];
+        for (int i = 0; i < ts.length; i++) {
+            ts[i] = MONTH_START + 1_000L * i + (i % 7);
+            stars[i] = 10_000 + (i % 13 == 0 ? -i : 3 * i);
+        }
+
+        byte[] all = StarHistoryCodec.encodeAll(MONTH_START, ts, stars, 0, ts.length);
+
+        assertArrayEquals(append(ts, stars, 0, ts.length), all);
+        StarHistoryCodec.Samples samples = StarHistoryCodec.decode(MONTH, all, 0);
+        assertArrayEquals(ts, samples.ts());
+        assertArrayEquals(stars, samples.stars());
+    }
+
+    @Test
+    void decodeFirstReadsOnlyTheFirstSample() {
+        long[] ts = {MONTH_START + 300_000_000L, MONTH_START + 300_000_060L};
+        int[] stars = {123_456, 123_457};
+        byte[] chunk = append(ts, stars, 0, ts.length);
+
+        StarHistoryCodec.Samples first = StarHistoryCodec.decodeFirst(MONTH, chunk);
+
+        assertArrayEquals(new long[]{ts[0]}, first.ts());
+        assertArrayEquals(new int[]{stars[0]}, first.stars());
+        // 앞 20바이트만 읽어 와도 된다
+        byte[] prefix = Arrays.copyOf(chunk, Math.min(chunk.length, 20));
+        assertArrayEquals(new int[]{stars[0]}, StarHistoryCodec.decodeFirst(MONTH, prefix).stars());
+    }
+
+    @Test
+    void samplesRollOverIntoMonthlyChunks() {
+        // 1월 말 ~ 3월 초, 6시간마다
+        OffsetDateTime start = OffsetDateTime.of(2026, 1, 28, 0, 0, 0, 0, ZoneOffset.UTC);
+        List<Long> allTs = new ArrayList<>();
+        List<Integer> allStars = new ArrayList<>();
+        Map<LocalDate, List<Integer>> byMonth = new LinkedHashMap<>();
+        for (int i = 0; i < 160; i++) {
+            OffsetDateTime at = start.plusHours(6L * i);
+            allTs.add(at.toEpochSecond());
+            allStars.add(5_000 + 7 * i);
+            byMonth.computeIfAbsent(StarHistoryCodec.monthOf(at), m -> new ArrayList<>()).add(i);
+        }
+        assertEquals(List.of(LocalDate.of(2026, 1, 1), LocalDate.of(2026, 2, 1), LocalDate.of(2026, 3, 1)),
+                new ArrayList<>(byMonth.keySet()));
+
+        long[] ts = allTs.stream().mapToLong(Long::longValue).toArray();
+        int[] stars = allStars.stream().mapToInt(Integer::intValue).toArray();
+        List<Long> decodedTs = new ArrayList<>();
+        List<Integer> decodedStars = new ArrayList<>();
+        for (Map.Entry<LocalDate, List<Integer>> month : byMonth.entrySet()) {
+            List<Integer> idx = month.getValue();
+            int from = idx.get(0);
+            int to = idx.get(idx.size() - 1) + 1;
+            // 청크마다 첫 샘플은 (월 시작, 0) 기준 → 청크 하나로 디코딩된다
+            byte[] chunk = append(ts, stars, from, to, StarHistoryCodec.monthStartEpoch(month.getKey()));
+            StarHistoryCodec.Samples samples = StarHistoryCodec.decode(month.getKey(), chunk, idx.size());
+            assertEquals(idx.size(), samples.size());
+            assertEquals(stars[from], StarHistoryCodec.decodeFirst(month.getKey(), chunk).stars()[0]);
+            for (int i = 0; i < samples.size(); i++) {
+                decodedTs.add(samples.ts()[i]);
+                decodedStars.add(samples.stars()[i]);
+            }
+        }
+
+        assertEquals(allTs, decodedTs);
+        assertEquals(allStars, decodedStars);
+    }
+
+    @Test
+    void monthOfUsesUtc() {
+        OffsetDateTime lateInSeoul = OffsetDateTime.of(2026, 4, 1, 3, 0, 0, 0, ZoneOffset.ofHours(9));
+
+        assertEquals(LocalDate.of(2026, 3, 1), StarHistoryCodec.monthOf(lateInSeoul));
+        assertEquals(OffsetDateTime.of(2026, 3, 1, 0, 0, 0, 0, ZoneOffset.UTC).toEpochSecond(), MONTH_START);
+    }
+
+    private static byte[] append(long[] ts, int[] stars, int from, int to) {
+        return append(ts, stars, from, to, MONTH_START);
+    }
+
+    /*
+     * StarHistoryWriter 처럼 샘플마다 encode 한 바이트를 이어 붙인다 (samples || 새 샘플)
+     */
+    private static byte[] append(long[] ts, int[] stars, int from, int to, long monthStart) {
+        ByteArrayOutputStream chunk = new ByteArrayOutputStream();
+        for (int i = from; i < to; i++) {
+            byte[] sample = i == from
+                    ? StarHistoryCodec.encode(monthStart, 0, ts[i], stars[i])
+                    : StarHistoryCodec.encode(ts[i - 1], stars[i - 1], ts[i], stars[i]);
+            chunk.writeBytes(sample);
+        }
+        return chunk.toByteArray();
+    }
+}
@@ -0,0 +1,121 @@
+package com.trendfeed.backend.service;
+
+import com.trendfeed.backend.PostgresIntegrationTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.Date;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 백테스트 재생: fixed 모드는 조합의 threshold, percentile 모드의 기준 조합은 크롤이 쓰는 언어별 컷오프.
+ * 두 리포가 하루에 50% 씩 늘어난다 (평가마다 점수 ≈ 78, 두 번 넘으면 stage 2).
+ */
+class TrendBacktestEngineTest extends PostgresIntegrationTest {
+
+    private static final long JAVA_REPO = 9_300_000_001L;
+    private static final long GO_REPO = 9_300_000_002L;
+    private static final long DAY = 86_400;
+
+    @Autowired TrendBacktestEngine engine;
+    @Autowired PromotionThresholds thresholds;
+    @Autowired JdbcTemplate jdbc;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(engine, "cacheMinutes", 0L);
+        jdbc.update("DELETE FROM star_history_chunks WHERE repo_id IN (?, ?)", JAVA_REPO, GO_REPO);
+        jdbc.update("DELETE FROM git_repositories WHERE id IN (?, ?)", JAVA_REPO, GO_REPO);
+        insertRepo(JAVA_REPO, "Java");
+        insertRepo(GO_REPO, "Go");
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.setField(engine, "cacheMinutes", 10L);
+        ReflectionTestUtils.setField(thresholds, "mode", "fixed");
+        ReflectionTestUtils.setField(thresholds, "cutoffs", null);
+    }
+
+    @Test
+    void fixedModeReplaysEachThreshold() {
+        List<TrendBacktestEngine.ParamResult> results = run(List.of(80.0));
+
+        // 기준(trend.threshold=25) 은 둘 다, 80 은 아무것도
+        assertEquals(2, results.size());
+        assertEquals(2, results.get(0).promotions());
+        assertFalse(results.get(0).percentileCutoffs());
+        assertEquals(80.0, results.get(1).threshold());
+        assertEquals(0, results.get(1).promotions());
+    }
+
+    @Test
+    void percentileModeReplaysTheLiveCutoffs() {
+        ReflectionTestUtils.setField(thresholds, "mode", "percentile");
+        ReflectionTestUtils.setField(thresholds, "cutoffs",
+                new PromotionThresholds.Cutoffs(List.of(1L), 50.0, Map.of("Java", 90.0)));
+
+        List<TrendBacktestEngine.ParamResult> results = run(List.of(30.0));
+
+        // 기준: Java 는 컷오프 90 이라 못 오르고 Go 는 전체 컷오프 50 으로 승급
+        TrendBacktestEngine.ParamResult baseline = results.get(0);
+        assertTrue(baseline.configured());
+        assertTrue(baseline.percentileCutoffs());
+        assertEquals(1, baseline.promotions());
+
+        // threshold 축으로 준 값은 고정 임계치로 비교
+        TrendBacktestEngine.ParamResult fixed = results.get(1);
+        assertFalse(fixed.percentileCutoffs());
+        assertEquals(2, fixed.promotions());
+    }
+
+    // ──────────────────────────────────────────────────────────────
+
+    private List<TrendBacktestEngine.ParamResult> run(List<Double> threshold) {
+        return engine.run(new TrendBacktestEngine.Request(10, 24.0, null, null, threshold)).results();
+    }
+
+    // 지난 8일 하루 한 번 샘플, 매번 1.5배 (월 경계를 넘으면 청크를 나눈다)
+    private void insertRepo(long id, String language) {
+        jdbc.update("INSERT INTO git_repositories (id, full_name, language) VALUES (?, ?, ?)",
+                id, "backtest/" + language, language);
+
+        long now = Instant.now().getEpochSecond();
+        int n = 8;
+        long[] ts = new long[n];
+        int[] stars = new int[n];
+        for (int i = 0; i < n; i++) {
+            ts[i] = now - (n - i) * DAY + 60;
+            stars[i] = (int) Math.round(1000 * Math.pow(1.5, i));
+        }
+        int from = 0;
+        while (from < n) {
+            LocalDate month = monthOf(ts[from]);
+            int to = from;
+            while (to < n && monthOf(ts[to]).equals(month)) to++;
+            byte[] samples = StarHistoryCodec.encodeAll(StarHistoryCodec.monthStartEpoch(month), ts, stars, from, to);
+            jdbc.update("""
+                    INSERT INTO star_history_chunks (repo_id, month_start, sample_count, last_ts, last_stars, samples, backfilled)
+                    VALUES (?, ?, ?, ?, ?, ?, false)
+                    """, id, Date.valueOf(month), to - from, ts[to - 1], stars[to - 1], samples);
+            from = to;
+        }
+    }
+
+    private static LocalDate monthOf(long epochSec) {
+        return StarHistoryCodec.monthOf(OffsetDateTime.ofInstant(Instant.ofEpochSecond(epochSec), ZoneOffset.UTC));
+    }
+}
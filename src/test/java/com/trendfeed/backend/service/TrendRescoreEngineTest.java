@@ -0,0 +1,87 @@
+package com.trendfeed.backend.service;
+
+import com.trendfeed.backend.PostgresIntegrationTest;
+import com.trendfeed.backend.repository.TrendingCandidateRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * 파라미터를 바꾼 재채점: 점수/stage 는 base_stage 에서 다시 전이하고, 바뀐 행은 content_hash 를 비운다.
+ */
+class TrendRescoreEngineTest extends PostgresIntegrationTest {
+
+    private static final long PROMOTED = 9_100_000_001L;   // base 1 → 2
+    private static final long RAISED = 9_100_000_002L;     // base 0 → 1 (지금 stage 1 에서 한 번 더 올리지 않음)
+    private static final long UNCHANGED = 9_100_000_003L;  // 점수 0, stage 0 그대로
+    private static final List<Long> IDS = List.of(PROMOTED, RAISED, UNCHANGED);
+
+    // growthRate 1.0, 생성일 없음 → (1 - e^-3) * 100 ≈ 95
+    private static final TrendScoring.Params PARAMS = new TrendScoring.Params(3.0, 720, 1.0, 1.0, 50);
+
+    @Autowired TrendRescoreEngine engine;
+    @Autowired TrendingCandidateRepository candRepo;
+    @Autowired JdbcTemplate jdbc;
+
+    @BeforeEach
+    void setUp() {
+        jdbc.update("DELETE FROM trending_candidates WHERE repo_id IN (?, ?, ?)", IDS.toArray());
+        jdbc.update("DELETE FROM git_repositories WHERE id IN (?, ?, ?)", IDS.toArray());
+        insert(PROMOTED, 1.0, 1, 1, 10.0);
+        insert(RAISED, 1.0, 0, 1, 10.0);
+        insert(UNCHANGED, 0.0, 0, 0, 0.0);
+    }
+
+    @Test
+    void rescoreTransitionsFromBaseStageAndClearsContentHash() {
+        engine.rescoreAll(PARAMS);
+
+        double expected = TrendScoring.score(1.0, -1, PARAMS);
+        Map<String, Object> promoted = row(PROMOTED);
+        assertEquals(2, ((Number) promoted.get("trend_stage")).intValue());
+        assertEquals(expected, ((Number) promoted.get("trend_score")).doubleValue(), 1e-9);
+        assertNull(promoted.get("content_hash"));
+
+        Map<String, Object> raised = row(RAISED);
+        assertEquals(1, ((Number) raised.get("trend_stage")).intValue());
+        assertEquals(expected, ((Number) raised.get("trend_score")).doubleValue(), 1e-9);
+        assertNull(raised.get("content_hash"));
+
+        Map<String, Object> unchanged = row(UNCHANGED);
+        assertEquals(0, ((Number) unchanged.get("trend_stage")).intValue());
+        assertEquals(42L, ((Number) unchanged.get("content_hash")).longValue());
+
+        assertEquals(List.of(PROMOTED), candRepo.findRepoIdsByRepoIdIn(IDS));
+    }
+
+    @Test
+    void higherThresholdDemotesFromBaseStage() {
+        engine.rescoreAll(new TrendScoring.Params(3.0, 720, 1.0, 1.0, 99));
+
+        // base 1 에서 미달 → 0, base 0 에서 미달 → 0 (지금 stage 1 이어도)
+        assertEquals(0, ((Number) row(PROMOTED).get("trend_stage")).intValue());
+        assertEquals(0, ((Number) row(RAISED).get("trend_stage")).intValue());
+        assertNull(row(RAISED).get("content_hash"));
+        assertEquals(List.of(), candRepo.findRepoIdsByRepoIdIn(IDS));
+    }
+
+    // ──────────────────────────────────────────────────────────────
+
+    private void insert(long id, double growth, int baseStage, int stage, double score) {
+        jdbc.update("""
+                INSERT INTO git_repositories (id, full_name, growth_rate, base_stage, trend_stage, trend_score, content_hash)
+                VALUES (?, ?, ?, ?, ?, ?, 42)
+                """, id, "rescore/repo-" + id, growth, baseStage, stage, score);
+    }
+
+    private Map<String, Object> row(long id) {
+        return jdbc.queryForMap("SELECT trend_stage, trend_score, content_hash FROM git_repositories WHERE id = ?", id);
+    }
+}